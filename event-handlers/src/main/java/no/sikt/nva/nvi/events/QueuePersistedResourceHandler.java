@@ -63,7 +63,7 @@ public class QueuePersistedResourceHandler
     LOGGER.info("Adding publication to evaluation queue: {}", input.getUri());
     var message =
         QueueMessage.builder()
-            .withBody(new PersistedResourceMessage(input.getUri()))
+            .withBody(new PersistedResourceMessage(input.getUri(), false))
             .withPublicationBucketUri(input.getUri())
             .build();
     queueClient.sendMessage(message, queueUrl);
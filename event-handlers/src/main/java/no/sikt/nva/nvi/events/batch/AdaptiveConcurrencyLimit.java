@@ -0,0 +1,79 @@
+package no.sikt.nva.nvi.events.batch;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of tasks running at the same time, and adapts the limit to throttling. The
+ * limit is halved each time a task is throttled, and raised by one after each successful task
+ * until it is back at the configured maximum.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+  private final int maxLimit;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition capacityAvailable = lock.newCondition();
+  private int limit;
+  private int running;
+
+  public AdaptiveConcurrencyLimit(int maxLimit) {
+    this.maxLimit = Math.max(maxLimit, 1);
+    this.limit = this.maxLimit;
+  }
+
+  /** Waits until there is room for another task under the current limit. */
+  public void acquire() {
+    lock.lock();
+    try {
+      while (running >= limit) {
+        capacityAvailable.await();
+      }
+      running++;
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for permit", exception);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void release() {
+    lock.lock();
+    try {
+      running--;
+      capacityAvailable.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void onSuccess() {
+    lock.lock();
+    try {
+      if (limit < maxLimit) {
+        limit++;
+        capacityAvailable.signalAll();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void onThrottled() {
+    lock.lock();
+    try {
+      limit = Math.max(limit / 2, 1);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int currentLimit() {
+    lock.lock();
+    try {
+      return limit;
+    } finally {
+      lock.unlock();
+    }
+  }
+}
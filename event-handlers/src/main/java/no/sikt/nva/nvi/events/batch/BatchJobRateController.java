@@ -0,0 +1,98 @@
+package no.sikt.nva.nvi.events.batch;
+
+import static java.util.Objects.nonNull;
+
+import java.time.Duration;
+import no.sikt.nva.nvi.events.batch.job.ScanPageStatistics;
+import nva.commons.core.Environment;
+
+/**
+ * Sizes the pages read by candidate batch jobs, based on feedback from the previous page.
+ *
+ * <p>The next page is scaled so that it consumes roughly the target read capacity, and shrinks
+ * further when the work queue is backed up. A throttled page is retried at half the size after a
+ * pause, whether or not any limits are configured. Both limits are optional, and a controller
+ * without limits leaves the size of pages that were not throttled unchanged.
+ */
+public final class BatchJobRateController {
+
+  private static final String TARGET_PAGE_CAPACITY = "BATCH_JOB_TARGET_PAGE_CAPACITY";
+  private static final String MAX_QUEUE_DEPTH = "BATCH_JOB_MAX_QUEUE_DEPTH";
+  private static final int MIN_PAGE_SIZE = 10;
+  private static final double MIN_ADJUSTMENT = 0.25;
+  private static final double MAX_ADJUSTMENT = 2.0;
+  private static final Duration BASE_PAUSE = Duration.ofSeconds(1);
+  private static final Duration MAX_PAUSE = Duration.ofSeconds(10);
+
+  private final Double targetPageCapacity;
+  private final Integer maxQueueDepth;
+
+  public BatchJobRateController(Double targetPageCapacity, Integer maxQueueDepth) {
+    this.targetPageCapacity = targetPageCapacity;
+    this.maxQueueDepth = maxQueueDepth;
+  }
+
+  public static BatchJobRateController fromEnvironment(Environment environment) {
+    var targetPageCapacity =
+        environment.readEnvOpt(TARGET_PAGE_CAPACITY).map(Double::parseDouble).orElse(null);
+    var maxQueueDepth = environment.readEnvOpt(MAX_QUEUE_DEPTH).map(Integer::parseInt).orElse(null);
+    return new BatchJobRateController(targetPageCapacity, maxQueueDepth);
+  }
+
+  public boolean isEnabled() {
+    return nonNull(targetPageCapacity) || monitorsQueueDepth();
+  }
+
+  public boolean monitorsQueueDepth() {
+    return nonNull(maxQueueDepth);
+  }
+
+  public int nextPageSize(ScanPageStatistics page, int queueDepth) {
+    if (page.throttled()) {
+      return Math.max(page.pageSize() / 2, MIN_PAGE_SIZE);
+    }
+    var adjustment = Math.min(capacityAdjustment(page), queueAdjustment(queueDepth));
+    var boundedAdjustment = Math.clamp(adjustment, MIN_ADJUSTMENT, MAX_ADJUSTMENT);
+    return Math.max((int) (page.pageSize() * boundedAdjustment), MIN_PAGE_SIZE);
+  }
+
+  /** Reduces the number of parallel scan segments when the work queue is already backed up. */
+  public int parallelSegments(int requestedSegments, int queueDepth) {
+    if (!isBackedUp(queueDepth)) {
+      return requestedSegments;
+    }
+    var reducedSegments = (int) (requestedSegments * queueAdjustment(queueDepth));
+    return Math.max(reducedSegments, 1);
+  }
+
+  /**
+   * Returns how long to wait before continuing with the next page. The pause grows with the queue
+   * backlog, so that the workers can catch up before more work is added.
+   */
+  public Duration pauseBeforeNextPage(ScanPageStatistics page, int queueDepth) {
+    if (isBackedUp(queueDepth)) {
+      var backlogFactor = (double) queueDepth / maxQueueDepth;
+      var pause = Duration.ofMillis((long) (BASE_PAUSE.toMillis() * backlogFactor));
+      return pause.compareTo(MAX_PAUSE) < 0 ? pause : MAX_PAUSE;
+    }
+    return page.throttled() ? BASE_PAUSE : Duration.ZERO;
+  }
+
+  private boolean isBackedUp(int queueDepth) {
+    return monitorsQueueDepth() && queueDepth > maxQueueDepth;
+  }
+
+  private double capacityAdjustment(ScanPageStatistics page) {
+    if (nonNull(targetPageCapacity) && page.consumedCapacity() > 0) {
+      return targetPageCapacity / page.consumedCapacity();
+    }
+    return MAX_ADJUSTMENT;
+  }
+
+  private double queueAdjustment(int queueDepth) {
+    if (monitorsQueueDepth() && queueDepth > 0) {
+      return (double) maxQueueDepth / queueDepth;
+    }
+    return MAX_ADJUSTMENT;
+  }
+}
@@ -0,0 +1,32 @@
+package no.sikt.nva.nvi.events.batch;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import java.time.Duration;
+
+/**
+ * Decides whether a paginating handler has time to process another page before the Lambda times
+ * out. Another page is started only if the remaining time, minus a reserve for sending the
+ * continuation event, is at least twice the time spent on the slowest page so far.
+ */
+public final class InvocationTimeBudget {
+
+  private static final int SLOWEST_PAGE_FACTOR = 2;
+  private final Context context;
+  private final long reservedMillis;
+  private long lastRemainingMillis;
+  private long slowestPageMillis;
+
+  public InvocationTimeBudget(Context context, Duration reservedTime) {
+    this.context = context;
+    this.reservedMillis = reservedTime.toMillis();
+    this.lastRemainingMillis = context.getRemainingTimeInMillis();
+  }
+
+  /** Records that a page has been processed, and returns whether there is time for another. */
+  public boolean hasTimeForAnotherPage() {
+    var remainingMillis = context.getRemainingTimeInMillis();
+    slowestPageMillis = Math.max(slowestPageMillis, lastRemainingMillis - remainingMillis);
+    lastRemainingMillis = remainingMillis;
+    return remainingMillis - reservedMillis > SLOWEST_PAGE_FACTOR * slowestPageMillis;
+  }
+}
@@ -3,12 +3,27 @@ package no.sikt.nva.nvi.events.batch;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse.BatchItemFailure;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent.SQSMessage;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import no.sikt.nva.nvi.common.exceptions.TransactionException;
 import no.sikt.nva.nvi.common.service.CandidateService;
 import no.sikt.nva.nvi.common.service.NviPeriodService;
-import no.sikt.nva.nvi.common.service.exception.CandidateNotFoundException;
+import no.sikt.nva.nvi.common.service.model.Candidate;
 import no.sikt.nva.nvi.events.batch.message.BatchJobMessage;
 import no.sikt.nva.nvi.events.batch.message.MigrateCandidateMessage;
 import no.sikt.nva.nvi.events.batch.message.RefreshCandidateMessage;
@@ -16,59 +31,251 @@ import no.sikt.nva.nvi.events.batch.message.RefreshPeriodMessage;
 import no.sikt.nva.nvi.events.batch.message.ReportCandidateMessage;
 import no.sikt.nva.nvi.migration.MigrationService;
 import no.sikt.nva.nvi.migration.ReportedDateMigrationService;
+import nva.commons.core.Environment;
 import nva.commons.core.JacocoGenerated;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
 
+/**
+ * Processes batch job messages. The candidates referenced by refresh and report messages are read
+ * up front in one bulk load, and the messages are then processed concurrently, bounded by {@code
+ * BATCH_JOB_CONCURRENCY}. Messages for the same candidate are processed one after another.
+ *
+ * <p>Messages that fail because of throttling or a transaction conflict are retried with a fresh
+ * read of the candidate, and throttling lowers the number of messages processed at the same time.
+ * Other failures, such as a failed condition check, are reported back to SQS at once, as are
+ * messages that still fail after the last attempt.
+ */
+@SuppressWarnings({"PMD.DoNotUseThreads", "PMD.AvoidCatchingGenericException"})
 public class ProcessBatchJobHandler implements RequestHandler<SQSEvent, SQSBatchResponse> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ProcessBatchJobHandler.class);
+  private static final String CONCURRENCY = "BATCH_JOB_CONCURRENCY";
+  private static final int DEFAULT_CONCURRENCY = 1;
+  private static final int MAX_ATTEMPTS = 3;
+  private static final Duration BASE_RETRY_DELAY = Duration.ofMillis(100);
   private final CandidateService candidateService;
   private final MigrationService migrationService;
   private final NviPeriodService periodService;
+  private final int concurrency;
 
   @JacocoGenerated
   public ProcessBatchJobHandler() {
     this(
         CandidateService.defaultCandidateService(),
         ReportedDateMigrationService.defaultService(),
-        NviPeriodService.defaultNviPeriodService());
+        NviPeriodService.defaultNviPeriodService(),
+        new Environment());
   }
 
   public ProcessBatchJobHandler(
       CandidateService candidateService,
       MigrationService migrationService,
       NviPeriodService periodService) {
+    this(candidateService, migrationService, periodService, new Environment());
+  }
+
+  public ProcessBatchJobHandler(
+      CandidateService candidateService,
+      MigrationService migrationService,
+      NviPeriodService periodService,
+      Environment environment) {
     this.candidateService = candidateService;
     this.migrationService = migrationService;
     this.periodService = periodService;
+    this.concurrency =
+        environment.readEnvOpt(CONCURRENCY).map(Integer::parseInt).orElse(DEFAULT_CONCURRENCY);
   }
 
   @Override
   public SQSBatchResponse handleRequest(SQSEvent event, Context context) {
     LOGGER.info("Processing event with {} messages", event.getRecords().size());
-    var failedMessages = new ArrayList<SQSBatchResponse.BatchItemFailure>();
+    var failedMessages = new ArrayList<BatchItemFailure>();
+    var parsedMessages = new ArrayList<ParsedMessage>();
 
     for (var message : event.getRecords()) {
       try {
-        var batchJobMessage = BatchJobMessage.fromJson(message.getBody());
-        processMessage(batchJobMessage);
-      } catch (JsonProcessingException | CandidateNotFoundException exception) {
+        parsedMessages.add(new ParsedMessage(message, BatchJobMessage.fromJson(message.getBody())));
+      } catch (JsonProcessingException exception) {
         LOGGER.error("Failed to process message {}", message, exception);
-        failedMessages.add(new SQSBatchResponse.BatchItemFailure(message.getMessageId()));
+        failedMessages.add(new BatchItemFailure(message.getMessageId()));
       }
     }
 
+    var candidates = loadCandidates(parsedMessages);
+    failedMessages.addAll(processMessages(groupByCandidate(parsedMessages), candidates));
+
     LOGGER.info("Event processed with {} failures", failedMessages.size());
     return new SQSBatchResponse(failedMessages);
   }
 
-  private void processMessage(BatchJobMessage message) {
+  private Map<UUID, Candidate> loadCandidates(Collection<ParsedMessage> messages) {
+    var candidateIdentifiers =
+        messages.stream()
+            .map(ParsedMessage::batchJobMessage)
+            .filter(message -> !(message instanceof MigrateCandidateMessage))
+            .map(ProcessBatchJobHandler::getCandidateIdentifier)
+            .flatMap(Optional::stream)
+            .collect(Collectors.toSet());
+    return new ConcurrentHashMap<>(
+        candidateService.getCandidatesByIdentifiers(candidateIdentifiers, concurrency));
+  }
+
+  private static Optional<UUID> getCandidateIdentifier(BatchJobMessage message) {
+    return switch (message) {
+      case RefreshCandidateMessage candidateMessage ->
+          Optional.of(candidateMessage.candidateIdentifier());
+      case ReportCandidateMessage candidateMessage ->
+          Optional.of(candidateMessage.candidateIdentifier());
+      case MigrateCandidateMessage candidateMessage ->
+          Optional.of(candidateMessage.candidateIdentifier());
+      case RefreshPeriodMessage periodMessage -> Optional.empty();
+    };
+  }
+
+  /**
+   * Groups the messages by the candidate they refer to, so two messages never write to the same
+   * candidate at the same time. Messages that do not refer to a candidate get a group of their own.
+   */
+  private static Collection<List<ParsedMessage>> groupByCandidate(List<ParsedMessage> messages) {
+    var messageGroups = new ArrayList<List<ParsedMessage>>();
+    var messageGroupsByCandidate = new HashMap<UUID, List<ParsedMessage>>();
+    for (var message : messages) {
+      var candidateIdentifier = getCandidateIdentifier(message.batchJobMessage());
+      var existingGroup = candidateIdentifier.map(messageGroupsByCandidate::get);
+      if (existingGroup.isPresent()) {
+        existingGroup.get().add(message);
+      } else {
+        var messageGroup = new ArrayList<ParsedMessage>();
+        messageGroup.add(message);
+        messageGroups.add(messageGroup);
+        candidateIdentifier.ifPresent(
+            identifier -> messageGroupsByCandidate.put(identifier, messageGroup));
+      }
+    }
+    return messageGroups;
+  }
+
+  private List<BatchItemFailure> processMessages(
+      Collection<List<ParsedMessage>> messageGroups, Map<UUID, Candidate> candidates) {
+    var concurrencyLimit = new AdaptiveConcurrencyLimit(concurrency);
+    if (concurrency <= 1 || messageGroups.size() <= 1) {
+      return messageGroups.stream()
+          .map(messages -> processMessageGroup(messages, candidates, concurrencyLimit))
+          .flatMap(List::stream)
+          .toList();
+    }
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var pendingGroups =
+          messageGroups.stream()
+              .map(
+                  messages ->
+                      CompletableFuture.supplyAsync(
+                          () -> processMessageGroup(messages, candidates, concurrencyLimit),
+                          executor))
+              .toList();
+      return pendingGroups.stream()
+          .map(CompletableFuture::join)
+          .flatMap(List::stream)
+          .toList();
+    }
+  }
+
+  private List<BatchItemFailure> processMessageGroup(
+      List<ParsedMessage> messages,
+      Map<UUID, Candidate> candidates,
+      AdaptiveConcurrencyLimit concurrencyLimit) {
+    return messages.stream()
+        .map(message -> processWithRetries(message, candidates, concurrencyLimit))
+        .flatMap(Optional::stream)
+        .toList();
+  }
+
+  /**
+   * Processes a message, and retries it if it failed because of throttling or a conflicting write.
+   * Retries always read the candidate again, since the loaded candidate is only used once.
+   */
+  private Optional<BatchItemFailure> processWithRetries(
+      ParsedMessage message,
+      Map<UUID, Candidate> candidates,
+      AdaptiveConcurrencyLimit concurrencyLimit) {
+    var attempt = 1;
+    while (true) {
+      concurrencyLimit.acquire();
+      try {
+        processMessage(message.batchJobMessage(), candidates);
+        concurrencyLimit.onSuccess();
+        return Optional.empty();
+      } catch (RuntimeException exception) {
+        if (isThrottled(exception)) {
+          concurrencyLimit.onThrottled();
+        }
+        if (!isRetryable(exception) || attempt >= MAX_ATTEMPTS) {
+          LOGGER.error("Failed to process message {}", message.message(), exception);
+          return Optional.of(new BatchItemFailure(message.message().getMessageId()));
+        }
+        LOGGER.warn(
+            "Attempt {} failed for message {}, retrying",
+            attempt,
+            message.message().getMessageId(),
+            exception);
+      } finally {
+        concurrencyLimit.release();
+      }
+      sleepBeforeRetry(attempt);
+      attempt++;
+    }
+  }
+
+  /**
+   * Processes a message, using the candidate from the bulk load if it is still unused. A candidate
+   * is only used once, so if the batch has several messages for the same candidate, the later
+   * messages read it again and see the changes made by the earlier ones.
+   */
+  private void processMessage(BatchJobMessage message, Map<UUID, Candidate> candidates) {
+    var loadedCandidate = getCandidateIdentifier(message).map(candidates::remove);
     switch (message) {
-      case RefreshCandidateMessage candidateMessage -> candidateMessage.execute(candidateService);
+      case RefreshCandidateMessage candidateMessage ->
+          loadedCandidate.ifPresentOrElse(
+              candidate -> candidateMessage.execute(candidateService, candidate),
+              () -> candidateMessage.execute(candidateService));
       case MigrateCandidateMessage candidateMessage -> candidateMessage.execute(migrationService);
       case RefreshPeriodMessage periodMessage -> periodMessage.execute(periodService);
-      case ReportCandidateMessage candidateMessage -> candidateMessage.execute(candidateService);
+      case ReportCandidateMessage candidateMessage ->
+          loadedCandidate.ifPresentOrElse(
+              candidate -> candidateMessage.execute(candidateService, candidate),
+              () -> candidateMessage.execute(candidateService));
     }
   }
+
+  private static boolean isThrottled(RuntimeException exception) {
+    return switch (exception) {
+      case TransactionException transactionException -> transactionException.isThrottled();
+      case DynamoDbException dynamoDbException -> dynamoDbException.isThrottlingException();
+      default -> false;
+    };
+  }
+
+  /**
+   * Only transient failures are retried here. A transaction that failed its condition check is left
+   * to the SQS redrive, so a message that keeps failing does not hold up the rest of the batch.
+   */
+  private static boolean isRetryable(RuntimeException exception) {
+    return isThrottled(exception)
+        || (exception instanceof TransactionException transactionException
+            && transactionException.isTransactionConflict());
+  }
+
+  private static void sleepBeforeRetry(int attempt) {
+    var maxDelay = BASE_RETRY_DELAY.toMillis() << (attempt - 1);
+    try {
+      Thread.sleep(ThreadLocalRandom.current().nextLong(maxDelay) + 1);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting to retry", exception);
+    }
+  }
+
+  private record ParsedMessage(SQSMessage message, BatchJobMessage batchJobMessage) {}
 }
@@ -1,13 +1,16 @@
 package no.sikt.nva.nvi.events.batch;
 
 import static java.util.Objects.isNull;
+import static no.sikt.nva.nvi.common.db.DynamoRepository.defaultDynamoAsyncClient;
 import static no.sikt.nva.nvi.common.db.DynamoRepository.defaultDynamoClient;
 import static nva.commons.core.attempt.Try.attempt;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import java.net.URI;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import no.sikt.nva.nvi.common.db.CandidateDao;
@@ -44,6 +47,7 @@ public class ReEvaluateNviCandidatesHandler extends EventHandler<ReEvaluateReque
       "Batch result lastEvaluatedKey: {}, itemCount: {}, " + "hasNextPage: {}";
   private static final String PUT_EVENT_RESPONSE_MESSAGE = "Put event response: {}";
   private static final String MESSAGES_SENT_MESSAGE = "Sent {} messages to queue. Failures: {}";
+  private static final Duration RESERVED_TIME = Duration.ofSeconds(10);
   private final QueueClient queueClient;
   private final CandidateRepository candidateRepository;
   private final String queueUrl;
@@ -54,7 +58,7 @@ public class ReEvaluateNviCandidatesHandler extends EventHandler<ReEvaluateReque
   @JacocoGenerated
   public ReEvaluateNviCandidatesHandler() {
     this(
-        new CandidateRepository(defaultDynamoClient()),
+        new CandidateRepository(defaultDynamoClient(), defaultDynamoAsyncClient()),
         new NviQueueClient(),
         new Environment(),
         defaultEventBridgeClient());
@@ -78,17 +82,29 @@ public class ReEvaluateNviCandidatesHandler extends EventHandler<ReEvaluateReque
   protected Void processInput(
       ReEvaluateRequest input, AwsEventBridgeEvent<ReEvaluateRequest> event, Context context) {
     validateInput(input);
-    LOGGER.info(QUERY_STARTING_POINT_MESSAGE, input.startMarker());
-    var result = getListingResultWithNonReportedCandidates(input);
-    logResult(result);
-    splitIntoBatches(mapToFileUris(result))
-        .forEach(fileUriList -> sendBatch(createMessages(fileUriList)));
+    var timeBudget = new InvocationTimeBudget(context, RESERVED_TIME);
+    var result = processPage(input, input.startMarker());
+    while (result.hasNextPage() && timeBudget.hasTimeForAnotherPage()) {
+      result = processPage(input, result.lastEvaluatedKey());
+    }
     if (result.hasNextPage()) {
       sendEventToInvokeNewReEvaluateExecution(input, context, result);
     }
     return null;
   }
 
+  private ListingResult<CandidateDao> processPage(
+      ReEvaluateRequest input, Map<String, String> startMarker) {
+    LOGGER.info(QUERY_STARTING_POINT_MESSAGE, startMarker);
+    var result = getListingResultWithNonReportedCandidates(input, startMarker);
+    logResult(result);
+    splitIntoBatches(mapToFileUris(result))
+        .forEach(
+            fileUriList ->
+                sendBatch(createMessages(fileUriList, input.shouldForceEvaluation())));
+    return result;
+  }
+
   private static void logResult(ListingResult<CandidateDao> result) {
     LOGGER.info(
         RESULT_MESSAGE, result.lastEvaluatedKey(), result.itemCount(), result.hasNextPage());
@@ -123,10 +139,10 @@ public class ReEvaluateNviCandidatesHandler extends EventHandler<ReEvaluateReque
   }
 
   private ListingResult<CandidateDao> getListingResultWithNonReportedCandidates(
-      ReEvaluateRequest input) {
+      ReEvaluateRequest input, Map<String, String> startMarker) {
     var includeReportedCandidates = false;
     return candidateRepository.fetchCandidatesByYear(
-        input.year(), includeReportedCandidates, input.pageSize(), input.startMarker());
+        input.year(), includeReportedCandidates, input.pageSize(), startMarker);
   }
 
   private Stream<List<URI>> splitIntoBatches(List<URI> fileUris) {
@@ -140,13 +156,13 @@ public class ReEvaluateNviCandidatesHandler extends EventHandler<ReEvaluateReque
     LOGGER.info(MESSAGES_SENT_MESSAGE, messages.size(), response.failed().size());
   }
 
-  private Collection<String> createMessages(List<URI> uris) {
-    return uris.stream().map(this::createMessage).toList();
+  private Collection<String> createMessages(List<URI> uris, boolean forceEvaluation) {
+    return uris.stream().map(uri -> createMessage(uri, forceEvaluation)).toList();
   }
 
-  private String createMessage(URI fileUri) {
-    return attempt(() -> objectMapper.writeValueAsString(new PersistedResourceMessage(fileUri)))
-        .orElseThrow();
+  private String createMessage(URI fileUri, boolean forceEvaluation) {
+    var message = new PersistedResourceMessage(fileUri, forceEvaluation);
+    return attempt(() -> objectMapper.writeValueAsString(message)).orElseThrow();
   }
 
   private void validateInput(ReEvaluateRequest input) {
@@ -1,10 +1,14 @@
 package no.sikt.nva.nvi.events.batch;
 
 import static java.util.Objects.nonNull;
+import static nva.commons.core.attempt.Try.attempt;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -15,6 +19,8 @@ import no.sikt.nva.nvi.common.queue.NviReceiveMessageResponse;
 import no.sikt.nva.nvi.common.queue.QueueClient;
 import no.sikt.nva.nvi.common.service.CandidateService;
 import no.sikt.nva.nvi.common.service.exception.CandidateNotFoundException;
+import no.sikt.nva.nvi.common.service.model.Candidate;
+import no.sikt.nva.nvi.common.service.model.WriteMode;
 import nva.commons.core.Environment;
 import nva.commons.core.JacocoGenerated;
 import org.slf4j.Logger;
@@ -105,13 +111,28 @@ public class RequeueDlqHandler implements RequestHandler<RequeueDlqInput, Requeu
 
   private Set<NviProcessMessageResult> processMessages(
       NviReceiveMessageResponse response, Set<String> messageIds) {
+    var candidates = loadCandidates(response);
     return response.messages().stream()
         .map(message -> checkForDuplicates(messageIds, message))
-        .map(this::processMessage)
+        .map(message -> processMessage(message, candidates))
         .map(this::deleteMessageFromDlq)
         .collect(Collectors.toSet());
   }
 
+  /** Reads the candidates referenced by the received messages in one bulk load. */
+  private Map<UUID, Candidate> loadCandidates(NviReceiveMessageResponse response) {
+    var candidateIdentifiers =
+        response.messages().stream()
+            .map(message -> message.messageAttributes().get(CANDIDATE_IDENTIFIER_ATTRIBUTE_NAME))
+            .filter(Objects::nonNull)
+            .map(identifier -> attempt(() -> UUID.fromString(identifier)).toOptional())
+            .flatMap(Optional::stream)
+            .collect(Collectors.toSet());
+    return new HashMap<>(
+        candidateService.getCandidatesByIdentifiers(
+            candidateIdentifiers, MAX_SQS_MESSAGE_COUNT_LIMIT));
+  }
+
   private int checkForFailedBatch(Set<NviProcessMessageResult> processedMessages) {
     return processedMessages.stream().anyMatch(a -> !a.success()) ? 1 : 0;
   }
@@ -124,7 +145,8 @@ public class RequeueDlqHandler implements RequestHandler<RequeueDlqInput, Requeu
     return message;
   }
 
-  private NviProcessMessageResult processMessage(NviProcessMessageResult input) {
+  private NviProcessMessageResult processMessage(
+      NviProcessMessageResult input, Map<UUID, Candidate> candidates) {
     LOGGER.info(PROCESSING_MESSAGE_LOG, input.message().body());
 
     if (!input.success()) {
@@ -135,7 +157,7 @@ public class RequeueDlqHandler implements RequestHandler<RequeueDlqInput, Requeu
     if (nonNull(identifier)) {
       try {
         var candidateIdentifier = UUID.fromString(identifier);
-        candidateService.refreshCandidate(candidateIdentifier);
+        refreshCandidate(candidateIdentifier, candidates);
       } catch (CandidateNotFoundException exception) {
         LOGGER.error(exception.getMessage(), exception);
         return new NviProcessMessageResult(
@@ -153,4 +175,15 @@ public class RequeueDlqHandler implements RequestHandler<RequeueDlqInput, Requeu
     }
     return new NviProcessMessageResult(input.message(), true, Optional.empty());
   }
+
+  /**
+   * Rewrites the candidate from the bulk load, or reads it again if it has already been rewritten
+   * by an earlier message in the same batch.
+   */
+  private void refreshCandidate(UUID candidateIdentifier, Map<UUID, Candidate> candidates) {
+    Optional.ofNullable(candidates.remove(candidateIdentifier))
+        .ifPresentOrElse(
+            candidate -> candidateService.updateCandidate(candidate, WriteMode.FORCE),
+            () -> candidateService.refreshCandidate(candidateIdentifier, WriteMode.FORCE));
+  }
 }
@@ -12,13 +12,16 @@ import com.fasterxml.jackson.databind.JsonNode;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.time.Duration;
 import java.util.Collection;
 import no.sikt.nva.nvi.common.queue.NviQueueClient;
 import no.sikt.nva.nvi.common.queue.QueueClient;
 import no.sikt.nva.nvi.common.service.CandidateService;
 import no.sikt.nva.nvi.common.service.NviPeriodService;
+import no.sikt.nva.nvi.events.batch.job.BatchJobResult;
 import no.sikt.nva.nvi.events.batch.message.BatchJobMessage;
 import no.sikt.nva.nvi.events.batch.request.BatchJobRequest;
+import no.sikt.nva.nvi.events.batch.request.StartBatchJobRequest;
 import nva.commons.core.Environment;
 import nva.commons.core.JacocoGenerated;
 import nva.commons.core.ioutils.IoUtils;
@@ -29,6 +32,7 @@ import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
 import software.amazon.awssdk.services.eventbridge.model.PutEventsRequest;
 import software.amazon.awssdk.services.eventbridge.model.PutEventsRequestEntry;
 
+@SuppressWarnings("PMD.DoNotUseThreads")
 public class StartBatchJobHandler implements RequestStreamHandler {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(StartBatchJobHandler.class);
@@ -40,6 +44,7 @@ public class StartBatchJobHandler implements RequestStreamHandler {
   private static final int SQS_BATCH_SIZE = 10;
   private static final String EVENTBRIDGE_FIELD_DETAIL = "detail";
   private static final String EVENTBRIDGE_FIELD_ID = "id";
+  private static final Duration RESERVED_TIME = Duration.ofSeconds(30);
 
   private final BatchJobFactory batchJobFactory;
   private final QueueClient queueClient;
@@ -47,6 +52,7 @@ public class StartBatchJobHandler implements RequestStreamHandler {
   private final String queueUrl;
   private final String eventBusName;
   private final boolean processingEnabled;
+  private final BatchJobRateController rateController;
 
   @JacocoGenerated
   public StartBatchJobHandler() {
@@ -70,6 +76,7 @@ public class StartBatchJobHandler implements RequestStreamHandler {
     this.queueUrl = environment.readEnv(BATCH_JOB_QUEUE_URL);
     this.eventBusName = environment.readEnv(EVENT_BUS_NAME);
     this.processingEnabled = Boolean.parseBoolean(environment.readEnv(PROCESSING_ENABLED));
+    this.rateController = BatchJobRateController.fromEnvironment(environment);
   }
 
   @JacocoGenerated
@@ -80,16 +87,35 @@ public class StartBatchJobHandler implements RequestStreamHandler {
   @Override
   public void handleRequest(InputStream input, OutputStream output, Context context) {
     if (processingEnabled) {
-      var request = parseRequest(input);
-      LOGGER.info("Processing batch job: {}", request);
-      var batchJobResult = batchJobFactory.from(request).execute();
-      sendMessagesToQueue(batchJobResult.messages());
-      sendContinuationEvents(batchJobResult.continuationEvents());
+      var request = limitParallelSegments(parseRequest(input), getQueueDepth());
+      var timeBudget = new InvocationTimeBudget(context, RESERVED_TIME);
+      var continuationEvents = processPage(request, context);
+      while (isSinglePageContinuation(continuationEvents) && timeBudget.hasTimeForAnotherPage()) {
+        continuationEvents = processPage(continuationEvents.iterator().next(), context);
+      }
+      sendContinuationEvents(continuationEvents);
     } else {
       LOGGER.warn("Processing disabled, aborting batch job");
     }
   }
 
+  /**
+   * Continues a paginated job within the same invocation while there is time. A result with
+   * several continuation events fans out to parallel segments, and is always sent as events.
+   */
+  private static boolean isSinglePageContinuation(
+      Collection<? extends BatchJobRequest> continuationEvents) {
+    return continuationEvents.size() == 1;
+  }
+
+  private Collection<? extends BatchJobRequest> processPage(
+      BatchJobRequest request, Context context) {
+    LOGGER.info("Processing batch job: {}", request);
+    var batchJobResult = batchJobFactory.from(request).execute();
+    sendMessagesToQueue(batchJobResult.messages());
+    return adjustPageSize(batchJobResult, getQueueDepth(), context);
+  }
+
   private BatchJobRequest parseRequest(InputStream input) {
     var jsonString = IoUtils.streamToString(input);
     try {
@@ -110,6 +136,62 @@ public class StartBatchJobHandler implements RequestStreamHandler {
     return jsonNode.has(EVENTBRIDGE_FIELD_DETAIL) && jsonNode.has(EVENTBRIDGE_FIELD_ID);
   }
 
+  private int getQueueDepth() {
+    return rateController.monitorsQueueDepth()
+        ? queueClient.getApproximateNumberOfMessages(queueUrl)
+        : 0;
+  }
+
+  private BatchJobRequest limitParallelSegments(BatchJobRequest request, int queueDepth) {
+    if (request instanceof StartBatchJobRequest startRequest) {
+      var requestedSegments = startRequest.maxParallelSegments();
+      var segments = rateController.parallelSegments(requestedSegments, queueDepth);
+      if (segments < requestedSegments) {
+        LOGGER.info("Queue depth is {}, reducing scan segments to {}", queueDepth, segments);
+        return startRequest.copy().withMaxParallelSegments(segments).build();
+      }
+    }
+    return request;
+  }
+
+  /**
+   * Sizes the continuation of a page with the rate controller. A throttled page is always retried
+   * at a smaller size after a pause, also when no rate limits are configured, so that the retry
+   * does not hit the table again at once.
+   */
+  private Collection<? extends BatchJobRequest> adjustPageSize(
+      BatchJobResult batchJobResult, int queueDepth, Context context) {
+    var pageStatistics =
+        batchJobResult
+            .getPageStatistics()
+            .filter(statistics -> rateController.isEnabled() || statistics.throttled());
+    if (pageStatistics.isEmpty()) {
+      return batchJobResult.continuationEvents();
+    }
+    var statistics = pageStatistics.get();
+    var pageSize = rateController.nextPageSize(statistics, queueDepth);
+    LOGGER.info(
+        "Read page {} with queue depth {}, next page size {}", statistics, queueDepth, pageSize);
+    pause(rateController.pauseBeforeNextPage(statistics, queueDepth), context);
+    return batchJobResult.continuationEvents().stream()
+        .map(request -> request.withPageSize(pageSize))
+        .toList();
+  }
+
+  private static void pause(Duration pause, Context context) {
+    var availableMillis = context.getRemainingTimeInMillis() - RESERVED_TIME.toMillis();
+    var pauseMillis = Math.min(pause.toMillis(), availableMillis);
+    if (pauseMillis <= 0) {
+      return;
+    }
+    try {
+      Thread.sleep(pauseMillis);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new BatchJobException("Interrupted while pausing batch job");
+    }
+  }
+
   private void sendMessagesToQueue(Collection<BatchJobMessage> messages) {
     splitIntoBatches(messages, SQS_BATCH_SIZE).forEach(this::sendBatch);
     LOGGER.info("Processed {} items", messages.size());
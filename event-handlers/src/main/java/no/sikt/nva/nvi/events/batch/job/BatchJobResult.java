@@ -4,18 +4,26 @@ import static java.util.Collections.emptyList;
 import static no.sikt.nva.nvi.common.utils.CollectionUtils.copyOfNullable;
 
 import java.util.Collection;
+import java.util.Optional;
 import no.sikt.nva.nvi.events.batch.message.BatchJobMessage;
 import no.sikt.nva.nvi.events.batch.request.BatchJobRequest;
 
 public record BatchJobResult(
     Collection<BatchJobMessage> messages,
-    Collection<? extends BatchJobRequest> continuationEvents) {
+    Collection<? extends BatchJobRequest> continuationEvents,
+    ScanPageStatistics pageStatistics) {
 
   public BatchJobResult {
     messages = copyOfNullable(messages);
     continuationEvents = copyOfNullable(continuationEvents);
   }
 
+  public BatchJobResult(
+      Collection<BatchJobMessage> messages,
+      Collection<? extends BatchJobRequest> continuationEvents) {
+    this(messages, continuationEvents, null);
+  }
+
   public static BatchJobResult createInitialBatchJobResult(
       Collection<? extends BatchJobRequest> continuationEvents) {
     return new BatchJobResult(emptyList(), continuationEvents);
@@ -24,4 +32,8 @@ public record BatchJobResult(
   public static BatchJobResult createTerminalBatchJobResult(Collection<BatchJobMessage> messages) {
     return new BatchJobResult(messages, emptyList());
   }
+
+  public Optional<ScanPageStatistics> getPageStatistics() {
+    return Optional.ofNullable(pageStatistics);
+  }
 }
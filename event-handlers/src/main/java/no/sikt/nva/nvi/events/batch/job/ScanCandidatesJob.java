@@ -10,16 +10,33 @@ import no.sikt.nva.nvi.events.batch.message.BatchJobMessage;
 import no.sikt.nva.nvi.events.batch.message.MigrateCandidateMessage;
 import no.sikt.nva.nvi.events.batch.message.RefreshCandidateMessage;
 import no.sikt.nva.nvi.events.batch.request.CandidateScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
 
 public record ScanCandidatesJob(CandidateService candidateService, CandidateScanRequest request)
     implements BatchJob {
 
+  /**
+   * Reads the next page of candidates. If the read is throttled, the same page is returned as a
+   * continuation event instead of failing, so the caller can retry it at a lower rate.
+   */
   @Override
   public BatchJobResult execute() {
-    var scanResponse = candidateService.listCandidateIdentifiers(request.toScanRequest());
-    var nextJob = request.getNextRequest(scanResponse).map(List::of).orElse(emptyList());
-    var workItems = toMessages(scanResponse);
-    return new BatchJobResult(workItems, nextJob);
+    var pageSize = request.paginationState().batchSize();
+    try {
+      var scanResponse = candidateService.listCandidateIdentifiers(request.toScanRequest());
+      var nextJob = request.getNextRequest(scanResponse).map(List::of).orElse(emptyList());
+      var workItems = toMessages(scanResponse);
+      var statistics =
+          new ScanPageStatistics(
+              pageSize, scanResponse.itemCount(), scanResponse.consumedCapacity(), false);
+      return new BatchJobResult(workItems, nextJob, statistics);
+    } catch (DynamoDbException exception) {
+      if (!exception.isThrottlingException()) {
+        throw exception;
+      }
+      return new BatchJobResult(
+          emptyList(), List.of(request), ScanPageStatistics.throttledPage(pageSize));
+    }
   }
 
   private List<BatchJobMessage> toMessages(ListingResult<UUID> listingResult) {
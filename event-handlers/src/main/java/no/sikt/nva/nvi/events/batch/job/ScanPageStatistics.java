@@ -0,0 +1,17 @@
+package no.sikt.nva.nvi.events.batch.job;
+
+/**
+ * Feedback from reading a single page of candidates, used to size the next page.
+ *
+ * @param pageSize the number of items requested for the page
+ * @param itemCount the number of items returned
+ * @param consumedCapacity the read capacity units consumed by the page
+ * @param throttled whether DynamoDB rejected the read because of insufficient capacity
+ */
+public record ScanPageStatistics(
+    int pageSize, int itemCount, double consumedCapacity, boolean throttled) {
+
+  public static ScanPageStatistics throttledPage(int pageSize) {
+    return new ScanPageStatistics(pageSize, 0, 0, true);
+  }
+}
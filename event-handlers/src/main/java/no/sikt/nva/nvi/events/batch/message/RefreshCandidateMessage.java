@@ -2,10 +2,17 @@ package no.sikt.nva.nvi.events.batch.message;
 
 import java.util.UUID;
 import no.sikt.nva.nvi.common.service.CandidateService;
+import no.sikt.nva.nvi.common.service.model.Candidate;
+import no.sikt.nva.nvi.common.service.model.WriteMode;
 
 public record RefreshCandidateMessage(UUID candidateIdentifier) implements BatchJobMessage {
 
   public void execute(CandidateService candidateService) {
-    candidateService.refreshCandidate(candidateIdentifier);
+    candidateService.refreshCandidate(candidateIdentifier, WriteMode.FORCE);
+  }
+
+  /** Rewrites a candidate that has already been read, e.g. together with the rest of a batch. */
+  public void execute(CandidateService candidateService, Candidate candidate) {
+    candidateService.updateCandidate(candidate, WriteMode.FORCE);
   }
 }
@@ -3,13 +3,18 @@ package no.sikt.nva.nvi.events.batch.message;
 import java.time.Instant;
 import java.util.UUID;
 import no.sikt.nva.nvi.common.service.CandidateService;
+import no.sikt.nva.nvi.common.service.model.Candidate;
 
 public record ReportCandidateMessage(UUID candidateIdentifier) implements BatchJobMessage {
 
   public void execute(CandidateService candidateService) {
-    var candidate = candidateService.getCandidateByIdentifier(candidateIdentifier);
+    execute(candidateService, candidateService.getCandidateByIdentifier(candidateIdentifier));
+  }
+
+  /** Reports a candidate that has already been read, e.g. together with the rest of a batch. */
+  public void execute(CandidateService candidateService, Candidate candidate) {
     if (candidate.isReportable()) {
-      candidateService.reportCandidate(candidateIdentifier, Instant.now());
+      candidateService.reportCandidate(candidate, Instant.now());
     }
   }
 }
@@ -14,4 +14,9 @@ public sealed interface BatchJobRequest extends JsonSerializable
     permits StartBatchJobRequest, CandidatesByYearRequest, CandidateScanRequest {
 
   BatchJobType jobType();
+
+  /** Returns a copy of this request that reads pages of the given size, if it is paginated. */
+  default BatchJobRequest withPageSize(int pageSize) {
+    return this;
+  }
 }
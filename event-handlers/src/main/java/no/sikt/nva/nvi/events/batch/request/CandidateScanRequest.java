@@ -24,4 +24,10 @@ public record CandidateScanRequest(
     }
     return Optional.empty();
   }
+
+  @Override
+  public CandidateScanRequest withPageSize(int pageSize) {
+    return new CandidateScanRequest(
+        jobType, segment, totalSegments, paginationState.withPageSize(pageSize));
+  }
 }
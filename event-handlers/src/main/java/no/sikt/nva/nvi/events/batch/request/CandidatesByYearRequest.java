@@ -39,6 +39,11 @@ public record CandidatesByYearRequest(
     return Optional.empty();
   }
 
+  @Override
+  public CandidatesByYearRequest withPageSize(int pageSize) {
+    return new CandidatesByYearRequest(jobType, yearFilter, paginationState.withPageSize(pageSize));
+  }
+
   private String getFilterYear() {
     return yearFilter.reportingYears().getFirst();
   }
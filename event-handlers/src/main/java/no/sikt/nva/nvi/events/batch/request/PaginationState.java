@@ -8,22 +8,39 @@ import java.util.Map;
 import java.util.UUID;
 import no.sikt.nva.nvi.common.model.ListingResult;
 
+/**
+ * Tracks progress through a paginated listing of candidates.
+ *
+ * @param pageSize the number of items to read in the next page, as set by rate control, or null to
+ *     read pages of {@code maxBatchSize}
+ */
 public record PaginationState(
-    int itemsProcessed, int maxBatchSize, Integer maxItems, Map<String, String> lastCandidateRead) {
+    int itemsProcessed,
+    int maxBatchSize,
+    Integer maxItems,
+    Map<String, String> lastCandidateRead,
+    Integer pageSize) {
 
   public PaginationState {
     validateValueIsNonZeroPositiveNumberIfSet(maxBatchSize);
     validateValueIsNonZeroPositiveNumberIfSet(maxItems);
+    validateValueIsNonZeroPositiveNumberIfSet(pageSize);
   }
 
   public static PaginationState createInitialPaginationState(int maxBatchSize, Integer maxItems) {
-    return new PaginationState(0, maxBatchSize, maxItems, null);
+    return new PaginationState(0, maxBatchSize, maxItems, null, null);
   }
 
   public PaginationState createUpdatedPaginationState(ListingResult<UUID> scanResult) {
     var updatedTotal = itemsProcessed + scanResult.itemCount();
     var updatedStartMarker = scanResult.hasNextPage() ? scanResult.lastEvaluatedKey() : null;
-    return new PaginationState(updatedTotal, maxBatchSize, maxItems, updatedStartMarker);
+    return new PaginationState(updatedTotal, maxBatchSize, maxItems, updatedStartMarker, pageSize);
+  }
+
+  public PaginationState withPageSize(int updatedPageSize) {
+    var boundedPageSize = Integer.min(updatedPageSize, maxBatchSize);
+    return new PaginationState(
+        itemsProcessed, maxBatchSize, maxItems, lastCandidateRead, boundedPageSize);
   }
 
   @JsonIgnore
@@ -38,6 +55,7 @@ public record PaginationState(
 
   @JsonIgnore
   public int batchSize() {
-    return hasItemLimit() ? Integer.min(maxItems - itemsProcessed, maxBatchSize) : maxBatchSize;
+    var pageLimit = nonNull(pageSize) ? Integer.min(pageSize, maxBatchSize) : maxBatchSize;
+    return hasItemLimit() ? Integer.min(maxItems - itemsProcessed, pageLimit) : pageLimit;
   }
 }
@@ -1,6 +1,7 @@
 package no.sikt.nva.nvi.events.cristin;
 
 import static java.util.Collections.emptyList;
+import static no.sikt.nva.nvi.common.db.DynamoRepository.defaultDynamoAsyncClient;
 import static no.sikt.nva.nvi.common.db.DynamoRepository.defaultDynamoClient;
 import static no.sikt.nva.nvi.common.utils.Validator.isMissing;
 import static no.unit.nva.commons.json.JsonUtils.dtoObjectMapper;
@@ -53,7 +54,7 @@ public class CristinNviReportEventConsumer implements RequestHandler<SQSEvent, V
   @JacocoGenerated
   public CristinNviReportEventConsumer() {
     this(
-        new CandidateRepository(defaultDynamoClient()),
+        new CandidateRepository(defaultDynamoClient(), defaultDynamoAsyncClient()),
         S3Driver.defaultS3Client().build(),
         new Environment());
   }
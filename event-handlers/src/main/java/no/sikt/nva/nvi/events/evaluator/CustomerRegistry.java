@@ -0,0 +1,200 @@
+package no.sikt.nva.nvi.events.evaluator;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import no.sikt.nva.nvi.common.model.Customer;
+import no.unit.nva.clients.IdentityServiceClient;
+import nva.commons.apigateway.exceptions.ApiGatewayException;
+import nva.commons.core.Environment;
+import nva.commons.core.JacocoGenerated;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shared, refreshable snapshot of the customer list from the identity service.
+ *
+ * <p>A snapshot is served as-is until it is older than the configured time-to-live. Once it is
+ * past half its time-to-live, a single background refresh is started so that callers rarely have
+ * to wait for the identity service. If a synchronous refresh of an expired snapshot fails, the
+ * previous snapshot is served for up to {@code maxStaleness} beyond its time-to-live.
+ *
+ * <p>Background refreshes run on a virtual thread by default, since they block on HTTP calls.
+ */
+@SuppressWarnings({"PMD.AvoidCatchingGenericException", "PMD.DoNotUseThreads"})
+public class CustomerRegistry {
+
+  public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(5);
+  public static final Duration DEFAULT_MAX_STALENESS = Duration.ofHours(1);
+  private static final String TIME_TO_LIVE_ENV_NAME = "CUSTOMER_SNAPSHOT_TTL_SECONDS";
+  private static final Logger LOGGER = LoggerFactory.getLogger(CustomerRegistry.class);
+  private final IdentityServiceClient identityServiceClient;
+  private final Duration timeToLive;
+  private final Duration maxStaleness;
+  private final Clock clock;
+  private final Executor backgroundExecutor;
+  private final AtomicBoolean backgroundRefreshScheduled = new AtomicBoolean();
+  private final AtomicReference<CustomerSnapshot> snapshot = new AtomicReference<>();
+  private final AtomicReference<CompletableFuture<CustomerSnapshot>> inFlightRefresh =
+      new AtomicReference<>();
+
+  public CustomerRegistry(
+      IdentityServiceClient identityServiceClient,
+      Duration timeToLive,
+      Duration maxStaleness,
+      Clock clock) {
+    this(
+        identityServiceClient,
+        timeToLive,
+        maxStaleness,
+        clock,
+        Executors.newVirtualThreadPerTaskExecutor());
+  }
+
+  public CustomerRegistry(
+      IdentityServiceClient identityServiceClient,
+      Duration timeToLive,
+      Duration maxStaleness,
+      Clock clock,
+      Executor backgroundExecutor) {
+    this.identityServiceClient = identityServiceClient;
+    this.timeToLive = timeToLive;
+    this.maxStaleness = maxStaleness;
+    this.clock = clock;
+    this.backgroundExecutor = backgroundExecutor;
+  }
+
+  @JacocoGenerated
+  public static CustomerRegistry defaultCustomerRegistry() {
+    var timeToLive =
+        new Environment()
+            .readEnvOpt(TIME_TO_LIVE_ENV_NAME)
+            .map(Long::parseLong)
+            .map(Duration::ofSeconds)
+            .orElse(DEFAULT_TIME_TO_LIVE);
+    return new CustomerRegistry(
+        IdentityServiceClient.unauthorizedIdentityServiceClient(),
+        timeToLive,
+        DEFAULT_MAX_STALENESS,
+        Clock.systemUTC());
+  }
+
+  /** Creates a registry that fetches the customer list from the identity service on every read. */
+  public static CustomerRegistry withoutCaching(IdentityServiceClient identityServiceClient) {
+    return new CustomerRegistry(
+        identityServiceClient, Duration.ZERO, Duration.ZERO, Clock.systemUTC());
+  }
+
+  public CustomerSnapshot getSnapshot() {
+    var current = snapshot.get();
+    if (isNull(current)) {
+      return refresh();
+    }
+
+    var age = current.age(clock);
+    if (age.compareTo(timeToLive) < 0) {
+      if (age.compareTo(timeToLive.dividedBy(2)) >= 0) {
+        refreshInBackground();
+      }
+      return current;
+    }
+    return refreshOrServeStale(current, age);
+  }
+
+  private CustomerSnapshot refreshOrServeStale(CustomerSnapshot current, Duration age) {
+    try {
+      return refresh();
+    } catch (RuntimeException exception) {
+      if (age.compareTo(timeToLive.plus(maxStaleness)) < 0) {
+        LOGGER.warn("Failed to refresh customers, serving snapshot with age {}", age, exception);
+        return current;
+      }
+      throw exception;
+    }
+  }
+
+  private void refreshInBackground() {
+    if (nonNull(inFlightRefresh.get()) || !backgroundRefreshScheduled.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      backgroundExecutor.execute(
+          () -> {
+            try {
+              refresh();
+            } catch (RuntimeException exception) {
+              LOGGER.warn("Background refresh of customers failed", exception);
+            } finally {
+              backgroundRefreshScheduled.set(false);
+            }
+          });
+    } catch (RuntimeException exception) {
+      backgroundRefreshScheduled.set(false);
+      LOGGER.warn("Could not schedule background refresh of customers", exception);
+    }
+  }
+
+  /** Fetches a new snapshot, or waits for a refresh that is already in progress. */
+  private CustomerSnapshot refresh() {
+    var refreshFuture = new CompletableFuture<CustomerSnapshot>();
+    var existingRefresh = inFlightRefresh.compareAndExchange(null, refreshFuture);
+    if (nonNull(existingRefresh)) {
+      return awaitRefresh(existingRefresh);
+    }
+
+    try {
+      var refreshedSnapshot = fetchSnapshot();
+      snapshot.set(refreshedSnapshot);
+      refreshFuture.complete(refreshedSnapshot);
+      return refreshedSnapshot;
+    } catch (RuntimeException exception) {
+      refreshFuture.completeExceptionally(exception);
+      throw exception;
+    } finally {
+      inFlightRefresh.set(null);
+    }
+  }
+
+  private static CustomerSnapshot awaitRefresh(CompletableFuture<CustomerSnapshot> refresh) {
+    try {
+      return refresh.join();
+    } catch (CompletionException exception) {
+      if (exception.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw exception;
+    }
+  }
+
+  private CustomerSnapshot fetchSnapshot() {
+    var startTime = System.nanoTime();
+    var customers = fetchCustomers();
+    var refreshLatency = Duration.ofNanos(System.nanoTime() - startTime);
+    LOGGER.info("Fetched {} customers in {} ms", customers.size(), refreshLatency.toMillis());
+    return new CustomerSnapshot(customers, clock.instant(), refreshLatency);
+  }
+
+  private Map<URI, Customer> fetchCustomers() {
+    try {
+      return identityServiceClient.getAllCustomers().customers().stream()
+          .filter(customer -> nonNull(customer.cristinId()))
+          .map(Customer::fromCustomerDto)
+          .collect(Collectors.toMap(Customer::cristinId, Function.identity()));
+    } catch (ApiGatewayException exception) {
+      LOGGER.error("Failed to fetch customer list", exception);
+      throw new RuntimeException(exception);
+    }
+  }
+}
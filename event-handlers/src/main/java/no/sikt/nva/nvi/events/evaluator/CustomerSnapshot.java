@@ -0,0 +1,36 @@
+package no.sikt.nva.nvi.events.evaluator;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import no.sikt.nva.nvi.common.model.Customer;
+
+/**
+ * Immutable view of all customers with a Cristin ID, keyed by their Cristin organization ID.
+ *
+ * @param customers customers keyed by Cristin organization ID
+ * @param fetchedAt when the customer list was fetched from the identity service
+ * @param refreshLatency how long it took to fetch the customer list
+ */
+public record CustomerSnapshot(
+    Map<URI, Customer> customers, Instant fetchedAt, Duration refreshLatency) {
+
+  public CustomerSnapshot {
+    customers = Map.copyOf(customers);
+  }
+
+  public Optional<Customer> findByCristinId(URI cristinId) {
+    return Optional.ofNullable(customers.get(cristinId));
+  }
+
+  public boolean isNviInstitution(URI cristinId) {
+    return findByCristinId(cristinId).map(Customer::nviInstitution).orElse(false);
+  }
+
+  public Duration age(Clock clock) {
+    return Duration.between(fetchedAt, clock.instant());
+  }
+}
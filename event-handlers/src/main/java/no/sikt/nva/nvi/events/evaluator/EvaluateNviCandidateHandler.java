@@ -1,57 +1,184 @@
 package no.sikt.nva.nvi.events.evaluator;
 
+import static java.util.Objects.nonNull;
+import static no.sikt.nva.nvi.common.utils.ConcurrencyUtils.withPermit;
 import static no.unit.nva.commons.json.JsonUtils.dtoObjectMapper;
 import static nva.commons.core.attempt.Try.attempt;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse.BatchItemFailure;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent.SQSMessage;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import no.sikt.nva.nvi.common.dto.UpsertNonNviCandidateRequest;
 import no.sikt.nva.nvi.common.dto.UpsertNviCandidateRequest;
 import no.sikt.nva.nvi.common.service.CandidateService;
-import no.sikt.nva.nvi.events.model.CandidateEvaluatedMessage;
 import no.sikt.nva.nvi.events.model.PersistedResourceMessage;
+import nva.commons.core.Environment;
 import nva.commons.core.JacocoGenerated;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class EvaluateNviCandidateHandler implements RequestHandler<SQSEvent, Void> {
+/**
+ * Evaluates every publication in an SQS batch and upserts the results. Publications are evaluated
+ * concurrently, bounded by {@code EVALUATION_CONCURRENCY}, and share the periods and customer
+ * snapshot read for the batch. Messages that fail are reported back to SQS individually, so only
+ * those are retried.
+ */
+@SuppressWarnings({"PMD.DoNotUseThreads", "PMD.AvoidCatchingGenericException"})
+public class EvaluateNviCandidateHandler implements RequestHandler<SQSEvent, SQSBatchResponse> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(EvaluateNviCandidateHandler.class);
+  private static final String CONCURRENCY = "EVALUATION_CONCURRENCY";
+  private static final int DEFAULT_CONCURRENCY = 1;
   private final CandidateService candidateService;
   private final EvaluatorService evaluatorService;
+  private final int concurrency;
 
   @JacocoGenerated
   public EvaluateNviCandidateHandler() {
-    this(CandidateService.defaultCandidateService(), EvaluatorService.defaultEvaluatorService());
+    this(
+        CandidateService.defaultCandidateService(),
+        EvaluatorService.defaultEvaluatorService(),
+        new Environment());
   }
 
   public EvaluateNviCandidateHandler(
       CandidateService candidateService, EvaluatorService evaluatorService) {
+    this(candidateService, evaluatorService, new Environment());
+  }
+
+  public EvaluateNviCandidateHandler(
+      CandidateService candidateService,
+      EvaluatorService evaluatorService,
+      Environment environment) {
     this.candidateService = candidateService;
     this.evaluatorService = evaluatorService;
+    this.concurrency =
+        environment.readEnvOpt(CONCURRENCY).map(Integer::parseInt).orElse(DEFAULT_CONCURRENCY);
   }
 
   @Override
-  public Void handleRequest(SQSEvent event, Context context) {
+  public SQSBatchResponse handleRequest(SQSEvent event, Context context) {
     LOGGER.info("Processing event with {} messages", event.getRecords().size());
-    evaluateCandidacy(extractPersistedResourceMessage(event)).ifPresent(this::persistResult);
-    LOGGER.info("Event processed successfully");
-    return null;
+    var evaluationContext = evaluatorService.createEvaluationContext();
+    var failures = evaluateMessages(groupByResource(event.getRecords()), evaluationContext);
+    LOGGER.info("Event processed with {} failed messages", failures.size());
+    return new SQSBatchResponse(failures);
+  }
+
+  /**
+   * Groups the messages by the resource they refer to, so each resource is evaluated once and two
+   * evaluations of the same publication never race each other. Messages that cannot be parsed get
+   * a group of their own and fail on their own.
+   */
+  private static Collection<List<SQSMessage>> groupByResource(List<SQSMessage> messages) {
+    var messageGroups = new ArrayList<List<SQSMessage>>();
+    var messageGroupsByResource = new HashMap<URI, List<SQSMessage>>();
+    for (var message : messages) {
+      var resourceFileUri =
+          attempt(() -> parseBody(message.getBody()).resourceFileUri()).orElse(failure -> null);
+      var existingGroup = messageGroupsByResource.get(resourceFileUri);
+      if (nonNull(existingGroup)) {
+        existingGroup.add(message);
+      } else {
+        var messageGroup = new ArrayList<SQSMessage>();
+        messageGroup.add(message);
+        messageGroups.add(messageGroup);
+        if (nonNull(resourceFileUri)) {
+          messageGroupsByResource.put(resourceFileUri, messageGroup);
+        }
+      }
+    }
+    return messageGroups;
   }
 
-  private void persistResult(CandidateEvaluatedMessage candidateEvaluatedMessage) {
+  private List<BatchItemFailure> evaluateMessages(
+      Collection<List<SQSMessage>> messageGroups, EvaluationContext evaluationContext) {
+    if (concurrency <= 1 || messageGroups.size() <= 1) {
+      return messageGroups.stream()
+          .map(messages -> evaluateAndReportFailures(messages, evaluationContext))
+          .flatMap(List::stream)
+          .toList();
+    }
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var permits = new Semaphore(concurrency);
+      var pendingEvaluations =
+          messageGroups.stream()
+              .map(
+                  messages ->
+                      CompletableFuture.supplyAsync(
+                          () ->
+                              withPermit(
+                                  permits,
+                                  () -> evaluateAndReportFailures(messages, evaluationContext)),
+                          executor))
+              .toList();
+      return pendingEvaluations.stream()
+          .map(CompletableFuture::join)
+          .flatMap(List::stream)
+          .toList();
+    }
+  }
+
+  private List<BatchItemFailure> evaluateAndReportFailures(
+      List<SQSMessage> messages, EvaluationContext evaluationContext) {
+    var message = messages.getFirst();
+    try {
+      var resourceMessage = parseBody(message.getBody());
+      evaluatorService
+          .evaluate(
+              resourceMessage.resourceFileUri(),
+              evaluationContext,
+              shouldForceEvaluation(messages))
+          .ifPresent(this::persistResult);
+      return List.of();
+    } catch (RuntimeException exception) {
+      LOGGER.error("Failed to evaluate message {}", message.getMessageId(), exception);
+      return messages.stream()
+          .map(SQSMessage::getMessageId)
+          .map(BatchItemFailure::new)
+          .toList();
+    }
+  }
+
+  /**
+   * The messages in a group refer to the same resource, so the evaluation is forced if any of them
+   * asks for it.
+   */
+  private static boolean shouldForceEvaluation(List<SQSMessage> messages) {
+    return messages.stream()
+        .map(message -> attempt(() -> parseBody(message.getBody())).toOptional())
+        .flatMap(Optional::stream)
+        .anyMatch(PersistedResourceMessage::shouldForceEvaluation);
+  }
+
+  /**
+   * Persists the evaluation result, reusing the candidate and periods read during evaluation. If
+   * the candidate has changed since then, the write fails on its revision and the message is
+   * retried.
+   */
+  private void persistResult(EvaluationResult evaluationResult) {
+    var candidateEvaluatedMessage = evaluationResult.message();
     LOGGER.info(
         "Upserting evaluation result for publication {}",
         candidateEvaluatedMessage.publicationId());
-    var candidate = candidateEvaluatedMessage.candidate();
-    switch (candidate) {
+    var candidateContext = evaluationResult.candidateContext();
+    switch (candidateEvaluatedMessage.candidate()) {
       case UpsertNviCandidateRequest candidateRequest ->
-          candidateService.upsertCandidate(candidateRequest);
+          candidateService.upsertCandidate(candidateRequest, candidateContext);
       case UpsertNonNviCandidateRequest nonNviCandidateRequest ->
-          candidateService.updateCandidate(nonNviCandidateRequest);
+          candidateService.updateCandidate(nonNviCandidateRequest, candidateContext);
     }
   }
 
@@ -59,16 +186,4 @@ public class EvaluateNviCandidateHandler implements RequestHandler<SQSEvent, Voi
     return attempt(() -> dtoObjectMapper.readValue(body, PersistedResourceMessage.class))
         .orElseThrow();
   }
-
-  private PersistedResourceMessage extractPersistedResourceMessage(SQSEvent input) {
-    return attempt(() -> parseBody(extractFirstMessage(input).getBody())).orElseThrow();
-  }
-
-  private SQSMessage extractFirstMessage(SQSEvent input) {
-    return input.getRecords().stream().findFirst().orElseThrow();
-  }
-
-  private Optional<CandidateEvaluatedMessage> evaluateCandidacy(PersistedResourceMessage message) {
-    return evaluatorService.evaluateCandidacy(message.resourceFileUri());
-  }
 }
@@ -0,0 +1,85 @@
+package no.sikt.nva.nvi.events.evaluator;
+
+import static java.util.Objects.nonNull;
+import static no.sikt.nva.nvi.common.utils.HashUtils.sha256Hex;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import no.sikt.nva.nvi.common.model.Customer;
+import no.sikt.nva.nvi.common.service.model.NviPeriod;
+
+/**
+ * State shared by all evaluations in one batch. The periods are read once when the context is
+ * created, while the customer snapshot is only read the first time an evaluation needs it.
+ */
+public final class EvaluationContext {
+
+  private final List<NviPeriod> periods;
+  private final CustomerRegistry customerRegistry;
+  private final AtomicReference<CustomerSnapshot> customers = new AtomicReference<>();
+  private final AtomicReference<String> fingerprint = new AtomicReference<>();
+
+  EvaluationContext(Collection<NviPeriod> periods, CustomerRegistry customerRegistry) {
+    this.periods = List.copyOf(periods);
+    this.customerRegistry = customerRegistry;
+  }
+
+  public List<NviPeriod> periods() {
+    return periods;
+  }
+
+  public CustomerSnapshot customers() {
+    var snapshot = customers.get();
+    if (nonNull(snapshot)) {
+      return snapshot;
+    }
+    customers.compareAndSet(null, customerRegistry.getSnapshot());
+    return customers.get();
+  }
+
+  /**
+   * Returns a digest of the periods and NVI institutions the evaluations depend on, so that an
+   * evaluation result can be recognized as stale when any of them change.
+   */
+  public String fingerprint() {
+    var current = fingerprint.get();
+    if (nonNull(current)) {
+      return current;
+    }
+    fingerprint.compareAndSet(null, sha256Hex(describePeriods(), describeNviInstitutions()));
+    return fingerprint.get();
+  }
+
+  private String describePeriods() {
+    return periods.stream()
+        .map(EvaluationContext::describe)
+        .sorted()
+        .collect(Collectors.joining(";"));
+  }
+
+  private String describeNviInstitutions() {
+    return customers().customers().values().stream()
+        .filter(Customer::nviInstitution)
+        .map(EvaluationContext::describe)
+        .sorted()
+        .collect(Collectors.joining(";"));
+  }
+
+  private static String describe(NviPeriod period) {
+    return String.join(
+        ",",
+        period.publishingYear().toString(),
+        String.valueOf(period.startDate()),
+        String.valueOf(period.reportingDate()));
+  }
+
+  private static String describe(Customer customer) {
+    return String.join(
+        ",",
+        customer.cristinId().toString(),
+        String.valueOf(customer.rboInstitution()),
+        String.valueOf(customer.sector()));
+  }
+}
@@ -0,0 +1,11 @@
+package no.sikt.nva.nvi.events.evaluator;
+
+import no.sikt.nva.nvi.common.service.model.CandidateAndPeriods;
+import no.sikt.nva.nvi.events.model.CandidateEvaluatedMessage;
+
+/**
+ * Result of evaluating a publication, together with the candidate and periods that were read
+ * during the evaluation, so the result can be persisted without reading them again.
+ */
+public record EvaluationResult(
+    CandidateEvaluatedMessage message, CandidateAndPeriods candidateContext) {}
@@ -3,6 +3,7 @@ package no.sikt.nva.nvi.events.evaluator;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static no.sikt.nva.nvi.common.dto.PublicationDetailsDto.fromPublicationDto;
+import static no.sikt.nva.nvi.common.utils.HashUtils.sha256Hex;
 import static no.sikt.nva.nvi.events.evaluator.calculator.CreatorVerificationUtil.getNviCreatorsWithNviInstitutions;
 import static nva.commons.core.attempt.Try.attempt;
 
@@ -10,9 +11,7 @@ import java.net.URI;
 import java.time.Year;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import no.sikt.nva.nvi.common.S3StorageReader;
@@ -23,16 +22,15 @@ import no.sikt.nva.nvi.common.dto.PublicationDto;
 import no.sikt.nva.nvi.common.dto.UpsertNonNviCandidateRequest;
 import no.sikt.nva.nvi.common.dto.UpsertNviCandidateRequest;
 import no.sikt.nva.nvi.common.exceptions.ValidationException;
-import no.sikt.nva.nvi.common.model.Customer;
 import no.sikt.nva.nvi.common.service.CandidateService;
 import no.sikt.nva.nvi.common.service.model.Candidate;
 import no.sikt.nva.nvi.common.service.model.CandidateAndPeriods;
 import no.sikt.nva.nvi.events.evaluator.model.NviCreator;
 import no.sikt.nva.nvi.events.evaluator.model.NviOrganization;
 import no.sikt.nva.nvi.events.model.CandidateEvaluatedMessage;
+import no.sikt.nva.nvi.publication.ExpandedPublication;
 import no.sikt.nva.nvi.publication.PublicationLoaderService;
 import no.unit.nva.clients.IdentityServiceClient;
-import nva.commons.apigateway.exceptions.ApiGatewayException;
 import nva.commons.core.Environment;
 import nva.commons.core.JacocoGenerated;
 import org.slf4j.Logger;
@@ -53,46 +51,123 @@ public class EvaluatorService {
       "Publication is already reported and cannot be updated.";
   private static final String CLOSED_PERIOD_CANDIDATE_MESSAGE =
       "Candidate is in a closed period and cannot be updated.";
+  private static final String UNCHANGED_PUBLICATION_MESSAGE =
+      "Skipping evaluation of publication with id {}, as it is unchanged since last evaluation.";
+  // Change this when the evaluation logic changes, so that existing fingerprints no longer match
+  private static final String FINGERPRINT_VERSION = "1";
   private final Logger logger = LoggerFactory.getLogger(EvaluatorService.class);
   private final CandidateService candidateService;
-  private final IdentityServiceClient identityServiceClient;
+  private final CustomerRegistry customerRegistry;
   private final PublicationLoaderService publicationLoader;
 
   public EvaluatorService(
       IdentityServiceClient identityServiceClient,
       StorageReader<URI> storageReader,
       CandidateService candidateService) {
+    this(CustomerRegistry.withoutCaching(identityServiceClient), storageReader, candidateService);
+  }
+
+  public EvaluatorService(
+      CustomerRegistry customerRegistry,
+      StorageReader<URI> storageReader,
+      CandidateService candidateService) {
     this.candidateService = candidateService;
-    this.identityServiceClient = identityServiceClient;
+    this.customerRegistry = customerRegistry;
     this.publicationLoader = new PublicationLoaderService(storageReader);
   }
 
   @JacocoGenerated
   public static EvaluatorService defaultEvaluatorService() {
     return new EvaluatorService(
-        IdentityServiceClient.unauthorizedIdentityServiceClient(),
+        CustomerRegistry.defaultCustomerRegistry(),
         new S3StorageReader(new Environment().readEnv(EXPANDED_RESOURCES_BUCKET)),
         CandidateService.defaultCandidateService());
   }
 
-  private Map<URI, Customer> getAllCustomers() {
-    try {
-      return identityServiceClient.getAllCustomers().customers().stream()
-          .filter(customer -> nonNull(customer.cristinId()))
-          .map(Customer::fromCustomerDto)
-          .collect(Collectors.toMap(Customer::cristinId, Function.identity()));
-    } catch (ApiGatewayException exception) {
-      logger.error("Failed to fetch customer list", exception);
-      throw new RuntimeException(exception);
-    }
+  /** Reads the state that can be shared by the evaluations of one batch of publications. */
+  public EvaluationContext createEvaluationContext() {
+    return new EvaluationContext(candidateService.getAllPeriods(), customerRegistry);
   }
 
   public Optional<CandidateEvaluatedMessage> evaluateCandidacy(URI publicationBucketUri) {
-    var publication = publicationLoader.extractAndTransform(publicationBucketUri);
+    return evaluateCandidacy(publicationBucketUri, createEvaluationContext());
+  }
+
+  public Optional<CandidateEvaluatedMessage> evaluateCandidacy(
+      URI publicationBucketUri, EvaluationContext context) {
+    return evaluate(publicationBucketUri, context).map(EvaluationResult::message);
+  }
+
+  /**
+   * Evaluates the publication and returns the result together with the candidate and periods read
+   * during the evaluation.
+   *
+   * <p>The result is fingerprinted by the stored publication document and the evaluation context.
+   * If the existing candidate was last evaluated with the same fingerprint, the publication is not
+   * parsed and transformed again, and no result is returned.
+   */
+  public Optional<EvaluationResult> evaluate(URI publicationBucketUri, EvaluationContext context) {
+    return evaluate(publicationBucketUri, context, false);
+  }
+
+  /**
+   * Evaluates the publication as {@link #evaluate(URI, EvaluationContext)}, but with {@code
+   * forceEvaluation} set the publication is evaluated even if the fingerprint is unchanged. This is
+   * needed when data the fingerprint does not cover, such as the organization hierarchy, has
+   * changed.
+   */
+  public Optional<EvaluationResult> evaluate(
+      URI publicationBucketUri, EvaluationContext context, boolean forceEvaluation) {
+    var expandedPublication = publicationLoader.extract(publicationBucketUri);
+    var fingerprint = createFingerprint(expandedPublication, context);
+    var documentPublicationId = expandedPublication.publicationId();
+    var existingCandidate =
+        documentPublicationId.map(id -> findCandidateAndPeriods(id, context));
+    if (!forceEvaluation
+        && existingCandidate.isPresent()
+        && hasFingerprint(existingCandidate.get(), fingerprint)) {
+      logger.info(UNCHANGED_PUBLICATION_MESSAGE, documentPublicationId.get());
+      return Optional.empty();
+    }
+
+    var publication = publicationLoader.transform(expandedPublication);
     logger.info("Evaluating publication with ID: {}", publication.id());
 
     var candidateAndPeriods =
-        candidateService.findCandidateAndPeriodsByPublicationId(publication.id());
+        documentPublicationId
+            .filter(publication.id()::equals)
+            .flatMap(id -> existingCandidate)
+            .orElseGet(() -> findCandidateAndPeriods(publication.id(), context));
+    return evaluate(publication, publicationBucketUri, candidateAndPeriods, context, fingerprint)
+        .map(message -> new EvaluationResult(message, candidateAndPeriods));
+  }
+
+  private CandidateAndPeriods findCandidateAndPeriods(
+      URI publicationId, EvaluationContext context) {
+    return candidateService.findCandidateAndPeriodsByPublicationId(
+        publicationId, context.periods());
+  }
+
+  private static String createFingerprint(
+      ExpandedPublication expandedPublication, EvaluationContext context) {
+    return sha256Hex(FINGERPRINT_VERSION, context.fingerprint(), expandedPublication.contentHash());
+  }
+
+  private static boolean hasFingerprint(
+      CandidateAndPeriods candidateAndPeriods, String fingerprint) {
+    return candidateAndPeriods
+        .getCandidate()
+        .map(Candidate::evaluationFingerprint)
+        .filter(fingerprint::equals)
+        .isPresent();
+  }
+
+  private Optional<CandidateEvaluatedMessage> evaluate(
+      PublicationDto publication,
+      URI publicationBucketUri,
+      CandidateAndPeriods candidateAndPeriods,
+      EvaluationContext context,
+      String fingerprint) {
     if (shouldSkipEvaluation(candidateAndPeriods, publication)) {
       logger.info(SKIPPED_EVALUATION_MESSAGE, publication.id());
       return Optional.empty();
@@ -100,25 +175,25 @@ public class EvaluatorService {
 
     // Check that the publication meets the basic requirements to be a candidate
     if (isNonCandidate(publication)) {
-      return createNonNviCandidateMessage(publication.id());
+      return createNonNviCandidateMessage(publication.id(), fingerprint);
     }
 
     // Check that the publication has NVI creators
-    var customers = getAllCustomers();
+    var customers = context.customers();
     var creators = getNviCreatorsWithNviInstitutions(customers, publication);
     if (creators.isEmpty()) {
       logger.info("Publication has no NVI creators");
-      return createNonNviCandidateMessage(publication.id());
+      return createNonNviCandidateMessage(publication.id(), fingerprint);
     }
 
     // Check that the publication can be a candidate in the target period
     if (!canEvaluateInPeriod(candidateAndPeriods, publication.publicationDate())) {
       logger.info("Publication is not applicable in the target period");
-      return createNonNviCandidateMessage(publication.id());
+      return createNonNviCandidateMessage(publication.id(), fingerprint);
     }
 
     var nviCandidate =
-        constructNviCandidate(publication, publicationBucketUri, creators, customers);
+        constructNviCandidate(publication, publicationBucketUri, creators, customers, fingerprint);
     return createNviCandidateMessage(nviCandidate);
   }
 
@@ -187,7 +262,8 @@ public class EvaluatorService {
       PublicationDto publicationDto,
       URI publicationBucketUri,
       Collection<NviCreator> creators,
-      Map<URI, Customer> customers) {
+      CustomerSnapshot customers,
+      String fingerprint) {
     var nviCreatorsAsDto = creators.stream().map(NviCreator::toDto).toList();
     var pointCalculation = PointService.calculatePoints(publicationDto, creators, customers);
     var publicationDetails = fromPublicationDto(publicationDto);
@@ -199,6 +275,7 @@ public class EvaluatorService {
         .withPublicationDetails(publicationDetails)
         .withNviCreators(nviCreatorsAsDto)
         .withTopLevelNviOrganizations(topLevelNviOrganizations)
+        .withEvaluationFingerprint(fingerprint)
         .build();
   }
 
@@ -227,9 +304,10 @@ public class EvaluatorService {
     return attempt(() -> Year.parse(publication.publicationDate().year())).isFailure();
   }
 
-  private Optional<CandidateEvaluatedMessage> createNonNviCandidateMessage(URI publicationId) {
+  private Optional<CandidateEvaluatedMessage> createNonNviCandidateMessage(
+      URI publicationId, String fingerprint) {
     logger.info(NON_NVI_CANDIDATE_MESSAGE, publicationId);
-    var nonCandidate = new UpsertNonNviCandidateRequest(publicationId);
+    var nonCandidate = new UpsertNonNviCandidateRequest(publicationId, fingerprint);
     return Optional.of(CandidateEvaluatedMessage.builder().withCandidateType(nonCandidate).build());
   }
 
@@ -1,14 +1,11 @@
 package no.sikt.nva.nvi.events.evaluator;
 
-import java.net.URI;
 import java.util.Collection;
-import java.util.Map;
 import java.util.Objects;
 import no.sikt.nva.nvi.common.client.model.Organization;
 import no.sikt.nva.nvi.common.dto.ContributorDto;
 import no.sikt.nva.nvi.common.dto.PointCalculationDto;
 import no.sikt.nva.nvi.common.dto.PublicationDto;
-import no.sikt.nva.nvi.common.model.Customer;
 import no.sikt.nva.nvi.events.evaluator.calculator.PointCalculator;
 import no.sikt.nva.nvi.events.evaluator.model.NviCreator;
 
@@ -19,7 +16,7 @@ public final class PointService {
   public static PointCalculationDto calculatePoints(
       PublicationDto publication,
       Collection<NviCreator> nviCreators,
-      Map<URI, Customer> customers) {
+      CustomerSnapshot customers) {
     var instanceType = publication.publicationType();
     var channel = publication.getNviChannel();
     var isInternationalCollaboration = publication.isInternationalCollaboration();
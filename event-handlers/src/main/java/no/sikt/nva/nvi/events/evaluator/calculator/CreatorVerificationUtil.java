@@ -1,14 +1,12 @@
 package no.sikt.nva.nvi.events.evaluator.calculator;
 
-import java.net.URI;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.function.Predicate;
 import no.sikt.nva.nvi.common.client.model.Organization;
 import no.sikt.nva.nvi.common.dto.ContributorDto;
 import no.sikt.nva.nvi.common.dto.PublicationDto;
-import no.sikt.nva.nvi.common.model.Customer;
+import no.sikt.nva.nvi.events.evaluator.CustomerSnapshot;
 import no.sikt.nva.nvi.events.evaluator.model.NviCreator;
 import no.sikt.nva.nvi.events.evaluator.model.NviOrganization;
 import no.sikt.nva.nvi.events.evaluator.model.UnverifiedNviCreator;
@@ -33,7 +31,7 @@ public final class CreatorVerificationUtil {
   }
 
   public static List<NviCreator> getNviCreatorsWithNviInstitutions(
-      Map<URI, Customer> customers, PublicationDto publication) {
+      CustomerSnapshot customers, PublicationDto publication) {
     return publication.contributors().stream()
         .filter(ContributorDto::isCreator)
         .filter(CreatorVerificationUtil::isValidContributor)
@@ -58,7 +56,7 @@ public final class CreatorVerificationUtil {
         .build();
   }
 
-  private static NviCreator toNviCreator(Map<URI, Customer> customers, ContributorDto contributor) {
+  private static NviCreator toNviCreator(CustomerSnapshot customers, ContributorDto contributor) {
     var nviAffiliations = getNviAffiliationsIfExist(customers, contributor);
     if (contributor.isVerified()) {
       return toVerifiedNviCreator(contributor, nviAffiliations);
@@ -83,17 +81,14 @@ public final class CreatorVerificationUtil {
   }
 
   private static List<NviOrganization> getNviAffiliationsIfExist(
-      Map<URI, Customer> customers, ContributorDto contributor) {
+      CustomerSnapshot customers, ContributorDto contributor) {
     return contributor.affiliations().stream()
         .filter(isNviInstitution(customers))
         .map(CreatorVerificationUtil::toNviOrganization)
         .toList();
   }
 
-  private static Predicate<Organization> isNviInstitution(Map<URI, Customer> customers) {
-    return organization -> {
-      var topLevelId = organization.getTopLevelOrg().id();
-      return customers.containsKey(topLevelId) && customers.get(topLevelId).nviInstitution();
-    };
+  private static Predicate<Organization> isNviInstitution(CustomerSnapshot customers) {
+    return organization -> customers.isNviInstitution(organization.getTopLevelOrg().id());
   }
 }
@@ -23,11 +23,11 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import no.sikt.nva.nvi.common.dto.PointCalculationDto;
 import no.sikt.nva.nvi.common.dto.PublicationChannelDto;
-import no.sikt.nva.nvi.common.model.Customer;
 import no.sikt.nva.nvi.common.model.InstanceType;
 import no.sikt.nva.nvi.common.model.Sector;
 import no.sikt.nva.nvi.common.service.model.InstitutionPoints;
 import no.sikt.nva.nvi.common.service.model.InstitutionPoints.CreatorAffiliationPoints;
+import no.sikt.nva.nvi.events.evaluator.CustomerSnapshot;
 import no.sikt.nva.nvi.events.evaluator.model.NviCreator;
 import no.sikt.nva.nvi.events.evaluator.model.NviOrganization;
 import no.sikt.nva.nvi.events.evaluator.model.UnverifiedNviCreator;
@@ -43,7 +43,7 @@ public class PointCalculator {
   private final int creatorShareCount;
   private final Collection<VerifiedNviCreator> verifiedNviCreators;
   private final Collection<UnverifiedNviCreator> unverifiedNviCreators;
-  private final Map<URI, Customer> customerMap;
+  private final CustomerSnapshot customers;
 
   public PointCalculator(
       PublicationChannelDto publicationChannel,
@@ -51,7 +51,7 @@ public class PointCalculator {
       Collection<NviCreator> nviCreators,
       boolean isInternationalCollaboration,
       int creatorShareCount,
-      Map<URI, Customer> customers) {
+      CustomerSnapshot customers) {
     this.publicationChannel = publicationChannel;
     this.instanceType = instanceType;
     this.verifiedNviCreators = getVerifiedCreators(nviCreators);
@@ -60,7 +60,7 @@ public class PointCalculator {
     this.collaborationFactor = getInternationalCollaborationFactor(isInternationalCollaboration);
     this.basePoints = getInstanceTypeAndLevelPoints(instanceType, publicationChannel);
     this.creatorShareCount = creatorShareCount;
-    this.customerMap = customers;
+    this.customers = customers;
   }
 
   public PointCalculationDto calculatePoints() {
@@ -143,7 +143,7 @@ public class PointCalculator {
     var institutionContributorFraction = getInstitutionContributorFraction(creatorCount);
     var institutionPoints = executeNviFormula(institutionContributorFraction);
     var creatorPoints = calculateAffiliationPoints(institutionCreatorCount, institutionPoints);
-    var customer = customerMap.get(institution);
+    var customer = customers.findByCristinId(institution).orElseThrow();
     var sector = Sector.fromString(customer.sector()).orElse(Sector.UNKNOWN);
     var rboInstitution = customer.rboInstitution();
     return new InstitutionPoints(
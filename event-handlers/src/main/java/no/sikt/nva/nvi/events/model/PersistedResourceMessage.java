@@ -3,4 +3,14 @@ package no.sikt.nva.nvi.events.model;
 import java.net.URI;
 import no.unit.nva.commons.json.JsonSerializable;
 
-public record PersistedResourceMessage(URI resourceFileUri) implements JsonSerializable {}
+/**
+ * Asks for the persisted resource to be evaluated. With {@code forceEvaluation} set, the resource
+ * is evaluated even if its evaluation fingerprint is unchanged.
+ */
+public record PersistedResourceMessage(URI resourceFileUri, Boolean forceEvaluation)
+    implements JsonSerializable {
+
+  public boolean shouldForceEvaluation() {
+    return Boolean.TRUE.equals(forceEvaluation);
+  }
+}
@@ -13,12 +13,14 @@ public record ReEvaluateRequest(
     @JsonProperty(PAGE_SIZE_FIELD) Integer pageSize,
     @JsonProperty(START_MARKER_FIELD) Map<String, String> startMarker,
     @JsonProperty(YEAR_FIELD) String year,
-    @JsonProperty(TOPIC_FIELD) String topic) {
+    @JsonProperty(TOPIC_FIELD) String topic,
+    @JsonProperty(FORCE_EVALUATION_FIELD) Boolean forceEvaluation) {
 
   public static final String PAGE_SIZE_FIELD = "pageSize";
   public static final String START_MARKER_FIELD = "startMarker";
   public static final String YEAR_FIELD = "year";
   public static final String TOPIC_FIELD = "topic";
+  public static final String FORCE_EVALUATION_FIELD = "forceEvaluation";
   public static final int DEFAULT_PAGE_SIZE = 500;
   public static final int MAX_PAGE_SIZE = 1000;
 
@@ -37,7 +39,18 @@ public record ReEvaluateRequest(
 
   public ReEvaluateRequest newReEvaluateRequest(
       Map<String, String> stringStringMap, String outputTopic) {
-    return new ReEvaluateRequest(this.pageSize(), stringStringMap, year, outputTopic);
+    return new ReEvaluateRequest(
+        this.pageSize(), stringStringMap, year, outputTopic, forceEvaluation);
+  }
+
+  /**
+   * Whether candidates should be evaluated even if their evaluation fingerprint is unchanged. This
+   * is the default, as re-evaluation is typically run after changes to data the fingerprint does
+   * not cover, such as the organization hierarchy. Set {@code forceEvaluation} to {@code false} to
+   * only evaluate candidates whose fingerprint has changed.
+   */
+  public boolean shouldForceEvaluation() {
+    return !Boolean.FALSE.equals(forceEvaluation);
   }
 
   public PutEventsRequestEntry createNewEventEntry(String eventBusName, String invokedFunctionArn) {
@@ -65,6 +78,7 @@ public record ReEvaluateRequest(
     private Map<String, String> startMarker;
     private String year;
     private String topic;
+    private Boolean forceEvaluation;
 
     private Builder() {}
 
@@ -88,8 +102,13 @@ public record ReEvaluateRequest(
       return this;
     }
 
+    public Builder withForceEvaluation(Boolean forceEvaluation) {
+      this.forceEvaluation = forceEvaluation;
+      return this;
+    }
+
     public ReEvaluateRequest build() {
-      return new ReEvaluateRequest(pageSize, startMarker, year, topic);
+      return new ReEvaluateRequest(pageSize, startMarker, year, topic, forceEvaluation);
     }
   }
 }
@@ -0,0 +1,40 @@
+package no.sikt.nva.nvi.events.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimitTest {
+
+  @Test
+  void shouldHalveLimitWhenThrottled() {
+    var concurrencyLimit = new AdaptiveConcurrencyLimit(8);
+
+    concurrencyLimit.onThrottled();
+    concurrencyLimit.onThrottled();
+
+    assertThat(concurrencyLimit.currentLimit()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldNotLowerLimitBelowOne() {
+    var concurrencyLimit = new AdaptiveConcurrencyLimit(2);
+
+    concurrencyLimit.onThrottled();
+    concurrencyLimit.onThrottled();
+
+    assertThat(concurrencyLimit.currentLimit()).isOne();
+  }
+
+  @Test
+  void shouldRaiseLimitAfterSuccessUntilMaximumIsReached() {
+    var concurrencyLimit = new AdaptiveConcurrencyLimit(4);
+    concurrencyLimit.onThrottled();
+
+    concurrencyLimit.onSuccess();
+    concurrencyLimit.onSuccess();
+    concurrencyLimit.onSuccess();
+
+    assertThat(concurrencyLimit.currentLimit()).isEqualTo(4);
+  }
+}
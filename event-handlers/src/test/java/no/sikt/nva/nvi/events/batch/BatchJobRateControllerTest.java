@@ -0,0 +1,79 @@
+package no.sikt.nva.nvi.events.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import no.sikt.nva.nvi.events.batch.job.ScanPageStatistics;
+import org.junit.jupiter.api.Test;
+
+class BatchJobRateControllerTest {
+
+  private static final int PAGE_SIZE = 400;
+  private static final double TARGET_PAGE_CAPACITY = 100;
+  private static final int MAX_QUEUE_DEPTH = 1000;
+
+  private final BatchJobRateController controller =
+      new BatchJobRateController(TARGET_PAGE_CAPACITY, MAX_QUEUE_DEPTH);
+
+  @Test
+  void shouldBeDisabledWithoutLimits() {
+    var unlimitedController = new BatchJobRateController(null, null);
+
+    assertThat(unlimitedController.isEnabled()).isFalse();
+    assertThat(unlimitedController.parallelSegments(10, Integer.MAX_VALUE)).isEqualTo(10);
+  }
+
+  @Test
+  void shouldScalePageSizeToTargetCapacity() {
+    var page = new ScanPageStatistics(PAGE_SIZE, PAGE_SIZE, TARGET_PAGE_CAPACITY * 2, false);
+
+    assertThat(controller.nextPageSize(page, 0)).isEqualTo(PAGE_SIZE / 2);
+  }
+
+  @Test
+  void shouldLimitGrowthOfPageSize() {
+    var page = new ScanPageStatistics(PAGE_SIZE, PAGE_SIZE, 1, false);
+
+    assertThat(controller.nextPageSize(page, 0)).isEqualTo(PAGE_SIZE * 2);
+  }
+
+  @Test
+  void shouldReducePageSizeWhenQueueIsBackedUp() {
+    var page = new ScanPageStatistics(PAGE_SIZE, PAGE_SIZE, TARGET_PAGE_CAPACITY, false);
+
+    assertThat(controller.nextPageSize(page, MAX_QUEUE_DEPTH * 2)).isEqualTo(PAGE_SIZE / 2);
+  }
+
+  @Test
+  void shouldHalvePageSizeAndPauseWhenThrottled() {
+    var page = ScanPageStatistics.throttledPage(PAGE_SIZE);
+
+    assertThat(controller.nextPageSize(page, 0)).isEqualTo(PAGE_SIZE / 2);
+    assertThat(controller.pauseBeforeNextPage(page, 0)).isPositive();
+  }
+
+  @Test
+  void shouldNotReducePageSizeBelowMinimum() {
+    var page = ScanPageStatistics.throttledPage(1);
+
+    assertThat(controller.nextPageSize(page, 0)).isEqualTo(10);
+  }
+
+  @Test
+  void shouldPauseLongerWhenQueueBacklogGrows() {
+    var page = new ScanPageStatistics(PAGE_SIZE, PAGE_SIZE, TARGET_PAGE_CAPACITY, false);
+
+    var shortPause = controller.pauseBeforeNextPage(page, MAX_QUEUE_DEPTH * 2);
+    var longPause = controller.pauseBeforeNextPage(page, MAX_QUEUE_DEPTH * 5);
+
+    assertThat(controller.pauseBeforeNextPage(page, MAX_QUEUE_DEPTH)).isEqualTo(Duration.ZERO);
+    assertThat(longPause).isGreaterThan(shortPause);
+  }
+
+  @Test
+  void shouldReduceParallelSegmentsWhenQueueIsBackedUp() {
+    assertThat(controller.parallelSegments(10, MAX_QUEUE_DEPTH)).isEqualTo(10);
+    assertThat(controller.parallelSegments(10, MAX_QUEUE_DEPTH * 4)).isEqualTo(2);
+    assertThat(controller.parallelSegments(10, Integer.MAX_VALUE)).isOne();
+  }
+}
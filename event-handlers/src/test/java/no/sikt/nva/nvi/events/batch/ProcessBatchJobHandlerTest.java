@@ -11,8 +11,11 @@ import static no.sikt.nva.nvi.test.TestConstants.THIS_YEAR;
 import static no.unit.nva.testutils.RandomDataGenerator.randomString;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -21,12 +24,15 @@ import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent;
 import java.util.Collection;
 import java.util.List;
+import no.sikt.nva.nvi.common.FakeEnvironment;
 import no.sikt.nva.nvi.common.QueueServiceTestUtils;
 import no.sikt.nva.nvi.common.TestScenario;
+import no.sikt.nva.nvi.common.exceptions.TransactionException;
 import no.sikt.nva.nvi.common.service.CandidateService;
 import no.sikt.nva.nvi.common.service.NviPeriodService;
 import no.sikt.nva.nvi.common.service.model.ApprovalStatus;
 import no.sikt.nva.nvi.common.service.model.Candidate;
+import no.sikt.nva.nvi.common.service.model.WriteMode;
 import no.sikt.nva.nvi.events.batch.message.BatchJobMessage;
 import no.sikt.nva.nvi.events.batch.message.MigrateCandidateMessage;
 import no.sikt.nva.nvi.events.batch.message.RefreshCandidateMessage;
@@ -103,6 +109,68 @@ class ProcessBatchJobHandlerTest {
     }
   }
 
+  @Test
+  void shouldRefreshAllCandidatesWhenProcessingConcurrently() {
+    handler = createConcurrentHandler(candidateService);
+
+    var response = handleRequest(toRefreshCandidateMessages(candidates));
+
+    assertThat(response.getBatchItemFailures()).isEmpty();
+    for (var candidate : candidates) {
+      var updatedCandidate = candidateService.getCandidateByIdentifier(candidate.identifier());
+      assertThat(updatedCandidate.revision()).isEqualTo(candidate.revision() + 1);
+    }
+  }
+
+  @Test
+  void shouldProcessMessagesForSameCandidateOneAfterAnother() {
+    handler = createConcurrentHandler(candidateService);
+    var candidate = candidates.getFirst();
+    var message = new RefreshCandidateMessage(candidate.identifier());
+
+    var response = handleRequest(List.of(message, message, message));
+
+    assertThat(response.getBatchItemFailures()).isEmpty();
+    var updatedCandidate = candidateService.getCandidateByIdentifier(candidate.identifier());
+    assertThat(updatedCandidate.revision()).isEqualTo(candidate.revision() + 3);
+  }
+
+  @Test
+  void shouldRetryMessageOnTransactionConflict() {
+    var flakyCandidateService = spy(candidateService);
+    doThrow(new TransactionException("Transaction conflict", List.of("TransactionConflict")))
+        .doCallRealMethod()
+        .when(flakyCandidateService)
+        .updateCandidate(any(Candidate.class), eq(WriteMode.FORCE));
+    handler = createConcurrentHandler(flakyCandidateService);
+    var candidate = candidates.getFirst();
+
+    var response = handleRequest(List.of(new RefreshCandidateMessage(candidate.identifier())));
+
+    assertThat(response.getBatchItemFailures()).isEmpty();
+    var updatedCandidate = candidateService.getCandidateByIdentifier(candidate.identifier());
+    assertThat(updatedCandidate.revision()).isEqualTo(candidate.revision() + 1);
+  }
+
+  @Test
+  void shouldNotRetryMessageWhenConditionCheckFails() {
+    var failingCandidateService = spy(candidateService);
+    doThrow(new TransactionException("Condition failed", List.of("ConditionalCheckFailed")))
+        .when(failingCandidateService)
+        .updateCandidate(any(Candidate.class), eq(WriteMode.FORCE));
+    handler = createConcurrentHandler(failingCandidateService);
+    var message = createMessage(new RefreshCandidateMessage(candidates.getFirst().identifier()));
+
+    var response = handleRequest(QueueServiceTestUtils.createEvent(message));
+
+    assertThat(response.getBatchItemFailures())
+        .singleElement()
+        .extracting(SQSBatchResponse.BatchItemFailure::getItemIdentifier)
+        .isEqualTo(message.getMessageId());
+    verify(failingCandidateService, times(1))
+        .updateCandidate(any(Candidate.class), eq(WriteMode.FORCE));
+  }
+
   @Test
   void shouldPassMigrateCandidateMessageToService() {
     var mockedCandidateMigrationService = mock(CandidateMigrationService.class);
@@ -178,6 +246,12 @@ class ProcessBatchJobHandlerTest {
     assertThat(updatedCandidate.isReported()).isFalse();
   }
 
+  private ProcessBatchJobHandler createConcurrentHandler(CandidateService service) {
+    var environment = FakeEnvironment.builder().with("BATCH_JOB_CONCURRENCY", "3").build();
+    return new ProcessBatchJobHandler(
+        service, mock(CandidateMigrationService.class), periodService, environment);
+  }
+
   private SQSBatchResponse handleRequest(SQSEvent sqsEvent) {
     return handler.handleRequest(sqsEvent, CONTEXT);
   }
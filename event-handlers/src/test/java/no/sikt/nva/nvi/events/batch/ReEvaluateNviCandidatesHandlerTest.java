@@ -51,6 +51,7 @@ class ReEvaluateNviCandidatesHandlerTest {
   private static final Environment environment = new Environment();
   private static final String OUTPUT_TOPIC = environment.readEnv("TOPIC_REEVALUATE_CANDIDATES");
   private static final int BATCH_SIZE = 10;
+  private static final int REMAINING_TIME_MILLIS = 300_000;
   private final Context context = mock(Context.class);
   private TestScenario scenario;
   private ByteArrayOutputStream outputStream;
@@ -137,6 +138,47 @@ class ReEvaluateNviCandidatesHandlerTest {
     assertEquals(expectedCandidates, actualCandidates);
   }
 
+  @Test
+  void shouldForceEvaluationOfCandidatesWhenRequested() {
+    var year = randomYear();
+    createNumberOfCandidatesForYear(year, 2, scenario);
+    var request = ReEvaluateRequest.builder().withYear(year).withForceEvaluation(true).build();
+    handler.handleRequest(eventStream(request), outputStream, context);
+    assertThat(getSentMessages()).allMatch(PersistedResourceMessage::shouldForceEvaluation);
+  }
+
+  @Test
+  void shouldForceEvaluationOfCandidatesByDefault() {
+    var year = randomYear();
+    createNumberOfCandidatesForYear(year, 2, scenario);
+    handler.handleRequest(eventStream(createRequest(year)), outputStream, context);
+    assertThat(getSentMessages()).allMatch(PersistedResourceMessage::shouldForceEvaluation);
+  }
+
+  @Test
+  void shouldNotForceEvaluationOfCandidatesWhenOptedOut() {
+    var year = randomYear();
+    createNumberOfCandidatesForYear(year, 2, scenario);
+    var request = ReEvaluateRequest.builder().withYear(year).withForceEvaluation(false).build();
+    handler.handleRequest(eventStream(request), outputStream, context);
+    assertThat(getSentMessages()).noneMatch(PersistedResourceMessage::shouldForceEvaluation);
+  }
+
+  @Test
+  void shouldKeepForceEvaluationInEmittedEvent() {
+    var pageSize = 5;
+    var year = randomYear();
+    createNumberOfCandidatesForYear(year, 10, scenario);
+    var request =
+        ReEvaluateRequest.builder()
+            .withYear(year)
+            .withPageSize(pageSize)
+            .withForceEvaluation(true)
+            .build();
+    handler.handleRequest(eventStream(request), outputStream, context);
+    assertThat(getEmittedEvent().shouldForceEvaluation()).isTrue();
+  }
+
   @Test
   void shouldConsumeEventsFromEventBridgeTopic() {
     setupNumberOfCandidatesForYear(scenario, THIS_YEAR, BATCH_SIZE + 1);
@@ -158,7 +200,7 @@ class ReEvaluateNviCandidatesHandlerTest {
     var expectedStartMarker =
         getYearIndexStartMarker(sortByIdentifier(candidates, numberOfCandidates).get(pageSize - 1));
     var expectedEmittedEvent =
-        new ReEvaluateRequest(pageSize, expectedStartMarker, year, OUTPUT_TOPIC);
+        new ReEvaluateRequest(pageSize, expectedStartMarker, year, OUTPUT_TOPIC, null);
     var actualEmittedEvent = getEmittedEvent();
     assertEquals(expectedEmittedEvent, actualEmittedEvent);
   }
@@ -174,6 +216,41 @@ class ReEvaluateNviCandidatesHandlerTest {
     assertEquals(0, emittedEvents.size());
   }
 
+  @Test
+  void shouldProcessAllPagesInOneInvocationWhenTimeAllows() {
+    var numberOfCandidates = 12;
+    var pageSize = 5;
+    var year = randomYear();
+    createNumberOfCandidatesForYear(year, numberOfCandidates, scenario);
+    when(context.getRemainingTimeInMillis()).thenReturn(REMAINING_TIME_MILLIS);
+
+    handler.handleRequest(eventStream(createRequest(year, pageSize)), outputStream, context);
+
+    var sentMessages =
+        sqsClient.getSentBatches().stream().mapToInt(batch -> batch.entries().size()).sum();
+    assertThat(sentMessages).isEqualTo(numberOfCandidates);
+    assertThat(eventBridgeClient.getRequestEntries()).isEmpty();
+  }
+
+  @Test
+  void shouldEmitCheckpointWhenTimeBudgetRunsOut() {
+    var numberOfCandidates = 15;
+    var pageSize = 5;
+    var year = randomYear();
+    var candidates = createNumberOfCandidatesForYear(year, numberOfCandidates, scenario);
+    when(context.getRemainingTimeInMillis())
+        .thenReturn(REMAINING_TIME_MILLIS, REMAINING_TIME_MILLIS, 0);
+
+    handler.handleRequest(eventStream(createRequest(year, pageSize)), outputStream, context);
+
+    var lastProcessedCandidate =
+        sortByIdentifier(candidates, numberOfCandidates).get(2 * pageSize - 1);
+    var expectedEmittedEvent =
+        new ReEvaluateRequest(
+            pageSize, getYearIndexStartMarker(lastProcessedCandidate), year, OUTPUT_TOPIC, null);
+    assertEquals(expectedEmittedEvent, getEmittedEvent());
+  }
+
   private static PersistedResourceMessage fromJson(String body) {
     return attempt(() -> dtoObjectMapper.readValue(body, PersistedResourceMessage.class))
         .orElseThrow();
@@ -215,6 +292,13 @@ class ReEvaluateNviCandidatesHandlerTest {
     return attempt(() -> ReEvaluateRequest.fromJson(emittedEvents.get(0).detail())).orElseThrow();
   }
 
+  private List<PersistedResourceMessage> getSentMessages() {
+    return sqsClient.getSentBatches().getFirst().entries().stream()
+        .map(SendMessageBatchRequestEntry::messageBody)
+        .map(ReEvaluateNviCandidatesHandlerTest::fromJson)
+        .toList();
+  }
+
   private ReEvaluateRequest createRequest(String year) {
     return ReEvaluateRequest.builder()
         .withYear(year)
@@ -18,6 +18,13 @@ import static no.sikt.nva.nvi.test.TestUtils.CURRENT_YEAR;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.params.provider.Arguments.argumentSet;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -25,10 +32,12 @@ import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Stream;
 import no.sikt.nva.nvi.common.FakeEnvironment;
 import no.sikt.nva.nvi.common.TestScenario;
+import no.sikt.nva.nvi.common.db.model.YearQueryRequest;
 import no.sikt.nva.nvi.common.exceptions.ValidationException;
 import no.sikt.nva.nvi.common.queue.FakeSqsClient;
 import no.sikt.nva.nvi.events.batch.message.BatchJobMessage;
@@ -50,11 +59,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
 import software.amazon.awssdk.services.eventbridge.model.PutEventsRequestEntry;
 
 class StartBatchJobHandlerTest {
 
   private static final Context CONTEXT = new FakeContext();
+  private static final int REMAINING_TIME_MILLIS = 600_000;
 
   private FakeEnvironment environment;
   private FakeEventBridgeClient eventBridgeClient;
@@ -162,6 +174,67 @@ class StartBatchJobHandlerTest {
       assertThat(getQueuedMessageCount()).isEqualTo(maxItemsToQueue);
     }
 
+    @Test
+    void shouldQueueAllCandidatesWhenPageSizeIsReducedByRateControl() {
+      environment.setEnv("BATCH_JOB_TARGET_PAGE_CAPACITY", "0.01");
+      handler = getHandler(environment, scenario);
+
+      runToCompletion(refreshAllCandidates());
+
+      assertThat(getQueuedMessageCount()).isEqualTo(TOTAL_CANDIDATE_COUNT);
+    }
+
+    @Test
+    void shouldRetryThrottledPageAtHalfSizeWhenRateControlIsDisabled() {
+      var candidateService = spy(scenario.getCandidateService());
+      doThrow(DynamoDbException.builder().statusCode(429).message("Throttled").build())
+          .doCallRealMethod()
+          .when(candidateService)
+          .listCandidateIdentifiersByYear(any());
+      handler =
+          new StartBatchJobHandler(
+              candidateService,
+              scenario.getPeriodService(),
+              eventBridgeClient,
+              environment,
+              queueClient);
+      var request =
+          refreshCandidatesForYear(THIS_YEAR).copy().withMaxBatchSize(CANDIDATES_PER_YEAR).build();
+
+      runToCompletion(request);
+
+      var queryRequests = ArgumentCaptor.forClass(YearQueryRequest.class);
+      verify(candidateService, atLeast(2)).listCandidateIdentifiersByYear(queryRequests.capture());
+      assertThat(queryRequests.getAllValues().get(1).batchSize())
+          .isEqualTo(CANDIDATES_PER_YEAR / 2);
+      assertThat(getQueuedMessageCount()).isEqualTo(CANDIDATES_PER_YEAR);
+    }
+
+    @Test
+    void shouldReduceParallelSegmentsWhenQueueIsBackedUp() {
+      environment.setEnv("BATCH_JOB_MAX_QUEUE_DEPTH", "10");
+      handler = getHandler(environment, scenario);
+      var pendingMessages = Collections.nCopies(25, "{}");
+      queueClient.sendMessageBatch(pendingMessages, BATCH_JOB_QUEUE_URL.getValue());
+
+      var request = refreshAllCandidates().copy().withMaxParallelSegments(5).build();
+      processHandlerRequest(request);
+
+      assertThat(eventBridgeClient.getRequestEntries()).hasSize(2);
+    }
+
+    @Test
+    void shouldProcessAllPagesInOneInvocationWhenTimeAllows() {
+      var context = mock(Context.class);
+      when(context.getRemainingTimeInMillis()).thenReturn(REMAINING_TIME_MILLIS);
+      var request = refreshCandidatesForYear(THIS_YEAR).copy().withMaxBatchSize(5).build();
+
+      handler.handleRequest(createEvent(request), output, context);
+
+      assertThat(getQueuedMessageCount()).isEqualTo(CANDIDATES_PER_YEAR);
+      assertThat(eventBridgeClient.getRequestEntries()).isEmpty();
+    }
+
     @Test
     void shouldParseEventBridgeEvents() {
       var rawEventBridgeEvent =
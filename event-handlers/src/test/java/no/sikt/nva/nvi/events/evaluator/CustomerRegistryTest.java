@@ -0,0 +1,127 @@
+package no.sikt.nva.nvi.events.evaluator;
+
+import static no.sikt.nva.nvi.common.dto.CustomerDtoFixtures.createNonNviCustomer;
+import static no.sikt.nva.nvi.common.dto.CustomerDtoFixtures.createNviCustomer;
+import static no.unit.nva.testutils.RandomDataGenerator.randomUri;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import no.unit.nva.clients.CustomerList;
+import no.unit.nva.clients.IdentityServiceClient;
+import nva.commons.apigateway.exceptions.ApiGatewayException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CustomerRegistryTest {
+
+  private static final Duration TIME_TO_LIVE = Duration.ofMinutes(10);
+  private static final Duration MAX_STALENESS = Duration.ofMinutes(30);
+  private static final Instant START_TIME = Instant.parse("2025-01-01T00:00:00Z");
+  private final URI nviOrganization = randomUri();
+  private final URI nonNviOrganization = randomUri();
+  private IdentityServiceClient identityServiceClient;
+  private Clock clock;
+  private CustomerRegistry customerRegistry;
+
+  @BeforeEach
+  void setup() throws ApiGatewayException {
+    identityServiceClient = mock(IdentityServiceClient.class);
+    clock = mock(Clock.class);
+    when(clock.instant()).thenReturn(START_TIME);
+    when(identityServiceClient.getAllCustomers())
+        .thenReturn(
+            new CustomerList(
+                List.of(
+                    createNviCustomer(nviOrganization), createNonNviCustomer(nonNviOrganization))));
+    customerRegistry =
+        new CustomerRegistry(identityServiceClient, TIME_TO_LIVE, MAX_STALENESS, clock);
+  }
+
+  @Test
+  void shouldCreateSnapshotWithCustomersKeyedByCristinId() {
+    var snapshot = customerRegistry.getSnapshot();
+
+    assertThat(snapshot.isNviInstitution(nviOrganization)).isTrue();
+    assertThat(snapshot.isNviInstitution(nonNviOrganization)).isFalse();
+    assertThat(snapshot.isNviInstitution(randomUri())).isFalse();
+    assertThat(snapshot.fetchedAt()).isEqualTo(START_TIME);
+  }
+
+  @Test
+  void shouldReuseSnapshotWithinTimeToLive() throws ApiGatewayException {
+    var firstSnapshot = customerRegistry.getSnapshot();
+    var secondSnapshot = customerRegistry.getSnapshot();
+
+    assertThat(secondSnapshot).isSameAs(firstSnapshot);
+    verify(identityServiceClient, times(1)).getAllCustomers();
+  }
+
+  @Test
+  void shouldRefreshSnapshotWhenTimeToLiveHasPassed() throws ApiGatewayException {
+    customerRegistry.getSnapshot();
+    when(clock.instant()).thenReturn(START_TIME.plus(TIME_TO_LIVE));
+
+    var refreshedSnapshot = customerRegistry.getSnapshot();
+
+    assertThat(refreshedSnapshot.fetchedAt()).isEqualTo(START_TIME.plus(TIME_TO_LIVE));
+    verify(identityServiceClient, times(2)).getAllCustomers();
+  }
+
+  @Test
+  void shouldScheduleSingleBackgroundRefreshForConcurrentReaders() throws ApiGatewayException {
+    var scheduledRefreshes = new ArrayList<Runnable>();
+    var registry =
+        new CustomerRegistry(
+            identityServiceClient, TIME_TO_LIVE, MAX_STALENESS, clock, scheduledRefreshes::add);
+    var originalSnapshot = registry.getSnapshot();
+    when(clock.instant()).thenReturn(START_TIME.plus(TIME_TO_LIVE.dividedBy(2)));
+
+    assertThat(registry.getSnapshot()).isSameAs(originalSnapshot);
+    assertThat(registry.getSnapshot()).isSameAs(originalSnapshot);
+    assertThat(scheduledRefreshes).hasSize(1);
+
+    scheduledRefreshes.getFirst().run();
+    verify(identityServiceClient, times(2)).getAllCustomers();
+    assertThat(registry.getSnapshot()).isNotSameAs(originalSnapshot);
+  }
+
+  @Test
+  void shouldServeStaleSnapshotWhenRefreshFails() throws ApiGatewayException {
+    var originalSnapshot = customerRegistry.getSnapshot();
+    when(clock.instant()).thenReturn(START_TIME.plus(TIME_TO_LIVE).plusSeconds(1));
+    when(identityServiceClient.getAllCustomers()).thenThrow(new RuntimeException("Unavailable"));
+
+    assertThat(customerRegistry.getSnapshot()).isSameAs(originalSnapshot);
+  }
+
+  @Test
+  void shouldThrowWhenRefreshFailsAndSnapshotIsTooOld() throws ApiGatewayException {
+    customerRegistry.getSnapshot();
+    when(clock.instant()).thenReturn(START_TIME.plus(TIME_TO_LIVE).plus(MAX_STALENESS));
+    when(identityServiceClient.getAllCustomers()).thenThrow(new RuntimeException("Unavailable"));
+
+    assertThatThrownBy(() -> customerRegistry.getSnapshot())
+        .isInstanceOf(RuntimeException.class)
+        .hasMessage("Unavailable");
+  }
+
+  @Test
+  void shouldFetchCustomersOnEveryReadWhenCachingIsDisabled() throws ApiGatewayException {
+    var uncachedRegistry = CustomerRegistry.withoutCaching(identityServiceClient);
+
+    uncachedRegistry.getSnapshot();
+    uncachedRegistry.getSnapshot();
+
+    verify(identityServiceClient, times(2)).getAllCustomers();
+  }
+}
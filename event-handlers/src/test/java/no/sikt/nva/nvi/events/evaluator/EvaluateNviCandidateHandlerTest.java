@@ -37,12 +37,15 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.params.provider.Arguments.argumentSet;
 import static org.mockito.Mockito.doThrow;
 
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse.BatchItemFailure;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.net.URI;
 import java.util.List;
 import java.util.stream.Stream;
+import no.sikt.nva.nvi.common.FakeEnvironment;
 import no.sikt.nva.nvi.common.SampleExpandedPublicationFactory;
 import no.sikt.nva.nvi.common.client.model.Organization;
 import no.sikt.nva.nvi.common.dto.PublicationDateDto;
@@ -100,7 +103,7 @@ class EvaluateNviCandidateHandlerTest extends EvaluationTest {
   void shouldSkipEvaluationAndLogWarningOnPublicationWithInvalidYear(
       String content, URI publicationId) throws IOException {
     var fileUri = s3Driver.insertFile(UnixPath.of(randomString()), content);
-    var event = createEvent(new PersistedResourceMessage(fileUri));
+    var event = createEvent(new PersistedResourceMessage(fileUri, false));
     var logRecorder = LogRecorder.forClass(EvaluatorService.class);
     handler.handleRequest(event, CONTEXT);
     var expectedLogMessage = "Skipping evaluation due to invalid year format";
@@ -138,6 +141,35 @@ class EvaluateNviCandidateHandlerTest extends EvaluationTest {
     assertThat(updatedCandidate.modifiedDate()).isAfter(candidate.modifiedDate());
   }
 
+  @Test
+  void shouldSkipEvaluationOfUnchangedPublication() {
+    var publication = getPublicationFromFile("evaluator/candidate.json");
+    handleEvaluation(publication);
+    var candidate = candidateService.getCandidateByPublicationId(HARDCODED_PUBLICATION_ID);
+
+    var logRecorder = LogRecorder.forClass(EvaluatorService.class);
+    handleEvaluation(publication);
+
+    var unchangedCandidate = candidateService.getCandidateByPublicationId(HARDCODED_PUBLICATION_ID);
+    assertThat(unchangedCandidate.revision()).isEqualTo(candidate.revision());
+    assertThat(logRecorder.messages())
+        .anyMatch(message -> message.startsWith("Skipping evaluation of publication"));
+  }
+
+  @Test
+  void shouldEvaluateUnchangedPublicationWhenEvaluationIsForced() {
+    var publication = getPublicationFromFile("evaluator/candidate.json");
+    handleEvaluation(publication);
+
+    var logRecorder = LogRecorder.forClass(EvaluatorService.class);
+    var fileUri = scenario.setupExpandedPublicationInS3(publication);
+    handler.handleRequest(createEvent(new PersistedResourceMessage(fileUri, true)), CONTEXT);
+
+    assertThat(logRecorder.messages())
+        .noneMatch(message -> message.startsWith("Skipping evaluation of publication"))
+        .anyMatch(message -> message.startsWith("Evaluating publication with ID"));
+  }
+
   @Test
   void shouldEvaluateStrippedCandidate() {
     var publication = getPublicationFromFile("evaluator/candidate_stripped.json");
@@ -380,15 +412,50 @@ class EvaluateNviCandidateHandlerTest extends EvaluationTest {
   }
 
   @Test
-  void shouldThrowExceptionWhenProblemsFetchingCustomer() throws ApiGatewayException, IOException {
+  void shouldReportMessageAsFailedWhenProblemsFetchingCustomer()
+      throws ApiGatewayException, IOException {
     var errorMessage = "Internal server error";
     doThrow(new RuntimeException(errorMessage)).when(identityServiceClient).getAllCustomers();
     var fileUri = s3Driver.insertFile(UnixPath.of(ACADEMIC_ARTICLE_PATH), ACADEMIC_ARTICLE);
-    var event = createEvent(new PersistedResourceMessage(fileUri));
+    var event = createEvent(new PersistedResourceMessage(fileUri, false));
+    var messageId = randomString();
+    event.getRecords().getFirst().setMessageId(messageId);
+
+    var response = handler.handleRequest(event, CONTEXT);
+
+    assertThat(response.getBatchItemFailures())
+        .extracting(BatchItemFailure::getItemIdentifier)
+        .containsExactly(messageId);
+  }
+
+  @Test
+  void shouldEvaluateAllPublicationsInBatchAndOnlyReportFailedMessages() throws IOException {
+    var candidateEvent =
+        createEvent(new PersistedResourceMessage(setupPublication(ACADEMIC_ARTICLE), false));
+    var missingFileEvent = createEvent(new PersistedResourceMessage(randomUri(), false));
+    var candidateMessage = candidateEvent.getRecords().getFirst();
+    var missingFileMessage = missingFileEvent.getRecords().getFirst();
+    candidateMessage.setMessageId(randomString());
+    missingFileMessage.setMessageId(randomString());
+    var batch = new SQSEvent();
+    batch.setRecords(List.of(candidateMessage, missingFileMessage));
+    var concurrentHandler =
+        new EvaluateNviCandidateHandler(
+            candidateService,
+            evaluatorService,
+            FakeEnvironment.builder().with("EVALUATION_CONCURRENCY", "2").build());
+
+    var response = concurrentHandler.handleRequest(batch, CONTEXT);
+
+    assertThat(response.getBatchItemFailures())
+        .extracting(BatchItemFailure::getItemIdentifier)
+        .containsExactly(missingFileMessage.getMessageId());
+    var candidate = candidateService.getCandidateByPublicationId(HARDCODED_PUBLICATION_ID);
+    assertThat(candidate.isApplicable()).isTrue();
+  }
 
-    assertThatThrownBy(() -> handler.handleRequest(event, CONTEXT))
-        .isInstanceOf(RuntimeException.class)
-        .hasMessageContaining(errorMessage);
+  private URI setupPublication(String publicationJson) throws IOException {
+    return s3Driver.insertFile(UnixPath.of(randomString()), publicationJson);
   }
 
   @Test
@@ -771,7 +838,7 @@ class EvaluateNviCandidateHandlerTest extends EvaluationTest {
               .withId(publicationId)
               .build();
       var fileUri = scenario.setupExpandedPublicationInS3(publication.toJsonString());
-      var event = createEvent(new PersistedResourceMessage(fileUri));
+      var event = createEvent(new PersistedResourceMessage(fileUri, false));
 
       handler.handleRequest(event, CONTEXT);
 
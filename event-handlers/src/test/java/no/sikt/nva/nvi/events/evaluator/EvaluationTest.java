@@ -46,6 +46,7 @@ class EvaluationTest {
   protected EvaluateNviCandidateHandler handler;
   protected IdentityServiceClient identityServiceClient;
   protected CandidateService candidateService;
+  protected EvaluatorService evaluatorService;
 
   protected static String getPublicationFromFile(String path, URI publicationId) {
     var identifier = SortableIdentifier.fromUri(publicationId);
@@ -70,7 +71,7 @@ class EvaluationTest {
             evaluationEnvironment,
             scenario.getPeriodRepository(),
             scenario.getCandidateRepository());
-    var evaluatorService =
+    evaluatorService =
         new EvaluatorService(
             identityServiceClient,
             scenario.getS3StorageReaderForExpandedResourcesBucket(),
@@ -115,7 +116,7 @@ class EvaluationTest {
    */
   protected void handleEvaluation(String publicationJson) {
     var fileUri = scenario.setupExpandedPublicationInS3(publicationJson);
-    var evaluationEvent = createEvent(new PersistedResourceMessage(fileUri));
+    var evaluationEvent = createEvent(new PersistedResourceMessage(fileUri, false));
     handler.handleRequest(evaluationEvent, CONTEXT);
   }
 
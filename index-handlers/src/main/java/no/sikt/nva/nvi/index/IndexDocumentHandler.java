@@ -1,5 +1,8 @@
 package no.sikt.nva.nvi.index;
 
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static no.sikt.nva.nvi.common.utils.ConcurrencyUtils.withPermit;
 import static no.sikt.nva.nvi.common.utils.ExceptionUtils.getStackTrace;
 import static no.sikt.nva.nvi.index.aws.S3StorageWriter.GZIP_ENDING;
 import static nva.commons.core.StringUtils.isBlank;
@@ -7,14 +10,29 @@ import static nva.commons.core.attempt.Try.attempt;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse.BatchItemFailure;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent.SQSMessage;
+import java.io.IOException;
 import java.net.URI;
-import java.util.Objects;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import no.sikt.nva.nvi.common.S3StorageReader;
 import no.sikt.nva.nvi.common.StorageReader;
 import no.sikt.nva.nvi.common.StorageWriter;
+import no.sikt.nva.nvi.common.client.OrganizationCache;
+import no.sikt.nva.nvi.common.client.OrganizationRetriever;
+import no.sikt.nva.nvi.common.queue.DataEntryType;
 import no.sikt.nva.nvi.common.queue.DynamoDbChangeMessage;
 import no.sikt.nva.nvi.common.queue.NviQueueClient;
 import no.sikt.nva.nvi.common.queue.QueueClient;
@@ -24,6 +42,8 @@ import no.sikt.nva.nvi.index.aws.S3StorageWriter;
 import no.sikt.nva.nvi.index.model.PersistedIndexDocumentMessage;
 import no.sikt.nva.nvi.index.model.PersistedResource;
 import no.sikt.nva.nvi.index.model.document.IndexDocumentWithConsumptionAttributes;
+import no.sikt.nva.nvi.index.model.document.NviCandidateIndexDocument;
+import no.sikt.nva.nvi.index.utils.NviCandidateIndexDocumentGenerator;
 import no.unit.nva.auth.uriretriever.UriRetriever;
 import nva.commons.core.Environment;
 import nva.commons.core.JacocoGenerated;
@@ -32,12 +52,17 @@ import nva.commons.core.paths.UriWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class IndexDocumentHandler implements RequestHandler<SQSEvent, Void> {
+@SuppressWarnings({"PMD.DoNotUseThreads", "PMD.AvoidCatchingGenericException"})
+public class IndexDocumentHandler implements RequestHandler<SQSEvent, SQSBatchResponse> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(IndexDocumentHandler.class);
   private static final String INDEX_DLQ = "INDEX_DLQ";
   private static final String EXPANDED_RESOURCES_BUCKET = "EXPANDED_RESOURCES_BUCKET";
   private static final String QUEUE_URL = "PERSISTED_INDEX_DOCUMENT_QUEUE_URL";
+  private static final String CONCURRENCY = "INDEX_DOCUMENT_CONCURRENCY";
+  private static final String GENERATION_CONCURRENCY = "INDEX_DOCUMENT_GENERATION_CONCURRENCY";
+  private static final int DEFAULT_CONCURRENCY = 1;
+  private static final String S3_SCHEME = "s3";
   private static final String ERROR_MESSAGE = "Error message: {}";
   private static final String FAILED_SENDING_EVENT_MESSAGE = "Failed to send message to queue: {}";
   private static final String FAILED_TO_PERSIST_MESSAGE = "Failed to save {} in bucket";
@@ -52,11 +77,14 @@ public class IndexDocumentHandler implements RequestHandler<SQSEvent, Void> {
   private final StorageReader<URI> storageReader;
   private final StorageWriter<IndexDocumentWithConsumptionAttributes> storageWriter;
   private final CandidateService candidateService;
-  private final UriRetriever uriRetriever;
+  private final OrganizationRetriever organizationRetriever;
   private final QueueClient sqsClient;
   private final String queueUrl;
   private final String dlqUrl;
   private final Environment environment;
+  private final String indexDocumentBucket;
+  private final int concurrency;
+  private final Semaphore generationPermits;
 
   @JacocoGenerated
   public IndexDocumentHandler() {
@@ -65,7 +93,7 @@ public class IndexDocumentHandler implements RequestHandler<SQSEvent, Void> {
         new S3StorageWriter(new Environment().readEnv(EXPANDED_RESOURCES_BUCKET)),
         new NviQueueClient(),
         CandidateService.defaultCandidateService(),
-        new UriRetriever(),
+        OrganizationRetriever.defaultOrganizationRetriever(),
         new Environment());
   }
 
@@ -76,30 +104,141 @@ public class IndexDocumentHandler implements RequestHandler<SQSEvent, Void> {
       CandidateService candidateService,
       UriRetriever uriRetriever,
       Environment environment) {
+    this(
+        storageReader,
+        storageWriter,
+        sqsClient,
+        candidateService,
+        new OrganizationRetriever(uriRetriever, createHandlerScopedCache()),
+        environment);
+  }
+
+  public IndexDocumentHandler(
+      StorageReader<URI> storageReader,
+      StorageWriter<IndexDocumentWithConsumptionAttributes> storageWriter,
+      QueueClient sqsClient,
+      CandidateService candidateService,
+      OrganizationRetriever organizationRetriever,
+      Environment environment) {
     this.storageReader = storageReader;
     this.storageWriter = storageWriter;
     this.sqsClient = sqsClient;
     this.candidateService = candidateService;
-    this.uriRetriever = uriRetriever;
+    this.organizationRetriever = organizationRetriever;
     this.queueUrl = environment.readEnv(QUEUE_URL);
     this.dlqUrl = environment.readEnv(INDEX_DLQ);
     this.environment = environment;
+    this.indexDocumentBucket = environment.readEnv(EXPANDED_RESOURCES_BUCKET);
+    this.concurrency = readConcurrency(environment, CONCURRENCY, DEFAULT_CONCURRENCY);
+    this.generationPermits =
+        new Semaphore(readConcurrency(environment, GENERATION_CONCURRENCY, concurrency));
   }
 
   @Override
-  public Void handleRequest(SQSEvent input, Context context) {
+  public SQSBatchResponse handleRequest(SQSEvent input, Context context) {
     LOGGER.info("Received event with {} records", input.getRecords().size());
-    input.getRecords().stream()
-        .map(SQSMessage::getBody)
-        .map(this::mapToDbChangeMessage)
-        .filter(Objects::nonNull)
-        .map(this::generateIndexDocument)
-        .filter(Objects::nonNull)
-        .map(this::persistDocument)
-        .filter(Objects::nonNull)
-        .forEach(this::sendEvent);
-    LOGGER.info("Finished processing all records");
-    return null;
+    var failures = processMessages(input.getRecords());
+    LOGGER.info("Finished processing all records with {} failures", failures.size());
+    return new SQSBatchResponse(failures);
+  }
+
+  private List<BatchItemFailure> processMessages(List<SQSMessage> messages) {
+    var messageGroups = groupByCandidate(messages);
+    if (concurrency <= 1 || messageGroups.size() <= 1) {
+      return messageGroups.stream()
+          .map(this::processMessagesInOrder)
+          .flatMap(List::stream)
+          .toList();
+    }
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var messagePermits = new Semaphore(concurrency);
+      var pendingGroups =
+          messageGroups.stream()
+              .map(messageGroup -> processAsync(messageGroup, messagePermits, executor))
+              .toList();
+      return pendingGroups.stream().map(CompletableFuture::join).flatMap(List::stream).toList();
+    }
+  }
+
+  /**
+   * Groups the messages by the candidate they refer to, so that two messages for the same candidate
+   * are never processed at the same time. Otherwise an approval refresh could read the persisted
+   * document before a concurrent full rebuild is written, and overwrite it with stale publication
+   * details. Messages that cannot be parsed get a group of their own.
+   */
+  private static Collection<List<SQSMessage>> groupByCandidate(List<SQSMessage> messages) {
+    var messageGroups = new ArrayList<List<SQSMessage>>();
+    var messageGroupsByCandidate = new HashMap<UUID, List<SQSMessage>>();
+    for (var message : messages) {
+      var candidateIdentifier =
+          attempt(() -> DynamoDbChangeMessage.from(message.getBody()).candidateIdentifier())
+              .orElse(failure -> null);
+      var existingGroup = messageGroupsByCandidate.get(candidateIdentifier);
+      if (nonNull(existingGroup)) {
+        existingGroup.add(message);
+      } else {
+        var messageGroup = new ArrayList<SQSMessage>();
+        messageGroup.add(message);
+        messageGroups.add(messageGroup);
+        if (nonNull(candidateIdentifier)) {
+          messageGroupsByCandidate.put(candidateIdentifier, messageGroup);
+        }
+      }
+    }
+    return messageGroups;
+  }
+
+  private CompletableFuture<List<BatchItemFailure>> processAsync(
+      List<SQSMessage> messageGroup, Semaphore messagePermits, Executor executor) {
+    return CompletableFuture.supplyAsync(
+        () -> withPermit(messagePermits, () -> processMessagesInOrder(messageGroup)), executor);
+  }
+
+  private List<BatchItemFailure> processMessagesInOrder(List<SQSMessage> messageGroup) {
+    return messageGroup.stream()
+        .map(this::processMessageAndReportFailure)
+        .flatMap(Optional::stream)
+        .toList();
+  }
+
+  /**
+   * Processes one message. Failures in the individual stages are sent to the DLQ by the stages
+   * themselves, so only unexpected failures are reported back to SQS for retry.
+   */
+  private Optional<BatchItemFailure> processMessageAndReportFailure(SQSMessage message) {
+    try {
+      processMessage(message);
+      return Optional.empty();
+    } catch (RuntimeException exception) {
+      LOGGER.error("Failed to process message {}", message.getMessageId(), exception);
+      return Optional.of(new BatchItemFailure(message.getMessageId()));
+    }
+  }
+
+  private void processMessage(SQSMessage message) {
+    var dbChangeMessage = mapToDbChangeMessage(message.getBody());
+    if (isNull(dbChangeMessage)) {
+      return;
+    }
+    var update = withPermit(generationPermits, () -> generateIndexDocument(dbChangeMessage));
+    if (isNull(update)) {
+      return;
+    }
+    var documentUri = persistDocument(update);
+    if (nonNull(documentUri)) {
+      sendEvent(documentUri);
+    }
+  }
+
+  private static int readConcurrency(Environment environment, String name, int defaultValue) {
+    return environment.readEnvOpt(name).map(Integer::parseInt).orElse(defaultValue);
+  }
+
+  private static OrganizationCache createHandlerScopedCache() {
+    return new OrganizationCache(
+        OrganizationCache.DEFAULT_TIME_TO_LIVE,
+        OrganizationCache.DEFAULT_MAX_SIZE,
+        Clock.systemUTC());
   }
 
   private static UUID extractCandidateIdentifier(URI docuemntUri) {
@@ -132,7 +271,18 @@ public class IndexDocumentHandler implements RequestHandler<SQSEvent, Void> {
             });
   }
 
-  private URI persistDocument(IndexDocumentWithConsumptionAttributes document) {
+  /**
+   * Persists the document unless the stored copy has the same content hash. Returns null if
+   * nothing was written, so that an unchanged document is not sent for indexing again. Documents
+   * missing from the search index are restored by {@link ReindexNviCandidatesHandler}.
+   */
+  private URI persistDocument(IndexDocumentUpdate update) {
+    var document = update.document();
+    if (update.isUnchanged()) {
+      var identifier = document.indexDocument().identifier();
+      LOGGER.info("Index document is unchanged, skipping persist for candidate: {}", identifier);
+      return null;
+    }
     return attempt(() -> document.persist(storageWriter))
         .orElse(
             failure -> {
@@ -169,10 +319,9 @@ public class IndexDocumentHandler implements RequestHandler<SQSEvent, Void> {
         candidate.publicationDetails().publicationBucketUri(), storageReader);
   }
 
-  private IndexDocumentWithConsumptionAttributes generateIndexDocument(
-      DynamoDbChangeMessage message) {
+  private IndexDocumentUpdate generateIndexDocument(DynamoDbChangeMessage message) {
     var identifier = message.candidateIdentifier();
-    return attempt(() -> generateIndexDocumentWithConsumptionAttributes(identifier))
+    return attempt(() -> generateIndexDocumentWithConsumptionAttributes(message))
         .orElse(
             failure -> {
               handleFailure(
@@ -184,9 +333,9 @@ public class IndexDocumentHandler implements RequestHandler<SQSEvent, Void> {
             });
   }
 
-  private IndexDocumentWithConsumptionAttributes generateIndexDocumentWithConsumptionAttributes(
-      UUID candidateIdentifier) {
-    var candidate = fetchCandidate(candidateIdentifier);
+  private IndexDocumentUpdate generateIndexDocumentWithConsumptionAttributes(
+      DynamoDbChangeMessage message) {
+    var candidate = fetchCandidate(message.candidateIdentifier());
     if (candidate == null) {
       LOGGER.info("Candidate is null, skipping index document generation");
       return null;
@@ -195,16 +344,85 @@ public class IndexDocumentHandler implements RequestHandler<SQSEvent, Void> {
       LOGGER.info("Candidate is not applicable, skipping index document generation");
       return null;
     }
+    if (DataEntryType.APPROVAL_STATUS.equals(message.entryType())) {
+      return refreshApprovals(candidate);
+    }
+    var previousContentHash = readPersistedContentHash(candidate.identifier());
+    return new IndexDocumentUpdate(
+        generateIndexDocumentWithConsumptionAttributes(candidate), previousContentHash);
+  }
+
+  /**
+   * Approval changes do not affect the publication, so the approvals are updated in the previously
+   * persisted document instead of generating it again from the expanded publication. If there is no
+   * usable previous document, the document is generated in full. The content hash of the previous
+   * document is computed from the copy already read, so the document is only read once.
+   */
+  private IndexDocumentUpdate refreshApprovals(Candidate candidate) {
     var id = candidate.getPublicationId();
-    LOGGER.info("Generated index document for applicable candidate with publication ID: {}", id);
-    return generateIndexDocumentWithConsumptionAttributes(candidate);
+    var previousDocument = readPersistedIndexDocument(candidate.identifier());
+    var previousContentHash =
+        previousDocument
+            .map(IndexDocumentWithConsumptionAttributes::from)
+            .map(IndexDocumentWithConsumptionAttributes::contentHash)
+            .orElse(null);
+    var refreshedDocument =
+        previousDocument.flatMap(
+            document ->
+                NviCandidateIndexDocumentGenerator.refreshApprovals(
+                    document, candidate, environment));
+    if (refreshedDocument.isPresent()) {
+      LOGGER.info("Refreshed approvals in index document for publication ID: {}", id);
+      return new IndexDocumentUpdate(
+          IndexDocumentWithConsumptionAttributes.from(refreshedDocument.get()),
+          previousContentHash);
+    }
+    return new IndexDocumentUpdate(
+        generateIndexDocumentWithConsumptionAttributes(candidate), previousContentHash);
+  }
+
+  private String readPersistedContentHash(UUID identifier) {
+    var documentUri = createPersistedDocumentUri(identifier);
+    return attempt(() -> readContentHash(documentUri))
+        .orElse(failure -> Optional.<String>empty())
+        .orElse(null);
+  }
+
+  private Optional<String> readContentHash(URI documentUri) throws IOException {
+    try (var inputStream = storageReader.readStream(documentUri)) {
+      return IndexDocumentWithConsumptionAttributes.readContentHash(inputStream);
+    }
+  }
+
+  private URI createPersistedDocumentUri(UUID identifier) {
+    return new UriWrapper(S3_SCHEME, indexDocumentBucket)
+        .addChild(S3StorageWriter.createFilePath(identifier))
+        .getUri();
+  }
+
+  private Optional<NviCandidateIndexDocument> readPersistedIndexDocument(UUID identifier) {
+    var documentUri = createPersistedDocumentUri(identifier);
+    var document = attempt(() -> readIndexDocument(documentUri)).toOptional();
+    if (document.isEmpty()) {
+      LOGGER.info("No persisted index document found for candidate: {}", identifier);
+    }
+    return document;
+  }
+
+  private NviCandidateIndexDocument readIndexDocument(URI documentUri) throws IOException {
+    try (var inputStream = storageReader.readStream(documentUri)) {
+      return IndexDocumentWithConsumptionAttributes.readIndexDocument(inputStream);
+    }
   }
 
   private IndexDocumentWithConsumptionAttributes generateIndexDocumentWithConsumptionAttributes(
       Candidate candidate) {
     var persistedResource = fetchPersistedResource(candidate);
+    LOGGER.info(
+        "Generated index document for applicable candidate with publication ID: {}",
+        candidate.getPublicationId());
     return IndexDocumentWithConsumptionAttributes.from(
-        candidate, persistedResource, uriRetriever, environment);
+        candidate, persistedResource, organizationRetriever, environment);
   }
 
   private void validateErrorMessage(String message) {
@@ -226,4 +444,13 @@ public class IndexDocumentHandler implements RequestHandler<SQSEvent, Void> {
     logFailure(errorMessage, messageArgument, failure.getException());
     sqsClient.sendMessage(getStackTrace(failure.getException()), dlqUrl, candidateIdentifier);
   }
+
+  /** A generated document, and the content hash of the copy persisted before it, if any. */
+  private record IndexDocumentUpdate(
+      IndexDocumentWithConsumptionAttributes document, String previousContentHash) {
+
+    private boolean isUnchanged() {
+      return document.contentHash().equals(previousContentHash);
+    }
+  }
 }
@@ -0,0 +1,244 @@
+package no.sikt.nva.nvi.index;
+
+import static java.util.Objects.nonNull;
+import static no.sikt.nva.nvi.common.utils.ConcurrencyUtils.acquire;
+import static no.sikt.nva.nvi.index.aws.S3StorageWriter.NVI_CANDIDATES_FOLDER;
+import static no.sikt.nva.nvi.index.utils.SearchConstants.NVI_CANDIDATES_INDEX;
+import static nva.commons.core.attempt.Try.attempt;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import no.sikt.nva.nvi.common.S3StorageReader;
+import no.sikt.nva.nvi.common.StorageReader;
+import no.sikt.nva.nvi.index.aws.BulkIndexResult;
+import no.sikt.nva.nvi.index.aws.CandidateSearchClient;
+import no.sikt.nva.nvi.index.model.document.IndexDocumentWithConsumptionAttributes;
+import no.sikt.nva.nvi.index.model.document.NviCandidateIndexDocument;
+import no.unit.nva.s3.S3Driver;
+import nva.commons.core.Environment;
+import nva.commons.core.JacocoGenerated;
+import nva.commons.core.paths.UnixPath;
+import nva.commons.core.paths.UriWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Rebuilds the candidate index from the documents persisted in S3, without search downtime.
+ *
+ * <p>The documents are loaded into a new versioned index with refresh and replicas turned off,
+ * using parallel bulk requests. When all documents are loaded, the index gets its normal settings
+ * and the {@code nvi-candidates} alias is moved to it in one atomic request. Updates made while the
+ * new index was being loaded went to the previous index, so documents persisted after the load
+ * started are indexed again once the alias has moved.
+ *
+ * <p>If any document could not be loaded, or anything else fails before the alias is moved, the new
+ * index is deleted and the alias is left as it was. The alias is also left as it was if too little
+ * time remains of the invocation to index the documents persisted during the load.
+ */
+@SuppressWarnings({"PMD.DoNotUseThreads", "PMD.AvoidCatchingGenericException"})
+public class ReindexNviCandidatesHandler implements RequestHandler<Object, String> {
+
+  public static final String FINISHED = "FINISHED";
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReindexNviCandidatesHandler.class);
+  private static final String EXPANDED_RESOURCES_BUCKET = "EXPANDED_RESOURCES_BUCKET";
+  private static final String CONCURRENCY = "REINDEX_CONCURRENCY";
+  private static final String NUMBER_OF_REPLICAS = "INDEX_NUMBER_OF_REPLICAS";
+  private static final String BULK_MAX_PAYLOAD_BYTES = "INDEX_BULK_MAX_PAYLOAD_BYTES";
+  private static final int DEFAULT_CONCURRENCY = 8;
+  private static final String DEFAULT_NUMBER_OF_REPLICAS = "1";
+  private static final long DEFAULT_BULK_MAX_PAYLOAD_BYTES = 5L * 1024 * 1024;
+  private static final int LISTING_PAGE_SIZE = 500;
+  private static final Duration CLOCK_SKEW_MARGIN = Duration.ofMinutes(1);
+  private static final Duration CATCH_UP_RESERVED_TIME = Duration.ofMinutes(2);
+  private static final String S3_SCHEME = "s3";
+  private static final String PATH_DELIMITER = "/";
+  private final CandidateSearchClient searchClient;
+  private final S3Client s3Client;
+  private final StorageReader<URI> storageReader;
+  private final String bucket;
+  private final int concurrency;
+  private final String numberOfReplicas;
+  private final long bulkMaxPayloadBytes;
+
+  @JacocoGenerated
+  public ReindexNviCandidatesHandler() {
+    this(
+        CandidateSearchClient.defaultOpenSearchClient(),
+        S3Driver.defaultS3Client().build(),
+        new Environment());
+  }
+
+  public ReindexNviCandidatesHandler(
+      CandidateSearchClient searchClient, S3Client s3Client, Environment environment) {
+    this.searchClient = searchClient;
+    this.s3Client = s3Client;
+    this.bucket = environment.readEnv(EXPANDED_RESOURCES_BUCKET);
+    this.storageReader = new S3StorageReader(s3Client, bucket);
+    this.concurrency =
+        environment.readEnvOpt(CONCURRENCY).map(Integer::parseInt).orElse(DEFAULT_CONCURRENCY);
+    this.numberOfReplicas =
+        environment.readEnvOpt(NUMBER_OF_REPLICAS).orElse(DEFAULT_NUMBER_OF_REPLICAS);
+    this.bulkMaxPayloadBytes =
+        environment
+            .readEnvOpt(BULK_MAX_PAYLOAD_BYTES)
+            .map(Long::parseLong)
+            .orElse(DEFAULT_BULK_MAX_PAYLOAD_BYTES);
+  }
+
+  @Override
+  public String handleRequest(Object input, Context context) {
+    var loadStartedAt = Instant.now().minus(CLOCK_SKEW_MARGIN);
+    var indexName = searchClient.createBulkLoadIndex();
+    try {
+      loadIndex(indexName, context);
+    } catch (RuntimeException exception) {
+      deleteIndex(indexName);
+      throw exception;
+    }
+    searchClient.swapAlias(indexName);
+
+    var catchUpProgress =
+        loadDocuments(NVI_CANDIDATES_INDEX, document -> isModifiedAfter(document, loadStartedAt));
+    LOGGER.info("Indexed documents persisted during the load: {}", catchUpProgress);
+    if (catchUpProgress.hasFailures()) {
+      throw new IllegalStateException(
+          "Alias was moved, but documents persisted during the load failed: " + catchUpProgress);
+    }
+    LOGGER.info(FINISHED);
+    return FINISHED;
+  }
+
+  private void loadIndex(String indexName, Context context) {
+    LOGGER.info("Loading persisted documents into index {}", indexName);
+    var loadProgress = loadDocuments(indexName, document -> true);
+    LOGGER.info("Loaded documents into index {}: {}", indexName, loadProgress);
+    if (loadProgress.hasFailures()) {
+      throw new IllegalStateException("Reindexing failed, alias is unchanged: " + loadProgress);
+    }
+    searchClient.finishBulkLoad(indexName, numberOfReplicas);
+    var remainingTime = Duration.ofMillis(context.getRemainingTimeInMillis());
+    if (remainingTime.compareTo(CATCH_UP_RESERVED_TIME) < 0) {
+      throw new IllegalStateException(
+          "Reindexing failed, alias is unchanged: too little time left to index the documents"
+              + " persisted during the load: "
+              + remainingTime);
+    }
+  }
+
+  private static boolean isModifiedAfter(S3Object document, Instant instant) {
+    return nonNull(document.lastModified()) && document.lastModified().isAfter(instant);
+  }
+
+  /**
+   * Lists the persisted documents one page at a time, and indexes each page on a separate virtual
+   * thread. At most {@code concurrency} pages are being read and indexed at the same time.
+   */
+  private LoadProgress loadDocuments(String indexName, Predicate<S3Object> filter) {
+    var progress = new LoadProgress();
+    var permits = new Semaphore(concurrency);
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      String continuationToken = null;
+      var hasMorePages = true;
+      while (hasMorePages) {
+        var response = s3Client.listObjectsV2(createListingRequest(continuationToken));
+        var keys = response.contents().stream().filter(filter).map(S3Object::key).toList();
+        acquire(permits);
+        executor.execute(
+            () -> {
+              try {
+                indexDocuments(indexName, keys, progress);
+              } finally {
+                permits.release();
+              }
+            });
+        continuationToken = response.nextContinuationToken();
+        hasMorePages = Boolean.TRUE.equals(response.isTruncated());
+      }
+    }
+    return progress;
+  }
+
+  private ListObjectsV2Request createListingRequest(String continuationToken) {
+    return ListObjectsV2Request.builder()
+        .bucket(bucket)
+        .prefix(NVI_CANDIDATES_FOLDER + PATH_DELIMITER)
+        .maxKeys(LISTING_PAGE_SIZE)
+        .continuationToken(continuationToken)
+        .build();
+  }
+
+  private void indexDocuments(String indexName, List<String> keys, LoadProgress progress) {
+    var documents = new ArrayList<NviCandidateIndexDocument>();
+    for (var key : keys) {
+      readDocument(key).ifPresentOrElse(documents::add, progress::recordReadFailure);
+    }
+    if (!documents.isEmpty()) {
+      progress.record(searchClient.addDocumentsToIndex(indexName, documents, bulkMaxPayloadBytes));
+    }
+  }
+
+  private Optional<NviCandidateIndexDocument> readDocument(String key) {
+    var documentUri = new UriWrapper(S3_SCHEME, bucket).addChild(UnixPath.fromString(key)).getUri();
+    return attempt(() -> readIndexDocument(documentUri))
+        .map(Optional::of)
+        .orElse(
+            failure -> {
+              LOGGER.error("Failed to read document {}", key, failure.getException());
+              return Optional.empty();
+            });
+  }
+
+  private NviCandidateIndexDocument readIndexDocument(URI documentUri) throws IOException {
+    try (var inputStream = storageReader.readStream(documentUri)) {
+      return IndexDocumentWithConsumptionAttributes.readIndexDocument(inputStream);
+    }
+  }
+
+  private void deleteIndex(String indexName) {
+    attempt(() -> searchClient.deleteIndex(indexName))
+        .orElse(
+            failure -> {
+              LOGGER.error("Failed to delete index {}", indexName, failure.getException());
+              return null;
+            });
+  }
+
+  private static final class LoadProgress {
+
+    private final AtomicInteger indexedCount = new AtomicInteger();
+    private final AtomicInteger failedCount = new AtomicInteger();
+
+    private void record(BulkIndexResult result) {
+      indexedCount.addAndGet(result.indexedCount());
+      failedCount.addAndGet(result.failures().size());
+      result.failures().forEach(failure -> LOGGER.error("Failed to index document: {}", failure));
+    }
+
+    private void recordReadFailure() {
+      failedCount.incrementAndGet();
+    }
+
+    private boolean hasFailures() {
+      return failedCount.get() > 0;
+    }
+
+    @Override
+    public String toString() {
+      return "indexed=" + indexedCount.get() + ", failed=" + failedCount.get();
+    }
+  }
+}
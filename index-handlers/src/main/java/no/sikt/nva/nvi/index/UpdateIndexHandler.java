@@ -1,16 +1,26 @@
 package no.sikt.nva.nvi.index;
 
+import static no.sikt.nva.nvi.common.utils.ConcurrencyUtils.withPermit;
 import static no.sikt.nva.nvi.common.utils.ExceptionUtils.getStackTrace;
 import static no.unit.nva.commons.json.JsonUtils.dtoObjectMapper;
 import static nva.commons.core.attempt.Try.attempt;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse.BatchItemFailure;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent.SQSMessage;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
 import java.net.URI;
-import java.util.Objects;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
 import no.sikt.nva.nvi.common.S3StorageReader;
 import no.sikt.nva.nvi.common.StorageReader;
 import no.sikt.nva.nvi.common.queue.NviQueueClient;
@@ -25,7 +35,8 @@ import nva.commons.core.attempt.Failure;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class UpdateIndexHandler implements RequestHandler<SQSEvent, Void> {
+@SuppressWarnings("PMD.DoNotUseThreads")
+public class UpdateIndexHandler implements RequestHandler<SQSEvent, SQSBatchResponse> {
 
   public static final String FAILED_TO_ADD_DOCUMENT_TO_INDEX =
       "Failed to add document to index: {}";
@@ -37,11 +48,17 @@ public class UpdateIndexHandler implements RequestHandler<SQSEvent, Void> {
       "Failed to fetch document from S3: {}";
   private static final String ERROR_MESSAGE = "Error message: {}";
   private static final String EXPANDED_RESOURCES_BUCKET = "EXPANDED_RESOURCES_BUCKET";
+  private static final String BULK_MAX_PAYLOAD_BYTES = "INDEX_BULK_MAX_PAYLOAD_BYTES";
+  private static final long DEFAULT_BULK_MAX_PAYLOAD_BYTES = 5L * 1024 * 1024;
+  private static final String FETCH_CONCURRENCY = "INDEX_DOCUMENT_FETCH_CONCURRENCY";
+  private static final int DEFAULT_FETCH_CONCURRENCY = 1;
   public static final String EXCEPTION_FIELD = "exception";
   private final CandidateSearchClient searchClient;
   private final StorageReader<URI> storageReader;
   private final QueueClient queueClient;
   private final String dlqUrl;
+  private final long bulkMaxPayloadBytes;
+  private final int fetchConcurrency;
 
   @JacocoGenerated
   public UpdateIndexHandler() {
@@ -55,28 +72,103 @@ public class UpdateIndexHandler implements RequestHandler<SQSEvent, Void> {
       CandidateSearchClient searchClient,
       StorageReader<URI> storageReader,
       QueueClient queueClient) {
+    this(searchClient, storageReader, queueClient, new Environment());
+  }
+
+  public UpdateIndexHandler(
+      CandidateSearchClient searchClient,
+      StorageReader<URI> storageReader,
+      QueueClient queueClient,
+      Environment environment) {
     this.searchClient = searchClient;
     this.storageReader = storageReader;
     this.queueClient = queueClient;
-    this.dlqUrl = new Environment().readEnv(INDEX_DLQ);
+    this.dlqUrl = environment.readEnv(INDEX_DLQ);
+    this.bulkMaxPayloadBytes =
+        environment
+            .readEnvOpt(BULK_MAX_PAYLOAD_BYTES)
+            .map(Long::parseLong)
+            .orElse(DEFAULT_BULK_MAX_PAYLOAD_BYTES);
+    this.fetchConcurrency =
+        environment
+            .readEnvOpt(FETCH_CONCURRENCY)
+            .map(Integer::parseInt)
+            .orElse(DEFAULT_FETCH_CONCURRENCY);
   }
 
   @Override
-  public Void handleRequest(SQSEvent input, Context context) {
-    input.getRecords().stream()
-        .map(SQSMessage::getBody)
-        .map(this::extractDocumentUriFromBody)
-        .filter(Objects::nonNull)
+  public SQSBatchResponse handleRequest(SQSEvent input, Context context) {
+    var messages = fetchDocuments(input.getRecords());
+
+    if (messages.size() == 1) {
+      addDocumentToIndex(messages.getFirst().document());
+      return new SQSBatchResponse(List.of());
+    }
+    return addDocumentsToIndex(messages);
+  }
+
+  /**
+   * Fetches the documents referenced by the messages, keeping the order of the messages. With a
+   * fetch concurrency above one, the documents are fetched from S3 concurrently.
+   */
+  private List<DocumentMessage> fetchDocuments(List<SQSMessage> messages) {
+    if (fetchConcurrency <= 1 || messages.size() <= 1) {
+      return messages.stream().map(this::fetchDocument).flatMap(Optional::stream).toList();
+    }
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var fetchPermits = new Semaphore(fetchConcurrency);
+      var pendingFetches =
+          messages.stream()
+              .map(
+                  message ->
+                      CompletableFuture.supplyAsync(
+                          () -> withPermit(fetchPermits, () -> fetchDocument(message)), executor))
+              .toList();
+      return pendingFetches.stream()
+          .map(CompletableFuture::join)
+          .flatMap(Optional::stream)
+          .toList();
+    }
+  }
+
+  private Optional<DocumentMessage> fetchDocument(SQSMessage message) {
+    return Optional.ofNullable(extractDocumentUriFromBody(message.getBody()))
         .map(this::fetchDocument)
-        .filter(Objects::nonNull)
-        .forEach(this::addDocumentToIndex);
-    return null;
+        .map(document -> new DocumentMessage(message.getMessageId(), document));
   }
 
-  private static IndexDocumentWithConsumptionAttributes parseBlob(String blob) {
-    return attempt(
-            () -> dtoObjectMapper.readValue(blob, IndexDocumentWithConsumptionAttributes.class))
-        .orElseThrow();
+  /**
+   * Indexes the documents with the bulk API. Documents that failed because of throttling or server
+   * errors are returned as batch item failures so SQS retries them, while documents that
+   * OpenSearch rejected are sent to the DLQ.
+   */
+  private SQSBatchResponse addDocumentsToIndex(List<DocumentMessage> messages) {
+    if (messages.isEmpty()) {
+      return new SQSBatchResponse(List.of());
+    }
+    var documents = messages.stream().map(DocumentMessage::document).toList();
+    var result = searchClient.addDocumentsToIndex(documents, bulkMaxPayloadBytes);
+    LOGGER.info(
+        "Indexed {} of {} documents with the bulk API", result.indexedCount(), documents.size());
+
+    var messagesByIdentifier =
+        messages.stream()
+            .collect(Collectors.groupingBy(message -> message.document().identifier()));
+    var failedMessageIds = new LinkedHashSet<String>();
+    for (var failure : result.failures()) {
+      var failedMessages = messagesByIdentifier.getOrDefault(failure.identifier(), List.of());
+      if (failure.retryable()) {
+        failedMessages.forEach(message -> failedMessageIds.add(message.messageId()));
+      } else if (!failedMessages.isEmpty()) {
+        handleFailure(
+            new IllegalStateException(failure.reason()),
+            new PersistedIndexDocumentMessage(failedMessages.getFirst().document().id())
+                .toJsonString(),
+            FAILED_TO_ADD_DOCUMENT_TO_INDEX);
+      }
+    }
+    var batchItemFailures = failedMessageIds.stream().map(BatchItemFailure::new).toList();
+    return new SQSBatchResponse(batchItemFailures);
   }
 
   private static void logFailure(String message, String messageArgument, Exception exception) {
@@ -96,7 +188,10 @@ public class UpdateIndexHandler implements RequestHandler<SQSEvent, Void> {
   }
 
   private void handleFailure(Failure<?> failure, String body, String logMessage) {
-    var exception = failure.getException();
+    handleFailure(failure.getException(), body, logMessage);
+  }
+
+  private void handleFailure(Exception exception, String body, String logMessage) {
     logFailure(logMessage, body, exception);
     var messageWithError = injectExceptionIntoJson(body, exception);
     queueClient.sendMessage(messageWithError, dlqUrl);
@@ -123,7 +218,7 @@ public class UpdateIndexHandler implements RequestHandler<SQSEvent, Void> {
   }
 
   private NviCandidateIndexDocument fetchDocument(URI documentUri) {
-    return attempt(() -> parseBlob(storageReader.read(documentUri)).indexDocument())
+    return attempt(() -> readIndexDocument(documentUri))
         .orElse(
             failure -> {
               handleFailure(
@@ -133,4 +228,12 @@ public class UpdateIndexHandler implements RequestHandler<SQSEvent, Void> {
               return null;
             });
   }
+
+  private NviCandidateIndexDocument readIndexDocument(URI documentUri) throws IOException {
+    try (var inputStream = storageReader.readStream(documentUri)) {
+      return IndexDocumentWithConsumptionAttributes.readIndexDocument(inputStream);
+    }
+  }
+
+  private record DocumentMessage(String messageId, NviCandidateIndexDocument document) {}
 }
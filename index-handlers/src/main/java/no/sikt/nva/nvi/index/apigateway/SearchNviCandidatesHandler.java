@@ -21,7 +21,6 @@ import no.sikt.nva.nvi.index.model.document.NviCandidateIndexDocument;
 import no.sikt.nva.nvi.index.model.search.CandidateSearchParameters;
 import no.sikt.nva.nvi.viewingscope.ViewingScopeValidator;
 import no.sikt.nva.nvi.viewingscope.ViewingScopeValidatorImpl;
-import no.unit.nva.auth.uriretriever.UriRetriever;
 import no.unit.nva.clients.IdentityServiceClient;
 import no.unit.nva.commons.pagination.PaginatedSearchResult;
 import nva.commons.apigateway.ApiGatewayHandler;
@@ -93,7 +92,7 @@ public class SearchNviCandidatesHandler
   @JacocoGenerated
   private static ViewingScopeValidatorImpl defaultViewingScopeValidator() {
     return new ViewingScopeValidatorImpl(
-        IdentityServiceClient.prepare(), new OrganizationRetriever(new UriRetriever()));
+        IdentityServiceClient.prepare(), OrganizationRetriever.defaultOrganizationRetriever());
   }
 
   private static Optional<List<String>> extractQueryParamAffiliations(RequestInfo requestInfo) {
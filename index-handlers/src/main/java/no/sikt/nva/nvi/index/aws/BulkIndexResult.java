@@ -0,0 +1,45 @@
+package no.sikt.nva.nvi.index.aws;
+
+import java.util.List;
+import java.util.UUID;
+import org.opensearch.client.opensearch.core.bulk.BulkResponseItem;
+
+/**
+ * Outcome of indexing several documents with one or more bulk requests.
+ *
+ * @param indexedCount number of documents that were indexed
+ * @param failures documents that were not indexed
+ */
+public record BulkIndexResult(int indexedCount, List<Failure> failures) {
+
+  private static final int TOO_MANY_REQUESTS = 429;
+  private static final int BAD_REQUEST = 400;
+  private static final int SERVER_ERROR = 500;
+
+  public BulkIndexResult {
+    failures = List.copyOf(failures);
+  }
+
+  /**
+   * A document that was not indexed. Failures caused by throttling, server errors or a failed
+   * request are retryable, while failures caused by the document itself are not.
+   */
+  public record Failure(UUID identifier, int status, String reason, boolean retryable) {
+
+    public static Failure fromItem(BulkResponseItem item) {
+      var status = item.status();
+      var reason = item.error().type() + ": " + item.error().reason();
+      var retryable = status == TOO_MANY_REQUESTS || status >= SERVER_ERROR;
+      return new Failure(UUID.fromString(item.id()), status, reason, retryable);
+    }
+
+    public static Failure fromFailedRequest(UUID identifier, Exception exception) {
+      return new Failure(identifier, SERVER_ERROR, exception.getMessage(), true);
+    }
+
+    /** A document that could not be serialized, and that would fail again if retried. */
+    public static Failure fromUnserializable(UUID identifier, Exception exception) {
+      return new Failure(identifier, BAD_REQUEST, exception.getMessage(), false);
+    }
+  }
+}
@@ -1,12 +1,21 @@
 package no.sikt.nva.nvi.index.aws;
 
+import static java.util.Objects.nonNull;
+import static java.util.function.Predicate.not;
 import static no.sikt.nva.nvi.index.utils.SearchConstants.MAPPINGS;
 import static no.sikt.nva.nvi.index.utils.SearchConstants.NVI_CANDIDATES_INDEX;
 import static nva.commons.core.attempt.Try.attempt;
 
+import com.fasterxml.jackson.databind.util.RawValue;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import no.sikt.nva.nvi.index.model.document.NviCandidateIndexDocument;
 import no.sikt.nva.nvi.index.model.search.CandidateSearchParameters;
@@ -14,23 +23,33 @@ import no.sikt.nva.nvi.index.model.search.SearchResultParameters;
 import no.sikt.nva.nvi.index.query.Aggregations;
 import no.sikt.nva.nvi.index.utils.SearchConstants;
 import nva.commons.core.JacocoGenerated;
+import nva.commons.core.attempt.Failure;
 import org.opensearch.client.opensearch.OpenSearchClient;
 import org.opensearch.client.opensearch._types.FieldSort;
 import org.opensearch.client.opensearch._types.OpenSearchException;
 import org.opensearch.client.opensearch._types.SortOptions;
 import org.opensearch.client.opensearch._types.SortOrder;
+import org.opensearch.client.opensearch._types.Time;
+import org.opensearch.client.opensearch.core.BulkRequest;
 import org.opensearch.client.opensearch.core.DeleteRequest;
 import org.opensearch.client.opensearch.core.DeleteResponse;
 import org.opensearch.client.opensearch.core.IndexRequest;
 import org.opensearch.client.opensearch.core.IndexResponse;
 import org.opensearch.client.opensearch.core.SearchRequest;
 import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.bulk.BulkOperation;
 import org.opensearch.client.opensearch.core.search.SourceConfig;
 import org.opensearch.client.opensearch.core.search.SourceFilter;
+import org.opensearch.client.opensearch.indices.Alias;
 import org.opensearch.client.opensearch.indices.CreateIndexRequest;
 import org.opensearch.client.opensearch.indices.DeleteIndexRequest;
+import org.opensearch.client.opensearch.indices.DeleteIndexResponse;
 import org.opensearch.client.opensearch.indices.GetIndexRequest;
+import org.opensearch.client.opensearch.indices.IndexSettings;
+import org.opensearch.client.opensearch.indices.PutIndicesSettingsRequest;
 import org.opensearch.client.opensearch.indices.RefreshRequest;
+import org.opensearch.client.opensearch.indices.UpdateAliasesRequest;
+import org.opensearch.client.opensearch.indices.update_aliases.Action;
 import org.opensearch.client.util.ObjectBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,6 +61,10 @@ public class CandidateSearchClient implements SearchClient<NviCandidateIndexDocu
   private static final String ERROR_MSG_CREATE_INDEX =
       "Error while creating index: " + NVI_CANDIDATES_INDEX;
   private static final int MAX_QUERY_SIZE = 150;
+  private static final int BULK_ACTION_OVERHEAD_BYTES = 128;
+  private static final String BULK_LOAD_REFRESH_INTERVAL = "-1";
+  private static final String BULK_LOAD_NUMBER_OF_REPLICAS = "0";
+  private static final String LIVE_REFRESH_INTERVAL = "1s";
   private final OpenSearchClient client;
 
   public CandidateSearchClient(OpenSearchClient client) {
@@ -66,6 +89,41 @@ public class CandidateSearchClient implements SearchClient<NviCandidateIndexDocu
                 handleFailure("Failed to add/update document from index", failure.getException()));
   }
 
+  /**
+   * Indexes the documents with as few bulk requests as possible. Each document is serialized once,
+   * and the serialized documents are split into requests of at most {@code maxPayloadBytes}. The
+   * result lists every document that OpenSearch did not index.
+   */
+  public BulkIndexResult addDocumentsToIndex(
+      Collection<NviCandidateIndexDocument> indexDocuments, long maxPayloadBytes) {
+    return addDocumentsToIndex(NVI_CANDIDATES_INDEX, indexDocuments, maxPayloadBytes);
+  }
+
+  /** Same as {@link #addDocumentsToIndex(Collection, long)}, but for the given index. */
+  public BulkIndexResult addDocumentsToIndex(
+      String indexName,
+      Collection<NviCandidateIndexDocument> indexDocuments,
+      long maxPayloadBytes) {
+    var failures = new ArrayList<BulkIndexResult.Failure>();
+    var serializedDocuments = new ArrayList<SerializedDocument>();
+    for (var document : indexDocuments) {
+      var serializedDocument =
+          attempt(() -> serialize(document))
+              .orElse(
+                  failure -> {
+                    failures.add(toSerializationFailure(document, failure));
+                    return null;
+                  });
+      if (nonNull(serializedDocument)) {
+        serializedDocuments.add(serializedDocument);
+      }
+    }
+    for (var documents : splitByPayloadSize(serializedDocuments, maxPayloadBytes)) {
+      failures.addAll(sendBulkRequest(indexName, documents));
+    }
+    return new BulkIndexResult(indexDocuments.size() - failures.size(), failures);
+  }
+
   @Override
   public DeleteResponse removeDocumentFromIndex(UUID identifier) {
     return attempt(() -> client.delete(contructDeleteRequest(identifier)))
@@ -87,6 +145,26 @@ public class CandidateSearchClient implements SearchClient<NviCandidateIndexDocu
     return client.search(query, NviCandidateIndexDocument.class);
   }
 
+  @Override
+  public void scan(
+      CandidateSearchParameters candidateSearchParameters,
+      int slices,
+      PageSizeBudget pageSizeBudget,
+      Consumer<List<NviCandidateIndexDocument>> pageConsumer) {
+    var query = SearchConstants.constructQuery(candidateSearchParameters);
+    var sourceConfig = getSourceConfigWithExcludedFields(candidateSearchParameters);
+    try (var scanner =
+        PointInTimeScanner.open(
+            client,
+            NVI_CANDIDATES_INDEX,
+            query,
+            sourceConfig,
+            NviCandidateIndexDocument.class,
+            pageSizeBudget)) {
+      scanner.forEachPage(slices, pageConsumer);
+    }
+  }
+
   private void logQueryDetails(SearchRequest query) {
     var queryString = query.toJsonString();
     var estimatedQueryComplexity = (int) queryString.chars().filter(ch -> '{' == ch).count();
@@ -101,33 +179,141 @@ public class CandidateSearchClient implements SearchClient<NviCandidateIndexDocu
     LOGGER.trace("Executing query: {}", queryString);
   }
 
+  /** Deletes every index behind the {@code nvi-candidates} alias. */
   @Override
   public void deleteIndex() throws IOException {
-    client.indices().delete(new DeleteIndexRequest.Builder().index(NVI_CANDIDATES_INDEX).build());
+    var indexNames = getIndicesBehindAlias();
+    if (!indexNames.isEmpty()) {
+      deleteIndices(indexNames);
+    }
   }
 
   public boolean indexExists() {
+    return !getIndicesBehindAlias().isEmpty();
+  }
+
+  /** Creates a new versioned index, with the {@code nvi-candidates} alias pointing to it. */
+  public void createIndex() {
+    var request =
+        new CreateIndexRequest.Builder()
+            .mappings(MAPPINGS)
+            .index(newVersionedIndexName())
+            .aliases(NVI_CANDIDATES_INDEX, Alias.of(alias -> alias))
+            .build();
+    attempt(() -> client.indices().create(request))
+        .orElseThrow(failure -> handleFailure(ERROR_MSG_CREATE_INDEX, failure.getException()));
+  }
+
+  /**
+   * Creates a new versioned index without an alias, with refresh and replicas turned off so that
+   * it can be filled as fast as possible. Returns the name of the index.
+   */
+  public String createBulkLoadIndex() {
+    var indexName = newVersionedIndexName();
+    var settings = indexSettings(BULK_LOAD_REFRESH_INTERVAL, BULK_LOAD_NUMBER_OF_REPLICAS);
+    var request =
+        new CreateIndexRequest.Builder()
+            .mappings(MAPPINGS)
+            .index(indexName)
+            .settings(settings)
+            .build();
+    attempt(() -> client.indices().create(request))
+        .orElseThrow(failure -> handleFailure(ERROR_MSG_CREATE_INDEX, failure.getException()));
+    return indexName;
+  }
+
+  /** Restores the normal settings of an index created with {@link #createBulkLoadIndex()}. */
+  public void finishBulkLoad(String indexName, String numberOfReplicas) {
+    var request =
+        PutIndicesSettingsRequest.of(
+            builder ->
+                builder
+                    .index(indexName)
+                    .settings(indexSettings(LIVE_REFRESH_INTERVAL, numberOfReplicas)));
+    attempt(() -> client.indices().putSettings(request))
+        .orElseThrow(failure -> handleFailure("Failed to update settings", failure.getException()));
+    attempt(() -> client.indices().refresh(RefreshRequest.of(builder -> builder.index(indexName))))
+        .orElseThrow(failure -> handleFailure("Failed to refresh index", failure.getException()));
+  }
+
+  /**
+   * Points the {@code nvi-candidates} alias to the given index in one atomic request, and then
+   * deletes the indices it pointed to before. An index named {@code nvi-candidates}, created before
+   * the alias was introduced, is replaced in the same request.
+   */
+  public void swapAlias(String indexName) {
+    var previousIndices = getIndicesBehindAlias();
+    var actions = new ArrayList<Action>();
+    actions.add(
+        Action.of(action -> action.add(add -> add.index(indexName).alias(NVI_CANDIDATES_INDEX))));
+    for (var previousIndex : previousIndices) {
+      actions.add(removeFromAlias(previousIndex));
+    }
+    var request = UpdateAliasesRequest.of(builder -> builder.actions(actions));
+    attempt(() -> client.indices().updateAliases(request))
+        .orElseThrow(failure -> handleFailure("Failed to swap alias", failure.getException()));
+    LOGGER.info("Alias {} moved from {} to {}", NVI_CANDIDATES_INDEX, previousIndices, indexName);
+    var replacedIndices =
+        previousIndices.stream().filter(not(NVI_CANDIDATES_INDEX::equals)).toList();
+    if (!replacedIndices.isEmpty()) {
+      attempt(() -> deleteIndices(replacedIndices))
+          .orElseThrow(failure -> handleFailure("Failed to delete index", failure.getException()));
+    }
+  }
+
+  public void deleteIndex(String indexName) throws IOException {
+    deleteIndices(List.of(indexName));
+  }
+
+  public void refreshIndex() {
+    attempt(() -> client.indices().refresh(new RefreshRequest.Builder().build()))
+        .orElseThrow(failure -> handleFailure("Failed to refresh index", failure.getException()));
+  }
+
+  private static Action removeFromAlias(String indexName) {
+    return NVI_CANDIDATES_INDEX.equals(indexName)
+        ? Action.of(action -> action.removeIndex(remove -> remove.index(indexName)))
+        : Action.of(
+            action -> action.remove(remove -> remove.index(indexName).alias(NVI_CANDIDATES_INDEX)));
+  }
+
+  private static IndexSettings indexSettings(String refreshInterval, String numberOfReplicas) {
+    return IndexSettings.of(
+        settings ->
+            settings
+                .refreshInterval(Time.of(time -> time.time(refreshInterval)))
+                .numberOfReplicas(numberOfReplicas));
+  }
+
+  private static String newVersionedIndexName() {
+    return NVI_CANDIDATES_INDEX + "-" + System.currentTimeMillis();
+  }
+
+  /**
+   * Returns the names of the indices behind the {@code nvi-candidates} alias. This is the index
+   * itself if it was created before the alias was introduced.
+   */
+  private Set<String> getIndicesBehindAlias() {
     try {
-      client.indices().get(GetIndexRequest.of(request -> request.index(NVI_CANDIDATES_INDEX)));
+      return client
+          .indices()
+          .get(GetIndexRequest.of(request -> request.index(NVI_CANDIDATES_INDEX)))
+          .result()
+          .keySet();
     } catch (IOException io) {
       throw new RuntimeException(io);
     } catch (OpenSearchException osex) {
       if (osex.status() == 404 && INDEX_NOT_FOUND_EXCEPTION.equals(osex.error().type())) {
-        return false;
+        return Set.of();
       }
       throw osex;
     }
-    return true;
-  }
-
-  public void createIndex() {
-    attempt(() -> client.indices().create(getCreateIndexRequest()))
-        .orElseThrow(failure -> handleFailure(ERROR_MSG_CREATE_INDEX, failure.getException()));
   }
 
-  public void refreshIndex() {
-    attempt(() -> client.indices().refresh(new RefreshRequest.Builder().build()))
-        .orElseThrow(failure -> handleFailure("Failed to refresh index", failure.getException()));
+  private DeleteIndexResponse deleteIndices(Collection<String> indexNames) throws IOException {
+    LOGGER.info("Deleting indices {}", indexNames);
+    var request = DeleteIndexRequest.of(builder -> builder.index(List.copyOf(indexNames)));
+    return client.indices().delete(request);
   }
 
   private static DeleteRequest contructDeleteRequest(UUID identifier) {
@@ -146,8 +332,98 @@ public class CandidateSearchClient implements SearchClient<NviCandidateIndexDocu
         .build();
   }
 
-  private static CreateIndexRequest getCreateIndexRequest() {
-    return new CreateIndexRequest.Builder().mappings(MAPPINGS).index(NVI_CANDIDATES_INDEX).build();
+  private List<BulkIndexResult.Failure> sendBulkRequest(
+      String indexName, List<SerializedDocument> documents) {
+    return attempt(() -> client.bulk(constructBulkRequest(indexName, documents)))
+        .map(
+            bulkResponse -> {
+              LOGGER.info(
+                  "Bulk indexed {} documents in {} ms, with errors: {}",
+                  documents.size(),
+                  bulkResponse.took(),
+                  bulkResponse.errors());
+              return bulkResponse.items().stream()
+                  .filter(item -> nonNull(item.error()))
+                  .map(BulkIndexResult.Failure::fromItem)
+                  .toList();
+            })
+        .orElse(
+            failure -> {
+              LOGGER.error(
+                  "Bulk request with {} documents failed",
+                  documents.size(),
+                  failure.getException());
+              return documents.stream()
+                  .map(
+                      document ->
+                          BulkIndexResult.Failure.fromFailedRequest(
+                              document.identifier(), failure.getException()))
+                  .toList();
+            });
+  }
+
+  private static BulkIndexResult.Failure toSerializationFailure(
+      NviCandidateIndexDocument document, Failure<?> failure) {
+    LOGGER.error("Failed to serialize document {}", document.identifier(), failure.getException());
+    return BulkIndexResult.Failure.fromUnserializable(
+        document.identifier(), failure.getException());
+  }
+
+  /**
+   * Serializes the document with the mapper of the client, so the bulk request contains exactly
+   * what indexing a single document would send.
+   */
+  private SerializedDocument serialize(NviCandidateIndexDocument document) {
+    var mapper = client._transport().jsonpMapper();
+    var outputStream = new ByteArrayOutputStream();
+    try (var generator = mapper.jsonProvider().createGenerator(outputStream)) {
+      mapper.serialize(document, generator);
+    }
+    var bytes = outputStream.toByteArray();
+    return new SerializedDocument(
+        document.identifier(),
+        new RawValue(new String(bytes, StandardCharsets.UTF_8)),
+        bytes.length + BULK_ACTION_OVERHEAD_BYTES);
+  }
+
+  private static List<List<SerializedDocument>> splitByPayloadSize(
+      List<SerializedDocument> documents, long maxPayloadBytes) {
+    var requests = new ArrayList<List<SerializedDocument>>();
+    var currentRequest = new ArrayList<SerializedDocument>();
+    var currentPayloadBytes = 0L;
+    for (var document : documents) {
+      if (!currentRequest.isEmpty()
+          && currentPayloadBytes + document.payloadBytes() > maxPayloadBytes) {
+        requests.add(currentRequest);
+        currentRequest = new ArrayList<>();
+        currentPayloadBytes = 0L;
+      }
+      currentRequest.add(document);
+      currentPayloadBytes += document.payloadBytes();
+    }
+    if (!currentRequest.isEmpty()) {
+      requests.add(currentRequest);
+    }
+    return requests;
+  }
+
+  /** Builds the bulk request from already serialized documents, which are written as they are. */
+  private static BulkRequest constructBulkRequest(
+      String indexName, List<SerializedDocument> documents) {
+    var operations =
+        documents.stream()
+            .map(
+                document ->
+                    BulkOperation.of(
+                        operation ->
+                            operation.index(
+                                index ->
+                                    index
+                                        .index(indexName)
+                                        .id(document.identifier().toString())
+                                        .document(document.json()))))
+            .toList();
+    return new BulkRequest.Builder().operations(operations).build();
   }
 
   private static SortOptions getSortOptions(CandidateSearchParameters parameters) {
@@ -203,4 +479,6 @@ public class CandidateSearchClient implements SearchClient<NviCandidateIndexDocu
         .source(sourceConfig)
         .build();
   }
+
+  private record SerializedDocument(UUID identifier, RawValue json, long payloadBytes) {}
 }
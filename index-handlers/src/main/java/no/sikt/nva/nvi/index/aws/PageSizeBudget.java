@@ -0,0 +1,39 @@
+package no.sikt.nva.nvi.index.aws;
+
+/**
+ * Sizes search pages so that each response stays close to a target number of bytes. The next page
+ * size is derived from the average document size in the previous page, within fixed bounds. The
+ * size of the previous page may be an estimate, e.g. based on a sample of its documents.
+ *
+ * @param initialPageSize number of documents requested in the first page
+ * @param minPageSize smallest page size that will be requested
+ * @param maxPageSize largest page size that will be requested
+ * @param targetPageBytes approximate size of a response that the page size is tuned towards
+ */
+public record PageSizeBudget(
+    int initialPageSize, int minPageSize, int maxPageSize, long targetPageBytes) {
+
+  public PageSizeBudget {
+    if (minPageSize < 1 || maxPageSize < minPageSize || targetPageBytes < 1) {
+      throw new IllegalArgumentException("Invalid page size budget");
+    }
+    initialPageSize = Math.clamp(initialPageSize, minPageSize, maxPageSize);
+  }
+
+  public int nextPageSize(int currentPageSize, int documentCount, long pageBytes) {
+    if (documentCount == 0 || pageBytes <= 0) {
+      return currentPageSize;
+    }
+    var averageDocumentBytes = Math.max(pageBytes / documentCount, 1);
+    return Math.clamp(targetPageBytes / averageDocumentBytes, minPageSize, maxPageSize);
+  }
+
+  /** Returns a smaller page size after a response was rejected for being too large. */
+  public int reducedPageSize(int currentPageSize) {
+    return Math.max(currentPageSize / 2, minPageSize);
+  }
+
+  public boolean canReduce(int currentPageSize) {
+    return currentPageSize > minPageSize;
+  }
+}
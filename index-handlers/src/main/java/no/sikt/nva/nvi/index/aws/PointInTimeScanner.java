@@ -0,0 +1,324 @@
+package no.sikt.nva.nvi.index.aws;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static no.unit.nva.commons.json.JsonUtils.dtoObjectMapper;
+import static nva.commons.core.attempt.Try.attempt;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.opensearch._types.FieldSort;
+import org.opensearch.client.opensearch._types.OpenSearchException;
+import org.opensearch.client.opensearch._types.SortOptions;
+import org.opensearch.client.opensearch._types.SortOrder;
+import org.opensearch.client.opensearch._types.Time;
+import org.opensearch.client.opensearch._types.query_dsl.Query;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.pit.CreatePitRequest;
+import org.opensearch.client.opensearch.core.pit.DeletePitRequest;
+import org.opensearch.client.opensearch.core.search.Hit;
+import org.opensearch.client.opensearch.core.search.Pit;
+import org.opensearch.client.opensearch.core.search.SlicedScroll;
+import org.opensearch.client.opensearch.core.search.SourceConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads all documents matching a query from a point-in-time (PIT) view of an index.
+ *
+ * <p>Pages are fetched with {@code search_after}, so every request costs the same regardless of how
+ * far into the result it is, and nothing but the PIT is kept open on the server between pages. The
+ * result can be split into slices that are read independently, for example by separate threads.
+ * Page sizes follow a {@link PageSizeBudget}, and are halved if a response is rejected as too
+ * large.
+ *
+ * <p>The scanner must be closed to release the PIT.
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+public final class PointInTimeScanner<T> implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PointInTimeScanner.class);
+  private static final String KEEP_ALIVE = "5m";
+  private static final String TIEBREAKER_FIELD = "identifier.keyword";
+  private static final int CONTENT_TOO_LARGE = 413;
+  private static final int MAX_BUFFERED_PAGES = 8;
+  private static final int PAGE_SIZE_SAMPLE_COUNT = 10;
+  private final OpenSearchClient client;
+  private final Query query;
+  private final SourceConfig sourceConfig;
+  private final Class<T> documentType;
+  private final PageSizeBudget pageSizeBudget;
+  private final String pitId;
+
+  private PointInTimeScanner(
+      OpenSearchClient client,
+      Query query,
+      SourceConfig sourceConfig,
+      Class<T> documentType,
+      PageSizeBudget pageSizeBudget,
+      String pitId) {
+    this.client = client;
+    this.query = query;
+    this.sourceConfig = sourceConfig;
+    this.documentType = documentType;
+    this.pageSizeBudget = pageSizeBudget;
+    this.pitId = pitId;
+  }
+
+  public static <T> PointInTimeScanner<T> open(
+      OpenSearchClient client,
+      String index,
+      Query query,
+      SourceConfig sourceConfig,
+      Class<T> documentType,
+      PageSizeBudget pageSizeBudget) {
+    var request =
+        CreatePitRequest.of(
+            builder ->
+                builder
+                    .targetIndexes(List.of(index))
+                    .keepAlive(Time.of(time -> time.time(KEEP_ALIVE))));
+    var pitId = attempt(() -> client.createPit(request).pitId()).orElseThrow();
+    return new PointInTimeScanner<>(
+        client, query, sourceConfig, documentType, pageSizeBudget, pitId);
+  }
+
+  /** Returns a lazy iterator over the pages of the whole result. */
+  public Iterator<List<T>> pages() {
+    return new PageIterator(null);
+  }
+
+  /** Returns a lazy iterator over the pages of one slice, where {@code slice < totalSlices}. */
+  public Iterator<List<T>> pages(int slice, int totalSlices) {
+    if (totalSlices <= 1) {
+      return pages();
+    }
+    return new PageIterator(SlicedScroll.of(builder -> builder.id(slice).max(totalSlices)));
+  }
+
+  /** Returns a lazy stream of all documents, fetching the next page only when it is needed. */
+  public Stream<T> stream() {
+    var spliterator = Spliterators.spliteratorUnknownSize(pages(), Spliterator.ORDERED);
+    return StreamSupport.stream(spliterator, false).flatMap(List::stream);
+  }
+
+  /**
+   * Reads all slices in parallel on virtual threads, and hands each page to the consumer on the
+   * calling thread, so the consumer does not need to be thread-safe. At most {@link
+   * #MAX_BUFFERED_PAGES} pages are held in memory while waiting for the consumer.
+   */
+  public void forEachPage(int totalSlices, Consumer<List<T>> pageConsumer) {
+    var slices = Math.max(totalSlices, 1);
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var pages = new ArrayBlockingQueue<SlicePage<T>>(MAX_BUFFERED_PAGES);
+      for (var slice = 0; slice < slices; slice++) {
+        var currentSlice = slice;
+        executor.execute(() -> readSlice(pages(currentSlice, slices), pages));
+      }
+      try {
+        consumePages(pages, slices, pageConsumer);
+      } catch (RuntimeException exception) {
+        executor.shutdownNow();
+        throw exception;
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    var request = DeletePitRequest.of(builder -> builder.pitId(List.of(pitId)));
+    attempt(() -> client.deletePit(request))
+        .orElse(
+            failure -> {
+              LOGGER.warn("Could not delete point in time, it will expire", failure.getException());
+              return null;
+            });
+  }
+
+  private final class PageIterator implements Iterator<List<T>> {
+
+    private final SlicedScroll slice;
+    private int pageSize = pageSizeBudget.initialPageSize();
+    private Hit<T> lastHit;
+    private List<T> nextPage;
+    private boolean exhausted;
+
+    private PageIterator(SlicedScroll slice) {
+      this.slice = slice;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (nonNull(nextPage)) {
+        return true;
+      }
+      if (!exhausted) {
+        fetchNextPage();
+      }
+      return nonNull(nextPage);
+    }
+
+    @Override
+    public List<T> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      var page = nextPage;
+      nextPage = null;
+      return page;
+    }
+
+    /**
+     * Fetches the next page. The result is exhausted when a page is shorter than the page size that
+     * was sent, which may have been reduced by {@link #search()}.
+     */
+    private void fetchNextPage() {
+      var hits = search().hits().hits();
+      if (hits.isEmpty()) {
+        exhausted = true;
+        return;
+      }
+      exhausted = hits.size() < pageSize;
+      lastHit = hits.getLast();
+      nextPage = hits.stream().map(Hit::source).toList();
+      pageSize = pageSizeBudget.nextPageSize(pageSize, nextPage.size(), estimatePageBytes());
+    }
+
+    private SearchResponse<T> search() {
+      while (true) {
+        try {
+          return client.search(createRequest(), documentType);
+        } catch (OpenSearchException exception) {
+          if (!isTooLarge(exception) || !pageSizeBudget.canReduce(pageSize)) {
+            throw exception;
+          }
+          pageSize = pageSizeBudget.reducedPageSize(pageSize);
+          LOGGER.warn("Search response too large, retrying with page size {}", pageSize);
+        } catch (IOException exception) {
+          throw new UncheckedIOException(exception);
+        }
+      }
+    }
+
+    private SearchRequest createRequest() {
+      var builder =
+          new SearchRequest.Builder()
+              .pit(Pit.of(pit -> pit.id(pitId).keepAlive(KEEP_ALIVE)))
+              .query(query)
+              .source(sourceConfig)
+              .size(pageSize)
+              .sort(tiebreakerSort());
+      if (nonNull(lastHit)) {
+        builder.searchAfter(lastHit.sort());
+      }
+      if (nonNull(slice)) {
+        builder.slice(slice);
+      }
+      return builder.build();
+    }
+
+    /**
+     * Estimates the response size from the serialized size of up to ten documents sampled evenly
+     * across the page, rather than from a single document that may be unusually small or large.
+     */
+    private long estimatePageBytes() {
+      var sample = samplePage();
+      return attempt(() -> dtoObjectMapper.writeValueAsBytes(sample).length)
+          .map(sampleBytes -> (long) sampleBytes * nextPage.size() / sample.size())
+          .orElse(failure -> 0L);
+    }
+
+    private List<T> samplePage() {
+      var step = Math.ceilDiv(nextPage.size(), PAGE_SIZE_SAMPLE_COUNT);
+      return IntStream.iterate(0, index -> index < nextPage.size(), index -> index + step)
+          .mapToObj(nextPage::get)
+          .toList();
+    }
+  }
+
+  /**
+   * Puts the pages of one slice on the queue, followed by an end marker or the failure that stopped
+   * the slice. An interrupt means that the consumer has given up, so nothing more is queued.
+   */
+  private static <T> void readSlice(Iterator<List<T>> slice, BlockingQueue<SlicePage<T>> pages) {
+    try {
+      try {
+        while (slice.hasNext()) {
+          pages.put(SlicePage.of(slice.next()));
+        }
+        pages.put(SlicePage.endOfSlice());
+      } catch (RuntimeException exception) {
+        pages.put(SlicePage.failed(exception));
+      }
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static <T> void consumePages(
+      BlockingQueue<SlicePage<T>> pages, int slices, Consumer<List<T>> pageConsumer) {
+    var completedSlices = 0;
+    while (completedSlices < slices) {
+      var page = takePage(pages);
+      if (nonNull(page.failure())) {
+        throw page.failure();
+      }
+      if (page.isEndOfSlice()) {
+        completedSlices++;
+      } else {
+        pageConsumer.accept(page.documents());
+      }
+    }
+  }
+
+  private static <T> SlicePage<T> takePage(BlockingQueue<SlicePage<T>> pages) {
+    try {
+      return pages.take();
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for documents", exception);
+    }
+  }
+
+  private static SortOptions tiebreakerSort() {
+    var fieldSort = FieldSort.of(field -> field.field(TIEBREAKER_FIELD).order(SortOrder.Asc));
+    return SortOptions.of(sort -> sort.field(fieldSort));
+  }
+
+  private static boolean isTooLarge(OpenSearchException exception) {
+    return exception.status() == CONTENT_TOO_LARGE;
+  }
+
+  private record SlicePage<T>(List<T> documents, RuntimeException failure) {
+
+    private static <T> SlicePage<T> of(List<T> documents) {
+      return new SlicePage<>(documents, null);
+    }
+
+    private static <T> SlicePage<T> endOfSlice() {
+      return new SlicePage<>(null, null);
+    }
+
+    private static <T> SlicePage<T> failed(RuntimeException failure) {
+      return new SlicePage<>(null, failure);
+    }
+
+    private boolean isEndOfSlice() {
+      return isNull(documents) && isNull(failure);
+    }
+  }
+}
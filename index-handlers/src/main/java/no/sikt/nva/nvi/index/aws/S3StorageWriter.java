@@ -37,7 +37,7 @@ public class S3StorageWriter implements StorageWriter<IndexDocumentWithConsumpti
     s3Driver.deleteFile(filePath);
   }
 
-  private static UnixPath createFilePath(UUID identifier) {
+  public static UnixPath createFilePath(UUID identifier) {
     return UnixPath.of(NVI_CANDIDATES_FOLDER).addChild(identifier + GZIP_ENDING);
   }
 }
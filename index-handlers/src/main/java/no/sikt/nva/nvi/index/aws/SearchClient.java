@@ -1,7 +1,9 @@
 package no.sikt.nva.nvi.index.aws;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 import no.sikt.nva.nvi.index.model.search.CandidateSearchParameters;
 import org.opensearch.client.opensearch.core.DeleteResponse;
 import org.opensearch.client.opensearch.core.IndexResponse;
@@ -15,5 +17,16 @@ public interface SearchClient<T> {
 
   SearchResponse<T> search(CandidateSearchParameters candidateSearchParameters) throws IOException;
 
+  /**
+   * Reads every document matching the search parameters from a point in time of the index, reading
+   * the slices in parallel and handing each page to the consumer on the calling thread. The offset
+   * and size of the result parameters are ignored.
+   */
+  void scan(
+      CandidateSearchParameters candidateSearchParameters,
+      int slices,
+      PageSizeBudget pageSizeBudget,
+      Consumer<List<T>> pageConsumer);
+
   void deleteIndex() throws IOException;
 }
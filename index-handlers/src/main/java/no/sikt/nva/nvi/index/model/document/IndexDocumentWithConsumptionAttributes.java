@@ -1,27 +1,57 @@
 package no.sikt.nva.nvi.index.model.document;
 
+import static no.sikt.nva.nvi.common.utils.HashUtils.sha256Hex;
 import static no.unit.nva.commons.json.JsonUtils.dtoObjectMapper;
 import static nva.commons.core.attempt.Try.attempt;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.Set;
 import no.sikt.nva.nvi.common.StorageWriter;
+import no.sikt.nva.nvi.common.client.OrganizationRetriever;
 import no.sikt.nva.nvi.common.service.model.Candidate;
 import no.sikt.nva.nvi.index.model.PersistedResource;
-import no.unit.nva.auth.uriretriever.UriRetriever;
 import nva.commons.core.Environment;
 
+/**
+ * An index document as it is persisted in S3, together with the attributes needed to index it.
+ *
+ * <p>The serialized form starts with a hash of the content, so that a writer can cheaply tell
+ * whether a newly generated document differs from the one already stored.
+ */
 @JsonSerialize
+@JsonPropertyOrder({"contentHash", "body", "consumptionAttributes"})
+@JsonIgnoreProperties(value = "contentHash", allowGetters = true)
 public record IndexDocumentWithConsumptionAttributes(
     @JsonProperty(BODY) NviCandidateIndexDocument indexDocument,
     @JsonProperty(CONSUMPTION_ATTRIBUTES) ConsumptionAttributes consumptionAttributes) {
 
   private static final String CONSUMPTION_ATTRIBUTES = "consumptionAttributes";
   private static final String BODY = "body";
+  private static final String CONTENT_HASH = "contentHash";
+  private static final String INDEX_DOCUMENT_CREATED_AT = "indexDocumentCreatedAt";
+  private static final ObjectMapper CANONICAL_MAPPER =
+      dtoObjectMapper
+          .copy()
+          .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+          .registerModule(new SimpleModule().addSerializer(new SortedSetSerializer()));
 
   public static IndexDocumentWithConsumptionAttributes from(NviCandidateIndexDocument document) {
     return new IndexDocumentWithConsumptionAttributes(
@@ -31,15 +61,50 @@ public record IndexDocumentWithConsumptionAttributes(
   public static IndexDocumentWithConsumptionAttributes from(
       Candidate candidate,
       PersistedResource persistedResource,
-      UriRetriever uriRetriever,
+      OrganizationRetriever organizationRetriever,
       Environment environment) {
+    var expandedResource = persistedResource.getExpandedResource();
     var indexDocument =
-        generateIndexDocument(
-            candidate, uriRetriever, persistedResource.getExpandedResource(), environment);
+        attempt(
+                () ->
+                    NviCandidateIndexDocument.from(
+                        expandedResource, candidate, organizationRetriever, environment))
+            .orElseThrow();
     var consumptionAttributes = ConsumptionAttributes.from(indexDocument.identifier());
     return new IndexDocumentWithConsumptionAttributes(indexDocument, consumptionAttributes);
   }
 
+  /**
+   * Reads only the index document from a serialized {@link IndexDocumentWithConsumptionAttributes},
+   * skipping the consumption attributes and any other fields without materializing them.
+   */
+  public static NviCandidateIndexDocument readIndexDocument(InputStream inputStream)
+      throws IOException {
+    return readField(inputStream, BODY, NviCandidateIndexDocument.class)
+        .orElseThrow(() -> new IOException("Index document has no field named " + BODY));
+  }
+
+  /**
+   * Reads the content hash from a serialized {@link IndexDocumentWithConsumptionAttributes}.
+   * Returns empty for documents persisted before the hash was added.
+   */
+  public static Optional<String> readContentHash(InputStream inputStream) throws IOException {
+    return readField(inputStream, CONTENT_HASH, String.class);
+  }
+
+  /**
+   * Returns a SHA-256 hash of the document content. The hash ignores when the document was
+   * generated, and does not depend on the iteration order of maps and sets, so regenerating an
+   * unchanged candidate gives the same hash.
+   */
+  @JsonProperty(CONTENT_HASH)
+  public String contentHash() {
+    var body = CANONICAL_MAPPER.<ObjectNode>valueToTree(indexDocument);
+    body.remove(INDEX_DOCUMENT_CREATED_AT);
+    var attributes = CANONICAL_MAPPER.valueToTree(consumptionAttributes);
+    return sha256Hex(body.toString(), attributes.toString());
+  }
+
   public URI persist(StorageWriter<IndexDocumentWithConsumptionAttributes> storageWriter)
       throws IOException {
     return storageWriter.write(this);
@@ -49,15 +114,36 @@ public record IndexDocumentWithConsumptionAttributes(
     return dtoObjectMapper.writeValueAsString(this);
   }
 
-  private static NviCandidateIndexDocument generateIndexDocument(
-      Candidate candidate,
-      UriRetriever uriRetriever,
-      JsonNode expandedResource,
-      Environment environment) {
-    return attempt(
-            () ->
-                NviCandidateIndexDocument.from(
-                    expandedResource, candidate, uriRetriever, environment))
-        .orElseThrow();
+  private static <T> Optional<T> readField(InputStream inputStream, String field, Class<T> type)
+      throws IOException {
+    try (var parser = dtoObjectMapper.createParser(inputStream)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new JsonParseException(parser, "Expected index document to be a JSON object");
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        var fieldName = parser.currentName();
+        parser.nextToken();
+        if (field.equals(fieldName)) {
+          return Optional.ofNullable(dtoObjectMapper.readValue(parser, type));
+        }
+        parser.skipChildren();
+      }
+      return Optional.empty();
+    }
+  }
+
+  /** Writes sets in sorted order, since the iteration order of a set can differ between runs. */
+  private static final class SortedSetSerializer extends StdSerializer<Set<?>> {
+
+    private SortedSetSerializer() {
+      super(Set.class, false);
+    }
+
+    @Override
+    public void serialize(Set<?> values, JsonGenerator generator, SerializerProvider provider)
+        throws IOException {
+      var sortedValues = values.stream().sorted(Comparator.comparing(String::valueOf)).toList();
+      provider.defaultSerializeValue(sortedValues, generator);
+    }
   }
 }
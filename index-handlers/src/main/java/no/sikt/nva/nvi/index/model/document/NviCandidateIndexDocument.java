@@ -45,11 +45,11 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Stream;
+import no.sikt.nva.nvi.common.client.OrganizationRetriever;
 import no.sikt.nva.nvi.common.service.model.Candidate;
 import no.sikt.nva.nvi.common.service.model.GlobalApprovalStatus;
 import no.sikt.nva.nvi.index.model.report.InstitutionReportHeader;
 import no.sikt.nva.nvi.index.utils.NviCandidateIndexDocumentGenerator;
-import no.unit.nva.auth.uriretriever.UriRetriever;
 import no.unit.nva.commons.json.JsonSerializable;
 import no.unit.nva.language.LanguageMapper;
 import nva.commons.core.Environment;
@@ -95,10 +95,10 @@ public record NviCandidateIndexDocument(
   public static NviCandidateIndexDocument from(
       JsonNode expandedResource,
       Candidate candidate,
-      UriRetriever uriRetriever,
+      OrganizationRetriever organizationRetriever,
       Environment environment) {
     return new NviCandidateIndexDocumentGenerator(
-            uriRetriever, expandedResource, candidate, environment)
+            organizationRetriever, expandedResource, candidate, environment)
         .generateDocument();
   }
 
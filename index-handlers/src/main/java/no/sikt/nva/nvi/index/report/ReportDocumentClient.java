@@ -1,25 +1,26 @@
 package no.sikt.nva.nvi.index.report;
 
-import static java.util.Objects.nonNull;
 import static no.sikt.nva.nvi.index.utils.SearchConstants.NVI_CANDIDATES_INDEX;
-import static nva.commons.core.attempt.Try.attempt;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import no.sikt.nva.nvi.index.aws.PageSizeBudget;
+import no.sikt.nva.nvi.index.aws.PointInTimeScanner;
 import no.sikt.nva.nvi.index.model.report.ReportDocument;
 import org.opensearch.client.opensearch.OpenSearchClient;
 import org.opensearch.client.opensearch._types.query_dsl.Query;
-import org.opensearch.client.opensearch.core.ClearScrollRequest;
-import org.opensearch.client.opensearch.core.ScrollRequest;
-import org.opensearch.client.opensearch.core.SearchRequest;
-import org.opensearch.client.opensearch.core.search.Hit;
-import org.opensearch.client.opensearch.core.search.HitsMetadata;
 import org.opensearch.client.opensearch.core.search.SourceConfig;
 
+/**
+ * Reads report documents from a point-in-time view of the candidate index, paging with {@code
+ * search_after}. Pages are sized to keep responses close to a byte budget.
+ */
 public class ReportDocumentClient {
 
-  private static final String SCROLL_TIMEOUT = "1m";
-  private static final int SCROLL_PAGE_SIZE = 250;
+  private static final int DEFAULT_SLICES = 4;
+  private static final PageSizeBudget DEFAULT_PAGE_SIZE_BUDGET =
+      new PageSizeBudget(250, 50, 2_000, 4 * 1024 * 1024);
   static final SourceConfig REPORT_SOURCE_CONFIG =
       SourceConfig.of(
           s ->
@@ -54,58 +55,52 @@ public class ReportDocumentClient {
                                   "approvals.points.institutionPoints"))));
 
   private final OpenSearchClient client;
+  private final int slices;
+  private final PageSizeBudget pageSizeBudget;
 
   public ReportDocumentClient(OpenSearchClient client) {
+    this(client, DEFAULT_SLICES, DEFAULT_PAGE_SIZE_BUDGET);
+  }
+
+  public ReportDocumentClient(OpenSearchClient client, int slices, PageSizeBudget pageSizeBudget) {
     this.client = client;
+    this.slices = Math.max(slices, 1);
+    this.pageSizeBudget = pageSizeBudget;
   }
 
   public List<ReportDocument> fetchDocuments(Query query) {
-    var documents = new ArrayList<ReportDocument>();
-    var scrollId = initializeScroll(documents, query);
-    try {
-      scrollId = fetchRemainingPages(documents, scrollId);
-    } finally {
-      clearScroll(scrollId);
+    try (var documents = streamDocuments(query)) {
+      return documents.toList();
     }
-    return documents;
-  }
-
-  private String initializeScroll(List<ReportDocument> documents, Query query) {
-    var request =
-        new SearchRequest.Builder()
-            .index(NVI_CANDIDATES_INDEX)
-            .size(SCROLL_PAGE_SIZE)
-            .query(query)
-            .source(REPORT_SOURCE_CONFIG)
-            .scroll(builder -> builder.time(SCROLL_TIMEOUT))
-            .build();
-
-    var response = attempt(() -> client.search(request, ReportDocument.class)).orElseThrow();
-    addHits(response.hits(), documents);
-    return response.scrollId();
   }
 
-  private String fetchRemainingPages(List<ReportDocument> documents, String scrollId) {
-    var request =
-        ScrollRequest.of(
-            builder -> builder.scrollId(scrollId).scroll(build -> build.time(SCROLL_TIMEOUT)));
-    var response = attempt(() -> client.scroll(request, ReportDocument.class)).orElseThrow();
-    var hits = response.hits();
-    if (hits.hits().isEmpty()) {
-      return scrollId;
-    }
-    addHits(hits, documents);
-    return fetchRemainingPages(documents, response.scrollId());
+  /**
+   * Returns a lazy stream of all documents matching the query. Pages are fetched as the stream is
+   * consumed, and the stream must be closed to release the point in time on the server.
+   */
+  public Stream<ReportDocument> streamDocuments(Query query) {
+    var scanner = openScanner(query);
+    return scanner.stream().onClose(scanner::close);
   }
 
-  private void clearScroll(String scrollId) {
-    if (nonNull(scrollId)) {
-      attempt(
-          () -> client.clearScroll(ClearScrollRequest.of(builder -> builder.scrollId(scrollId))));
+  /**
+   * Reads all documents matching the query, handing each page to the consumer as soon as it is
+   * fetched. The slices of the result are read in parallel, but the consumer is only called from
+   * the calling thread, so it does not need to be thread-safe.
+   */
+  public void forEachPage(Query query, Consumer<List<ReportDocument>> pageConsumer) {
+    try (var scanner = openScanner(query)) {
+      scanner.forEachPage(slices, pageConsumer);
     }
   }
 
-  private static void addHits(HitsMetadata<ReportDocument> hits, List<ReportDocument> documents) {
-    hits.hits().stream().map(Hit::source).forEach(documents::add);
+  private PointInTimeScanner<ReportDocument> openScanner(Query query) {
+    return PointInTimeScanner.open(
+        client,
+        NVI_CANDIDATES_INDEX,
+        query,
+        REPORT_SOURCE_CONFIG,
+        ReportDocument.class,
+        pageSizeBudget);
   }
 }
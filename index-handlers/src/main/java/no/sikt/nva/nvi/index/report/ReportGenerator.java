@@ -5,6 +5,9 @@ import static nva.commons.apigateway.MediaType.CSV_UTF_8;
 import static nva.commons.apigateway.MediaType.OOXML_SHEET;
 import static nva.commons.core.attempt.Try.attempt;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
@@ -21,14 +24,14 @@ import no.sikt.nva.nvi.index.report.query.ReportAggregationQuery;
 import no.sikt.nva.nvi.index.report.response.AllInstitutionsReport;
 import no.sikt.nva.nvi.index.report.response.GenerateReportMessage;
 import no.sikt.nva.nvi.index.report.response.InstitutionJsonReport;
-import no.sikt.nva.nvi.report.generators.CsvGenerator;
-import no.sikt.nva.nvi.report.generators.XlsxGenerator;
+import no.sikt.nva.nvi.report.generators.CsvReportWriter;
+import no.sikt.nva.nvi.report.generators.ReportWriter;
+import no.sikt.nva.nvi.report.generators.XlsxReportWriter;
 import no.sikt.nva.nvi.report.model.Row;
 import no.sikt.nva.nvi.report.presigner.ReportPresigner.ReportPresignedUrl;
+import no.sikt.nva.nvi.report.upload.S3MultipartOutputStream;
 import nva.commons.apigateway.MediaType;
-import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 public class ReportGenerator {
 
@@ -51,32 +54,41 @@ public class ReportGenerator {
     this.reportAggregationClient = reportAggregationClient;
   }
 
+  /**
+   * Generates the report and streams it to S3 while it is written. Documents are fetched one page
+   * at a time and their rows are written straight to the report, so memory use does not grow with
+   * the number of candidates in the period.
+   */
   public void generateReport(GenerateReportMessage message) {
-    var rows = createReportRows(message);
     var mediaType = message.reportFormat().getMediaType();
-    var report = generateReport(rows, mediaType);
     var reportPresignedUrl = message.reportPresignedUrl();
-    upload(reportPresignedUrl, mediaType, report);
+    try (var outputStream = createUploadStream(reportPresignedUrl, mediaType)) {
+      try (var writer = createReportWriter(outputStream, mediaType)) {
+        writeReportRows(message, writer);
+      }
+      outputStream.complete();
+    } catch (IOException exception) {
+      throw new UncheckedIOException("Failed to generate report", exception);
+    }
   }
 
-  private void upload(ReportPresignedUrl reportPresignedUrl, MediaType mediaType, byte[] report) {
-    s3Client.putObject(
-        PutObjectRequest.builder()
-            .bucket(reportPresignedUrl.bucket())
-            .key(reportPresignedUrl.key())
-            .contentType(mediaType.toString())
-            .build(),
-        RequestBody.fromBytes(report));
+  private S3MultipartOutputStream createUploadStream(
+      ReportPresignedUrl reportPresignedUrl, MediaType mediaType) {
+    return new S3MultipartOutputStream(
+        s3Client, reportPresignedUrl.bucket(), reportPresignedUrl.key(), mediaType.toString());
   }
 
-  private List<Row> createReportRows(GenerateReportMessage message) {
+  private void writeReportRows(GenerateReportMessage message, ReportWriter writer) {
     var period = nviPeriodService.getByPublishingYear(message.period());
     var query = createQuery(message, period);
     if (message.reportFormat().isPublicationPointsReport()) {
-      return createRowsForPublicationPointsReport(message, query, period);
+      createRowsForPublicationPointsReport(message, query, period).forEach(writer::writeRow);
+      return;
     }
-    var documents = reportDocumentClient.fetchDocuments(query.query());
-    return createRows(documents, query, applyContributorFilter(message));
+    var contributorFilter = applyContributorFilter(message);
+    reportDocumentClient.forEachPage(
+        query.query(),
+        documents -> createRows(documents, query, contributorFilter).forEach(writer::writeRow));
   }
 
   private static Predicate<NviContributor> applyContributorFilter(GenerateReportMessage message) {
@@ -120,18 +132,18 @@ public class ReportGenerator {
                     document, approval.institutionId(), contributorFilter));
   }
 
-  private static byte[] generateReport(List<Row> rows, MediaType mediaType) {
+  private static ReportWriter createReportWriter(OutputStream outputStream, MediaType mediaType) {
     if (CSV_UTF_8.equals(mediaType)) {
-      return new CsvGenerator(rows).toWorkbookByteArray();
+      return new CsvReportWriter(outputStream);
     } else if (OOXML_SHEET.equals(mediaType)) {
-      return new XlsxGenerator(rows).toWorkbookByteArray();
+      return new XlsxReportWriter(outputStream);
     } else {
       throw new IllegalArgumentException(
           "Unsupported media type for report %s".formatted(mediaType));
     }
   }
 
-  private List<Row> createRows(
+  private static Stream<Row> createRows(
       List<ReportDocument> documents,
       ReportAggregationQuery<?> query,
       Predicate<NviContributor> contributorFilter) {
@@ -140,12 +152,9 @@ public class ReportGenerator {
           .flatMap(
               document ->
                   InstitutionReportMapper.mapToReportRows(
-                      document, institutionQuery.institutionId(), contributorFilter))
-          .toList();
+                      document, institutionQuery.institutionId(), contributorFilter));
     }
-    return documents.stream()
-        .flatMap(document -> toReportRows(document, contributorFilter))
-        .toList();
+    return documents.stream().flatMap(document -> toReportRows(document, contributorFilter));
   }
 
   private ReportAggregationQuery<?> createQuery(GenerateReportMessage message, NviPeriod period) {
@@ -1,44 +1,43 @@
 package no.sikt.nva.nvi.index.utils;
 
-import static no.sikt.nva.nvi.index.query.SearchAggregation.TOTAL_COUNT_AGGREGATION_AGG;
-import static nva.commons.core.attempt.Try.attempt;
-
-import java.io.IOException;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.stream.IntStream;
+import java.util.UUID;
 import java.util.stream.Stream;
+import no.sikt.nva.nvi.index.aws.PageSizeBudget;
 import no.sikt.nva.nvi.index.aws.SearchClient;
 import no.sikt.nva.nvi.index.model.document.NviCandidateIndexDocument;
 import no.sikt.nva.nvi.index.model.report.InstitutionReportHeader;
 import no.sikt.nva.nvi.index.model.search.CandidateSearchParameters;
-import no.sikt.nva.nvi.index.model.search.SearchResultParameters;
 import no.sikt.nva.nvi.index.xlsx.ExcelWorkbookGenerator;
 import nva.commons.core.paths.UriWrapper;
-import org.opensearch.client.opensearch._types.OpenSearchException;
-import org.opensearch.client.opensearch._types.SortOrder;
-import org.opensearch.client.opensearch._types.aggregations.FilterAggregate;
-import org.opensearch.client.opensearch.core.search.Hit;
-import org.opensearch.client.opensearch.core.search.HitsMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Generates the Excel report for one institution and year. Candidates are read from a point in
+ * time of the index in parallel slices, and converted to report rows one page at a time. Slices
+ * arrive in no particular order, so the rows are sorted by the created date of their candidate
+ * before the report is written, as the report was ordered when it was read with sorted searches.
+ */
 public class InstitutionReportGenerator {
 
   private static final Logger logger = LoggerFactory.getLogger(InstitutionReportGenerator.class);
   private static final String EXCLUDE_CONTRIBUTORS_FIELD = "publicationDetails.contributors";
-  private static final int HTTP_REQUEST_ENTITY_TOO_LARGE = 413;
+  private static final int SLICES = 4;
   private static final int MIN_PAGE_SIZE = 1;
-  private static final int EXPONENTIAL_PAGE_SIZE_DIVISOR = 2;
-  private static final int PAGE_SIZE_NO_HITS = 0;
-  private static final int NO_OFFSET = 0;
-  private static final String SORT_ORDER = SortOrder.Asc.jsonValue();
+  private static final int MAX_PAGE_SIZE_FACTOR = 4;
+  private static final long TARGET_PAGE_BYTES = 4L * 1024 * 1024;
+  // Matches the ascending keyword sort on createdDate that the sorted searches used
+  private static final Comparator<CandidateRows> CANDIDATE_ORDER =
+      Comparator.comparing(
+              CandidateRows::createdDate, Comparator.nullsLast(Comparator.<String>naturalOrder()))
+          .thenComparing(
+              CandidateRows::identifier, Comparator.nullsLast(Comparator.<UUID>naturalOrder()));
   private final SearchClient<NviCandidateIndexDocument> searchClient;
   private final int searchPageSize;
   private final String year;
@@ -56,11 +55,18 @@ public class InstitutionReportGenerator {
   }
 
   public ExcelWorkbookGenerator generateReport() {
-    var nviCandidates = fetchNviCandidates();
+    var candidateRows = new ArrayList<CandidateRows>();
+    searchClient.scan(
+        buildSearchParameters(),
+        SLICES,
+        pageSizeBudget(),
+        candidates -> candidates.stream().map(this::toCandidateRows).forEach(candidateRows::add));
+    logNumberOfCandidatesFound(candidateRows.size());
     var data =
-        nviCandidates.stream()
-            .map(candidate -> candidate.toReportRowsForInstitution(topLevelOrganization))
-            .flatMap(this::orderByHeaderOrder)
+        candidateRows.stream()
+            .sorted(CANDIDATE_ORDER)
+            .map(CandidateRows::rows)
+            .flatMap(List::stream)
             .toList();
     return new ExcelWorkbookGenerator(InstitutionReportHeader.getOrderedValues(), data);
   }
@@ -73,31 +79,10 @@ public class InstitutionReportGenerator {
         .toList();
   }
 
-  private static void addHitsToListOfCandidates(
-      HitsMetadata<NviCandidateIndexDocument> hits,
-      List<NviCandidateIndexDocument> fetchedCandidates) {
-    hits.hits().stream().map(Hit::source).forEach(fetchedCandidates::add);
-  }
-
-  private static boolean isRequestEntityTooLarge(OpenSearchException exception) {
-    return exception.status() == HTTP_REQUEST_ENTITY_TOO_LARGE;
-  }
-
-  private static boolean hasNotReachedMinimumPageSize(int currentPageSize) {
-    return currentPageSize > MIN_PAGE_SIZE;
-  }
-
-  private static List<NviCandidateIndexDocument> getFuture(
-      CompletableFuture<List<NviCandidateIndexDocument>> future) {
-    try {
-      return future.get();
-    } catch (InterruptedException | ExecutionException e) {
-      throw new RuntimeException(e);
-    }
-  }
-
-  private static boolean isLastBatch(int numberOfBatches, int batch) {
-    return batch == numberOfBatches - 1;
+  private CandidateRows toCandidateRows(NviCandidateIndexDocument candidate) {
+    var rows =
+        orderByHeaderOrder(candidate.toReportRowsForInstitution(topLevelOrganization)).toList();
+    return new CandidateRows(candidate.createdDate(), candidate.identifier(), rows);
   }
 
   private Stream<List<String>> orderByHeaderOrder(
@@ -105,104 +90,29 @@ public class InstitutionReportGenerator {
     return reportRows.stream().map(InstitutionReportGenerator::sortValuesByHeaderOrder);
   }
 
-  private List<NviCandidateIndexDocument> fetchNviCandidates() {
-    var total = getTotalNumberOfCandidatesForInstitutionAndYear();
-    var numberOfBatches = (int) Math.ceil((double) total / searchPageSize);
-    var candidates = fetchCandidatesAsync(numberOfBatches, total);
-    logNumberOfCandidatesFound(candidates);
-    return candidates;
-  }
-
-  private List<NviCandidateIndexDocument> fetchCandidatesAsync(int numberOfBatches, long total) {
-    return IntStream.range(0, numberOfBatches)
-        .parallel()
-        .mapToObj(batch -> fetchBatchAsync(numberOfBatches, total, batch))
-        .map(InstitutionReportGenerator::getFuture)
-        .flatMap(List::stream)
-        .toList();
-  }
-
-  private CompletableFuture<List<NviCandidateIndexDocument>> fetchBatchAsync(
-      int numberOfBatches, long total, int batch) {
-    var batchSize = calculateBatchSize(numberOfBatches, total, batch);
-    var batchOffset = batch * searchPageSize;
-    return CompletableFuture.supplyAsync(() -> fetchBatch(batchOffset, batchSize));
+  private PageSizeBudget pageSizeBudget() {
+    var maxPageSize = Math.max(searchPageSize, MIN_PAGE_SIZE) * MAX_PAGE_SIZE_FACTOR;
+    return new PageSizeBudget(searchPageSize, MIN_PAGE_SIZE, maxPageSize, TARGET_PAGE_BYTES);
   }
 
-  private long calculateBatchSize(int numberOfBatches, long total, int batch) {
-    return isLastBatch(numberOfBatches, batch) ? getLastBatchSize(total) : searchPageSize;
-  }
-
-  private long getLastBatchSize(long total) {
-    return total % searchPageSize;
-  }
-
-  private List<NviCandidateIndexDocument> fetchBatch(int batchOffset, long batchSize) {
-    var fetchedCandidates = new ArrayList<NviCandidateIndexDocument>();
-    var currentOffset = batchOffset;
-    var currentPageSize = searchPageSize;
-    HitsMetadata<NviCandidateIndexDocument> newHits;
-
-    do {
-      try {
-        newHits = search(currentOffset, currentPageSize);
-        addHitsToListOfCandidates(newHits, fetchedCandidates);
-        currentOffset += currentPageSize;
-        currentPageSize = searchPageSize;
-      } catch (OpenSearchException exception) {
-        if (isRequestEntityTooLarge(exception) && hasNotReachedMinimumPageSize(currentPageSize)) {
-          currentPageSize /= EXPONENTIAL_PAGE_SIZE_DIVISOR;
-          currentOffset = batchOffset + fetchedCandidates.size();
-        } else {
-          throw new RuntimeException(exception);
-        }
-      } catch (IOException e) {
-        throw new RuntimeException(e);
-      }
-    } while (fetchedCandidates.size() < batchSize);
-    return fetchedCandidates;
-  }
-
-  private long getTotalNumberOfCandidatesForInstitutionAndYear() {
-    var aggregation = TOTAL_COUNT_AGGREGATION_AGG.getAggregationName();
-    var searchParameters =
-        buildSearchRequest(NO_OFFSET, PAGE_SIZE_NO_HITS).withAggregationType(aggregation).build();
-    var searchResponse = attempt(() -> searchClient.search(searchParameters)).orElseThrow();
-    return ((FilterAggregate) searchResponse.aggregations().get(aggregation)._get()).docCount();
-  }
-
-  private void logNumberOfCandidatesFound(List<NviCandidateIndexDocument> candidates) {
+  private void logNumberOfCandidatesFound(int candidateCount) {
     logger.info(
         "Found {} candidates for institution {} for year {}",
-        candidates.size(),
+        candidateCount,
         topLevelOrganization,
         year);
   }
 
-  private HitsMetadata<NviCandidateIndexDocument> search(int offset, int pageSize)
-      throws IOException {
-    logger.info("Searching for candidates with page size {} and with offset {}", pageSize, offset);
-    var searchResponse = searchClient.search(buildSearchRequest(offset, pageSize).build()).hits();
-    logger.info("Response received with page size {} and with offset {}", pageSize, offset);
-    return searchResponse;
-  }
-
-  private CandidateSearchParameters.Builder buildSearchRequest(int offset, int pageSize) {
+  private CandidateSearchParameters buildSearchParameters() {
     var topLevelOrganizationIdentifier =
         UriWrapper.fromUri(topLevelOrganization).getLastPathElement();
     return CandidateSearchParameters.builder()
         .withYear(year)
         .withTopLevelCristinOrg(topLevelOrganization)
         .withAffiliations(List.of(topLevelOrganizationIdentifier))
-        .withSearchResultParameters(getSearchRequestParameters(offset, pageSize))
-        .withExcludeFields(List.of(EXCLUDE_CONTRIBUTORS_FIELD));
-  }
-
-  private SearchResultParameters getSearchRequestParameters(int offset, int pageSize) {
-    return SearchResultParameters.builder()
-        .withSize(pageSize)
-        .withOffset(offset)
-        .withSortOrder(SORT_ORDER)
+        .withExcludeFields(List.of(EXCLUDE_CONTRIBUTORS_FIELD))
         .build();
   }
+
+  private record CandidateRows(String createdDate, UUID identifier, List<List<String>> rows) {}
 }
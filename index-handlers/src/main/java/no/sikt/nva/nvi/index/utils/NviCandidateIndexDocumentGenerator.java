@@ -39,18 +39,20 @@ import static nva.commons.core.attempt.Try.attempt;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import java.net.URI;
+import java.time.Clock;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
+import no.sikt.nva.nvi.common.client.OrganizationCache;
 import no.sikt.nva.nvi.common.client.OrganizationRetriever;
 import no.sikt.nva.nvi.common.dto.PublicationDateDto;
 import no.sikt.nva.nvi.common.model.ChannelType;
@@ -95,14 +97,25 @@ public final class NviCandidateIndexDocumentGenerator {
   private final JsonNode expandedResource;
   private final Candidate candidate;
   private final Environment environment;
-  private final Map<URI, String> temporaryCache = new HashMap<>();
 
   public NviCandidateIndexDocumentGenerator(
       UriRetriever uriRetriever,
       JsonNode expandedResource,
       Candidate candidate,
       Environment environment) {
-    this.organizationRetriever = new OrganizationRetriever(uriRetriever);
+    this(
+        new OrganizationRetriever(uriRetriever, createDocumentScopedCache()),
+        expandedResource,
+        candidate,
+        environment);
+  }
+
+  public NviCandidateIndexDocumentGenerator(
+      OrganizationRetriever organizationRetriever,
+      JsonNode expandedResource,
+      Candidate candidate,
+      Environment environment) {
+    this.organizationRetriever = organizationRetriever;
     this.expandedResource = expandedResource;
     this.candidate = candidate;
     this.environment = environment;
@@ -112,7 +125,62 @@ public final class NviCandidateIndexDocumentGenerator {
     var expandedContributors = expandContributors();
     var approvals = createApprovals(expandedContributors);
     var expandedPublicationDetails = expandPublicationDetails(expandedContributors);
-    return buildDocument(approvals, expandedPublicationDetails);
+    return buildDocument(candidate, environment, approvals, expandedPublicationDetails);
+  }
+
+  /**
+   * Updates the approvals and other candidate-derived fields of a previously generated document,
+   * keeping its publication details. Labels and involved organizations are reused from the previous
+   * approvals, so neither the expanded publication nor any organizations need to be fetched.
+   *
+   * <p>Every evaluation of the publication sets a new modified date on the candidate, while
+   * approval changes keep it. The previous document is therefore only reused if it was generated
+   * from the same modified date as the current candidate. Otherwise it may have been read before a
+   * concurrent full rebuild was written, and reusing it would bring back stale publication details.
+   *
+   * @return the updated document, or empty if the previous document was generated from another
+   *     version of the candidate, or if the candidate no longer has approvals for the same
+   *     institutions as the previous document
+   */
+  public static Optional<NviCandidateIndexDocument> refreshApprovals(
+      NviCandidateIndexDocument previousDocument, Candidate candidate, Environment environment) {
+    if (!isGeneratedFrom(previousDocument, candidate)) {
+      return Optional.empty();
+    }
+    var previousApprovals =
+        previousDocument.approvals().stream()
+            .collect(Collectors.toMap(ApprovalView::institutionId, Function.identity()));
+    if (!previousApprovals.keySet().equals(candidate.approvals().keySet())) {
+      return Optional.empty();
+    }
+    var approvals =
+        candidate.approvals().values().stream()
+            .map(
+                approval ->
+                    refreshApproval(
+                        approval, previousApprovals.get(approval.institutionId()), candidate))
+            .toList();
+    return Optional.of(
+        buildDocument(candidate, environment, approvals, previousDocument.publicationDetails()));
+  }
+
+  private static boolean isGeneratedFrom(
+      NviCandidateIndexDocument document, Candidate candidate) {
+    return nonNull(candidate.modifiedDate())
+        && candidate.modifiedDate().toString().equals(document.modifiedDate());
+  }
+
+  private static ApprovalView refreshApproval(
+      Approval approval, ApprovalView previousApproval, Candidate candidate) {
+    return toApproval(
+        approval, candidate, previousApproval.labels(), previousApproval.involvedOrganizations());
+  }
+
+  private static OrganizationCache createDocumentScopedCache() {
+    return new OrganizationCache(
+        OrganizationCache.DEFAULT_TIME_TO_LIVE,
+        OrganizationCache.DEFAULT_MAX_SIZE,
+        Clock.systemUTC());
   }
 
   private static NviOrganization buildNviOrganization(URI id, List<URI> partOf) {
@@ -161,8 +229,11 @@ public final class NviCandidateIndexDocumentGenerator {
     return extractLabelsFromExpandedResource(expandedResource, approval);
   }
 
-  private NviCandidateIndexDocument buildDocument(
-      List<ApprovalView> approvals, PublicationDetails expandedPublicationDetails) {
+  private static NviCandidateIndexDocument buildDocument(
+      Candidate candidate,
+      Environment environment,
+      List<ApprovalView> approvals,
+      PublicationDetails expandedPublicationDetails) {
     return NviCandidateIndexDocument.builder()
         .withId(EnvironmentUriFactory.candidateId(environment, candidate.identifier()))
         .withContext(EnvironmentUriFactory.context(environment))
@@ -184,7 +255,8 @@ public final class NviCandidateIndexDocumentGenerator {
         .build();
   }
 
-  private InstitutionPointsView getInstitutionPoints(Approval approval) {
+  private static InstitutionPointsView getInstitutionPoints(
+      Approval approval, Candidate candidate) {
     return candidate
         .getInstitutionPoints(approval.institutionId())
         .map(InstitutionPointsView::from)
@@ -312,12 +384,24 @@ public final class NviCandidateIndexDocumentGenerator {
   }
 
   private ApprovalView toApproval(Approval approval, List<ContributorType> expandedContributors) {
+    return toApproval(
+        approval,
+        candidate,
+        extractLabels(approval).orElse(Collections.emptyMap()),
+        extractInvolvedOrganizations(approval, expandedContributors));
+  }
+
+  private static ApprovalView toApproval(
+      Approval approval,
+      Candidate candidate,
+      Map<String, String> labels,
+      Set<URI> involvedOrganizations) {
     return ApprovalView.builder()
         .withInstitutionId(approval.institutionId())
-        .withLabels(extractLabels(approval).orElse(Collections.emptyMap()))
+        .withLabels(labels)
         .withApprovalStatus(getApprovalStatus(approval))
-        .withPoints(getInstitutionPoints(approval))
-        .withInvolvedOrganizations(extractInvolvedOrganizations(approval, expandedContributors))
+        .withPoints(getInstitutionPoints(approval, candidate))
+        .withInvolvedOrganizations(involvedOrganizations)
         .withAssignee(extractAssignee(approval))
         .withGlobalApprovalStatus(candidate.getGlobalApprovalStatus())
         .withSector(extractSector(approval.institutionId(), candidate))
@@ -341,7 +425,7 @@ public final class NviCandidateIndexDocumentGenerator {
         .orElse(false);
   }
 
-  private String extractAssignee(Approval approval) {
+  private static String extractAssignee(Approval approval) {
     return Optional.of(approval).map(Approval::getAssigneeUsername).orElse(null);
   }
 
@@ -437,7 +521,7 @@ public final class NviCandidateIndexDocumentGenerator {
   }
 
   private NviOrganization generateAffiliationWithPartOf(URI id) {
-    return attempt(() -> getRawContentFromUriCached(id))
+    return attempt(() -> getRawContentFromUri(id))
         .map(Optional::get)
         .map(str -> createModel(dtoObjectMapper.readTree(str)))
         .map(model -> listPropertyPartOfObjects(model, id))
@@ -456,18 +540,6 @@ public final class NviCandidateIndexDocumentGenerator {
     return partOfList;
   }
 
-  private Optional<String> getRawContentFromUriCached(URI id) {
-    if (temporaryCache.containsKey(id)) {
-      return Optional.of(temporaryCache.get(id));
-    }
-
-    var rawContentFromUri = getRawContentFromUri(id);
-
-    rawContentFromUri.ifPresent(content -> this.temporaryCache.put(id, content));
-
-    return rawContentFromUri;
-  }
-
   private Optional<String> getRawContentFromUri(URI uri) {
     return attempt(() -> organizationRetriever.fetchOrganization(uri).toJsonString()).toOptional();
   }
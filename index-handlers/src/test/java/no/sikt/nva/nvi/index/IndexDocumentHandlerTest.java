@@ -49,10 +49,16 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse.BatchItemFailure;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -74,7 +80,10 @@ import no.sikt.nva.nvi.common.db.model.DbPublicationChannel;
 import no.sikt.nva.nvi.common.dto.PublicationChannelDto;
 import no.sikt.nva.nvi.common.model.ChannelType;
 import no.sikt.nva.nvi.common.model.ScientificValue;
+import no.sikt.nva.nvi.common.queue.DataEntryType;
+import no.sikt.nva.nvi.common.queue.DynamoDbChangeMessage;
 import no.sikt.nva.nvi.common.queue.FakeSqsClient;
+import no.sikt.nva.nvi.common.queue.QueueClient;
 import no.sikt.nva.nvi.common.service.CandidateService;
 import no.sikt.nva.nvi.common.service.dto.UnverifiedNviCreatorDto;
 import no.sikt.nva.nvi.common.service.model.Candidate;
@@ -105,8 +114,10 @@ import org.junit.jupiter.params.provider.EnumSource.Mode;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentMatcher;
+import software.amazon.awssdk.services.dynamodb.model.OperationType;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
 import software.amazon.awssdk.services.sqs.model.SqsException;
 
 // Should be refactored, technical debt task: https://sikt.atlassian.net/browse/NP-48093
@@ -344,6 +355,61 @@ class IndexDocumentHandlerTest {
         actualIndexDocument.getApprovalForInstitution(institutionId).approvalStatus());
   }
 
+  @Test
+  void shouldRefreshApprovalsInPersistedDocumentWhenApprovalStatusChanges() {
+    var institutionId = randomUri();
+    var candidate = randomApplicableCandidate(institutionId, institutionId);
+    setupExistingResourceInS3AndGenerateExpectedDocument(candidate);
+    mockUriRetrieverOrgResponse(candidate);
+    handler.handleRequest(createEvent(candidate.identifier()), CONTEXT);
+    var previousIndexDocument = parseJson(s3Writer.getFile(createPath(candidate))).indexDocument();
+
+    scenario.updateApprovalStatus(
+        candidate.identifier(),
+        no.sikt.nva.nvi.common.service.model.ApprovalStatus.APPROVED,
+        institutionId);
+    insertInS3(objectMapper.createObjectNode(), extractResourceIdentifier(candidate));
+    clearInvocations(uriRetriever);
+    handler.handleRequest(createEvent(approvalStatusChangeMessage(candidate)), CONTEXT);
+
+    verify(uriRetriever, never()).fetchResponse(any(), anyString());
+    var actualIndexDocument = parseJson(s3Writer.getFile(createPath(candidate))).indexDocument();
+    assertThat(actualIndexDocument.getApprovalStatusForInstitution(institutionId))
+        .isEqualTo(ApprovalStatus.APPROVED);
+    assertThat(actualIndexDocument.publicationDetails())
+        .isEqualTo(previousIndexDocument.publicationDetails());
+  }
+
+  @Test
+  void shouldGenerateFullDocumentOnApprovalStatusChangeWhenPersistedDocumentIsOutdated()
+      throws IOException {
+    var institutionId = randomUri();
+    var candidate = randomApplicableCandidate(institutionId, institutionId);
+    var expectedIndexDocument =
+        setupExistingResourceInS3AndGenerateExpectedDocument(candidate).indexDocument();
+    mockUriRetrieverOrgResponse(candidate);
+    handler.handleRequest(createEvent(candidate.identifier()), CONTEXT);
+    persistOutdatedIndexDocument(candidate);
+
+    handler.handleRequest(createEvent(approvalStatusChangeMessage(candidate)), CONTEXT);
+
+    var actualIndexDocument = parseJson(s3Writer.getFile(createPath(candidate))).indexDocument();
+    assertContentIsEqual(expectedIndexDocument, actualIndexDocument);
+  }
+
+  @Test
+  void shouldGenerateFullDocumentOnApprovalStatusChangeWhenNoDocumentIsPersisted() {
+    var candidate = randomApplicableCandidate(HARD_CODED_TOP_LEVEL_ORG, randomUri());
+    var expectedIndexDocument =
+        setupExistingResourceInS3AndGenerateExpectedDocument(candidate).indexDocument();
+    mockUriRetrieverOrgResponse(candidate);
+
+    handler.handleRequest(createEvent(approvalStatusChangeMessage(candidate)), CONTEXT);
+
+    var actualIndexDocument = parseJson(s3Writer.getFile(createPath(candidate))).indexDocument();
+    assertContentIsEqual(expectedIndexDocument, actualIndexDocument);
+  }
+
   @Test
   void shouldNotBuildIndexDocumentForNonApplicableCandidate() {
     var request = createUpsertCandidateRequest(randomOrganizationId()).build();
@@ -486,6 +552,51 @@ class IndexDocumentHandlerTest {
     assertEquals(expectedEvent, actualEvent);
   }
 
+  @Test
+  void shouldNotPersistOrSendEventAgainWhenIndexDocumentIsUnchanged() throws IOException {
+    var candidate = setupRandomApplicableCandidate(scenario);
+    setupExistingResourceInS3(candidate);
+    mockUriRetrieverOrgResponse(candidate);
+    var storageWriter = spy(new S3StorageWriter(s3Client, BUCKET_NAME));
+    var handler =
+        new IndexDocumentHandler(
+            new S3StorageReader(s3Client, BUCKET_NAME),
+            storageWriter,
+            sqsClient,
+            candidateService,
+            uriRetriever,
+            ENVIRONMENT);
+    handler.handleRequest(createEvent(candidate.identifier()), CONTEXT);
+
+    handler.handleRequest(createEvent(candidate.identifier()), CONTEXT);
+
+    verify(storageWriter, times(1)).write(any());
+    assertThat(sqsClient.getSentMessages())
+        .extracting(SendMessageRequest::messageBody)
+        .containsExactly(createExpectedEventMessageBody(candidate));
+  }
+
+  @Test
+  void shouldReadPersistedDocumentOnceWhenRefreshingApprovals() {
+    var candidate = setupRandomApplicableCandidate(scenario);
+    setupExistingResourceInS3(candidate);
+    mockUriRetrieverOrgResponse(candidate);
+    handler.handleRequest(createEvent(candidate.identifier()), CONTEXT);
+    var storageReader = spy(new S3StorageReader(s3Client, BUCKET_NAME));
+    var refreshingHandler =
+        new IndexDocumentHandler(
+            storageReader,
+            new S3StorageWriter(s3Client, BUCKET_NAME),
+            sqsClient,
+            candidateService,
+            uriRetriever,
+            ENVIRONMENT);
+
+    refreshingHandler.handleRequest(createEvent(approvalStatusChangeMessage(candidate)), CONTEXT);
+
+    verify(storageReader, times(1)).readStream(generateBucketUri(candidate));
+  }
+
   @Test
   void shouldSendMessageToDlqWhenFailingToProcessEvent() {
     var candidate = setupRandomApplicableCandidate(scenario);
@@ -521,6 +632,93 @@ class IndexDocumentHandlerTest {
     assertDoesNotThrow(() -> handler.handleRequest(event, CONTEXT));
   }
 
+  @Test
+  void shouldProcessAllMessagesWhenMessagesAreProcessedConcurrently() {
+    var candidates =
+        List.of(
+            setupRandomApplicableCandidate(scenario),
+            setupRandomApplicableCandidate(scenario),
+            setupRandomApplicableCandidate(scenario));
+    candidates.forEach(this::setupExistingResourceInS3);
+    candidates.forEach(this::mockUriRetrieverOrgResponse);
+    var environment = getIndexDocumentHandlerEnvironment();
+    environment.setEnv("INDEX_DOCUMENT_CONCURRENCY", "3");
+    var queueClient = mock(QueueClient.class);
+    var concurrentHandler =
+        new IndexDocumentHandler(
+            new S3StorageReader(s3Client, BUCKET_NAME),
+            new S3StorageWriter(s3Client, BUCKET_NAME),
+            queueClient,
+            candidateService,
+            uriRetriever,
+            environment);
+    var identifiers = candidates.stream().map(Candidate::identifier).toArray(UUID[]::new);
+
+    var response = concurrentHandler.handleRequest(createEvent(identifiers), CONTEXT);
+
+    assertThat(response.getBatchItemFailures()).isEmpty();
+    verify(queueClient, times(candidates.size()))
+        .sendMessage(anyString(), eq(environment.readEnv("PERSISTED_INDEX_DOCUMENT_QUEUE_URL")));
+  }
+
+  @Test
+  void shouldProcessMessagesForSameCandidateInOrderWhenMessagesAreProcessedConcurrently() {
+    var candidate = randomApplicableCandidate(HARD_CODED_TOP_LEVEL_ORG, randomUri());
+    var expectedIndexDocument =
+        setupExistingResourceInS3AndGenerateExpectedDocument(candidate).indexDocument();
+    mockUriRetrieverOrgResponse(candidate);
+    var environment = getIndexDocumentHandlerEnvironment();
+    environment.setEnv("INDEX_DOCUMENT_CONCURRENCY", "2");
+    var storageReader = spy(new S3StorageReader(s3Client, BUCKET_NAME));
+    var concurrentHandler =
+        new IndexDocumentHandler(
+            storageReader,
+            new S3StorageWriter(s3Client, BUCKET_NAME),
+            sqsClient,
+            candidateService,
+            uriRetriever,
+            environment);
+    var event =
+        createEvent(
+            new DynamoDbChangeMessage(
+                candidate.identifier(), DataEntryType.CANDIDATE, OperationType.MODIFY),
+            approvalStatusChangeMessage(candidate));
+
+    var response = concurrentHandler.handleRequest(event, CONTEXT);
+
+    assertThat(response.getBatchItemFailures()).isEmpty();
+    verify(storageReader, times(1)).read(candidate.publicationDetails().publicationBucketUri());
+    var actualIndexDocument = parseJson(s3Writer.getFile(createPath(candidate))).indexDocument();
+    assertContentIsEqual(expectedIndexDocument, actualIndexDocument);
+  }
+
+  @Test
+  void shouldReportBatchItemFailureWhenFailureCannotBeSentToDlq() {
+    var candidate = setupRandomApplicableCandidate(scenario);
+    setupExistingResourceInS3(candidate);
+    mockUriRetrieverOrgResponse(candidate);
+    var queueClient = mock(QueueClient.class);
+    var sqsException = SqsException.builder().message("Some exception message").build();
+    when(queueClient.sendMessage(anyString(), anyString())).thenThrow(sqsException);
+    when(queueClient.sendMessage(anyString(), anyString(), any())).thenThrow(sqsException);
+    var failingHandler =
+        new IndexDocumentHandler(
+            new S3StorageReader(s3Client, BUCKET_NAME),
+            new S3StorageWriter(s3Client, BUCKET_NAME),
+            queueClient,
+            candidateService,
+            uriRetriever,
+            ENVIRONMENT);
+    var event = createEvent(candidate.identifier());
+    event.getRecords().getFirst().setMessageId("failing-message");
+
+    var response = failingHandler.handleRequest(event, CONTEXT);
+
+    assertThat(response.getBatchItemFailures())
+        .extracting(BatchItemFailure::getItemIdentifier)
+        .containsExactly("failing-message");
+  }
+
   @Test
   void shouldNotFailForWholeBatchWhenFailingToReadOneResourceFromStorage() {
     var candidateToFail = setupRandomApplicableCandidate(scenario);
@@ -610,6 +808,19 @@ class IndexDocumentHandlerTest {
     assertContentIsEqual(expectedIndexDocument, actualIndexDocument);
   }
 
+  /**
+   * Replaces the persisted document with one generated from an earlier version of the candidate,
+   * with publication details that have since changed.
+   */
+  private void persistOutdatedIndexDocument(Candidate candidate) throws IOException {
+    var persistedDocument =
+        (ObjectNode) objectMapper.readTree(s3Writer.getFile(createPath(candidate)));
+    var body = (ObjectNode) persistedDocument.get("body");
+    body.put("modifiedDate", "2000-01-01T00:00:00Z");
+    ((ObjectNode) body.get("publicationDetails")).put("title", randomString());
+    new S3StorageWriter(s3Client, BUCKET_NAME).write(parseJson(persistedDocument.toString()));
+  }
+
   private CandidateDao setupReportedCandidateWithInvalidProperties() {
     var organizationId = randomUri();
     var publicationChannel =
@@ -672,6 +883,11 @@ class IndexDocumentHandlerTest {
     return candidateToFail.publicationDetails().getNviCreatorAffiliations().getFirst();
   }
 
+  private static DynamoDbChangeMessage approvalStatusChangeMessage(Candidate candidate) {
+    return new DynamoDbChangeMessage(
+        candidate.identifier(), DataEntryType.APPROVAL_STATUS, OperationType.MODIFY);
+  }
+
   private static UnixPath createPath(Candidate candidate) {
     return UnixPath.of(NVI_CANDIDATES_FOLDER)
         .addChild(candidate.identifier().toString() + GZIP_ENDING);
@@ -6,10 +6,12 @@ import java.util.Collection;
 import java.util.List;
 import no.sikt.nva.nvi.index.aws.CandidateSearchClient;
 import no.sikt.nva.nvi.index.aws.OpenSearchClientFactory;
+import no.sikt.nva.nvi.index.aws.PageSizeBudget;
 import no.sikt.nva.nvi.index.model.document.NviCandidateIndexDocument;
 import no.sikt.nva.nvi.index.report.ReportAggregationClient;
 import no.sikt.nva.nvi.index.report.ReportDocumentClient;
 import org.apache.hc.core5.http.HttpHost;
+import org.opensearch.client.opensearch.OpenSearchClient;
 import org.opensearch.client.opensearch._types.OpenSearchException;
 import org.opensearch.testcontainers.OpenSearchContainer;
 import org.picocontainer.Startable;
@@ -22,6 +24,7 @@ public class OpenSearchContainerContext implements Startable {
       DockerImageName.parse("opensearchproject/opensearch:3.5.0");
   private static final OpenSearchContainer<?> container =
       new OpenSearchContainer<>(OPEN_SEARCH_IMAGE);
+  private static OpenSearchClient nativeClient;
   private static CandidateSearchClient searchClient;
   private static ReportAggregationClient reportAggregationClient;
   private static ReportDocumentClient reportDocumentClient;
@@ -32,7 +35,7 @@ public class OpenSearchContainerContext implements Startable {
     container.start();
     var httpHost = HttpHost.create(URI.create(container.getHttpHostAddress()));
     var fakeJwtProvider = FakeCachedJwtProvider.setup();
-    var nativeClient = OpenSearchClientFactory.createClient(httpHost, fakeJwtProvider);
+    nativeClient = OpenSearchClientFactory.createClient(httpHost, fakeJwtProvider);
     searchClient = new CandidateSearchClient(nativeClient);
     reportAggregationClient = new ReportAggregationClient(nativeClient);
     reportDocumentClient = new ReportDocumentClient(nativeClient);
@@ -62,6 +65,10 @@ public class OpenSearchContainerContext implements Startable {
     searchClient.refreshIndex();
   }
 
+  public OpenSearchClient getNativeClient() {
+    return nativeClient;
+  }
+
   public CandidateSearchClient getOpenSearchClient() {
     return searchClient;
   }
@@ -74,6 +81,11 @@ public class OpenSearchContainerContext implements Startable {
     return reportDocumentClient;
   }
 
+  public ReportDocumentClient createReportDocumentClient(
+      int slices, PageSizeBudget pageSizeBudget) {
+    return new ReportDocumentClient(nativeClient, slices, pageSizeBudget);
+  }
+
   public void addDocumentsToIndex(Collection<NviCandidateIndexDocument> documents) {
     documents.forEach(searchClient::addDocumentToIndex);
     refreshIndex();
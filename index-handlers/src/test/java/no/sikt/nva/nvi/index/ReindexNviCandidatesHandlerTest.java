@@ -0,0 +1,251 @@
+package no.sikt.nva.nvi.index;
+
+import static no.sikt.nva.nvi.index.IndexDocumentFixtures.createRandomIndexDocument;
+import static no.sikt.nva.nvi.index.aws.S3StorageWriter.GZIP_ENDING;
+import static no.sikt.nva.nvi.index.aws.S3StorageWriter.NVI_CANDIDATES_FOLDER;
+import static no.sikt.nva.nvi.index.utils.SearchConstants.NVI_CANDIDATES_INDEX;
+import static no.unit.nva.testutils.RandomDataGenerator.randomUri;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.Year;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+import no.sikt.nva.nvi.common.FakeEnvironment;
+import no.sikt.nva.nvi.index.aws.CandidateSearchClient;
+import no.sikt.nva.nvi.index.aws.S3StorageWriter;
+import no.sikt.nva.nvi.index.model.document.IndexDocumentWithConsumptionAttributes;
+import no.sikt.nva.nvi.index.model.document.NviCandidateIndexDocument;
+import no.unit.nva.s3.S3Driver;
+import no.unit.nva.stubs.FakeS3Client;
+import nva.commons.core.Environment;
+import nva.commons.core.paths.UnixPath;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.search.Hit;
+import org.opensearch.client.opensearch.indices.GetIndexRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+class ReindexNviCandidatesHandlerTest {
+
+  private static final OpenSearchContainerContext CONTAINER = new OpenSearchContainerContext();
+  private static final String BUCKET_NAME = "expanded-resources";
+  private static final String ALL_CANDIDATE_INDICES = NVI_CANDIDATES_INDEX + "*";
+  private static final long ENOUGH_REMAINING_TIME_MILLIS = Duration.ofMinutes(10).toMillis();
+  private static final long TOO_LITTLE_REMAINING_TIME_MILLIS = Duration.ofSeconds(10).toMillis();
+  private static final int SEARCH_SIZE = 100;
+  private static CandidateSearchClient searchClient;
+  private FakeS3Client s3Client;
+  private S3StorageWriter storageWriter;
+  private Context context;
+  private ReindexNviCandidatesHandler handler;
+
+  @BeforeAll
+  static void beforeAll() {
+    CONTAINER.start();
+    searchClient = CONTAINER.getOpenSearchClient();
+  }
+
+  @AfterAll
+  static void afterAll() {
+    CONTAINER.stop();
+  }
+
+  @BeforeEach
+  void beforeEach() {
+    CONTAINER.createIndex();
+    s3Client = spy(new FakeS3Client());
+    storageWriter = new S3StorageWriter(s3Client, BUCKET_NAME);
+    context = mock(Context.class);
+    when(context.getRemainingTimeInMillis()).thenReturn(ENOUGH_REMAINING_TIME_MILLIS);
+    handler = new ReindexNviCandidatesHandler(searchClient, s3Client, createEnvironment());
+  }
+
+  @AfterEach
+  void afterEach() {
+    CONTAINER.deleteIndex();
+  }
+
+  @Test
+  void shouldMoveAliasToNewIndexWithAllPersistedDocuments() throws IOException {
+    var previousIndices = getIndicesBehindAlias();
+    CONTAINER.addDocumentsToIndex(randomIndexDocument());
+    var firstDocument = persistDocument();
+    var secondDocument = persistDocument();
+    mockListing(listingOf(firstDocument, secondDocument), listing());
+
+    handler.handleRequest(null, context);
+
+    assertThat(getIndicesBehindAlias()).hasSize(1).doesNotContainAnyElementsOf(previousIndices);
+    assertThat(searchIndexedIdentifiers())
+        .containsExactlyInAnyOrder(firstDocument.identifier(), secondDocument.identifier());
+  }
+
+  @Test
+  void shouldDeleteNewIndexAndKeepAliasWhenDocumentCannotBeRead() throws IOException {
+    var previousIndices = getAllCandidateIndices();
+    var existingDocument = randomIndexDocument();
+    CONTAINER.addDocumentsToIndex(existingDocument);
+    var unreadableKey = persistUnreadableDocument();
+    mockListing(listing(s3Object(createKey(persistDocument())), s3Object(unreadableKey)));
+
+    assertThrows(IllegalStateException.class, () -> handler.handleRequest(null, context));
+
+    assertThat(getAllCandidateIndices()).isEqualTo(previousIndices);
+    assertThat(searchIndexedIdentifiers()).containsExactly(existingDocument.identifier());
+  }
+
+  @Test
+  void shouldDeleteNewIndexAndKeepAliasWhenTooLittleTimeRemainsForCatchUp() throws IOException {
+    var previousIndices = getAllCandidateIndices();
+    var existingDocument = randomIndexDocument();
+    CONTAINER.addDocumentsToIndex(existingDocument);
+    mockListing(listingOf(persistDocument()));
+    when(context.getRemainingTimeInMillis()).thenReturn(TOO_LITTLE_REMAINING_TIME_MILLIS);
+
+    assertThrows(IllegalStateException.class, () -> handler.handleRequest(null, context));
+
+    assertThat(getAllCandidateIndices()).isEqualTo(previousIndices);
+    assertThat(searchIndexedIdentifiers()).containsExactly(existingDocument.identifier());
+  }
+
+  @Test
+  void shouldIndexDocumentsPersistedDuringLoadAfterAliasIsMoved() throws IOException {
+    var loadedDocument = persistDocument();
+    var documentPersistedDuringLoad = persistDocument();
+    var lastModifiedBeforeLoad = Instant.now().minus(Duration.ofHours(1));
+    mockListing(
+        listing(s3Object(createKey(loadedDocument), lastModifiedBeforeLoad)),
+        listing(
+            s3Object(createKey(loadedDocument), lastModifiedBeforeLoad),
+            s3Object(createKey(documentPersistedDuringLoad), Instant.now())));
+
+    handler.handleRequest(null, context);
+
+    CONTAINER.refreshIndex();
+    assertThat(searchIndexedIdentifiers())
+        .containsExactlyInAnyOrder(
+            loadedDocument.identifier(), documentPersistedDuringLoad.identifier());
+  }
+
+  @Test
+  void shouldReplaceIndexCreatedBeforeAliasWasIntroduced() throws IOException {
+    CONTAINER.deleteIndex();
+    CONTAINER
+        .getNativeClient()
+        .indices()
+        .create(request -> request.index(NVI_CANDIDATES_INDEX));
+    var persistedDocument = persistDocument();
+    mockListing(listingOf(persistedDocument), listing());
+
+    handler.handleRequest(null, context);
+
+    assertThat(getIndicesBehindAlias())
+        .hasSize(1)
+        .allSatisfy(indexName -> assertThat(indexName).startsWith(NVI_CANDIDATES_INDEX + "-"));
+    assertThat(searchIndexedIdentifiers()).containsExactly(persistedDocument.identifier());
+  }
+
+  private static Environment createEnvironment() {
+    return FakeEnvironment.builder()
+        .with("EXPANDED_RESOURCES_BUCKET", BUCKET_NAME)
+        .with("INDEX_NUMBER_OF_REPLICAS", "0")
+        .build();
+  }
+
+  private static NviCandidateIndexDocument randomIndexDocument() {
+    return createRandomIndexDocument(randomUri(), Year.now().getValue());
+  }
+
+  private static String createKey(NviCandidateIndexDocument document) {
+    return S3StorageWriter.createFilePath(document.identifier()).toString();
+  }
+
+  private static S3Object s3Object(String key) {
+    return s3Object(key, Instant.now());
+  }
+
+  private static S3Object s3Object(String key, Instant lastModified) {
+    return S3Object.builder().key(key).lastModified(lastModified).build();
+  }
+
+  private static ListObjectsV2Response listingOf(NviCandidateIndexDocument... documents) {
+    var objects =
+        Stream.of(documents)
+            .map(ReindexNviCandidatesHandlerTest::createKey)
+            .map(ReindexNviCandidatesHandlerTest::s3Object)
+            .toArray(S3Object[]::new);
+    return listing(objects);
+  }
+
+  private static ListObjectsV2Response listing(S3Object... objects) {
+    return ListObjectsV2Response.builder().contents(objects).isTruncated(false).build();
+  }
+
+  private void mockListing(ListObjectsV2Response... listings) {
+    doReturn(listings[0], (Object[]) Arrays.copyOfRange(listings, 1, listings.length))
+        .when(s3Client)
+        .listObjectsV2(any(ListObjectsV2Request.class));
+  }
+
+  private NviCandidateIndexDocument persistDocument() throws IOException {
+    var document = randomIndexDocument();
+    storageWriter.write(IndexDocumentWithConsumptionAttributes.from(document));
+    return document;
+  }
+
+  private String persistUnreadableDocument() throws IOException {
+    var path = UnixPath.of(NVI_CANDIDATES_FOLDER).addChild(UUID.randomUUID() + GZIP_ENDING);
+    new S3Driver(s3Client, BUCKET_NAME).insertFile(path, "not an index document");
+    return path.toString();
+  }
+
+  private Set<String> getIndicesBehindAlias() throws IOException {
+    return getIndices(NVI_CANDIDATES_INDEX);
+  }
+
+  private Set<String> getAllCandidateIndices() throws IOException {
+    return getIndices(ALL_CANDIDATE_INDICES);
+  }
+
+  private static Set<String> getIndices(String indexPattern) throws IOException {
+    return CONTAINER
+        .getNativeClient()
+        .indices()
+        .get(GetIndexRequest.of(request -> request.index(indexPattern)))
+        .result()
+        .keySet();
+  }
+
+  private static List<UUID> searchIndexedIdentifiers() throws IOException {
+    var request =
+        SearchRequest.of(search -> search.index(NVI_CANDIDATES_INDEX).size(SEARCH_SIZE));
+    return CONTAINER
+        .getNativeClient()
+        .search(request, NviCandidateIndexDocument.class)
+        .hits()
+        .hits()
+        .stream()
+        .map(Hit::source)
+        .map(NviCandidateIndexDocument::identifier)
+        .toList();
+  }
+}
@@ -1,5 +1,6 @@
 package no.sikt.nva.nvi.index;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static no.sikt.nva.nvi.common.QueueServiceTestUtils.invalidSqsMessage;
 import static no.sikt.nva.nvi.common.db.PeriodRepositoryFixtures.setupOpenPeriod;
 import static no.sikt.nva.nvi.common.model.CandidateFixtures.setupRandomApplicableCandidate;
@@ -10,11 +11,15 @@ import static no.sikt.nva.nvi.index.IndexDocumentTestUtils.expandPublicationDeta
 import static no.sikt.nva.nvi.test.TestUtils.CURRENT_YEAR;
 import static no.sikt.nva.nvi.test.TestUtils.randomBigDecimal;
 import static no.unit.nva.s3.S3Driver.S3_SCHEME;
+import static no.unit.nva.testutils.RandomDataGenerator.randomString;
 import static nva.commons.core.attempt.Try.attempt;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -22,11 +27,15 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse.BatchItemFailure;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent.SQSMessage;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import java.io.ByteArrayInputStream;
 import java.net.URI;
 import java.util.List;
+import java.util.stream.IntStream;
+import no.sikt.nva.nvi.common.FakeEnvironment;
 import no.sikt.nva.nvi.common.S3StorageReader;
 import no.sikt.nva.nvi.common.StorageReader;
 import no.sikt.nva.nvi.common.TestScenario;
@@ -34,6 +43,8 @@ import no.sikt.nva.nvi.common.queue.FakeSqsClient;
 import no.sikt.nva.nvi.common.queue.QueueClient;
 import no.sikt.nva.nvi.common.service.model.Candidate;
 import no.sikt.nva.nvi.common.utils.EnvironmentUriFactory;
+import no.sikt.nva.nvi.index.aws.BulkIndexResult;
+import no.sikt.nva.nvi.index.aws.BulkIndexResult.Failure;
 import no.sikt.nva.nvi.index.aws.CandidateSearchClient;
 import no.sikt.nva.nvi.index.model.PersistedIndexDocumentMessage;
 import no.sikt.nva.nvi.index.model.document.IndexDocumentWithConsumptionAttributes;
@@ -113,7 +124,7 @@ class UpdateIndexHandlerTest {
     var candidate = setupRandomApplicableCandidate(scenario);
     var event = createUpdateIndexEvent(List.of(candidate));
     var mockedStorageReader = mock(S3StorageReader.class);
-    when(mockedStorageReader.read(any())).thenThrow(new RuntimeException());
+    when(mockedStorageReader.readStream(any())).thenThrow(new RuntimeException());
     new UpdateIndexHandler(searchClient, mockedStorageReader, sqsClient)
         .handleRequest(event, CONTEXT);
     var dlqMessage = sqsClient.receiveMessage(INDEX_DLQ_URL, 1).messages().getFirst();
@@ -155,6 +166,75 @@ class UpdateIndexHandlerTest {
     assertDoesNotThrow(() -> handler.handleRequest(event, CONTEXT));
   }
 
+  @Test
+  void shouldRetryRetryableBulkFailuresAndSendRejectedDocumentsToDlq() {
+    var retryableCandidate = setupRandomApplicableCandidate(scenario);
+    var rejectedCandidate = setupRandomApplicableCandidate(scenario);
+    setupExistingIndexDocumentInBucket(retryableCandidate);
+    setupExistingIndexDocumentInBucket(rejectedCandidate);
+    var event = createUpdateIndexEvent(List.of(retryableCandidate, rejectedCandidate));
+    event.getRecords().forEach(message -> message.setMessageId(randomString()));
+    when(searchClient.addDocumentsToIndex(anyCollection(), anyLong()))
+        .thenReturn(
+            new BulkIndexResult(
+                0,
+                List.of(
+                    new Failure(retryableCandidate.identifier(), 429, "throttled", true),
+                    new Failure(rejectedCandidate.identifier(), 400, "mapping error", false))));
+
+    var response = handler.handleRequest(event, CONTEXT);
+
+    var retryableMessageId = event.getRecords().getFirst().getMessageId();
+    assertThat(response.getBatchItemFailures())
+        .extracting(BatchItemFailure::getItemIdentifier)
+        .containsExactly(retryableMessageId);
+    assertEquals(1, sqsClient.receiveMessage(INDEX_DLQ_URL, 10).messages().size());
+    verify(searchClient, times(0)).addDocumentToIndex(any(NviCandidateIndexDocument.class));
+  }
+
+  @Test
+  void shouldRetryEveryMessageForCandidateWhenBulkFailureIsRetryable() {
+    var candidate = setupRandomApplicableCandidate(scenario);
+    setupExistingIndexDocumentInBucket(candidate);
+    var event = createUpdateIndexEvent(List.of(candidate, candidate));
+    event.getRecords().forEach(message -> message.setMessageId(randomString()));
+    when(searchClient.addDocumentsToIndex(anyCollection(), anyLong()))
+        .thenReturn(
+            new BulkIndexResult(
+                0, List.of(new Failure(candidate.identifier(), 429, "throttled", true))));
+
+    var response = handler.handleRequest(event, CONTEXT);
+
+    assertThat(response.getBatchItemFailures())
+        .extracting(BatchItemFailure::getItemIdentifier)
+        .containsExactlyInAnyOrderElementsOf(
+            event.getRecords().stream().map(SQSMessage::getMessageId).toList());
+  }
+
+  @Test
+  void shouldFetchDocumentsConcurrentlyWhenFetchConcurrencyIsConfigured() {
+    var environment =
+        FakeEnvironment.builder()
+            .with(INDEX_DLQ, INDEX_DLQ_URL)
+            .with("INDEX_DOCUMENT_FETCH_CONCURRENCY", "4")
+            .build();
+    var candidates =
+        IntStream.range(0, 5).mapToObj(i -> setupRandomApplicableCandidate(scenario)).toList();
+    var expectedDocuments =
+        candidates.stream()
+            .map(candidate -> setupExistingIndexDocumentInBucket(candidate).indexDocument())
+            .toList();
+    when(searchClient.addDocumentsToIndex(anyCollection(), anyLong()))
+        .thenReturn(new BulkIndexResult(expectedDocuments.size(), List.of()));
+    handler =
+        new UpdateIndexHandler(
+            searchClient, new S3StorageReader(s3Client, BUCKET_NAME), sqsClient, environment);
+
+    handler.handleRequest(createUpdateIndexEvent(candidates), CONTEXT);
+
+    verify(searchClient, times(1)).addDocumentsToIndex(eq(expectedDocuments), anyLong());
+  }
+
   private static URI generateBucketUri(Candidate candidate) {
     return new UriWrapper(S3_SCHEME, BUCKET_NAME).addChild(createPath(candidate)).getUri();
   }
@@ -164,9 +244,10 @@ class UpdateIndexHandlerTest {
       Candidate candidateToSucceed, Candidate candidateToFail) throws JsonProcessingException {
     var storageReader = mock(StorageReader.class);
     var expectedIndexDocument = setupExistingIndexDocumentInBucket(candidateToSucceed);
-    when(storageReader.read(generateBucketUri(candidateToSucceed)))
-        .thenReturn(expectedIndexDocument.toJsonString());
-    when(storageReader.read(generateBucketUri(candidateToFail))).thenThrow(new RuntimeException());
+    when(storageReader.readStream(generateBucketUri(candidateToSucceed)))
+        .thenReturn(new ByteArrayInputStream(expectedIndexDocument.toJsonString().getBytes(UTF_8)));
+    when(storageReader.readStream(generateBucketUri(candidateToFail)))
+        .thenThrow(new RuntimeException());
     return storageReader;
   }
 
@@ -12,11 +12,9 @@ import static no.sikt.nva.nvi.index.IndexDocumentTestUtils.indexDocumentWithoutO
 import static no.sikt.nva.nvi.index.IndexDocumentTestUtils.indexDocumentWithoutPages;
 import static no.sikt.nva.nvi.index.IndexDocumentTestUtils.randomCristinOrgUri;
 import static no.sikt.nva.nvi.index.IndexDocumentTestUtils.randomIndexDocumentWith;
-import static no.sikt.nva.nvi.index.apigateway.utils.AggregateResponseTestUtil.filterAggregate;
 import static no.sikt.nva.nvi.index.apigateway.utils.ExcelWorkbookUtil.extractLinesInInstitutionIdentifierColumn;
 import static no.sikt.nva.nvi.index.apigateway.utils.ExcelWorkbookUtil.fromInputStream;
 import static no.sikt.nva.nvi.index.apigateway.utils.MockOpenSearchUtil.createSearchResponse;
-import static no.sikt.nva.nvi.index.apigateway.utils.MockOpenSearchUtil.createSearchResponseWithTotal;
 import static no.sikt.nva.nvi.index.model.report.InstitutionReportHeader.CONTRIBUTOR_FIRST_NAME;
 import static no.sikt.nva.nvi.index.model.report.InstitutionReportHeader.CONTRIBUTOR_IDENTIFIER;
 import static no.sikt.nva.nvi.index.model.report.InstitutionReportHeader.CONTRIBUTOR_LAST_NAME;
@@ -44,7 +42,6 @@ import static no.sikt.nva.nvi.index.model.report.InstitutionReportHeader.PUBLICA
 import static no.sikt.nva.nvi.index.model.report.InstitutionReportHeader.PUBLICATION_TITLE;
 import static no.sikt.nva.nvi.index.model.report.InstitutionReportHeader.PUBLISHED_YEAR;
 import static no.sikt.nva.nvi.index.model.report.InstitutionReportHeader.REPORTING_YEAR;
-import static no.sikt.nva.nvi.index.query.SearchAggregation.TOTAL_COUNT_AGGREGATION_AGG;
 import static no.sikt.nva.nvi.test.TestConstants.THIS_YEAR;
 import static no.sikt.nva.nvi.test.TestUtils.CURRENT_YEAR;
 import static no.unit.nva.commons.json.JsonUtils.dtoObjectMapper;
@@ -63,7 +60,10 @@ import static org.apache.hc.core5.http.HttpHeaders.CONTENT_TYPE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -80,9 +80,14 @@ import java.net.HttpURLConnection;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import no.sikt.nva.nvi.common.service.model.GlobalApprovalStatus;
 import no.sikt.nva.nvi.index.apigateway.utils.ExcelWorkbookUtil;
@@ -95,7 +100,6 @@ import no.sikt.nva.nvi.index.model.document.NviContributor;
 import no.sikt.nva.nvi.index.model.document.NviOrganization;
 import no.sikt.nva.nvi.index.model.document.Pages;
 import no.sikt.nva.nvi.index.model.search.CandidateSearchParameters;
-import no.sikt.nva.nvi.index.model.search.SearchResultParameters;
 import no.sikt.nva.nvi.index.xlsx.ExcelWorkbookGenerator;
 import no.unit.nva.language.LanguageMapper;
 import no.unit.nva.stubs.FakeContext;
@@ -109,11 +113,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.opensearch.client.opensearch.OpenSearchClient;
 import org.opensearch.client.opensearch._types.ErrorCause;
 import org.opensearch.client.opensearch._types.ErrorResponse;
 import org.opensearch.client.opensearch._types.OpenSearchException;
-import org.opensearch.client.opensearch._types.SortOrder;
-import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.pit.CreatePitRequest;
+import org.opensearch.client.opensearch.core.pit.CreatePitResponse;
 import org.zalando.problem.Problem;
 
 // Should be refactored, technical debt task: https://sikt.atlassian.net/browse/NP-48093
@@ -126,7 +132,6 @@ class FetchInstitutionReportHandlerTest {
   private static final int PAGE_SIZE =
       Integer.parseInt(new Environment().readEnv("INSTITUTION_REPORT_SEARCH_PAGE_SIZE"));
   private static final String NESTED_FIELD_CONTRIBUTORS = "publicationDetails.contributors";
-  private static final String EXPECTED_SORT_ORDER = SortOrder.Asc.jsonValue();
   private static SearchClient<NviCandidateIndexDocument> searchClient;
   private ByteArrayOutputStream output;
   private FetchInstitutionReportHandler handler;
@@ -210,20 +215,13 @@ class FetchInstitutionReportHandlerTest {
   }
 
   @Test
-  void shouldFetchCandidatesWithPagination() throws IOException {
+  void shouldIncludeCandidatesFromAllScannedPages() throws IOException {
     var topLevelCristinOrg = randomCristinOrgUri();
     var candidatesInIndex = mockTwoCandidatesInIndex(topLevelCristinOrg);
 
     handler.handleRequest(
         requestWithMediaType(MICROSOFT_EXCEL.toString(), topLevelCristinOrg), output, CONTEXT);
 
-    var firstExpectedResultParameters = defaultResultParameters();
-    var secondExpectedResultParameters = searchResultParams(PAGE_SIZE, PAGE_SIZE);
-
-    verify(searchClient, times(1))
-        .search(eq(buildRequest(topLevelCristinOrg, firstExpectedResultParameters).build()));
-    verify(searchClient, times(1))
-        .search(eq(buildRequest(topLevelCristinOrg, secondExpectedResultParameters).build()));
     var decodedResponse =
         Base64.getDecoder().decode(fromOutputStream(output, String.class).getBody());
     var actual = fromInputStream(new ByteArrayInputStream(decodedResponse));
@@ -272,11 +270,7 @@ class FetchInstitutionReportHandlerTest {
     var year = "2021";
     var request =
         createRequest(topLevelCristinOrg, MANAGE_NVI_CANDIDATES, Map.of(YEAR, year)).build();
-    when(searchClient.search(any()))
-        .thenReturn(aggregationResponse(1))
-        .thenReturn(
-            createSearchResponse(
-                List.of(randomIndexDocumentWith(CURRENT_YEAR, topLevelCristinOrg))));
+    mockScannedPages(List.of(List.of(randomIndexDocumentWith(CURRENT_YEAR, topLevelCristinOrg))));
     handler.handleRequest(request, output, CONTEXT);
 
     var expectedSearchParameters =
@@ -284,10 +278,9 @@ class FetchInstitutionReportHandlerTest {
             .withYear(year)
             .withTopLevelCristinOrg(topLevelCristinOrg)
             .withAffiliations(List.of(extractIdentifier(topLevelCristinOrg)))
-            .withSearchResultParameters(defaultResultParameters())
             .withExcludeFields(List.of(NESTED_FIELD_CONTRIBUTORS))
             .build();
-    verify(searchClient, times(1)).search(eq(expectedSearchParameters));
+    verify(searchClient, times(1)).scan(eq(expectedSearchParameters), anyInt(), any(), any());
   }
 
   @Test
@@ -296,11 +289,7 @@ class FetchInstitutionReportHandlerTest {
     var year = "2021";
     var request =
         createRequest(topLevelCristinOrg, MANAGE_NVI_CANDIDATES, Map.of(YEAR, year)).build();
-    when(searchClient.search(any()))
-        .thenReturn(aggregationResponse(1))
-        .thenReturn(
-            createSearchResponse(
-                List.of(randomIndexDocumentWith(CURRENT_YEAR, topLevelCristinOrg))));
+    mockScannedPages(List.of(List.of(randomIndexDocumentWith(CURRENT_YEAR, topLevelCristinOrg))));
     handler.handleRequest(request, output, CONTEXT);
 
     var expectedSearchParameters =
@@ -308,10 +297,9 @@ class FetchInstitutionReportHandlerTest {
             .withYear(year)
             .withTopLevelCristinOrg(topLevelCristinOrg)
             .withAffiliations(List.of(extractIdentifier(topLevelCristinOrg)))
-            .withSearchResultParameters(defaultResultParameters())
             .withExcludeFields(List.of("publicationDetails.contributors"))
             .build();
-    verify(searchClient, times(1)).search(eq(expectedSearchParameters));
+    verify(searchClient, times(1)).scan(eq(expectedSearchParameters), anyInt(), any(), any());
   }
 
   @Test
@@ -334,9 +322,7 @@ class FetchInstitutionReportHandlerTest {
   void shouldLogCandidateIdOnFailure() throws IOException {
     var topLevelCristinOrg = randomCristinOrgUri();
     var indexDocument = indexDocumentMissingApprovals(CURRENT_YEAR, topLevelCristinOrg);
-    when(searchClient.search(any()))
-        .thenReturn(aggregationResponse(1))
-        .thenReturn(createSearchResponse(indexDocument));
+    mockScannedPages(List.of(List.of(indexDocument)));
     var logRecorder = LogRecorder.forClass(NviCandidateIndexDocument.class);
     handler.handleRequest(
         requestWithMediaType(MICROSOFT_EXCEL.toString(), topLevelCristinOrg), output, CONTEXT);
@@ -457,16 +443,29 @@ class FetchInstitutionReportHandlerTest {
     assertEquals(HttpURLConnection.HTTP_OK, response.getStatusCode());
   }
 
+  @Test
+  void shouldUseConfiguredPageSizeAsInitialPageSize() throws IOException {
+    var topLevelCristinOrg = randomCristinOrgUri();
+    mockCandidatesInOpenSearch(topLevelCristinOrg);
+
+    handler.handleRequest(
+        requestWithMediaType(MICROSOFT_EXCEL.toString(), topLevelCristinOrg), output, CONTEXT);
+
+    verify(searchClient, times(1))
+        .scan(any(), anyInt(), argThat(budget -> budget.initialPageSize() == PAGE_SIZE), any());
+  }
+
   @Test
   void shouldNotFailOn413ResponseOnSearchRequest() throws IOException {
     var topLevelCristinOrg = randomCristinOrgUri();
-    var numberOfDocuments = 6;
     var indexDocuments =
         Stream.generate(() -> randomIndexDocumentWith(CURRENT_YEAR, topLevelCristinOrg))
-            .limit(numberOfDocuments)
+            .limit(3)
             .toList();
-    mockOpenSearchResponseThrowingOnSecondRequest(indexDocuments, topLevelCristinOrg);
-    var expected = getExpectedReport(indexDocuments, topLevelCristinOrg);
+    var openSearchClient = mockOpenSearchClientThrowingOnInitialPageSize(indexDocuments);
+    handler =
+        new FetchInstitutionReportHandler(
+            new CandidateSearchClient(openSearchClient), ENVIRONMENT);
 
     handler.handleRequest(
         requestWithMediaType(MICROSOFT_EXCEL.toString(), topLevelCristinOrg), output, CONTEXT);
@@ -474,71 +473,57 @@ class FetchInstitutionReportHandlerTest {
     var decodedResponse =
         Base64.getDecoder().decode(fromOutputStream(output, String.class).getBody());
     var actual = fromInputStream(new ByteArrayInputStream(decodedResponse));
-    assertEquals(expected, actual);
-  }
-
-  private static SearchResultParameters defaultResultParameters() {
-    return SearchResultParameters.builder()
-        .withSize(PAGE_SIZE)
-        .withSortOrder(EXPECTED_SORT_ORDER)
-        .build();
+    assertEquals(getExpectedReport(indexDocuments, topLevelCristinOrg), actual);
   }
 
-  private static void mockOpenSearchResponseThrowingOnSecondRequest(
-      List<NviCandidateIndexDocument> indexDocuments, URI topLevelCristinOrg) throws IOException {
-    var aggregationRequest =
-        buildRequest(topLevelCristinOrg, searchResultParams(0, 0))
-            .withAggregationType(TOTAL_COUNT_AGGREGATION_AGG.getAggregationName())
-            .build();
-    when(searchClient.search(eq(aggregationRequest)))
-        .thenReturn(aggregationResponse(indexDocuments.size()));
-    var firstSearchRequest =
-        buildRequest(topLevelCristinOrg, searchResultParams(PAGE_SIZE, 0)).build();
-    when(searchClient.search(eq(firstSearchRequest)))
-        .thenReturn(
-            createSearchResponseWithTotal(
-                indexDocuments.stream().limit(PAGE_SIZE).toList(), indexDocuments.size()));
-    var openSearchException = createRequestEntityTooLargeException();
-    var secondSearchRequest =
-        buildRequest(topLevelCristinOrg, searchResultParams(PAGE_SIZE, PAGE_SIZE)).build();
-    when(searchClient.search(eq(secondSearchRequest))).thenThrow(openSearchException);
-    var secondSearchRequestWithReducedPageSize =
-        buildRequest(topLevelCristinOrg, searchResultParams(PAGE_SIZE / 2, PAGE_SIZE)).build();
-    when(searchClient.search(eq(secondSearchRequestWithReducedPageSize)))
-        .thenReturn(
-            createSearchResponseWithTotal(
-                indexDocuments.stream().skip(PAGE_SIZE).toList(), indexDocuments.size()));
-  }
-
-  private static SearchResultParameters searchResultParams(int size, int offset) {
-    return SearchResultParameters.builder()
-        .withSize(size)
-        .withOffset(offset)
-        .withSortOrder(EXPECTED_SORT_ORDER)
-        .build();
+  /**
+   * Rejects every request for the initial page size as too large, and hands out the documents to
+   * the slices that ask with a reduced page size, until there are none left.
+   */
+  private static OpenSearchClient mockOpenSearchClientThrowingOnInitialPageSize(
+      List<NviCandidateIndexDocument> indexDocuments) throws IOException {
+    var openSearchClient = mock(OpenSearchClient.class);
+    var pitResponse = mock(CreatePitResponse.class);
+    when(pitResponse.pitId()).thenReturn(randomString());
+    when(openSearchClient.createPit(any(CreatePitRequest.class))).thenReturn(pitResponse);
+    var remainingDocuments = new ConcurrentLinkedQueue<>(indexDocuments);
+    when(openSearchClient.search(any(SearchRequest.class), eq(NviCandidateIndexDocument.class)))
+        .thenAnswer(
+            invocation -> {
+              SearchRequest request = invocation.getArgument(0);
+              if (request.size() == PAGE_SIZE) {
+                throw responseTooLargeException();
+              }
+              return createSearchResponse(takeDocuments(remainingDocuments, request.size()));
+            });
+    return openSearchClient;
+  }
+
+  private static List<NviCandidateIndexDocument> takeDocuments(
+      Queue<NviCandidateIndexDocument> remainingDocuments, int count) {
+    return Stream.generate(remainingDocuments::poll)
+        .limit(count)
+        .takeWhile(Objects::nonNull)
+        .toList();
   }
 
-  private static OpenSearchException createRequestEntityTooLargeException() {
-    var errorCause = new ErrorCause.Builder().type("request_entity_too_large").reason("").build();
-    var errorResponse =
-        new ErrorResponse.Builder()
-            .status(HttpURLConnection.HTTP_ENTITY_TOO_LARGE)
-            .error(errorCause)
-            .build();
-    return new OpenSearchException(errorResponse);
+  private static OpenSearchException responseTooLargeException() {
+    var errorCause =
+        ErrorCause.of(
+            cause -> cause.type("too_long_http_response_exception").reason("Response too large"));
+    return new OpenSearchException(
+        ErrorResponse.of(response -> response.status(413).error(errorCause)));
   }
 
   private static List<NviCandidateIndexDocument> mockCandidateWithoutApprovals(
-      URI topLevelCristinOrg) throws IOException {
+      URI topLevelCristinOrg) {
     var indexDocumentMissingApprovals =
         indexDocumentMissingApprovals(CURRENT_YEAR, topLevelCristinOrg);
     var candidatesInIndex =
         List.of(
             indexDocumentMissingApprovals,
             randomIndexDocumentWith(CURRENT_YEAR, topLevelCristinOrg));
-    when(searchClient.search(any()))
-        .thenReturn(aggregationResponse(candidatesInIndex.size()))
-        .thenReturn(createSearchResponse(candidatesInIndex));
+    mockScannedPages(List.of(candidatesInIndex));
     return candidatesInIndex;
   }
 
@@ -561,38 +546,20 @@ class FetchInstitutionReportHandlerTest {
         Arguments.of("http://lexvo.org/id/iso639-3/deu"));
   }
 
-  private static void mockCandidatesWithLanguage(String languageUri, URI topLevelCristinOrg)
-      throws IOException {
+  private static void mockCandidatesWithLanguage(String languageUri, URI topLevelCristinOrg) {
     var candidatesInIndex =
         List.of(indexDocumentWithLanguage(CURRENT_YEAR, topLevelCristinOrg, languageUri));
-    when(searchClient.search(any()))
-        .thenReturn(aggregationResponse(candidatesInIndex.size()))
-        .thenReturn(createSearchResponse(candidatesInIndex));
+    mockScannedPages(List.of(candidatesInIndex));
   }
 
-  private static List<NviCandidateIndexDocument> mockTwoCandidatesInIndex(URI topLevelCristinOrg)
-      throws IOException {
+  private static List<NviCandidateIndexDocument> mockTwoCandidatesInIndex(URI topLevelCristinOrg) {
     var firstDocument = randomIndexDocumentWith(CURRENT_YEAR, topLevelCristinOrg);
     var secondDocument = randomIndexDocumentWith(CURRENT_YEAR, topLevelCristinOrg);
     var candidatesInIndex = List.of(firstDocument, secondDocument);
-    when(searchClient.search(any()))
-        .thenReturn(aggregationResponse(candidatesInIndex.size()))
-        .thenReturn(createSearchResponseWithTotal(List.of(firstDocument), candidatesInIndex.size()))
-        .thenReturn(
-            createSearchResponseWithTotal(List.of(secondDocument), candidatesInIndex.size()));
+    mockScannedPages(List.of(List.of(firstDocument), List.of(secondDocument)));
     return candidatesInIndex;
   }
 
-  private static CandidateSearchParameters.Builder buildRequest(
-      URI topLevelCristinOrg, SearchResultParameters resultParameters) {
-    return CandidateSearchParameters.builder()
-        .withYear(THIS_YEAR)
-        .withTopLevelCristinOrg(topLevelCristinOrg)
-        .withAffiliations(List.of(extractIdentifier(topLevelCristinOrg)))
-        .withSearchResultParameters(resultParameters)
-        .withExcludeFields(List.of(NESTED_FIELD_CONTRIBUTORS));
-  }
-
   private static String extractIdentifier(URI topLevelCristinOrg) {
     return UriWrapper.fromUri(topLevelCristinOrg).getLastPathElement();
   }
@@ -681,11 +648,6 @@ class FetchInstitutionReportHandlerTest {
         : EMPTY_STRING;
   }
 
-  private static SearchResponse<NviCandidateIndexDocument> aggregationResponse(int docCount) {
-    return createSearchResponse(
-        TOTAL_COUNT_AGGREGATION_AGG.getAggregationName(), filterAggregate(docCount));
-  }
-
   private ExcelWorkbookGenerator getExpectedReport(
       List<NviCandidateIndexDocument> candidatesInIndex, URI topLevelCristinOrg) {
     var headers = getExpectedHeaders();
@@ -697,6 +659,9 @@ class FetchInstitutionReportHandlerTest {
       List<NviCandidateIndexDocument> candidatesInIndex, URI topLevelCristinOrg) {
     return candidatesInIndex.stream()
         .filter(document -> nonNull(document.getApprovalForInstitution(topLevelCristinOrg)))
+        .sorted(
+            Comparator.comparing(NviCandidateIndexDocument::createdDate)
+                .thenComparing(NviCandidateIndexDocument::identifier))
         .flatMap(document -> getExpectedRows(document, topLevelCristinOrg))
         .toList();
   }
@@ -790,14 +755,13 @@ class FetchInstitutionReportHandlerTest {
     };
   }
 
-  private List<NviCandidateIndexDocument> mockCandidatesInOpenSearch(URI topLevelCristinOrg)
-      throws IOException {
+  private List<NviCandidateIndexDocument> mockCandidatesInOpenSearch(URI topLevelCristinOrg) {
     var indexDocuments = List.of(randomIndexDocumentWith(CURRENT_YEAR, topLevelCristinOrg));
     return mockCandidatesInOpenSearch(indexDocuments);
   }
 
   private List<NviCandidateIndexDocument> mockCandidatesWithoutOptionalDataInOpenSearch(
-      URI topLevelCristinOrg) throws IOException {
+      URI topLevelCristinOrg) {
     var indexDocuments =
         List.of(
             indexDocumentWithoutPages(CURRENT_YEAR, topLevelCristinOrg),
@@ -808,10 +772,19 @@ class FetchInstitutionReportHandlerTest {
   }
 
   private List<NviCandidateIndexDocument> mockCandidatesInOpenSearch(
-      List<NviCandidateIndexDocument> indexDocuments) throws IOException {
-    when(searchClient.search(any()))
-        .thenReturn(aggregationResponse(indexDocuments.size()))
-        .thenReturn(createSearchResponse(indexDocuments));
+      List<NviCandidateIndexDocument> indexDocuments) {
+    mockScannedPages(List.of(indexDocuments));
     return indexDocuments;
   }
+
+  private static void mockScannedPages(List<List<NviCandidateIndexDocument>> pages) {
+    doAnswer(
+            invocation -> {
+              Consumer<List<NviCandidateIndexDocument>> pageConsumer = invocation.getArgument(3);
+              pages.forEach(pageConsumer);
+              return null;
+            })
+        .when(searchClient)
+        .scan(any(), anyInt(), any(), any());
+  }
 }
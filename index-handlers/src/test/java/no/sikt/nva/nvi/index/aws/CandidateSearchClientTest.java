@@ -23,6 +23,10 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import java.io.IOException;
@@ -30,6 +34,7 @@ import java.net.URI;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -61,7 +66,10 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.opensearch.client.opensearch._types.ErrorCause;
+import org.opensearch.client.opensearch._types.ErrorResponse;
 import org.opensearch.client.opensearch._types.OpenSearchException;
+import org.opensearch.client.opensearch.core.SearchRequest;
 import org.opensearch.client.opensearch.core.SearchResponse;
 import org.opensearch.client.opensearch.core.search.Hit;
 
@@ -131,6 +139,52 @@ class CandidateSearchClientTest {
     assertThat(searchResponse.hits().hits()).hasSize(expectedNumberOfHitsReturned);
   }
 
+  @Test
+  void shouldScanAllMatchingDocumentsAcrossSlicesAndPages() {
+    int totalNumberOfDocuments = 7;
+    IntStream.range(0, totalNumberOfDocuments).forEach(i -> addDocumentToIndex());
+    var searchParameters =
+        CandidateSearchParameters.builder()
+            .withUsername(USERNAME)
+            .withAffiliations(List.of(getLastPathElement(ORGANIZATION)))
+            .withTopLevelCristinOrg(ORGANIZATION)
+            .withYear(YEAR)
+            .build();
+    var pages = new ArrayList<List<NviCandidateIndexDocument>>();
+
+    searchClient.scan(searchParameters, 3, new PageSizeBudget(2, 1, 2, 1024), pages::add);
+
+    var identifiers =
+        pages.stream().flatMap(List::stream).map(NviCandidateIndexDocument::identifier).toList();
+    assertThat(identifiers).hasSize(totalNumberOfDocuments).doesNotHaveDuplicates();
+  }
+
+  @Test
+  void shouldScanAllMatchingDocumentsWhenResponseIsTooLarge() throws IOException {
+    int totalNumberOfDocuments = 7;
+    IntStream.range(0, totalNumberOfDocuments).forEach(i -> addDocumentToIndex());
+    var nativeClient = spy(CONTAINER.getNativeClient());
+    doThrow(responseTooLargeException())
+        .doCallRealMethod()
+        .when(nativeClient)
+        .search(any(SearchRequest.class), eq(NviCandidateIndexDocument.class));
+    var scanningClient = new CandidateSearchClient(nativeClient);
+    var searchParameters =
+        CandidateSearchParameters.builder()
+            .withUsername(USERNAME)
+            .withAffiliations(List.of(getLastPathElement(ORGANIZATION)))
+            .withTopLevelCristinOrg(ORGANIZATION)
+            .withYear(YEAR)
+            .build();
+    var pages = new ArrayList<List<NviCandidateIndexDocument>>();
+
+    scanningClient.scan(searchParameters, 1, new PageSizeBudget(4, 1, 4, 1024), pages::add);
+
+    var identifiers =
+        pages.stream().flatMap(List::stream).map(NviCandidateIndexDocument::identifier).toList();
+    assertThat(identifiers).hasSize(totalNumberOfDocuments).doesNotHaveDuplicates();
+  }
+
   @ParameterizedTest(name = "shouldOrderResult {0}")
   @ValueSource(strings = {"asc", "desc"})
   void shouldOrderResult(String sortOrder) throws IOException {
@@ -715,6 +769,35 @@ class CandidateSearchClientTest {
     assertFalse(searchClient.indexExists());
   }
 
+  @Test
+  void shouldSearchBulkLoadedIndexAfterAliasIsSwapped() throws IOException {
+    addDocumentToIndex();
+    var reindexedDocuments =
+        Stream.generate(
+                () ->
+                    indexDocumentWithCustomer(
+                        ORGANIZATION, randomString(), randomString(), YEAR, randomString()))
+            .limit(DEFAULT_CANDIDATE_COUNT)
+            .toList();
+
+    var indexName = searchClient.createBulkLoadIndex();
+    searchClient.addDocumentsToIndex(indexName, reindexedDocuments, Long.MAX_VALUE);
+    searchClient.finishBulkLoad(indexName, "0");
+    searchClient.swapAlias(indexName);
+
+    var searchParameters =
+        CandidateSearchParameters.builder()
+            .withUsername(USERNAME)
+            .withAffiliations(List.of(getLastPathElement(ORGANIZATION)))
+            .withTopLevelCristinOrg(ORGANIZATION)
+            .withYear(YEAR)
+            .build();
+    var hits = searchClient.search(searchParameters).hits().hits();
+    assertThat(hits.stream().map(Hit::source).map(NviCandidateIndexDocument::identifier))
+        .containsExactlyInAnyOrderElementsOf(
+            reindexedDocuments.stream().map(NviCandidateIndexDocument::identifier).toList());
+  }
+
   @Test
   void shouldThrowRuntimeExceptionWhenAddDocumentToIndexFails() {
     var deadClient = createClientWithUnreachableHost();
@@ -747,6 +830,14 @@ class CandidateSearchClientTest {
     assertThrows(RuntimeException.class, deadClient::indexExists);
   }
 
+  private static OpenSearchException responseTooLargeException() {
+    var errorCause =
+        ErrorCause.of(
+            cause -> cause.type("too_long_http_response_exception").reason("Response too large"));
+    return new OpenSearchException(
+        ErrorResponse.of(response -> response.status(413).error(errorCause)));
+  }
+
   private static CandidateSearchClient createClientWithUnreachableHost() {
     var unreachableHost = new HttpHost("http", "localhost", 1);
     var fakeJwtProvider = FakeCachedJwtProvider.setup();
@@ -0,0 +1,80 @@
+package no.sikt.nva.nvi.index.report;
+
+import static no.sikt.nva.nvi.index.IndexDocumentFixtures.createRandomIndexDocuments;
+import static no.sikt.nva.nvi.test.TestUtils.CURRENT_YEAR;
+import static no.unit.nva.testutils.RandomDataGenerator.randomUri;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import no.sikt.nva.nvi.index.OpenSearchContainerContext;
+import no.sikt.nva.nvi.index.aws.PageSizeBudget;
+import no.sikt.nva.nvi.index.model.document.NviCandidateIndexDocument;
+import no.sikt.nva.nvi.index.model.report.ReportDocument;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opensearch.client.opensearch._types.query_dsl.MatchAllQuery;
+import org.opensearch.client.opensearch._types.query_dsl.Query;
+
+class ReportDocumentClientTest {
+
+  private static final OpenSearchContainerContext CONTAINER = new OpenSearchContainerContext();
+  private static final int DOCUMENT_COUNT = 11;
+  private static final int SLICES = 3;
+  private static final PageSizeBudget SMALL_PAGES = new PageSizeBudget(2, 1, 2, 1024);
+  private static final Query MATCH_ALL = new MatchAllQuery.Builder().build().toQuery();
+
+  private List<NviCandidateIndexDocument> indexedDocuments;
+
+  @BeforeAll
+  static void setupContainer() {
+    CONTAINER.start();
+  }
+
+  @AfterAll
+  static void stopContainer() {
+    CONTAINER.stop();
+  }
+
+  @BeforeEach
+  void setUp() {
+    CONTAINER.createIndex();
+    indexedDocuments = createRandomIndexDocuments(randomUri(), CURRENT_YEAR, DOCUMENT_COUNT);
+    CONTAINER.addDocumentsToIndex(indexedDocuments);
+  }
+
+  @AfterEach
+  void tearDown() {
+    CONTAINER.deleteIndex();
+  }
+
+  @Test
+  void shouldReadEveryDocumentOnceAcrossSlicesAndPages() {
+    var client = CONTAINER.createReportDocumentClient(SLICES, SMALL_PAGES);
+    var pages = new ArrayList<List<ReportDocument>>();
+
+    client.forEachPage(MATCH_ALL, pages::add);
+
+    var identifiers = pages.stream().flatMap(List::stream).map(ReportDocument::identifier);
+    assertThat(identifiers).containsExactlyInAnyOrderElementsOf(expectedIdentifiers());
+    assertThat(pages).allSatisfy(page -> assertThat(page).hasSizeLessThanOrEqualTo(2));
+  }
+
+  @Test
+  void shouldStreamEveryDocumentLazily() {
+    var client = CONTAINER.createReportDocumentClient(SLICES, SMALL_PAGES);
+
+    try (var documents = client.streamDocuments(MATCH_ALL)) {
+      assertThat(documents.map(ReportDocument::identifier))
+          .containsExactlyInAnyOrderElementsOf(expectedIdentifiers());
+    }
+  }
+
+  private List<UUID> expectedIdentifiers() {
+    return indexedDocuments.stream().map(NviCandidateIndexDocument::identifier).toList();
+  }
+}
@@ -78,7 +78,7 @@ public class EvaluationContext {
   public void evaluatePublicationAndPersistResult(String publicationJson) {
     lastEvaluationStartedAt = Instant.now();
     var fileUri = scenario.setupExpandedPublicationInS3(publicationJson);
-    var evaluationEvent = createEvaluationEvent(new PersistedResourceMessage(fileUri));
+    var evaluationEvent = createEvaluationEvent(new PersistedResourceMessage(fileUri, false));
     evaluateNviCandidateHandler.handleRequest(evaluationEvent, EVALUATION_HANDLER_CONTEXT);
   }
 
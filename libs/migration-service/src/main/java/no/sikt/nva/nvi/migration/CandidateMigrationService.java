@@ -18,6 +18,7 @@ import no.sikt.nva.nvi.common.dto.PublicationDto;
 import no.sikt.nva.nvi.common.model.NviCreator;
 import no.sikt.nva.nvi.common.service.CandidateService;
 import no.sikt.nva.nvi.common.service.model.Candidate;
+import no.sikt.nva.nvi.common.service.model.WriteMode;
 import no.sikt.nva.nvi.publication.PublicationLoaderService;
 import nva.commons.core.Environment;
 import nva.commons.core.JacocoGenerated;
@@ -61,10 +62,10 @@ public final class CandidateMigrationService implements MigrationService {
       var publicationBucketUri = candidate.publicationDetails().publicationBucketUri();
       var publication = publicationLoader.extractAndTransform(publicationBucketUri);
       var enrichedCandidate = addMissingPublicationDetails(candidate, publication);
-      candidateService.updateCandidate(enrichedCandidate);
+      candidateService.updateCandidate(enrichedCandidate, WriteMode.FORCE);
     } else {
       LOGGER.info("Candidate {} does not require migration", identifier);
-      candidateService.updateCandidate(candidate);
+      candidateService.updateCandidate(candidate, WriteMode.FORCE);
     }
   }
 
@@ -9,6 +9,7 @@ import no.sikt.nva.nvi.common.S3StorageReader;
 import no.sikt.nva.nvi.common.StorageReader;
 import no.sikt.nva.nvi.common.service.CandidateService;
 import no.sikt.nva.nvi.common.service.model.Candidate;
+import no.sikt.nva.nvi.common.service.model.WriteMode;
 import no.sikt.nva.nvi.publication.PublicationLoaderService;
 import nva.commons.core.Environment;
 import nva.commons.core.JacocoGenerated;
@@ -61,7 +62,7 @@ public final class HandlesMigrationService implements MigrationService {
             .withPublicationDetails(updatedDetails)
             .withModifiedDate(Instant.now())
             .build();
-    candidateService.updateCandidate(updatedCandidate);
+    candidateService.updateCandidate(updatedCandidate, WriteMode.FORCE);
   }
 
   private static boolean shouldMigrate(Candidate candidate) {
@@ -7,6 +7,7 @@ import java.time.Instant;
 import java.util.UUID;
 import no.sikt.nva.nvi.common.service.CandidateService;
 import no.sikt.nva.nvi.common.service.model.Candidate;
+import no.sikt.nva.nvi.common.service.model.WriteMode;
 import nva.commons.core.JacocoGenerated;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,7 +36,7 @@ public class ReportedDateMigrationService implements MigrationService {
           candidate.period().publishingYear(),
           candidate.period().reportingDate());
       var updatedCandidate = backfillReportedDate(candidate);
-      candidateService.updateCandidate(updatedCandidate);
+      candidateService.updateCandidate(updatedCandidate, WriteMode.FORCE);
     }
   }
 
@@ -16,6 +16,7 @@ import no.sikt.nva.nvi.common.model.Sector;
 import no.sikt.nva.nvi.common.service.CandidateService;
 import no.sikt.nva.nvi.common.service.model.Candidate;
 import no.sikt.nva.nvi.common.service.model.InstitutionPoints;
+import no.sikt.nva.nvi.common.service.model.WriteMode;
 import no.unit.nva.clients.CustomerDto;
 import no.unit.nva.clients.CustomerList;
 import no.unit.nva.clients.IdentityServiceClient;
@@ -57,7 +58,7 @@ public class SectorMigrationService implements MigrationService {
 
   private void updateCandidateIfNeeded(Candidate enrichedCandidate, Candidate candidate) {
     if (!enrichedCandidate.equals(candidate)) {
-      candidateService.updateCandidate(enrichedCandidate);
+      candidateService.updateCandidate(enrichedCandidate, WriteMode.FORCE);
     }
   }
 
@@ -0,0 +1,89 @@
+package no.sikt.nva.nvi.publication;
+
+import static no.sikt.nva.nvi.common.examples.ExamplePublications.EXAMPLE_PUBLICATION_1_PATH;
+import static no.unit.nva.commons.json.JsonUtils.dtoObjectMapper;
+import static nva.commons.core.ioutils.IoUtils.stringFromResources;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import no.sikt.nva.nvi.rdf.GraphProjectionPipeline;
+import no.sikt.nva.nvi.rdf.SparqlConstruct;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the time it takes to project one expanded publication into the NVI graph. The
+ * {@code reparsedQueries} benchmark reproduces the previous behaviour, where every projection
+ * parsed its query string again, and serves as the baseline for the precompiled variants.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@SuppressWarnings("PMD.DoNotUseThreads")
+public class GraphProjectionBenchmark {
+
+  private static final List<SparqlConstruct> PROJECTIONS =
+      List.of(
+          SparqlConstruct.fromResource("nva_normalization.rq"),
+          SparqlConstruct.fromResource("nvi_channel_pairing.rq"),
+          SparqlConstruct.fromResource("nvi_applicability.rq"),
+          SparqlConstruct.fromResource("nvi_international_collaboration.rq"));
+  private Model source;
+  private ExecutorService executor;
+  private GraphProjectionPipeline sequentialPipeline;
+  private GraphProjectionPipeline concurrentPipeline;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    var document =
+        dtoObjectMapper.readTree(stringFromResources(Path.of(EXAMPLE_PUBLICATION_1_PATH)));
+    var body = (ObjectNode) document.at("/body");
+    body.set(
+        "@context", dtoObjectMapper.readTree(stringFromResources(Path.of("nva_context.json"))));
+    source =
+        PublicationGraph.fromJsonLd(ExpandedDocumentTool.prepareJsonNodeForModel(body)).model();
+    executor = Executors.newFixedThreadPool(PROJECTIONS.size());
+    sequentialPipeline = new GraphProjectionPipeline(PROJECTIONS);
+    concurrentPipeline = new GraphProjectionPipeline(PROJECTIONS, executor);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    executor.shutdown();
+  }
+
+  @Benchmark
+  public Model reparsedQueries() {
+    var result = ModelFactory.createDefaultModel();
+    for (var projection : PROJECTIONS) {
+      try (var queryExecution = QueryExecutionFactory.create(projection.query(), source)) {
+        result.add(queryExecution.execConstruct());
+      }
+    }
+    return result;
+  }
+
+  @Benchmark
+  public Model precompiledSequential() {
+    return sequentialPipeline.project(source);
+  }
+
+  @Benchmark
+  public Model precompiledConcurrent() {
+    return concurrentPipeline.project(source);
+  }
+}
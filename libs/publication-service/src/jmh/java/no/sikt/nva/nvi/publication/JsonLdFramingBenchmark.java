@@ -0,0 +1,83 @@
+package no.sikt.nva.nvi.publication;
+
+import static no.sikt.nva.nvi.common.examples.ExamplePublications.EXAMPLE_PUBLICATION_1_PATH;
+import static no.unit.nva.commons.json.JsonUtils.dtoObjectMapper;
+import static nva.commons.core.ioutils.IoUtils.inputStreamFromResources;
+import static nva.commons.core.ioutils.IoUtils.stringFromResources;
+
+import com.apicatalog.jsonld.JsonLd;
+import com.apicatalog.jsonld.document.JsonDocument;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import no.sikt.nva.nvi.common.dto.PublicationDto;
+import no.sikt.nva.nvi.rdf.GraphProjectionPipeline;
+import no.sikt.nva.nvi.rdf.JsonLdFrame;
+import no.sikt.nva.nvi.rdf.SparqlConstruct;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures framing one projected NVI graph into a {@link PublicationDto}. The {@code textRoundTrip}
+ * benchmark reproduces the previous behaviour, where the graph was written as JSON-LD text, parsed
+ * by Titanium, framed, and parsed again by Jackson. Allocation rates are reported by the GC
+ * profiler configured in the build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JsonLdFramingBenchmark {
+
+  private static final String PUBLICATION_FRAME = "publication_frame.json";
+  private JsonLdFrame frame;
+  private JsonDocument frameDocument;
+  private Model nviModel;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    var document =
+        dtoObjectMapper.readTree(stringFromResources(Path.of(EXAMPLE_PUBLICATION_1_PATH)));
+    var body = (ObjectNode) document.at("/body");
+    body.set(
+        "@context", dtoObjectMapper.readTree(stringFromResources(Path.of("nva_context.json"))));
+    var source =
+        PublicationGraph.fromJsonLd(ExpandedDocumentTool.prepareJsonNodeForModel(body)).model();
+    var pipeline =
+        new GraphProjectionPipeline(
+            List.of(
+                SparqlConstruct.fromResource("nva_normalization.rq"),
+                SparqlConstruct.fromResource("nvi_channel_pairing.rq"),
+                SparqlConstruct.fromResource("nvi_applicability.rq"),
+                SparqlConstruct.fromResource("nvi_international_collaboration.rq")));
+    nviModel = pipeline.project(source);
+    frame = JsonLdFrame.fromResource(PUBLICATION_FRAME);
+    frameDocument = JsonDocument.of(inputStreamFromResources(PUBLICATION_FRAME));
+  }
+
+  @Benchmark
+  public PublicationDto textRoundTrip() throws Exception {
+    var outputStream = new ByteArrayOutputStream();
+    RDFDataMgr.write(outputStream, nviModel, Lang.JSONLD);
+    var reader = new StringReader(outputStream.toString(StandardCharsets.UTF_8));
+    var framed = JsonLd.frame(JsonDocument.of(reader), frameDocument).get().toString();
+    return PublicationDto.from(framed);
+  }
+
+  @Benchmark
+  public PublicationDto directTree() throws Exception {
+    return PublicationDto.from(frame.applyAsJsonNode(nviModel));
+  }
+}
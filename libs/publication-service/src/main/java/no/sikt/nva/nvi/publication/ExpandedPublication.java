@@ -0,0 +1,25 @@
+package no.sikt.nva.nvi.publication;
+
+import static nva.commons.core.StringUtils.isBlank;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.net.URI;
+import java.util.Optional;
+
+/**
+ * An expanded publication as read from storage, before it is parsed into a graph.
+ *
+ * @param publicationBucketUri location of the expanded publication
+ * @param body the body of the expanded publication document
+ * @param contentHash SHA-256 digest of the body as it was stored, before any context was added
+ */
+public record ExpandedPublication(URI publicationBucketUri, JsonNode body, String contentHash) {
+
+  private static final String ID_FIELD = "id";
+
+  /** Returns the publication ID from the body, without parsing the document. */
+  public Optional<URI> publicationId() {
+    var id = body.path(ID_FIELD).textValue();
+    return isBlank(id) ? Optional.empty() : Optional.of(URI.create(id));
+  }
+}
@@ -1,19 +1,14 @@
 package no.sikt.nva.nvi.publication;
 
-import no.sikt.nva.nvi.rdf.GraphValidation;
-import no.sikt.nva.nvi.rdf.GraphValidator;
-import org.apache.jena.rdf.model.Model;
-import org.apache.jena.riot.RDFDataMgr;
-import org.apache.jena.shacl.ShaclValidator;
+import no.sikt.nva.nvi.rdf.ShaclGraphValidator;
 import org.apache.jena.shacl.Shapes;
 
-public class NvaGraphValidator implements GraphValidator {
+public class NvaGraphValidator extends ShaclGraphValidator {
 
   private static final String NVA_SHAPE_TTL = "nva-shape.ttl";
-  private static final Shapes NVA_SHAPE = Shapes.parse(RDFDataMgr.loadGraph(NVA_SHAPE_TTL));
+  private static final Shapes NVA_SHAPE = loadShapes(NVA_SHAPE_TTL);
 
-  @Override
-  public GraphValidation validate(Model model) {
-    return new GraphValidation(ShaclValidator.get().validate(NVA_SHAPE, model.getGraph()));
+  public NvaGraphValidator() {
+    super(NVA_SHAPE);
   }
 }
@@ -1,19 +1,14 @@
 package no.sikt.nva.nvi.publication;
 
-import no.sikt.nva.nvi.rdf.GraphValidation;
-import no.sikt.nva.nvi.rdf.GraphValidator;
-import org.apache.jena.rdf.model.Model;
-import org.apache.jena.riot.RDFDataMgr;
-import org.apache.jena.shacl.ShaclValidator;
+import no.sikt.nva.nvi.rdf.ShaclGraphValidator;
 import org.apache.jena.shacl.Shapes;
 
-public class NviGraphValidator implements GraphValidator {
+public class NviGraphValidator extends ShaclGraphValidator {
 
   private static final String NVI_SHAPE_TTL = "nvi-shape.ttl";
-  private static final Shapes NVI_SHAPE = Shapes.parse(RDFDataMgr.loadGraph(NVI_SHAPE_TTL));
+  private static final Shapes NVI_SHAPE = loadShapes(NVI_SHAPE_TTL);
 
-  @Override
-  public GraphValidation validate(Model model) {
-    return new GraphValidation(ShaclValidator.get().validate(NVI_SHAPE, model.getGraph()));
+  public NviGraphValidator() {
+    super(NVI_SHAPE);
   }
 }
@@ -1,5 +1,6 @@
 package no.sikt.nva.nvi.publication;
 
+import static no.sikt.nva.nvi.common.utils.HashUtils.sha256Hex;
 import static no.unit.nva.commons.json.JsonUtils.dtoObjectMapper;
 import static nva.commons.core.ioutils.IoUtils.stringFromResources;
 
@@ -15,9 +16,11 @@ import no.sikt.nva.nvi.common.exceptions.ParsingException;
 import no.sikt.nva.nvi.rdf.Graph;
 import no.sikt.nva.nvi.rdf.GraphProjectionPipeline;
 import no.sikt.nva.nvi.rdf.GraphValidation;
+import no.sikt.nva.nvi.rdf.GraphValidationPolicy;
 import no.sikt.nva.nvi.rdf.JsonLdFrame;
 import no.sikt.nva.nvi.rdf.RdfProcessingException;
 import no.sikt.nva.nvi.rdf.SparqlConstruct;
+import nva.commons.core.Environment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,50 +39,71 @@ public class PublicationLoaderService {
   private static final JsonLdFrame PUBLICATION_FRAME =
       JsonLdFrame.fromResource("publication_frame.json");
   private static final GraphProjectionPipeline NVI_PROJECTIONS =
-      new GraphProjectionPipeline(
+      GraphProjectionPipeline.forAvailableProcessors(
           List.of(
               SparqlConstruct.fromResource("nva_normalization.rq"),
               SparqlConstruct.fromResource("nvi_channel_pairing.rq"),
               SparqlConstruct.fromResource("nvi_applicability.rq"),
               SparqlConstruct.fromResource("nvi_international_collaboration.rq")));
+  private static final NvaGraphValidator NVA_VALIDATOR = new NvaGraphValidator();
+  private static final NviGraphValidator NVI_VALIDATOR = new NviGraphValidator();
 
   private final Logger logger = LoggerFactory.getLogger(PublicationLoaderService.class);
   private final StorageReader<URI> storageReader;
+  private final GraphValidationPolicy validationPolicy;
 
   public PublicationLoaderService(StorageReader<URI> storageReader) {
+    this(storageReader, GraphValidationPolicy.fromEnvironment(new Environment()));
+  }
+
+  public PublicationLoaderService(
+      StorageReader<URI> storageReader, GraphValidationPolicy validationPolicy) {
     this.storageReader = storageReader;
+    this.validationPolicy = validationPolicy;
   }
 
   public PublicationDto extractAndTransform(URI publicationBucketUri) {
+    return transform(extract(publicationBucketUri));
+  }
+
+  /**
+   * Reads the expanded publication from storage without parsing it into a graph, so callers can
+   * inspect its ID and content hash before deciding whether the expensive transformation is needed.
+   */
+  public ExpandedPublication extract(URI publicationBucketUri) {
     logger.info("Extracting publication from S3 ({})", publicationBucketUri);
-    var content = extractContentFromStorage(publicationBucketUri);
-    var resultJson = projectToNviJson(content, publicationBucketUri);
+    return extractContentFromStorage(publicationBucketUri);
+  }
+
+  public PublicationDto transform(ExpandedPublication publication) {
+    var publicationBucketUri = publication.publicationBucketUri();
+    var resultJson = projectToNviJson(publication.body(), publicationBucketUri);
     return toPublicationDto(resultJson, publicationBucketUri);
   }
 
-  private PublicationDto toPublicationDto(String resultJson, URI publicationBucketUri) {
+  private PublicationDto toPublicationDto(JsonNode resultJson, URI publicationBucketUri) {
     try {
       logger.info("Transforming JSON-LD to PublicationDto ({})", publicationBucketUri);
       return PublicationDto.from(resultJson);
     } catch (JsonProcessingException exception) {
       logger.error(
           "Failed to transform JSON-LD to PublicationDto ({})", publicationBucketUri, exception);
-      logger.error(resultJson);
+      logger.error(resultJson.toString());
       throw new ParsingException(exception.getMessage());
     }
   }
 
-  private String projectToNviJson(JsonNode content, URI publicationBucketUri) {
+  private JsonNode projectToNviJson(JsonNode content, URI publicationBucketUri) {
     var publicationGraph =
         PublicationGraph.fromJsonLd(ExpandedDocumentTool.prepareJsonNodeForModel(content));
-    logIfNonConformant(publicationGraph.validate(new NvaGraphValidator()));
+    validationPolicy.validate(publicationGraph, NVA_VALIDATOR, this::logIfNonConformant);
 
     logger.info("Projecting NVI data with SPARQL queries ({})", publicationBucketUri);
     var nviGraph = Graph.of(publicationGraph.model()).project(NVI_PROJECTIONS);
-    logIfNonConformant(nviGraph.validate(new NviGraphValidator()));
+    validationPolicy.validate(nviGraph, NVI_VALIDATOR, this::logIfNonConformant);
 
     try {
-      return nviGraph.frame(PUBLICATION_FRAME);
+      return nviGraph.frameAsJsonNode(PUBLICATION_FRAME);
     } catch (RdfProcessingException exception) {
       logger.error("Failed to frame graph model as JSON-LD", exception);
       throw new ParsingException(exception.getMessage());
@@ -99,13 +123,14 @@ public class PublicationLoaderService {
    * context should be kept in sync with the <a
    * href="https://api.nva.unit.no/publication/context">source</a>.
    */
-  private JsonNode extractContentFromStorage(URI publicationBucketUri) {
+  private ExpandedPublication extractContentFromStorage(URI publicationBucketUri) {
     try {
       var jsonString = storageReader.read(publicationBucketUri);
       var jsonDocument = dtoObjectMapper.readTree(jsonString);
       var body = (ObjectNode) jsonDocument.at(JSON_PTR_BODY);
+      var contentHash = sha256Hex(body.toString());
       body.set(CONTEXT_NODE, INPUT_CONTEXT);
-      return body;
+      return new ExpandedPublication(publicationBucketUri, body, contentHash);
     } catch (JsonProcessingException e) {
       throw new ParsingException(e.getMessage());
     }
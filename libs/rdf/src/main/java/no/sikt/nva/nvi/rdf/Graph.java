@@ -1,5 +1,6 @@
 package no.sikt.nva.nvi.rdf;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 
@@ -41,4 +42,8 @@ public final class Graph implements GraphValidable {
   public String frame(JsonLdFrame frame) {
     return frame.apply(model);
   }
+
+  public JsonNode frameAsJsonNode(JsonLdFrame frame) {
+    return frame.applyAsJsonNode(model);
+  }
 }
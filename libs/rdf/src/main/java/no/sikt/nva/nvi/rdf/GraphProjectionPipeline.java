@@ -1,8 +1,15 @@
 package no.sikt.nva.nvi.rdf;
 
+import static java.util.Objects.isNull;
+
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.shared.Lock;
 
 /**
  * Applies an ordered list of {@link SparqlConstruct} projections to a source graph, accumulating
@@ -10,20 +17,80 @@ import org.apache.jena.rdf.model.ModelFactory;
  * source, so the steps compose: adding a projection adds data to the result without disturbing the
  * others. This is the reusable spine shared by graph-shaped pipelines (for example building an NVI
  * candidate from an NVA publication, or a report from aggregated search data).
+ *
+ * <p>Because the projections are independent, a pipeline created with an {@link Executor} runs
+ * them concurrently. The source graph is only read, under a shared read lock, and the results are
+ * merged in the configured order once all projections have completed.
  */
+@SuppressWarnings("PMD.DoNotUseThreads")
 public class GraphProjectionPipeline {
 
   private final List<SparqlConstruct> projections;
+  private final Executor executor;
 
   public GraphProjectionPipeline(List<SparqlConstruct> projections) {
+    this(projections, null);
+  }
+
+  public GraphProjectionPipeline(List<SparqlConstruct> projections, Executor executor) {
     this.projections = List.copyOf(projections);
+    this.executor = executor;
+  }
+
+  /**
+   * Creates a pipeline that runs its projections concurrently on the common fork-join pool when
+   * more than one processor is available, and sequentially otherwise.
+   */
+  public static GraphProjectionPipeline forAvailableProcessors(List<SparqlConstruct> projections) {
+    return Runtime.getRuntime().availableProcessors() > 1
+        ? new GraphProjectionPipeline(projections, ForkJoinPool.commonPool())
+        : new GraphProjectionPipeline(projections);
   }
 
   public Model project(Model source) {
+    return isNull(executor) ? projectSequentially(source) : projectConcurrently(source);
+  }
+
+  private Model projectSequentially(Model source) {
     var result = ModelFactory.createDefaultModel();
     for (var projection : projections) {
       result.add(projection.projectFrom(source));
     }
     return result;
   }
+
+  private Model projectConcurrently(Model source) {
+    var pendingProjections =
+        projections.stream()
+            .map(
+                projection ->
+                    CompletableFuture.supplyAsync(
+                        () -> projectWithReadLock(projection, source), executor))
+            .toList();
+    var result = ModelFactory.createDefaultModel();
+    for (var pendingProjection : pendingProjections) {
+      result.add(awaitProjection(pendingProjection));
+    }
+    return result;
+  }
+
+  private static Model projectWithReadLock(SparqlConstruct projection, Model source) {
+    source.enterCriticalSection(Lock.READ);
+    try {
+      return projection.projectFrom(source);
+    } finally {
+      source.leaveCriticalSection();
+    }
+  }
+
+  private static Model awaitProjection(CompletableFuture<Model> pendingProjection) {
+    try {
+      return pendingProjection.join();
+    } catch (CompletionException exception) {
+      if (exception.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw exception;
+    }
+  }
 }
@@ -1,5 +1,6 @@
 package no.sikt.nva.nvi.rdf;
 
+import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.jena.graph.Triple;
@@ -10,24 +11,30 @@ import org.slf4j.Logger;
 
 public class GraphValidation {
 
-  private final ValidationReport validationReport;
+  private final List<ValidationReport> validationReports;
 
   public GraphValidation(ValidationReport validationReport) {
-    this.validationReport = validationReport;
+    this(List.of(validationReport));
+  }
+
+  /** Combines the reports from validating several focus nodes of the same graph. */
+  public GraphValidation(List<ValidationReport> validationReports) {
+    this.validationReports = List.copyOf(validationReports);
   }
 
   public boolean isNonConformant() {
-    return !validationReport.conforms();
+    return !conforms();
   }
 
   public boolean hasViolations() {
-    return validationReport.getGraph().stream()
+    return validationReports.stream()
+        .flatMap(report -> report.getGraph().stream())
         .map(Triple::getObject)
         .anyMatch(SHACL.Violation::equals);
   }
 
   public void log(Logger logger) {
-    if (!validationReport.conforms() && logger.isWarnEnabled()) {
+    if (!conforms() && logger.isWarnEnabled()) {
       logger.warn(
           "Model validation failed: {}",
           generateReport().collect(Collectors.joining(System.lineSeparator())));
@@ -35,6 +42,12 @@ public class GraphValidation {
   }
 
   public Stream<String> generateReport() {
-    return validationReport.getEntries().stream().map(ReportEntry::message);
+    return validationReports.stream()
+        .flatMap(report -> report.getEntries().stream())
+        .map(ReportEntry::message);
+  }
+
+  private boolean conforms() {
+    return validationReports.stream().allMatch(ValidationReport::conforms);
   }
 }
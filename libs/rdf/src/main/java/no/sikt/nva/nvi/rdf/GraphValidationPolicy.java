@@ -0,0 +1,191 @@
+package no.sikt.nva.nvi.rdf;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import nva.commons.core.Environment;
+import org.apache.jena.graph.Node;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.vocabulary.RDF;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decides when and how much of a graph is validated, so that SHACL validation does not have to run
+ * in full on the critical path of every message.
+ *
+ * <ul>
+ *   <li>{@link Mode#FULL} validates every graph synchronously.
+ *   <li>{@link Mode#SAMPLED} validates one in every {@code sampleRate} graphs synchronously.
+ *   <li>{@link Mode#ASYNC} validates every graph in the background and returns immediately.
+ *   <li>{@link Mode#TARGETED} validates only the nodes of the configured RDF types.
+ * </ul>
+ *
+ * <p>Every validation that runs is logged with its duration and outcome, so conformance stays
+ * visible when most graphs are not validated on the request path.
+ */
+@SuppressWarnings({"PMD.DoNotUseThreads", "PMD.AvoidCatchingGenericException"})
+public final class GraphValidationPolicy {
+
+  public static final int DEFAULT_SAMPLE_RATE = 10;
+  private static final String MODE_ENV_NAME = "GRAPH_VALIDATION_MODE";
+  private static final String SAMPLE_RATE_ENV_NAME = "GRAPH_VALIDATION_SAMPLE_RATE";
+  private static final String TARGET_TYPES_ENV_NAME = "GRAPH_VALIDATION_TARGET_TYPES";
+  private static final String LIST_SEPARATOR = ",";
+  private static final Logger LOGGER = LoggerFactory.getLogger(GraphValidationPolicy.class);
+  private final Mode mode;
+  private final int sampleRate;
+  private final Set<String> targetTypes;
+  private final Executor executor;
+  private final AtomicLong validationRequests = new AtomicLong();
+
+  private GraphValidationPolicy(
+      Mode mode, int sampleRate, Set<String> targetTypes, Executor executor) {
+    this.mode = mode;
+    this.sampleRate = sampleRate;
+    this.targetTypes = Set.copyOf(targetTypes);
+    this.executor = executor;
+  }
+
+  public static GraphValidationPolicy full() {
+    return new GraphValidationPolicy(Mode.FULL, 1, Set.of(), ForkJoinPool.commonPool());
+  }
+
+  public static GraphValidationPolicy sampled(int sampleRate) {
+    if (sampleRate < 1) {
+      throw new IllegalArgumentException("Sample rate must be at least 1, was " + sampleRate);
+    }
+    return new GraphValidationPolicy(Mode.SAMPLED, sampleRate, Set.of(), ForkJoinPool.commonPool());
+  }
+
+  public static GraphValidationPolicy async(Executor executor) {
+    return new GraphValidationPolicy(Mode.ASYNC, 1, Set.of(), executor);
+  }
+
+  /**
+   * Validates only nodes with one of the given RDF types, identified by their full IRIs. At least
+   * one type is required, since an empty set would silently skip all validation.
+   */
+  public static GraphValidationPolicy targeted(Set<String> targetTypes) {
+    if (targetTypes.isEmpty()) {
+      throw new IllegalArgumentException("Targeted validation requires at least one target type");
+    }
+    return new GraphValidationPolicy(Mode.TARGETED, 1, targetTypes, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Reads the policy from {@code GRAPH_VALIDATION_MODE}, {@code GRAPH_VALIDATION_SAMPLE_RATE} and
+   * {@code GRAPH_VALIDATION_TARGET_TYPES}. Without configuration every graph is validated in full.
+   */
+  public static GraphValidationPolicy fromEnvironment(Environment environment) {
+    var mode = environment.readEnvOpt(MODE_ENV_NAME).map(Mode::parse).orElse(Mode.FULL);
+    return switch (mode) {
+      case FULL -> full();
+      case SAMPLED ->
+          sampled(
+              environment
+                  .readEnvOpt(SAMPLE_RATE_ENV_NAME)
+                  .map(Integer::parseInt)
+                  .orElse(DEFAULT_SAMPLE_RATE));
+      case ASYNC -> async(ForkJoinPool.commonPool());
+      case TARGETED -> targeted(readTargetTypes(environment));
+    };
+  }
+
+  public Mode mode() {
+    return mode;
+  }
+
+  /**
+   * Validates the graph according to this policy and passes the result to the handler. The handler
+   * is not called for graphs that are skipped by sampling, and is called from another thread in
+   * {@link Mode#ASYNC}.
+   */
+  public void validate(
+      GraphValidable graph, GraphValidator validator, Consumer<GraphValidation> resultHandler) {
+    var validatorName = validator.getClass().getSimpleName();
+    switch (mode) {
+      case FULL -> resultHandler.accept(timedValidation(graph, validator, validatorName));
+      case SAMPLED -> {
+        if (validationRequests.getAndIncrement() % sampleRate == 0) {
+          resultHandler.accept(timedValidation(graph, validator, validatorName));
+        }
+      }
+      case ASYNC ->
+          CompletableFuture.runAsync(
+              () -> validateInBackground(graph, validator, validatorName, resultHandler),
+              executor);
+      case TARGETED ->
+          resultHandler.accept(
+              timedValidation(graph, targetedValidator(validator), validatorName));
+    }
+  }
+
+  private void validateInBackground(
+      GraphValidable graph,
+      GraphValidator validator,
+      String validatorName,
+      Consumer<GraphValidation> resultHandler) {
+    try {
+      resultHandler.accept(timedValidation(graph, validator, validatorName));
+    } catch (RuntimeException exception) {
+      LOGGER.warn("Background validation with {} failed", validatorName, exception);
+    }
+  }
+
+  private GraphValidation timedValidation(
+      GraphValidable graph, GraphValidator validator, String validatorName) {
+    var startTime = System.nanoTime();
+    var validation = graph.validate(validator);
+    var durationMillis = (System.nanoTime() - startTime) / 1_000_000;
+    LOGGER.info(
+        "Graph validation: validator={}, mode={}, durationMs={}, conforms={}",
+        validatorName,
+        mode,
+        durationMillis,
+        !validation.isNonConformant());
+    return validation;
+  }
+
+  private GraphValidator targetedValidator(GraphValidator validator) {
+    return model -> validator.validateNodes(model, findTargetNodes(model));
+  }
+
+  private Collection<Node> findTargetNodes(Model model) {
+    return targetTypes.stream()
+        .map(model::createResource)
+        .flatMap(type -> model.listSubjectsWithProperty(RDF.type, type).toList().stream())
+        .map(RDFNode::asNode)
+        .collect(Collectors.toSet());
+  }
+
+  private static Set<String> readTargetTypes(Environment environment) {
+    return environment
+        .readEnvOpt(TARGET_TYPES_ENV_NAME)
+        .map(types -> Arrays.stream(types.split(LIST_SEPARATOR)))
+        .orElseGet(Stream::empty)
+        .map(String::strip)
+        .filter(type -> !type.isEmpty())
+        .collect(Collectors.toSet());
+  }
+
+  public enum Mode {
+    FULL,
+    SAMPLED,
+    ASYNC,
+    TARGETED;
+
+    static Mode parse(String value) {
+      return valueOf(value.strip().toUpperCase(Locale.ROOT));
+    }
+  }
+}
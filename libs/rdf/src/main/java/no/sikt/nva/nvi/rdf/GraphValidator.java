@@ -1,9 +1,19 @@
 package no.sikt.nva.nvi.rdf;
 
+import java.util.Collection;
+import org.apache.jena.graph.Node;
 import org.apache.jena.rdf.model.Model;
 
 @FunctionalInterface
 public interface GraphValidator {
 
   GraphValidation validate(Model model);
+
+  /**
+   * Validates only the given focus nodes of the model. Validators that cannot limit their work to
+   * specific nodes validate the whole model.
+   */
+  default GraphValidation validateNodes(Model model, Collection<Node> focusNodes) {
+    return validate(model);
+  }
 }
@@ -5,19 +5,28 @@ import static nva.commons.core.ioutils.IoUtils.inputStreamFromResources;
 import com.apicatalog.jsonld.JsonLd;
 import com.apicatalog.jsonld.JsonLdError;
 import com.apicatalog.jsonld.document.JsonDocument;
-import java.io.ByteArrayOutputStream;
-import java.io.StringReader;
-import java.nio.charset.StandardCharsets;
+import com.apicatalog.jsonld.document.RdfDocument;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
 import org.apache.jena.rdf.model.Model;
-import org.apache.jena.riot.Lang;
-import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.system.JenaTitanium;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
 
 /**
- * A JSON-LD frame loaded from a classpath resource. It serializes a Jena {@link Model} and reshapes
- * it into framed JSON-LD, so different consumers can extract different shapes from the same graph.
+ * A JSON-LD frame loaded from a classpath resource. It reshapes a Jena {@link Model} into framed
+ * JSON-LD, so different consumers can extract different shapes from the same graph.
+ *
+ * <p>The model is converted directly to a Titanium RDF dataset and from there to expanded JSON-LD
+ * in memory. No intermediate JSON-LD text is written or parsed before framing.
  */
 public final class JsonLdFrame {
 
+  private static final JsonNodeFactory NODE_FACTORY = JsonNodeFactory.instance;
   private final JsonDocument frame;
 
   private JsonLdFrame(JsonDocument frame) {
@@ -33,17 +42,58 @@ public final class JsonLdFrame {
   }
 
   public String apply(Model model) {
+    return frameModel(model).toString();
+  }
+
+  /** Frames the model and returns the result as a Jackson tree, ready to be bound to a DTO. */
+  public JsonNode applyAsJsonNode(Model model) {
+    return toJsonNode(frameModel(model));
+  }
+
+  private JsonObject frameModel(Model model) {
     try {
-      var document = JsonDocument.of(toJsonReader(model));
-      return JsonLd.frame(document, frame).get().toString();
+      var dataset = JenaTitanium.convert(DatasetGraphFactory.wrap(model.getGraph()));
+      var expandedDocument = JsonLd.fromRdf(RdfDocument.of(dataset)).get();
+      return JsonLd.frame(JsonDocument.of(expandedDocument), frame).get();
     } catch (JsonLdError e) {
       throw new RdfProcessingException(e.getMessage());
     }
   }
 
-  private static StringReader toJsonReader(Model model) {
-    var outputStream = new ByteArrayOutputStream();
-    RDFDataMgr.write(outputStream, model, Lang.JSONLD);
-    return new StringReader(outputStream.toString(StandardCharsets.UTF_8));
+  private static JsonNode toJsonNode(JsonValue value) {
+    return switch (value.getValueType()) {
+      case OBJECT -> toObjectNode(value.asJsonObject());
+      case ARRAY -> toArrayNode(value.asJsonArray());
+      case STRING -> NODE_FACTORY.textNode(((JsonString) value).getString());
+      case NUMBER -> toNumberNode((JsonNumber) value);
+      case TRUE -> NODE_FACTORY.booleanNode(true);
+      case FALSE -> NODE_FACTORY.booleanNode(false);
+      case NULL -> NODE_FACTORY.nullNode();
+    };
+  }
+
+  private static JsonNode toObjectNode(JsonObject object) {
+    var node = NODE_FACTORY.objectNode();
+    object.forEach((key, member) -> node.set(key, toJsonNode(member)));
+    return node;
+  }
+
+  private static JsonNode toArrayNode(JsonArray array) {
+    var node = NODE_FACTORY.arrayNode(array.size());
+    array.forEach(element -> node.add(toJsonNode(element)));
+    return node;
+  }
+
+  private static JsonNode toNumberNode(JsonNumber number) {
+    if (number.isIntegral()) {
+      var integerValue = number.bigIntegerValue();
+      if (integerValue.bitLength() < Integer.SIZE) {
+        return NODE_FACTORY.numberNode(integerValue.intValue());
+      }
+      return integerValue.bitLength() < Long.SIZE
+          ? NODE_FACTORY.numberNode(integerValue.longValue())
+          : NODE_FACTORY.numberNode(integerValue);
+    }
+    return NODE_FACTORY.numberNode(number.bigDecimalValue());
   }
 }
@@ -0,0 +1,40 @@
+package no.sikt.nva.nvi.rdf;
+
+import java.util.Collection;
+import org.apache.jena.graph.Node;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.shacl.ShaclValidator;
+import org.apache.jena.shacl.Shapes;
+
+/**
+ * Validates graphs against SHACL shapes that are parsed once, when the validator class is loaded,
+ * and shared by every validation.
+ */
+public abstract class ShaclGraphValidator implements GraphValidator {
+
+  private final Shapes shapes;
+
+  protected ShaclGraphValidator(Shapes shapes) {
+    this.shapes = shapes;
+  }
+
+  protected static Shapes loadShapes(String fileName) {
+    return Shapes.parse(RDFDataMgr.loadGraph(fileName));
+  }
+
+  @Override
+  public GraphValidation validate(Model model) {
+    return new GraphValidation(ShaclValidator.get().validate(shapes, model.getGraph()));
+  }
+
+  @Override
+  public GraphValidation validateNodes(Model model, Collection<Node> focusNodes) {
+    var graph = model.getGraph();
+    var reports =
+        focusNodes.stream()
+            .map(focusNode -> ShaclValidator.get().validate(shapes, graph, focusNode))
+            .toList();
+    return new GraphValidation(reports);
+  }
+}
@@ -3,7 +3,9 @@ package no.sikt.nva.nvi.rdf;
 import static nva.commons.core.ioutils.IoUtils.stringFromResources;
 
 import java.nio.file.Path;
+import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QueryFactory;
 import org.apache.jena.rdf.model.Model;
 
 /**
@@ -11,16 +13,50 @@ import org.apache.jena.rdf.model.Model;
  * reusable and composable: each one reads a source {@link Model} and returns the constructed
  * triples without mutating the source, so several projections can be run over the same graph and
  * their results merged.
+ *
+ * <p>The query is parsed once when the instance is created. The parsed {@link Query} is never
+ * modified afterwards, so one instance can be shared by concurrent executions.
  */
-public record SparqlConstruct(String name, String query) {
+public final class SparqlConstruct {
+
+  private final String name;
+  private final String query;
+  private final Query parsedQuery;
+
+  public SparqlConstruct(String name, String query) {
+    this.name = name;
+    this.query = query;
+    this.parsedQuery = parseConstructQuery(name, query);
+  }
 
   public static SparqlConstruct fromResource(String fileName) {
     return new SparqlConstruct(fileName, stringFromResources(Path.of(fileName)));
   }
 
+  public String name() {
+    return name;
+  }
+
+  public String query() {
+    return query;
+  }
+
   public Model projectFrom(Model source) {
-    try (var queryExecution = QueryExecutionFactory.create(query, source)) {
+    try (var queryExecution = QueryExecutionFactory.create(parsedQuery, source)) {
       return queryExecution.execConstruct();
     }
   }
+
+  @Override
+  public String toString() {
+    return "SparqlConstruct[" + name + "]";
+  }
+
+  private static Query parseConstructQuery(String name, String query) {
+    var parsedQuery = QueryFactory.create(query);
+    if (!parsedQuery.isConstructType()) {
+      throw new RdfProcessingException("Query is not a CONSTRUCT query: " + name);
+    }
+    return parsedQuery;
+  }
 }
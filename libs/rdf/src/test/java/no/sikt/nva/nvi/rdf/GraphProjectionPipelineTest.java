@@ -0,0 +1,67 @@
+package no.sikt.nva.nvi.rdf;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.Executors;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("PMD.DoNotUseThreads")
+class GraphProjectionPipelineTest {
+
+  private static final String SOURCE =
+      "@prefix : <http://example.org/> . :a :p :b . :c :q :d . :e :r :f .";
+  private static final List<SparqlConstruct> PROJECTIONS =
+      List.of(
+          new SparqlConstruct(
+              "p-to-x",
+              "PREFIX : <http://example.org/> CONSTRUCT { ?s :x ?o } WHERE { ?s :p ?o }"),
+          new SparqlConstruct(
+              "q-to-y",
+              "PREFIX : <http://example.org/> CONSTRUCT { ?s :y ?o } WHERE { ?s :q ?o }"),
+          new SparqlConstruct(
+              "r-to-z",
+              "PREFIX : <http://example.org/> CONSTRUCT { ?s :z ?o } WHERE { ?s :r ?o }"));
+
+  @Test
+  void shouldProduceSameResultWhenProjectionsRunConcurrently() {
+    var source = parse(SOURCE);
+    var sequentialResult = new GraphProjectionPipeline(PROJECTIONS).project(source);
+
+    try (var executor = Executors.newFixedThreadPool(PROJECTIONS.size())) {
+      var concurrentResult = new GraphProjectionPipeline(PROJECTIONS, executor).project(source);
+
+      assertEquals(3, concurrentResult.size());
+      assertTrue(concurrentResult.isIsomorphicWith(sequentialResult));
+    }
+  }
+
+  @Test
+  void shouldReuseParsedQueryAcrossSourceGraphs() {
+    var projection = PROJECTIONS.getFirst();
+
+    assertEquals(1, projection.projectFrom(parse(SOURCE)).size());
+    assertEquals(0, projection.projectFrom(ModelFactory.createDefaultModel()).size());
+  }
+
+  @Test
+  void shouldRejectQueriesThatAreNotConstructQueries() {
+    assertThrows(
+        RdfProcessingException.class,
+        () -> new SparqlConstruct("select", "SELECT ?s WHERE { ?s ?p ?o }"));
+  }
+
+  private static Model parse(String turtle) {
+    var model = ModelFactory.createDefaultModel();
+    RDFDataMgr.read(model, new ByteArrayInputStream(turtle.getBytes(UTF_8)), Lang.TURTLE);
+    return model;
+  }
+}
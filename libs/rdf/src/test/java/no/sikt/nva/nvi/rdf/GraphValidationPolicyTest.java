@@ -0,0 +1,115 @@
+package no.sikt.nva.nvi.rdf;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.shacl.Shapes;
+import org.junit.jupiter.api.Test;
+
+class GraphValidationPolicyTest {
+
+  private static final String SHAPES =
+      """
+      @prefix sh: <http://www.w3.org/ns/shacl#> .
+      @prefix : <http://example.org/> .
+      :ThingShape a sh:NodeShape ;
+          sh:targetClass :Thing ;
+          sh:property [ sh:path :name ; sh:minCount 1 ] .
+      :PartShape a sh:NodeShape ;
+          sh:targetClass :Part ;
+          sh:property [ sh:path :name ; sh:minCount 1 ] .
+      """;
+  private static final String DATA =
+      """
+      @prefix : <http://example.org/> .
+      :thing a :Thing ; :name "Thing" .
+      :part a :Part .
+      """;
+  private static final String THING_TYPE = "http://example.org/Thing";
+  private static final String PART_TYPE = "http://example.org/Part";
+  private final GraphValidator validator = new TestValidator();
+  private final GraphValidable graph = Graph.of(parse(DATA));
+
+  @Test
+  void shouldValidateEveryGraphInFullMode() {
+    var results = validateTimes(GraphValidationPolicy.full(), 3);
+
+    assertEquals(3, results.size());
+    assertTrue(results.getFirst().isNonConformant());
+  }
+
+  @Test
+  void shouldValidateOneInEverySampleRateGraphsInSampledMode() {
+    var results = validateTimes(GraphValidationPolicy.sampled(2), 5);
+
+    assertEquals(3, results.size());
+  }
+
+  @Test
+  void shouldRejectSampleRateBelowOne() {
+    assertThrows(IllegalArgumentException.class, () -> GraphValidationPolicy.sampled(0));
+  }
+
+  @Test
+  void shouldValidateOnProvidedExecutorInAsyncMode() {
+    var executions = new AtomicInteger();
+    var policy =
+        GraphValidationPolicy.async(
+            task -> {
+              executions.incrementAndGet();
+              task.run();
+            });
+
+    var results = validateTimes(policy, 2);
+
+    assertEquals(2, executions.get());
+    assertEquals(2, results.size());
+  }
+
+  @Test
+  void shouldOnlyValidateNodesOfTargetTypesInTargetedMode() {
+    var conformingResults = validateTimes(GraphValidationPolicy.targeted(Set.of(THING_TYPE)), 1);
+    var failingResults = validateTimes(GraphValidationPolicy.targeted(Set.of(PART_TYPE)), 1);
+
+    assertFalse(conformingResults.getFirst().isNonConformant());
+    assertTrue(failingResults.getFirst().isNonConformant());
+  }
+
+  @Test
+  void shouldRejectTargetedModeWithoutTargetTypes() {
+    assertThrows(IllegalArgumentException.class, () -> GraphValidationPolicy.targeted(Set.of()));
+  }
+
+  private List<GraphValidation> validateTimes(GraphValidationPolicy policy, int times) {
+    var results = new ArrayList<GraphValidation>();
+    for (var i = 0; i < times; i++) {
+      policy.validate(graph, validator, results::add);
+    }
+    return results;
+  }
+
+  private static Model parse(String turtle) {
+    var model = ModelFactory.createDefaultModel();
+    RDFDataMgr.read(model, new ByteArrayInputStream(turtle.getBytes(UTF_8)), Lang.TURTLE);
+    return model;
+  }
+
+  private static final class TestValidator extends ShaclGraphValidator {
+
+    private TestValidator() {
+      super(Shapes.parse(parse(SHAPES).getGraph()));
+    }
+  }
+}
@@ -1,14 +1,120 @@
 package no.sikt.nva.nvi.rdf;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static no.unit.nva.commons.json.JsonUtils.dtoObjectMapper;
+import static nva.commons.core.ioutils.IoUtils.inputStreamFromResources;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.params.provider.Arguments.argumentSet;
 
+import com.apicatalog.jsonld.JsonLd;
+import com.apicatalog.jsonld.JsonLdError;
+import com.apicatalog.jsonld.document.JsonDocument;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.util.stream.Stream;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
 
 class JsonLdFrameTest {
 
+  private static final String THING_FRAME = "thing-frame.json";
+  private static final String THING =
+      """
+      @prefix : <http://example.org/> .
+      :thing a :Thing ;
+             :name "Example"@en ;
+             :count 3 ;
+             :part [ a :Part ; :name "Nested" ] .
+      """;
+  private static final String THING_WITH_TYPED_AND_REPEATED_VALUES =
+      """
+      @prefix : <http://example.org/> .
+      @prefix xsd: <http://www.w3.org/2001/XMLSchema#> .
+      :thing a :Thing ;
+             :name "Eksempel"@nb , "Example"@en ;
+             :published "2024-05-01"^^xsd:date ;
+             :points 1.25 ;
+             :open true ;
+             :tag "first" , "second" ;
+             :channel <http://example.org/channel/1> ;
+             :part [ a :Part ; :name "First" ; :order 1 ] ,
+                   [ a :Part ; :name "Second" ; :order 2 ] .
+      """;
+  private static final String THING_WITH_SHARED_NODE =
+      """
+      @prefix : <http://example.org/> .
+      :thing a :Thing ;
+             :name "Example" ;
+             :author :person ;
+             :editor :person .
+      :person a :Person ;
+              :name "Ola Nordmann" ;
+              :affiliation <http://example.org/organization/1> .
+      """;
+
   @Test
   void shouldThrowRdfProcessingExceptionWhenFrameResourceIsNotValidJson() {
     assertThrows(
         RdfProcessingException.class, () -> JsonLdFrame.fromResource("invalid-frame.json"));
   }
+
+  @Test
+  void shouldProduceSameJsonAsTreeAndAsText() throws JsonProcessingException {
+    var frame = JsonLdFrame.fromResource(THING_FRAME);
+    var model = parse(THING);
+
+    var framedTree = frame.applyAsJsonNode(model);
+    var framedText = frame.apply(model);
+
+    assertEquals(dtoObjectMapper.readTree(framedText), framedTree);
+    assertEquals("http://example.org/thing", framedTree.at("/@id").asText());
+    assertEquals("Nested", framedTree.at("/part/name").asText());
+  }
+
+  @ParameterizedTest
+  @MethodSource("modelProvider")
+  void shouldFrameModelLikeTextRoundTrip(String turtle) throws Exception {
+    var model = parse(turtle);
+
+    var framedTree = JsonLdFrame.fromResource(THING_FRAME).applyAsJsonNode(model);
+
+    assertEquals(frameThroughText(model, THING_FRAME), framedTree);
+  }
+
+  private static Stream<Arguments> modelProvider() {
+    return Stream.of(
+        argumentSet("Nested blank node", THING),
+        argumentSet("Typed and repeated values", THING_WITH_TYPED_AND_REPEATED_VALUES),
+        argumentSet("Node referenced twice", THING_WITH_SHARED_NODE));
+  }
+
+  /**
+   * Frames the model the way it was done before framing worked on an in-memory dataset: the model
+   * is written as JSON-LD text, parsed and framed by Titanium, and the result parsed by Jackson.
+   */
+  private static JsonNode frameThroughText(Model model, String frameResource)
+      throws JsonLdError, JsonProcessingException {
+    var outputStream = new ByteArrayOutputStream();
+    RDFDataMgr.write(outputStream, model, Lang.JSONLD);
+    var document = JsonDocument.of(new StringReader(outputStream.toString(UTF_8)));
+    var frame = JsonDocument.of(inputStreamFromResources(frameResource));
+    var framedText = JsonLd.frame(document, frame).get().toString();
+    return dtoObjectMapper.readTree(framedText);
+  }
+
+  private static Model parse(String turtle) {
+    var model = ModelFactory.createDefaultModel();
+    RDFDataMgr.read(model, new ByteArrayInputStream(turtle.getBytes(UTF_8)), Lang.TURTLE);
+    return model;
+  }
 }
@@ -1,16 +1,27 @@
 package no.sikt.nva.nvi.common;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.util.zip.GZIPInputStream;
 import no.unit.nva.s3.S3Driver;
 import nva.commons.core.JacocoGenerated;
 import nva.commons.core.paths.UriWrapper;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 
 @JacocoGenerated
 // TODO: Handle test coverage
 public class S3StorageReader implements StorageReader<URI> {
 
+  private static final int GZIP_MAGIC_FIRST_BYTE = 0x1f;
+  private static final int GZIP_MAGIC_SECOND_BYTE = 0x8b;
+  private static final int GZIP_MAGIC_LENGTH = 2;
   private final S3Driver s3Driver;
+  private final S3Client client;
+  private final String bucket;
 
   public S3StorageReader(String bucket) {
     this(S3Driver.defaultS3Client().build(), bucket);
@@ -18,6 +29,8 @@ public class S3StorageReader implements StorageReader<URI> {
 
   public S3StorageReader(S3Client client, String bucket) {
     this.s3Driver = new S3Driver(client, bucket);
+    this.client = client;
+    this.bucket = bucket;
   }
 
   @Override
@@ -25,4 +38,29 @@ public class S3StorageReader implements StorageReader<URI> {
     var resourceRelativePath = UriWrapper.fromUri(uri).toS3bucketPath();
     return s3Driver.getFile(resourceRelativePath);
   }
+
+  /** Streams the object from S3, decompressing it on the fly if it is gzipped. */
+  @Override
+  public InputStream readStream(URI uri) {
+    var request =
+        GetObjectRequest.builder()
+            .bucket(bucket)
+            .key(UriWrapper.fromUri(uri).toS3bucketPath().removeRoot().toString())
+            .build();
+    try {
+      return decompressIfGzipped(new BufferedInputStream(client.getObject(request)));
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+
+  private static InputStream decompressIfGzipped(BufferedInputStream inputStream)
+      throws IOException {
+    inputStream.mark(GZIP_MAGIC_LENGTH);
+    var isGzipped =
+        inputStream.read() == GZIP_MAGIC_FIRST_BYTE
+            && inputStream.read() == GZIP_MAGIC_SECOND_BYTE;
+    inputStream.reset();
+    return isGzipped ? new GZIPInputStream(inputStream) : inputStream;
+  }
 }
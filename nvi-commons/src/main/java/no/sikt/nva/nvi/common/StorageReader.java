@@ -1,7 +1,20 @@
 package no.sikt.nva.nvi.common;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
 @FunctionalInterface
 public interface StorageReader<T> {
 
   String read(T blob);
+
+  /**
+   * Opens the blob as a stream of uncompressed bytes. Readers backed by remote storage should
+   * override this to avoid holding the whole blob in memory.
+   */
+  default InputStream readStream(T blob) {
+    return new ByteArrayInputStream(read(blob).getBytes(UTF_8));
+  }
 }
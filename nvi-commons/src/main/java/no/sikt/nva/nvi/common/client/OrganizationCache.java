@@ -0,0 +1,138 @@
+package no.sikt.nva.nvi.common.client;
+
+import static java.util.Objects.nonNull;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import no.sikt.nva.nvi.common.client.model.Organization;
+
+/**
+ * Bounded cache of Cristin organization hierarchies, keyed by organization ID.
+ *
+ * <p>Entries expire after a fixed time-to-live, and the oldest entries are evicted when the cache
+ * grows beyond its maximum size. Concurrent misses for the same organization share a single
+ * request to the loader.
+ */
+@SuppressWarnings("PMD.AvoidCatchingGenericException")
+public final class OrganizationCache {
+
+  public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofHours(6);
+  public static final int DEFAULT_MAX_SIZE = 10_000;
+  private static final double EVICTION_TARGET_RATIO = 0.9;
+  private final Map<URI, CacheEntry> entries = new ConcurrentHashMap<>();
+  private final Map<URI, CompletableFuture<Organization>> inFlightLoads =
+      new ConcurrentHashMap<>();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final Duration timeToLive;
+  private final int maxSize;
+  private final Clock clock;
+
+  public OrganizationCache(Duration timeToLive, int maxSize, Clock clock) {
+    this.timeToLive = timeToLive;
+    this.maxSize = maxSize;
+    this.clock = clock;
+  }
+
+  /** Returns the cache shared by all organization lookups in this process. */
+  public static OrganizationCache defaultOrganizationCache() {
+    return DefaultCacheHolder.INSTANCE;
+  }
+
+  public Organization get(URI organizationId, Function<URI, Organization> loader) {
+    var cachedEntry = entries.get(organizationId);
+    if (nonNull(cachedEntry) && isFresh(cachedEntry)) {
+      hits.incrementAndGet();
+      return cachedEntry.organization();
+    }
+
+    var newLoad = new CompletableFuture<Organization>();
+    var existingLoad = inFlightLoads.putIfAbsent(organizationId, newLoad);
+    if (nonNull(existingLoad)) {
+      return awaitLoad(existingLoad);
+    }
+
+    try {
+      misses.incrementAndGet();
+      var organization = loader.apply(organizationId);
+      put(organizationId, organization, clock.instant());
+      newLoad.complete(organization);
+      return organization;
+    } catch (RuntimeException exception) {
+      newLoad.completeExceptionally(exception);
+      throw exception;
+    } finally {
+      inFlightLoads.remove(organizationId, newLoad);
+    }
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  private static Organization awaitLoad(CompletableFuture<Organization> load) {
+    try {
+      return load.join();
+    } catch (CompletionException exception) {
+      if (exception.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw exception;
+    }
+  }
+
+  private void put(URI organizationId, Organization organization, Instant fetchedAt) {
+    if (maxSize <= 0) {
+      return;
+    }
+    entries.put(organizationId, new CacheEntry(organization, fetchedAt));
+    if (entries.size() > maxSize) {
+      evictEntries();
+    }
+  }
+
+  private void evictEntries() {
+    entries.values().removeIf(entry -> !isFresh(entry));
+    var targetSize = (int) (maxSize * EVICTION_TARGET_RATIO);
+    var excessEntries = entries.size() - targetSize;
+    if (excessEntries > 0) {
+      entries.entrySet().stream()
+          .sorted(Map.Entry.comparingByValue(Comparator.comparing(CacheEntry::fetchedAt)))
+          .limit(excessEntries)
+          .map(Map.Entry::getKey)
+          .toList()
+          .forEach(entries::remove);
+    }
+  }
+
+  private boolean isFresh(CacheEntry entry) {
+    var age = Duration.between(entry.fetchedAt(), clock.instant());
+    return !age.isNegative() && age.compareTo(timeToLive) < 0;
+  }
+
+  private record CacheEntry(Organization organization, Instant fetchedAt) {}
+
+  /** Creates the shared cache on first use rather than when this class is loaded. */
+  private static final class DefaultCacheHolder {
+
+    private static final OrganizationCache INSTANCE =
+        new OrganizationCache(DEFAULT_TIME_TO_LIVE, DEFAULT_MAX_SIZE, Clock.systemUTC());
+  }
+}
@@ -6,9 +6,12 @@ import static nva.commons.core.attempt.Try.attempt;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Optional;
 import no.sikt.nva.nvi.common.client.model.Organization;
 import no.unit.nva.auth.uriretriever.UriRetriever;
+import nva.commons.core.JacocoGenerated;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,12 +27,29 @@ public class OrganizationRetriever {
       COULD_NOT_FETCH_CRISTIN_ORG_MESSAGE + "{}. " + "Response code: {}";
 
   private final UriRetriever uriRetriever;
+  private final OrganizationCache organizationCache;
 
   public OrganizationRetriever(UriRetriever uriRetriever) {
+    this(uriRetriever, new OrganizationCache(Duration.ZERO, 0, Clock.systemUTC()));
+  }
+
+  public OrganizationRetriever(UriRetriever uriRetriever, OrganizationCache organizationCache) {
     this.uriRetriever = uriRetriever;
+    this.organizationCache = organizationCache;
+  }
+
+  /** Creates a retriever backed by the organization cache shared by the whole process. */
+  @JacocoGenerated
+  public static OrganizationRetriever defaultOrganizationRetriever() {
+    return new OrganizationRetriever(
+        new UriRetriever(), OrganizationCache.defaultOrganizationCache());
   }
 
   public Organization fetchOrganization(URI organizationId) {
+    return organizationCache.get(organizationId, this::fetchFromCristin);
+  }
+
+  private Organization fetchFromCristin(URI organizationId) {
     var response = getResponse(organizationId);
     if (isHttpOk(response)) {
       return toCristinOrganization(response.body());
@@ -1,5 +1,6 @@
 package no.sikt.nva.nvi.common.db;
 
+import static java.util.Objects.nonNull;
 import static java.util.UUID.randomUUID;
 import static no.sikt.nva.nvi.common.DatabaseConstants.DATA_FIELD;
 import static no.sikt.nva.nvi.common.DatabaseConstants.HASH_KEY;
@@ -15,6 +16,7 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import java.net.URI;
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.Objects;
 import java.util.UUID;
 import no.sikt.nva.nvi.common.db.ApprovalStatusDao.Builder;
 import no.sikt.nva.nvi.common.db.model.Username;
@@ -134,6 +136,14 @@ public final class ApprovalStatusDao extends Dao {
     return approvalStatus;
   }
 
+  /** Returns true if the other approval has the same content as this one, ignoring metadata. */
+  @DynamoDbIgnore
+  public boolean hasSameContentAs(ApprovalStatusDao other) {
+    return nonNull(other)
+        && Objects.equals(identifier, other.identifier)
+        && Objects.equals(approvalStatus, other.approvalStatus);
+  }
+
   public enum DbStatus {
     APPROVED("Approved"),
     PENDING("Pending"),
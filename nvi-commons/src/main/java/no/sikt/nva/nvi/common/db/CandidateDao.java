@@ -62,6 +62,7 @@ public final class CandidateDao extends Dao {
 
   public static final String TYPE = "CANDIDATE";
   public static final String PERIOD_YEAR_FIELD = "periodYear";
+  public static final String EVALUATION_FINGERPRINT_FIELD = "evaluationFingerprint";
 
   @JsonProperty(IDENTIFIER_FIELD)
   private final UUID identifier;
@@ -81,6 +82,9 @@ public final class CandidateDao extends Dao {
   @JsonProperty(PERIOD_YEAR_FIELD)
   private final String periodYear;
 
+  @JsonProperty(EVALUATION_FINGERPRINT_FIELD)
+  private final String evaluationFingerprint;
+
   @JsonCreator
   public CandidateDao(
       @JsonProperty(IDENTIFIER_FIELD) UUID identifier,
@@ -88,7 +92,8 @@ public final class CandidateDao extends Dao {
       @JsonProperty(VERSION_FIELD) String version,
       @JsonProperty(REVISION_FIELD) Long revision,
       @JsonProperty(LAST_WRITTEN_FIELD) Instant lastWrittenAt,
-      @JsonProperty(PERIOD_YEAR_FIELD) String periodYear) {
+      @JsonProperty(PERIOD_YEAR_FIELD) String periodYear,
+      @JsonProperty(EVALUATION_FINGERPRINT_FIELD) String evaluationFingerprint) {
     super();
     this.identifier = identifier;
     this.candidate = candidate;
@@ -96,6 +101,7 @@ public final class CandidateDao extends Dao {
     this.revision = revision;
     this.lastWrittenAt = lastWrittenAt;
     this.periodYear = periodYear;
+    this.evaluationFingerprint = evaluationFingerprint;
   }
 
   @DynamoDbIgnore
@@ -185,7 +191,8 @@ public final class CandidateDao extends Dao {
         .periodYear(periodYear)
         .version(version)
         .revision(revision)
-        .lastWrittenAt(lastWrittenAt);
+        .lastWrittenAt(lastWrittenAt)
+        .evaluationFingerprint(evaluationFingerprint);
   }
 
   @Override
@@ -209,6 +216,15 @@ public final class CandidateDao extends Dao {
     return migratePeriodYear();
   }
 
+  /**
+   * Fingerprint of the inputs the candidate was last evaluated from. Used to skip re-evaluation of
+   * publications that have not changed since.
+   */
+  @DynamoDbAttribute(EVALUATION_FINGERPRINT_FIELD)
+  public String evaluationFingerprint() {
+    return evaluationFingerprint;
+  }
+
   @Override
   @JacocoGenerated
   public int hashCode() {
@@ -237,6 +253,19 @@ public final class CandidateDao extends Dao {
     return attempt(() -> JsonUtils.dtoObjectMapper.writeValueAsString(this)).orElseThrow();
   }
 
+  /**
+   * Returns true if the other candidate has the same content as this one, ignoring write metadata
+   * such as version, revision and modified date.
+   */
+  @DynamoDbIgnore
+  public boolean hasSameContentAs(CandidateDao other) {
+    return nonNull(other)
+        && Objects.equals(identifier, other.identifier)
+        && Objects.equals(periodYear, other.periodYear)
+        && Objects.equals(evaluationFingerprint, other.evaluationFingerprint)
+        && hasSameJsonContent(withoutModifiedDate(candidate), withoutModifiedDate(other.candidate));
+  }
+
   @DynamoDbIgnore
   public boolean isReported() {
     return candidate.reportStatus == ReportStatus.REPORTED;
@@ -252,6 +281,21 @@ public final class CandidateDao extends Dao {
     return candidate().publicationDetails.id();
   }
 
+  private static DbCandidate withoutModifiedDate(DbCandidate candidate) {
+    if (isNull(candidate)) {
+      return null;
+    }
+    return new DbCandidate(
+        candidate.pointCalculation(),
+        candidate.publicationDetails(),
+        candidate.applicable(),
+        candidate.creators(),
+        candidate.createdDate(),
+        null,
+        candidate.reportStatus(),
+        candidate.reportedDate());
+  }
+
   @Deprecated
   private String migratePeriodYear() {
     return isApplicableAndMissingPeriodYear() ? candidate.getPublicationDate().year() : periodYear;
@@ -297,6 +341,7 @@ public final class CandidateDao extends Dao {
     private Long builderRevision;
     private Instant builderLastWritten;
     private String builderPeriodYear;
+    private String builderEvaluationFingerprint;
 
     private Builder() {}
 
@@ -365,6 +410,11 @@ public final class CandidateDao extends Dao {
       return this;
     }
 
+    public Builder evaluationFingerprint(String evaluationFingerprint) {
+      this.builderEvaluationFingerprint = evaluationFingerprint;
+      return this;
+    }
+
     public CandidateDao build() {
       return new CandidateDao(
           builderIdentifier,
@@ -372,7 +422,8 @@ public final class CandidateDao extends Dao {
           builderVersion,
           builderRevision,
           builderLastWritten,
-          builderPeriodYear);
+          builderPeriodYear,
+          builderEvaluationFingerprint);
     }
   }
 
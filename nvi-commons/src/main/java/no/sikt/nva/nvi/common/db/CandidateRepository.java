@@ -1,6 +1,7 @@
 package no.sikt.nva.nvi.common.db;
 
 import static java.util.Collections.emptyList;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static java.util.UUID.randomUUID;
 import static java.util.stream.Collectors.toMap;
@@ -21,8 +22,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
 import no.sikt.nva.nvi.common.db.ApprovalStatusDao.DbApprovalStatus;
 import no.sikt.nva.nvi.common.db.CandidateDao.DbCandidate;
 import no.sikt.nva.nvi.common.db.model.TableScanRequest;
@@ -30,6 +36,8 @@ import no.sikt.nva.nvi.common.db.model.YearQueryRequest;
 import no.sikt.nva.nvi.common.model.ListingResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncIndex;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbIndex;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
@@ -37,10 +45,13 @@ import software.amazon.awssdk.enhanced.dynamodb.model.ConditionCheck;
 import software.amazon.awssdk.enhanced.dynamodb.model.Page;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.TransactWriteItemsEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
 import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
 import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
 import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
 
 // Should be refactored, technical debt task: https://sikt.atlassian.net/browse/NP-48093
@@ -56,9 +67,11 @@ public class CandidateRepository extends DynamoRepository {
   protected final DynamoDbTable<NviPeriodDao> periodTable;
   private final DynamoDbIndex<CandidateDao> publicationIdIndex;
   private final DynamoDbIndex<CandidateDao> yearIndex;
+  private final DynamoDbAsyncTable<CandidateDao> asyncCandidateTable;
+  private final DynamoDbAsyncIndex<CandidateDao> asyncPublicationIdIndex;
 
-  public CandidateRepository(DynamoDbClient client) {
-    super(client);
+  public CandidateRepository(DynamoDbClient client, DynamoDbAsyncClient asyncClient) {
+    super(client, asyncClient);
     this.candidateTable = this.client.table(NVI_TABLE_NAME, fromImmutableClass(CandidateDao.class));
     this.uniquenessTable =
         this.client.table(NVI_TABLE_NAME, fromImmutableClass(CandidateUniquenessEntryDao.class));
@@ -68,12 +81,18 @@ public class CandidateRepository extends DynamoRepository {
         this.client.table(NVI_TABLE_NAME, fromImmutableClass(ApprovalStatusDao.class));
     this.noteTable = this.client.table(NVI_TABLE_NAME, fromImmutableClass(NoteDao.class));
     this.periodTable = this.client.table(NVI_TABLE_NAME, fromImmutableClass(NviPeriodDao.class));
+    this.asyncCandidateTable =
+        this.asyncClient.table(NVI_TABLE_NAME, fromImmutableClass(CandidateDao.class));
+    this.asyncPublicationIdIndex = this.asyncCandidateTable.index(SECONDARY_INDEX_PUBLICATION_ID);
   }
 
   public ListingResult<UUID> weaklyConsistentCandidateScan(TableScanRequest requestParameters) {
     var scanRequest = createCandidateScanRequest(requestParameters);
     var scanResponse = defaultClient.scan(scanRequest);
-    return mapToListingResult(scanResponse.lastEvaluatedKey(), scanResponse.items());
+    return mapToListingResult(
+        scanResponse.lastEvaluatedKey(),
+        scanResponse.items(),
+        scanResponse.consumedCapacity());
   }
 
   private static ScanRequest createCandidateScanRequest(TableScanRequest request) {
@@ -87,13 +106,17 @@ public class CandidateRepository extends DynamoRepository {
         .totalSegments(request.totalSegments())
         .exclusiveStartKey(request.exclusiveStartKey())
         .limit(request.batchSize())
+        .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
         .build();
   }
 
   public ListingResult<UUID> weaklyConsistentCandidateScan(YearQueryRequest requestParameters) {
     var queryRequest = createYearQueryRequest(requestParameters);
     var queryResponse = defaultClient.query(queryRequest);
-    return mapToListingResult(queryResponse.lastEvaluatedKey(), queryResponse.items());
+    return mapToListingResult(
+        queryResponse.lastEvaluatedKey(),
+        queryResponse.items(),
+        queryResponse.consumedCapacity());
   }
 
   private static QueryRequest createYearQueryRequest(YearQueryRequest request) {
@@ -106,17 +129,27 @@ public class CandidateRepository extends DynamoRepository {
         .projectionExpression(IDENTIFIER_FIELD)
         .exclusiveStartKey(request.exclusiveStartKey())
         .limit(request.batchSize())
+        .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
         .build();
   }
 
   private static ListingResult<UUID> mapToListingResult(
       Map<String, AttributeValue> lastEvaluatedKey,
-      Collection<Map<String, AttributeValue>> databaseEntries) {
+      Collection<Map<String, AttributeValue>> databaseEntries,
+      ConsumedCapacity consumedCapacity) {
     var moreItemsToScan = hasElements(lastEvaluatedKey);
     var totalItemCount = databaseEntries.size();
     var candidateIdentifiers = getCandidateIdentifiers(databaseEntries);
     return new ListingResult<>(
-        moreItemsToScan, toStringMap(lastEvaluatedKey), totalItemCount, candidateIdentifiers);
+        moreItemsToScan,
+        toStringMap(lastEvaluatedKey),
+        totalItemCount,
+        candidateIdentifiers,
+        getCapacityUnits(consumedCapacity));
+  }
+
+  private static double getCapacityUnits(ConsumedCapacity consumedCapacity) {
+    return Optional.ofNullable(consumedCapacity).map(ConsumedCapacity::capacityUnits).orElse(0.0);
   }
 
   private static List<UUID> getCandidateIdentifiers(Collection<Map<String, AttributeValue>> items) {
@@ -248,6 +281,45 @@ public class CandidateRepository extends DynamoRepository {
         .thenApply(items -> items.stream().map(this::mapToDao).toList());
   }
 
+  /**
+   * Fetches several candidates and their related items (approvals, notes). Each candidate is read
+   * with its own partition query, and at most {@code maxConcurrency} queries are sent at a time.
+   *
+   * @param candidateIds Candidate identifiers
+   * @param maxConcurrency Maximum number of queries in flight
+   * @return CompletableFuture containing the database entries of each candidate, keyed by
+   *     identifier. Identifiers without any entries are not included.
+   */
+  public CompletableFuture<Map<UUID, List<Dao>>> getCandidateAggregatesAsync(
+      Collection<UUID> candidateIds, int maxConcurrency) {
+    LOGGER.info("Fetching {} candidates and related data", candidateIds.size());
+    var remainingIds = new ConcurrentLinkedQueue<>(Set.copyOf(candidateIds));
+    var aggregates = new ConcurrentHashMap<UUID, List<Dao>>();
+    var workerCount = Math.min(Math.max(maxConcurrency, 1), remainingIds.size());
+    var workers =
+        Stream.generate(() -> fetchRemainingAggregates(remainingIds, aggregates))
+            .limit(workerCount)
+            .toArray(CompletableFuture[]::new);
+    return CompletableFuture.allOf(workers).thenApply(ignored -> Map.copyOf(aggregates));
+  }
+
+  /** Fetches one aggregate at a time until the queue is empty. */
+  private CompletableFuture<Void> fetchRemainingAggregates(
+      Queue<UUID> remainingIds, Map<UUID, List<Dao>> aggregates) {
+    var candidateId = remainingIds.poll();
+    if (isNull(candidateId)) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return getCandidateAggregateAsync(candidateId)
+        .thenCompose(
+            items -> {
+              if (!items.isEmpty()) {
+                aggregates.put(candidateId, items);
+              }
+              return fetchRemainingAggregates(remainingIds, aggregates);
+            });
+  }
+
   /**
    * Fetches a candidate by identifier.
    *
@@ -260,21 +332,47 @@ public class CandidateRepository extends DynamoRepository {
     return Optional.ofNullable(candidateTable.getItem(getByKey(candidateKey)));
   }
 
+  /**
+   * Fetches a candidate by identifier without blocking the calling thread.
+   *
+   * @param candidateIdentifier Candidate identifier
+   * @return CompletableFuture containing the candidate, or empty if not found
+   */
+  public CompletableFuture<Optional<CandidateDao>> findCandidateByIdAsync(
+      UUID candidateIdentifier) {
+    LOGGER.info("Fetching candidate by identifier {}", candidateIdentifier);
+    var candidateKey = createCandidateKey(candidateIdentifier);
+    return asyncCandidateTable.getItem(getByKey(candidateKey)).thenApply(Optional::ofNullable);
+  }
+
   /**
    * Finds candidate identifier by publication ID via GSI. Re-fetch from primary table for strongly
    * consistent reads.
    */
   public Optional<UUID> findByPublicationId(URI publicationId) {
     LOGGER.info("Fetching candidate by publication id {}", publicationId);
-    var publicationKey = createCandidateKeyByPublicationId(publicationId);
-    var query = QueryEnhancedRequest.builder().queryConditional(keyEqualTo(publicationKey)).build();
-    return publicationIdIndex.query(query).stream()
+    return publicationIdIndex.query(createPublicationIdQuery(publicationId)).stream()
         .map(Page::items)
         .flatMap(Collection::stream)
         .findFirst()
         .map(CandidateDao::identifier);
   }
 
+  /** Same as {@link #findByPublicationId(URI)}, without blocking the calling thread. */
+  public CompletableFuture<Optional<UUID>> findByPublicationIdAsync(URI publicationId) {
+    LOGGER.info("Fetching candidate by publication id {}", publicationId);
+    var identifiers = new ConcurrentLinkedQueue<UUID>();
+    return asyncPublicationIdIndex
+        .query(createPublicationIdQuery(publicationId))
+        .subscribe(page -> page.items().forEach(item -> identifiers.add(item.identifier())))
+        .thenApply(ignored -> Optional.ofNullable(identifiers.peek()));
+  }
+
+  private static QueryEnhancedRequest createPublicationIdQuery(URI publicationId) {
+    var publicationKey = createCandidateKeyByPublicationId(publicationId);
+    return QueryEnhancedRequest.builder().queryConditional(keyEqualTo(publicationKey)).build();
+  }
+
   public void deleteNote(UUID candidateIdentifier, UUID noteIdentifier) {
     LOGGER.info("Deleting note: candidateId={}, noteId={}, ", candidateIdentifier, noteIdentifier);
     noteTable.deleteItem(createNoteKey(candidateIdentifier, noteIdentifier));
@@ -1,10 +1,12 @@
 package no.sikt.nva.nvi.common.db;
 
+import static java.util.Objects.isNull;
 import static no.unit.nva.commons.json.JsonUtils.dtoObjectMapper;
 import static nva.commons.core.attempt.Try.attempt;
 
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import java.util.Map;
 import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
@@ -37,4 +39,24 @@ public abstract class Dao implements DynamoEntryWithRangeKey {
             attempt(() -> dtoObjectMapper.writeValueAsString(this)).orElseThrow())
         .toMap();
   }
+
+  /**
+   * Returns true if both values have the same JSON representation. Numbers are compared by value,
+   * because DynamoDB does not preserve the scale of decimal numbers.
+   */
+  protected static boolean hasSameJsonContent(Object first, Object second) {
+    if (isNull(first) || isNull(second)) {
+      return isNull(first) && isNull(second);
+    }
+    JsonNode firstJson = dtoObjectMapper.valueToTree(first);
+    JsonNode secondJson = dtoObjectMapper.valueToTree(second);
+    return firstJson.equals(Dao::compareJsonValues, secondJson);
+  }
+
+  private static int compareJsonValues(JsonNode first, JsonNode second) {
+    if (first.isNumber() && second.isNumber()) {
+      return first.decimalValue().compareTo(second.decimalValue());
+    }
+    return first.equals(second) ? 0 : 1;
+  }
 }
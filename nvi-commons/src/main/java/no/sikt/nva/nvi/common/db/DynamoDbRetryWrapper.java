@@ -1,88 +1,163 @@
 package no.sikt.nva.nvi.common.db;
 
-import static no.sikt.nva.nvi.common.utils.ExceptionUtils.getStackTrace;
+import static no.sikt.nva.nvi.common.DatabaseConstants.HASH_KEY;
+import static no.sikt.nva.nvi.common.DatabaseConstants.SORT_KEY;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
 import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
 import software.amazon.awssdk.services.dynamodb.model.PutRequest;
 import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
 
+/**
+ * Retries the unprocessed items of DynamoDB batch writes.
+ *
+ * <p>The wait between attempts uses decorrelated jitter, so that writers that were throttled at the
+ * same time do not retry at the same time. Each retry also takes tokens from a {@link
+ * RetryTokenBucket}, which by default is shared by all writers in the runtime. When the bucket is
+ * empty, writes fail instead of being retried.
+ *
+ * <p>This is the only retry layer for unprocessed items. A request that fails outright, e.g.
+ * because it was throttled, has already been retried by the SDK client and is not retried again.
+ * Transactional writes are intentionally not covered. They are retried by the SDK client, and
+ * failed batch job messages are retried by the {@code ProcessBatchJobHandler} queue.
+ */
 @SuppressWarnings("PMD.DoNotUseThreads")
 public class DynamoDbRetryWrapper {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DynamoDbRetryWrapper.class);
+  /** Limits a burst of retries to half the capacity of the token bucket. */
+  private static final int RETRY_COST = 2;
+  private static final int JITTER_MULTIPLIER = 3;
   private final DynamoDbClient client;
   private final int writeRetriesMaxCount;
   private final long initialRetryWaitTimeMs;
+  private final long maxRetryWaitTimeMs;
   private final String tableName;
-  private static final Logger LOGGER = LoggerFactory.getLogger(DynamoDbRetryWrapper.class);
+  private final RetryTokenBucket retryTokenBucket;
+  private final RetryMetrics metrics = new RetryMetrics();
 
   public DynamoDbRetryWrapper(
       DynamoDbClient dynamoDbClient,
       String tableName,
       int writeRetriesMaxCount,
       long initialRetryWaitTimeMs) {
+    this(
+        dynamoDbClient,
+        tableName,
+        writeRetriesMaxCount,
+        initialRetryWaitTimeMs,
+        Builder.MAX_RETRY_WAIT_TIME_MS_DEFAULT,
+        RetryTokenBucket.shared());
+  }
+
+  public DynamoDbRetryWrapper(
+      DynamoDbClient dynamoDbClient,
+      String tableName,
+      int writeRetriesMaxCount,
+      long initialRetryWaitTimeMs,
+      long maxRetryWaitTimeMs,
+      RetryTokenBucket retryTokenBucket) {
     this.client = dynamoDbClient;
     this.writeRetriesMaxCount = writeRetriesMaxCount;
     this.initialRetryWaitTimeMs = initialRetryWaitTimeMs;
+    this.maxRetryWaitTimeMs = Math.max(maxRetryWaitTimeMs, initialRetryWaitTimeMs);
     this.tableName = tableName;
+    this.retryTokenBucket = retryTokenBucket;
   }
 
   public int batchWriteItem(BatchWriteItemRequest initialRequest) {
-
     var batchWriteRequest = initialRequest;
-    var retryNeeded = true;
-    var requestCount = 0;
+    var waitTime = initialRetryWaitTimeMs;
+    var requestCount = 1;
 
-    while (retryNeeded) {
-      if (requestCount >= writeRetriesMaxCount) {
+    while (true) {
+      var response = writeBatch(batchWriteRequest);
+      if (!hasUnprocessedItems(response)) {
+        return initialRequest.requestItems().size();
+      }
+      var unprocessedItems = getUnprocessedItems(response);
+      if (!acquireRetry(requestCount)) {
+        LOGGER.error(
+            "{} items were not processed after {} attempts. Failed items: {}",
+            unprocessedItems.size(),
+            requestCount,
+            formatItemKeys(unprocessedItems));
         throw new RuntimeException("Some items were not processed and retries exhausted");
       }
-
+      waitTime = sleepWithJitter(waitTime);
+      batchWriteRequest = buildBatchWriteRequest(unprocessedItems);
       requestCount++;
+    }
+  }
 
-      try {
-        var response = client.batchWriteItem(batchWriteRequest);
-        if (hasUnprocessedItems(response)) {
-          sleep(calculateBackoffTime(requestCount));
+  public RetryMetrics getMetrics() {
+    return metrics;
+  }
 
-          batchWriteRequest = buildBatchWriteRequest(getUnprocessedItems(response));
-        } else {
-          retryNeeded = false;
-        }
-      } catch (DynamoDbException exception) {
-        LOGGER.error(
-            "Failed to write batch items. Exception: {}. Failed batch items: {}",
-            getStackTrace(exception),
-            formatFailedBatchItems(batchWriteRequest));
-        throw exception;
-      }
+  private BatchWriteItemResponse writeBatch(BatchWriteItemRequest batchWriteRequest) {
+    try {
+      return client.batchWriteItem(batchWriteRequest);
+    } catch (DynamoDbException exception) {
+      LOGGER.error(
+          "Failed to write batch items. Failed items: {}",
+          formatItemKeys(getWriteRequests(batchWriteRequest)),
+          exception);
+      throw exception;
     }
+  }
 
-    return initialRequest.requestItems().size();
+  private boolean acquireRetry(int requestCount) {
+    if (requestCount >= writeRetriesMaxCount || !retryTokenBucket.tryAcquire(RETRY_COST)) {
+      metrics.recordExhaustedRetries();
+      LOGGER.warn("Write retries exhausted. {}", metrics);
+      return false;
+    }
+    metrics.recordRetry();
+    return true;
   }
 
-  private static String formatFailedBatchItems(BatchWriteItemRequest batchWriteRequest) {
-    return batchWriteRequest.requestItems().values().stream()
-        .flatMap(Collection::stream)
+  /** Waits for a random time between the initial wait time and three times the previous wait. */
+  private long sleepWithJitter(long previousWaitTime) {
+    var upperBound = Math.max(previousWaitTime * JITTER_MULTIPLIER, initialRetryWaitTimeMs + 1);
+    var waitTime =
+        Math.min(
+            maxRetryWaitTimeMs,
+            ThreadLocalRandom.current().nextLong(initialRetryWaitTimeMs, upperBound));
+    sleep(waitTime);
+    return waitTime;
+  }
+
+  /** Formats the primary keys of the items, since the full items can be very large. */
+  private static String formatItemKeys(Collection<WriteRequest> writeRequests) {
+    return writeRequests.stream()
         .map(WriteRequest::putRequest)
+        .filter(Objects::nonNull)
         .map(PutRequest::item)
-        .map(Object::toString)
+        .map(DynamoDbRetryWrapper::formatKey)
         .collect(Collectors.joining(", "));
   }
 
-  private static boolean hasUnprocessedItems(BatchWriteItemResponse response) {
-    return response.hasUnprocessedItems() && !response.unprocessedItems().isEmpty();
+  private static String formatKey(Map<String, AttributeValue> item) {
+    return getKeyValue(item, HASH_KEY) + "/" + getKeyValue(item, SORT_KEY);
+  }
+
+  private static String getKeyValue(Map<String, AttributeValue> item, String keyName) {
+    return Optional.ofNullable(item.get(keyName)).map(AttributeValue::s).orElse(null);
   }
 
-  private long calculateBackoffTime(int requestCount) {
-    return initialRetryWaitTimeMs * (long) Math.pow(2, requestCount - 1d);
+  private static boolean hasUnprocessedItems(BatchWriteItemResponse response) {
+    return response.hasUnprocessedItems() && !response.unprocessedItems().isEmpty();
   }
 
   private static void sleep(long waitTime) {
@@ -95,6 +170,10 @@ public class DynamoDbRetryWrapper {
     }
   }
 
+  private static List<WriteRequest> getWriteRequests(BatchWriteItemRequest request) {
+    return request.requestItems().values().stream().flatMap(List::stream).toList();
+  }
+
   private static List<WriteRequest> getUnprocessedItems(BatchWriteItemResponse initialRequest) {
     return initialRequest.unprocessedItems().values().stream().flatMap(List::stream).toList();
   }
@@ -113,9 +192,12 @@ public class DynamoDbRetryWrapper {
 
     private static final int WRITE_RETRIES_MAX_COUNT_DEFAULT = 3;
     private static final long INITIAL_RETRY_WAIT_TIME_MS_DEFAULT = 500L;
+    private static final long MAX_RETRY_WAIT_TIME_MS_DEFAULT = 5_000L;
     private DynamoDbClient builderDynamoDbClient;
     private int builderWriteRetriesMaxCount = WRITE_RETRIES_MAX_COUNT_DEFAULT;
     private long builderInitialRetryWaitTimeMs = INITIAL_RETRY_WAIT_TIME_MS_DEFAULT;
+    private long builderMaxRetryWaitTimeMs = MAX_RETRY_WAIT_TIME_MS_DEFAULT;
+    private RetryTokenBucket builderRetryTokenBucket = RetryTokenBucket.shared();
     private String builderTableName;
 
     private Builder() {}
@@ -135,6 +217,16 @@ public class DynamoDbRetryWrapper {
       return this;
     }
 
+    public DynamoDbRetryWrapper.Builder maxRetryWaitTimeMs(long maxRetryWaitTimeMs) {
+      this.builderMaxRetryWaitTimeMs = maxRetryWaitTimeMs;
+      return this;
+    }
+
+    public DynamoDbRetryWrapper.Builder retryTokenBucket(RetryTokenBucket retryTokenBucket) {
+      this.builderRetryTokenBucket = retryTokenBucket;
+      return this;
+    }
+
     public DynamoDbRetryWrapper.Builder tableName(String tableName) {
       this.builderTableName = tableName;
       return this;
@@ -145,7 +237,9 @@ public class DynamoDbRetryWrapper {
           builderDynamoDbClient,
           builderTableName,
           builderWriteRetriesMaxCount,
-          builderInitialRetryWaitTimeMs);
+          builderInitialRetryWaitTimeMs,
+          builderMaxRetryWaitTimeMs,
+          builderRetryTokenBucket);
     }
   }
 }
@@ -1,10 +1,12 @@
 package no.sikt.nva.nvi.common.db;
 
 import static java.util.Objects.isNull;
+import static java.util.Objects.requireNonNull;
 import static no.sikt.nva.nvi.common.DatabaseConstants.HASH_KEY;
 import static no.sikt.nva.nvi.common.DatabaseConstants.SORT_KEY;
 import static no.sikt.nva.nvi.common.utils.ApplicationConstants.REGION;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import no.sikt.nva.nvi.common.exceptions.TransactionException;
@@ -12,7 +14,9 @@ import nva.commons.core.JacocoGenerated;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClientExtension;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Expression;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
@@ -23,6 +27,7 @@ import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.TransactPutItemEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.TransactWriteItemsEnhancedRequest;
 import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
@@ -35,25 +40,41 @@ public class DynamoRepository {
   private static final Logger LOGGER = LoggerFactory.getLogger(DynamoRepository.class);
   protected final DynamoDbEnhancedClient client;
   protected final DynamoDbClient defaultClient;
+  protected final DynamoDbEnhancedAsyncClient asyncClient;
+  protected final DynamoDbAsyncClient defaultAsyncClient;
 
-  protected DynamoRepository(DynamoDbClient client) {
+  /**
+   * Creates a repository where asynchronous reads use the non-blocking client, and all other
+   * operations use the synchronous client.
+   */
+  protected DynamoRepository(DynamoDbClient client, DynamoDbAsyncClient asyncClient) {
     this.defaultClient = client;
     this.client =
         DynamoDbEnhancedClient.builder()
             .dynamoDbClient(client)
-            .extensions(
-                AutoGeneratedTimestampRecordExtension.create(),
-                AtomicCounterExtension.builder().build(),
-                VersionedRecordExtension.builder().build())
+            .extensions(createExtensions())
+            .build();
+    this.defaultAsyncClient = requireNonNull(asyncClient, "asyncClient must not be null");
+    this.asyncClient =
+        DynamoDbEnhancedAsyncClient.builder()
+            .dynamoDbClient(asyncClient)
+            .extensions(createExtensions())
             .build();
   }
 
+  private static List<DynamoDbEnhancedClientExtension> createExtensions() {
+    return List.of(
+        AutoGeneratedTimestampRecordExtension.create(),
+        AtomicCounterExtension.builder().build(),
+        VersionedRecordExtension.builder().build());
+  }
+
   protected GetItemEnhancedRequest getByKey(Key key) {
     return GetItemEnhancedRequest.builder().key(key).consistentRead(true).build();
   }
 
   protected CompletableFuture<QueryResponse> executeAsync(QueryRequest query) {
-    return CompletableFuture.supplyAsync(() -> defaultClient.query(query));
+    return defaultAsyncClient.query(query);
   }
 
   protected void sendTransaction(TransactWriteItemsEnhancedRequest request) {
@@ -100,6 +121,19 @@ public class DynamoRepository {
         .build();
   }
 
+  /**
+   * Creates a client for non-blocking reads. No HTTP client is configured explicitly, so the SDK
+   * uses its default asynchronous HTTP client (Netty), which is a runtime dependency of the
+   * DynamoDB module.
+   */
+  @JacocoGenerated
+  public static DynamoDbAsyncClient defaultDynamoAsyncClient() {
+    return DynamoDbAsyncClient.builder()
+        .credentialsProvider(DefaultCredentialsProvider.builder().build())
+        .region(REGION)
+        .build();
+  }
+
   /**
    * Creates an expression that checks that the item revision matches the expected value. If
    * expectedRevision is null, checks that the revision attribute doesn't exist.
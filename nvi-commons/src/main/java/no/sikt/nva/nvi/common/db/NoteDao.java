@@ -1,5 +1,6 @@
 package no.sikt.nva.nvi.common.db;
 
+import static java.util.Objects.nonNull;
 import static java.util.UUID.randomUUID;
 import static no.sikt.nva.nvi.common.DatabaseConstants.DATA_FIELD;
 import static no.sikt.nva.nvi.common.DatabaseConstants.HASH_KEY;
@@ -10,6 +11,7 @@ import static no.sikt.nva.nvi.common.DatabaseConstants.VERSION_FIELD;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import java.time.Instant;
+import java.util.Objects;
 import java.util.UUID;
 import no.sikt.nva.nvi.common.db.NoteDao.Builder;
 import no.sikt.nva.nvi.common.db.model.Username;
@@ -101,6 +103,14 @@ public final class NoteDao extends Dao {
     return note;
   }
 
+  /** Returns true if the other note has the same content as this one, ignoring metadata. */
+  @DynamoDbIgnore
+  public boolean hasSameContentAs(NoteDao other) {
+    return nonNull(other)
+        && Objects.equals(identifier, other.identifier)
+        && Objects.equals(note, other.note);
+  }
+
   public static final class Builder {
 
     // Becasue of codacy the variable name has to be different than the setMethod
@@ -5,24 +5,32 @@ import static no.sikt.nva.nvi.common.utils.ApplicationConstants.NVI_TABLE_NAME;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.internal.conditional.BeginsWithConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.Page;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.TransactWriteItemsEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 
 public class PeriodRepository extends DynamoRepository {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PeriodRepository.class);
   protected final DynamoDbTable<NviPeriodDao> nviPeriodTable;
+  private final DynamoDbAsyncTable<NviPeriodDao> asyncNviPeriodTable;
+  private final AtomicLong writeVersion = new AtomicLong();
 
-  public PeriodRepository(DynamoDbClient client) {
-    super(client);
+  public PeriodRepository(DynamoDbClient client, DynamoDbAsyncClient asyncClient) {
+    super(client, asyncClient);
     this.nviPeriodTable = this.client.table(NVI_TABLE_NAME, NviPeriodDao.TABLE_SCHEMA);
+    this.asyncNviPeriodTable = this.asyncClient.table(NVI_TABLE_NAME, NviPeriodDao.TABLE_SCHEMA);
   }
 
   public void create(NviPeriodDao period) {
@@ -30,6 +38,7 @@ public class PeriodRepository extends DynamoRepository {
     var transaction = TransactWriteItemsEnhancedRequest.builder();
     addNewItemWithVersion(transaction, nviPeriodTable, period);
     sendTransaction(transaction.build());
+    writeVersion.incrementAndGet();
   }
 
   public void update(NviPeriodDao period) {
@@ -37,6 +46,15 @@ public class PeriodRepository extends DynamoRepository {
     var transaction = TransactWriteItemsEnhancedRequest.builder();
     addUpdatedItemWithVersion(transaction, nviPeriodTable, period);
     sendTransaction(transaction.build());
+    writeVersion.incrementAndGet();
+  }
+
+  /**
+   * Returns a counter that is incremented on every period written through this repository. Used to
+   * invalidate cached periods without waiting for them to expire.
+   */
+  public long getWriteVersion() {
+    return writeVersion.get();
   }
 
   public Optional<NviPeriodDao> findByPublishingYear(String publishingYear) {
@@ -47,17 +65,30 @@ public class PeriodRepository extends DynamoRepository {
 
   public List<NviPeriodDao> getPeriods() {
     LOGGER.info("Getting all periods");
-    var query =
-        QueryEnhancedRequest.builder()
-            .queryConditional(beginsWithPeriodQuery())
-            .consistentRead(true)
-            .build();
-    return nviPeriodTable.query(query).stream()
+    return nviPeriodTable.query(createPeriodsQuery()).stream()
         .map(Page::items)
         .flatMap(Collection::stream)
         .toList();
   }
 
+  /** Gets all periods without blocking the calling thread while waiting for DynamoDB. */
+  public CompletableFuture<List<NviPeriodDao>> getPeriodsAsync() {
+    LOGGER.info("Getting all periods asynchronously");
+    var periods = new ConcurrentLinkedQueue<NviPeriodDao>();
+    return asyncNviPeriodTable
+        .query(createPeriodsQuery())
+        .items()
+        .subscribe(periods::add)
+        .thenApply(ignored -> List.copyOf(periods));
+  }
+
+  private static QueryEnhancedRequest createPeriodsQuery() {
+    return QueryEnhancedRequest.builder()
+        .queryConditional(beginsWithPeriodQuery())
+        .consistentRead(true)
+        .build();
+  }
+
   private static BeginsWithConditional beginsWithPeriodQuery() {
     return new BeginsWithConditional(
         Key.builder().partitionValue(NviPeriodDao.TYPE).sortValue(NviPeriodDao.TYPE).build());
@@ -0,0 +1,36 @@
+package no.sikt.nva.nvi.common.db;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts retried DynamoDB writes, for logging and monitoring of throttling during bulk jobs. Only
+ * unprocessed batch items are retried, and they are a sign of throttling, so the retry count also
+ * counts throttled writes.
+ */
+public final class RetryMetrics {
+
+  private final LongAdder retries = new LongAdder();
+  private final LongAdder exhaustedRetries = new LongAdder();
+
+  void recordRetry() {
+    retries.increment();
+  }
+
+  void recordExhaustedRetries() {
+    exhaustedRetries.increment();
+  }
+
+  public long getRetryCount() {
+    return retries.sum();
+  }
+
+  public long getExhaustedRetryCount() {
+    return exhaustedRetries.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "RetryMetrics[retries=%d, exhaustedRetries=%d]"
+        .formatted(getRetryCount(), getExhaustedRetryCount());
+  }
+}
@@ -0,0 +1,56 @@
+package no.sikt.nva.nvi.common.db;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits how often writes are retried across all callers in the same runtime. Each retry takes
+ * tokens from the bucket, and tokens are refilled at a fixed rate. When many writes are throttled
+ * at once, only some of them are retried, so the retries do not add to the load that caused the
+ * throttling.
+ */
+public final class RetryTokenBucket {
+
+  private static final int DEFAULT_CAPACITY = 100;
+  private static final int DEFAULT_REFILL_PER_SECOND = 10;
+  private static final RetryTokenBucket SHARED =
+      new RetryTokenBucket(DEFAULT_CAPACITY, DEFAULT_REFILL_PER_SECOND);
+  private final double capacity;
+  private final double refillPerNano;
+  private final ReentrantLock lock = new ReentrantLock();
+  private double tokens;
+  private long lastRefillNanos;
+
+  public RetryTokenBucket(int capacity, int refillPerSecond) {
+    this.capacity = capacity;
+    this.refillPerNano = (double) refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+    this.tokens = capacity;
+    this.lastRefillNanos = System.nanoTime();
+  }
+
+  /** Returns the bucket shared by all writers that do not configure their own. */
+  public static RetryTokenBucket shared() {
+    return SHARED;
+  }
+
+  /** Takes the given number of tokens if they are available, and returns whether it did. */
+  public boolean tryAcquire(int cost) {
+    lock.lock();
+    try {
+      refill();
+      if (tokens < cost) {
+        return false;
+      }
+      tokens -= cost;
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void refill() {
+    var now = System.nanoTime();
+    tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+    lastRefillNanos = now;
+  }
+}
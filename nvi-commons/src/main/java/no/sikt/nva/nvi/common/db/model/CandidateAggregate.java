@@ -4,13 +4,16 @@ import static java.util.function.Predicate.not;
 import static no.sikt.nva.nvi.common.service.NviPeriodService.findByPublishingYear;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import no.sikt.nva.nvi.common.db.ApprovalStatusDao;
 import no.sikt.nva.nvi.common.db.CandidateDao;
 import no.sikt.nva.nvi.common.db.Dao;
 import no.sikt.nva.nvi.common.db.NoteDao;
+import no.sikt.nva.nvi.common.service.model.Approval;
 import no.sikt.nva.nvi.common.service.model.Candidate;
+import no.sikt.nva.nvi.common.service.model.Note;
 import no.sikt.nva.nvi.common.service.model.NviPeriod;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,12 +36,38 @@ public record CandidateAggregate(
     return Optional.of(new CandidateAggregate(candidate, approvals, notes));
   }
 
+  /** Creates the aggregate that would be persisted for the given candidate. */
+  public static CandidateAggregate fromCandidate(Candidate candidate) {
+    var approvals = candidate.approvals().values().stream().map(Approval::toDao).toList();
+    var notes = candidate.notes().values().stream().map(Note::toDao).toList();
+    return new CandidateAggregate(candidate.toDao(), approvals, notes);
+  }
+
   public Candidate toCandidate(Collection<NviPeriod> allPeriods) {
     var publicationYear = candidate.getPeriodYear();
     var period = findByPublishingYear(allPeriods, publicationYear).orElse(null);
     return Candidate.fromDao(candidate, approvals, notes, period);
   }
 
+  public boolean hasSameCandidateAs(CandidateDao candidateDao) {
+    return candidate.hasSameContentAs(candidateDao);
+  }
+
+  /** Returns the approvals that are not part of this aggregate with the same content. */
+  public List<ApprovalStatusDao> getChangedApprovals(
+      Collection<ApprovalStatusDao> updatedApprovals) {
+    return updatedApprovals.stream()
+        .filter(updated -> approvals.stream().noneMatch(updated::hasSameContentAs))
+        .toList();
+  }
+
+  /** Returns the notes that are not part of this aggregate with the same content. */
+  public List<NoteDao> getChangedNotes(Collection<NoteDao> updatedNotes) {
+    return updatedNotes.stream()
+        .filter(updated -> notes.stream().noneMatch(updated::hasSameContentAs))
+        .toList();
+  }
+
   private static Optional<CandidateDao> findCandidate(Collection<Dao> items) {
     var candidates =
         items.stream()
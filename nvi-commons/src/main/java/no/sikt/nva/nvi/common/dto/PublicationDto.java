@@ -14,6 +14,7 @@ import static no.unit.nva.commons.json.JsonUtils.dtoObjectMapper;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import java.net.URI;
 import java.time.Instant;
@@ -99,6 +100,10 @@ public record PublicationDto(
     return dtoObjectMapper.readValue(json, PublicationDto.class);
   }
 
+  public static PublicationDto from(JsonNode json) throws JsonProcessingException {
+    return dtoObjectMapper.treeToValue(json, PublicationDto.class);
+  }
+
   public PublicationChannelDto getNviChannel() {
     return publicationChannels.stream().filter(PublicationChannelDto::isValid).toList().getFirst();
   }
@@ -6,4 +6,10 @@ import java.net.URI;
 
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
 @JsonSerialize
-public record UpsertNonNviCandidateRequest(URI publicationId) implements CandidateType {}
+public record UpsertNonNviCandidateRequest(URI publicationId, String evaluationFingerprint)
+    implements CandidateType {
+
+  public UpsertNonNviCandidateRequest(URI publicationId) {
+    this(publicationId, null);
+  }
+}
@@ -24,7 +24,8 @@ public record UpsertNviCandidateRequest(
     PointCalculationDto pointCalculation,
     PublicationDetailsDto publicationDetails,
     Collection<NviCreatorDto> nviCreators,
-    Collection<Organization> topLevelNviOrganizations)
+    Collection<Organization> topLevelNviOrganizations,
+    String evaluationFingerprint)
     implements CandidateType {
 
   private static final boolean ALWAYS_APPLICABLE = true;
@@ -82,6 +83,7 @@ public record UpsertNviCandidateRequest(
     private PublicationDetailsDto publicationDetails;
     private final List<NviCreatorDto> nviCreators = new ArrayList<>();
     private final List<Organization> topLevelNviOrganizations = new ArrayList<>();
+    private String evaluationFingerprint;
 
     private Builder() {}
 
@@ -110,13 +112,19 @@ public record UpsertNviCandidateRequest(
       return this;
     }
 
+    public Builder withEvaluationFingerprint(String evaluationFingerprint) {
+      this.evaluationFingerprint = evaluationFingerprint;
+      return this;
+    }
+
     public UpsertNviCandidateRequest build() {
       return new UpsertNviCandidateRequest(
           publicationBucketUri,
           pointCalculation,
           publicationDetails,
           nviCreators,
-          topLevelNviOrganizations);
+          topLevelNviOrganizations,
+          evaluationFingerprint);
     }
   }
 }
@@ -1,8 +1,12 @@
 package no.sikt.nva.nvi.common.exceptions;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import software.amazon.awssdk.enhanced.dynamodb.model.TransactWriteItemsEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
 import software.amazon.awssdk.services.dynamodb.model.Delete;
 import software.amazon.awssdk.services.dynamodb.model.Put;
 import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
@@ -12,14 +16,41 @@ import software.amazon.awssdk.services.dynamodb.model.Update;
 public class TransactionException extends RuntimeException {
 
   public static final String USER_MESSAGE = "A conflict occurred. Please refresh and try again.";
+  private static final Set<String> THROTTLING_CODES =
+      Set.of("ProvisionedThroughputExceeded", "ThrottlingError", "RequestLimitExceeded");
+  private static final String TRANSACTION_CONFLICT_CODE = "TransactionConflict";
+  private final List<String> cancellationCodes;
 
   public TransactionException(String message) {
+    this(message, List.of());
+  }
+
+  public TransactionException(String message, List<String> cancellationCodes) {
     super(message);
+    this.cancellationCodes = cancellationCodes;
   }
 
   public static TransactionException from(
       TransactionCanceledException exception, TransactWriteItemsEnhancedRequest request) {
-    return new TransactionException(constructErrorMessage(exception, request));
+    var cancellationCodes =
+        exception.cancellationReasons().stream()
+            .map(CancellationReason::code)
+            .filter(Objects::nonNull)
+            .toList();
+    return new TransactionException(constructErrorMessage(exception, request), cancellationCodes);
+  }
+
+  /** Returns true if the transaction was cancelled because DynamoDB throttled one of the items. */
+  public boolean isThrottled() {
+    return cancellationCodes.stream().anyMatch(THROTTLING_CODES::contains);
+  }
+
+  /**
+   * Returns true if the transaction was cancelled because another transaction was writing to one
+   * of the same items at the same time.
+   */
+  public boolean isTransactionConflict() {
+    return cancellationCodes.contains(TRANSACTION_CONFLICT_CODE);
   }
 
   private static String constructErrorMessage(
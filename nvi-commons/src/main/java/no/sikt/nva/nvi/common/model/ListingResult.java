@@ -13,12 +13,22 @@ import java.util.Map;
  *     key for the next page, or null if this is the last page
  * @param itemCount the number of items in this page
  * @param items the items returned in this page
+ * @param consumedCapacity the read capacity units consumed by the request, or zero if unknown
  * @param <T> the type of items in the result
  */
 public record ListingResult<T>(
-    boolean hasNextPage, Map<String, String> lastEvaluatedKey, int itemCount, List<T> items) {
+    boolean hasNextPage,
+    Map<String, String> lastEvaluatedKey,
+    int itemCount,
+    List<T> items,
+    double consumedCapacity) {
 
   public ListingResult {
     items = copyOfNullable(items);
   }
+
+  public ListingResult(
+      boolean hasNextPage, Map<String, String> lastEvaluatedKey, int itemCount, List<T> items) {
+    this(hasNextPage, lastEvaluatedKey, itemCount, items, 0);
+  }
 }
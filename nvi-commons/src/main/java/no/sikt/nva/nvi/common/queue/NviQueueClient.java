@@ -14,7 +14,9 @@ import software.amazon.awssdk.http.apache.ApacheHttpClient;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
 import software.amazon.awssdk.services.sqs.model.DeleteMessageRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
 import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
 import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
 import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
 import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
@@ -81,6 +83,12 @@ public class NviQueueClient implements QueueClient {
     }
   }
 
+  @Override
+  public int getApproximateNumberOfMessages(String queueUrl) {
+    var response = sqsClient.getQueueAttributes(createQueueDepthRequest(queueUrl));
+    return response.attributes().values().stream().mapToInt(Integer::parseInt).sum();
+  }
+
   @JacocoGenerated
   protected static SqsClient defaultSqsClient() {
     return SqsClient.builder()
@@ -152,6 +160,15 @@ public class NviQueueClient implements QueueClient {
         .build();
   }
 
+  private GetQueueAttributesRequest createQueueDepthRequest(String queueUrl) {
+    return GetQueueAttributesRequest.builder()
+        .queueUrl(queueUrl)
+        .attributeNames(
+            QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES,
+            QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES_NOT_VISIBLE)
+        .build();
+  }
+
   private DeleteMessageRequest createDeleteRequest(String queueUrl, String receiptHandle) {
     return DeleteMessageRequest.builder().queueUrl(queueUrl).receiptHandle(receiptHandle).build();
   }
@@ -16,4 +16,10 @@ public interface QueueClient {
   NviReceiveMessageResponse receiveMessage(String queueUrl, int maxNumberOfMessages);
 
   void deleteMessage(String dlqQueueUrl, String receiptHandle);
+
+  /**
+   * Returns the approximate number of messages waiting in or being processed from the queue. The
+   * value is eventually consistent and only suitable for throttling decisions.
+   */
+  int getApproximateNumberOfMessages(String queueUrl);
 }
@@ -1,6 +1,7 @@
 package no.sikt.nva.nvi.common.service;
 
 import static java.util.Collections.emptyList;
+import static no.sikt.nva.nvi.common.db.DynamoRepository.defaultDynamoAsyncClient;
 import static no.sikt.nva.nvi.common.db.DynamoRepository.defaultDynamoClient;
 
 import java.util.List;
@@ -28,7 +29,8 @@ public class ApprovalService {
   @JacocoGenerated
   public static ApprovalService defaultApprovalService() {
     var dynamoClient = defaultDynamoClient();
-    return new ApprovalService(new CandidateRepository(dynamoClient));
+    var dynamoAsyncClient = defaultDynamoAsyncClient();
+    return new ApprovalService(new CandidateRepository(dynamoClient, dynamoAsyncClient));
   }
 
   public void updateApproval(
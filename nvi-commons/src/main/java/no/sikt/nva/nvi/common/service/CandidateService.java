@@ -1,7 +1,10 @@
 package no.sikt.nva.nvi.common.service;
 
 import static java.util.Collections.emptyList;
+import static java.util.Objects.isNull;
 import static java.util.UUID.randomUUID;
+import static java.util.stream.Collectors.toMap;
+import static no.sikt.nva.nvi.common.db.DynamoRepository.defaultDynamoAsyncClient;
 import static no.sikt.nva.nvi.common.db.DynamoRepository.defaultDynamoClient;
 import static no.sikt.nva.nvi.common.service.NviPeriodService.findByPublishingYear;
 import static no.sikt.nva.nvi.common.service.model.Candidate.getApprovalsToDelete;
@@ -11,9 +14,17 @@ import static no.sikt.nva.nvi.common.service.model.Candidate.shouldResetCandidat
 import java.net.URI;
 import java.time.Instant;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import no.sikt.nva.nvi.common.db.ApprovalStatusDao;
+import no.sikt.nva.nvi.common.db.CandidateDao;
 import no.sikt.nva.nvi.common.db.CandidateRepository;
 import no.sikt.nva.nvi.common.db.Dao;
+import no.sikt.nva.nvi.common.db.NoteDao;
 import no.sikt.nva.nvi.common.db.PeriodRepository;
 import no.sikt.nva.nvi.common.db.model.CandidateAggregate;
 import no.sikt.nva.nvi.common.db.model.TableScanRequest;
@@ -28,6 +39,7 @@ import no.sikt.nva.nvi.common.service.model.Candidate;
 import no.sikt.nva.nvi.common.service.model.CandidateAndPeriods;
 import no.sikt.nva.nvi.common.service.model.Note;
 import no.sikt.nva.nvi.common.service.model.NviPeriod;
+import no.sikt.nva.nvi.common.service.model.WriteMode;
 import nva.commons.core.Environment;
 import nva.commons.core.JacocoGenerated;
 import org.slf4j.Logger;
@@ -50,16 +62,33 @@ public class CandidateService {
   @JacocoGenerated
   public static CandidateService defaultCandidateService() {
     var dynamoClient = defaultDynamoClient();
+    var dynamoAsyncClient = defaultDynamoAsyncClient();
     return new CandidateService(
         new Environment(),
-        new PeriodRepository(dynamoClient),
-        new CandidateRepository(dynamoClient));
+        new PeriodRepository(dynamoClient, dynamoAsyncClient),
+        new CandidateRepository(dynamoClient, dynamoAsyncClient));
   }
 
   public void upsertCandidate(UpsertNviCandidateRequest request) {
-    LOGGER.info("Upserting candidate for publicationId={}", request.publicationId());
     request.validate();
-    var candidateContext = findCandidateAndPeriodsByPublicationId(request.publicationId());
+    upsertValidatedCandidate(
+        request, findCandidateAndPeriodsByPublicationId(request.publicationId()));
+  }
+
+  /**
+   * Upserts the candidate using a candidate and periods the caller has already read, for example
+   * during evaluation. The candidate's revision guards the write, so if the candidate was changed
+   * after the context was read, the write fails and the upsert can be retried with a fresh read.
+   */
+  public void upsertCandidate(
+      UpsertNviCandidateRequest request, CandidateAndPeriods candidateContext) {
+    request.validate();
+    upsertValidatedCandidate(request, candidateContext);
+  }
+
+  private void upsertValidatedCandidate(
+      UpsertNviCandidateRequest request, CandidateAndPeriods candidateContext) {
+    LOGGER.info("Upserting candidate for publicationId={}", request.publicationId());
     var targetPeriod =
         findByPublishingYear(candidateContext.allPeriods(), request.publicationYear())
             .orElseThrow(PeriodNotFoundException.forYear(request.publicationYear()));
@@ -82,13 +111,27 @@ public class CandidateService {
   }
 
   public void refreshCandidate(UUID candidateIdentifier) {
+    refreshCandidate(candidateIdentifier, WriteMode.SKIP_UNCHANGED);
+  }
+
+  /**
+   * Rewrites the persisted data for a candidate. Unless forced, only items where the persisted
+   * representation differs from what the current model would write are rewritten.
+   */
+  public void refreshCandidate(UUID candidateIdentifier, WriteMode writeMode) {
     LOGGER.info("Refreshing persisted data for candidateIdentifier={}", candidateIdentifier);
-    var candidate = getCandidateByIdentifier(candidateIdentifier);
-    updateCandidate(candidate);
+    var candidateFuture = candidateRepository.getCandidateAggregateAsync(candidateIdentifier);
+    var periodsFuture = periodService.getAllAsync();
+    var persistedAggregate =
+        CandidateAggregate.fromQueryResponse(candidateFuture.join())
+            .orElseThrow(CandidateNotFoundException::new);
+    var candidate = persistedAggregate.toCandidate(periodsFuture.join());
+    updateCandidate(candidate, persistedAggregate, writeMode);
   }
 
   private void updateCandidate(
       UpsertNviCandidateRequest request, Candidate candidate, NviPeriod targetPeriod) {
+    var persistedAggregate = CandidateAggregate.fromCandidate(candidate);
     var updatedCandidate = candidate.apply(request, targetPeriod);
     if (shouldResetCandidate(request, candidate) || !candidate.isApplicable()) {
       LOGGER.info("Resetting all approvals for candidate {}", candidate.identifier());
@@ -99,8 +142,13 @@ public class CandidateService {
               .toList();
       var approvalsToDelete = getApprovalsToDelete(candidate, updatedCandidate);
 
-      candidateRepository.updateCandidateAggregate(
-          updatedCandidate.toDao(), approvalsToReset, approvalsToDelete, emptyList());
+      writeChanges(
+          persistedAggregate,
+          updatedCandidate.toDao(),
+          approvalsToReset,
+          approvalsToDelete,
+          emptyList(),
+          WriteMode.SKIP_UNCHANGED);
     } else {
       var institutionsToReset = getUpdatedInstitutionPoints(candidate, updatedCandidate);
       var approvalsToReset =
@@ -111,33 +159,100 @@ public class CandidateService {
           "Resetting individual approvals for candidate {}: {}",
           candidate.identifier(),
           approvalsToReset);
-      candidateRepository.updateCandidateAggregate(
-          updatedCandidate.toDao(), approvalsToReset, emptyList(), emptyList());
+      writeChanges(
+          persistedAggregate,
+          updatedCandidate.toDao(),
+          approvalsToReset,
+          emptyList(),
+          emptyList(),
+          WriteMode.SKIP_UNCHANGED);
     }
   }
 
   public void updateCandidate(Candidate candidate) {
+    updateCandidate(candidate, WriteMode.SKIP_UNCHANGED);
+  }
+
+  /**
+   * Saves the candidate with all its approvals and notes. Unless forced, the persisted aggregate
+   * is read first, so that only changed items are written and unchanged candidates are skipped.
+   */
+  public void updateCandidate(Candidate candidate, WriteMode writeMode) {
+    var persistedAggregate =
+        writeMode == WriteMode.FORCE ? null : findPersistedAggregate(candidate.identifier());
+    updateCandidate(candidate, persistedAggregate, writeMode);
+  }
+
+  private void updateCandidate(
+      Candidate candidate, CandidateAggregate persistedAggregate, WriteMode writeMode) {
     LOGGER.info("Saving candidate aggregate for publicationId={}", candidate.getPublicationId());
     var approvals = candidate.approvals().values().stream().map(Approval::toDao).toList();
     var notes = candidate.notes().values().stream().map(Note::toDao).toList();
-    candidateRepository.updateCandidateAggregate(candidate.toDao(), approvals, emptyList(), notes);
+    writeChanges(persistedAggregate, candidate.toDao(), approvals, emptyList(), notes, writeMode);
+  }
+
+  /**
+   * Writes the items that differ from the persisted aggregate. If the candidate item itself is
+   * unchanged, its revision is only checked instead of written, and if nothing has changed the
+   * write is skipped. Without a persisted aggregate, or when forced, all items are written.
+   */
+  private void writeChanges(
+      CandidateAggregate persistedAggregate,
+      CandidateDao candidate,
+      Collection<ApprovalStatusDao> approvalsToUpdate,
+      Collection<ApprovalStatusDao> approvalsToDelete,
+      Collection<NoteDao> notesToUpdate,
+      WriteMode writeMode) {
+    if (writeMode == WriteMode.FORCE || isNull(persistedAggregate)) {
+      candidateRepository.updateCandidateAggregate(
+          candidate, approvalsToUpdate, approvalsToDelete, notesToUpdate);
+      return;
+    }
+
+    var changedApprovals = persistedAggregate.getChangedApprovals(approvalsToUpdate);
+    var changedNotes = persistedAggregate.getChangedNotes(notesToUpdate);
+    var hasChangedItems =
+        !changedApprovals.isEmpty() || !approvalsToDelete.isEmpty() || !changedNotes.isEmpty();
+    if (!persistedAggregate.hasSameCandidateAs(candidate)) {
+      candidateRepository.updateCandidateAggregate(
+          candidate, changedApprovals, approvalsToDelete, changedNotes);
+    } else if (hasChangedItems) {
+      candidateRepository.updateCandidateItems(
+          candidate, changedApprovals, approvalsToDelete, changedNotes);
+    } else {
+      LOGGER.info("Skipping write of unchanged candidate {}", candidate.identifier());
+    }
   }
 
   public void updateCandidate(UpsertNonNviCandidateRequest request) {
+    updateCandidate(request, findCandidateAndPeriodsByPublicationId(request.publicationId()));
+  }
+
+  /**
+   * Updates the candidate to a non-candidate using a candidate the caller has already read. As for
+   * {@link #upsertCandidate(UpsertNviCandidateRequest, CandidateAndPeriods)}, the write fails if
+   * the candidate was changed after it was read.
+   */
+  public void updateCandidate(
+      UpsertNonNviCandidateRequest request, CandidateAndPeriods candidateContext) {
     var publicationId = request.publicationId();
     LOGGER.info("Updating candidate for publicationId={} to non-candidate", publicationId);
-    var candidateContext = findCandidateAndPeriodsByPublicationId(publicationId);
     var optionalCandidate = candidateContext.getCandidate();
 
     if (optionalCandidate.isEmpty()) {
       LOGGER.warn("No candidate found for publicationId={}", publicationId);
     } else {
       var candidate = optionalCandidate.get();
-      var updatedCandidate = candidate.updateToNonCandidate();
+      var updatedCandidate = candidate.updateToNonCandidate(request.evaluationFingerprint());
       var approvalsToDelete = candidate.approvals().values().stream().map(Approval::toDao).toList();
 
-      candidateRepository.updateCandidateAggregate(
-          updatedCandidate.toDao(), emptyList(), approvalsToDelete, emptyList());
+      writeChanges(
+          CandidateAggregate.fromCandidate(candidate),
+          updatedCandidate.toDao(),
+          emptyList(),
+          approvalsToDelete,
+          emptyList(),
+          WriteMode.SKIP_UNCHANGED);
       LOGGER.info("Successfully updated publicationId={} to non-candidate", publicationId);
     }
   }
@@ -147,10 +262,15 @@ public class CandidateService {
    * corresponding reporting period and is now immutable.
    */
   public void reportCandidate(UUID candidateIdentifier, Instant reportedDate) {
-    LOGGER.info("Updating candidate with identifier={} to reported", candidateIdentifier);
-    var candidate = getCandidateByIdentifier(candidateIdentifier);
+    reportCandidate(getCandidateByIdentifier(candidateIdentifier), reportedDate);
+  }
+
+  /** Marks a candidate the caller has already read as `reported`. */
+  public void reportCandidate(Candidate candidate, Instant reportedDate) {
+    LOGGER.info("Updating candidate with identifier={} to reported", candidate.identifier());
     var reportedCandidate = candidate.updateToReportedCandidate(reportedDate);
-    updateCandidate(reportedCandidate);
+    updateCandidate(
+        reportedCandidate, CandidateAggregate.fromCandidate(candidate), WriteMode.SKIP_UNCHANGED);
   }
 
   public Candidate getCandidateByIdentifier(UUID candidateIdentifier) {
@@ -159,6 +279,22 @@ public class CandidateService {
     return responseContext.getCandidate().orElseThrow(CandidateNotFoundException::new);
   }
 
+  /**
+   * Fetches several candidates with their approvals and notes. The periods are fetched once for
+   * all of them, and at most {@code maxConcurrency} candidates are read at a time. Candidates that
+   * do not exist are not included in the result.
+   */
+  public Map<UUID, Candidate> getCandidatesByIdentifiers(
+      Collection<UUID> candidateIdentifiers, int maxConcurrency) {
+    if (candidateIdentifiers.isEmpty()) {
+      return Map.of();
+    }
+    var aggregatesFuture =
+        candidateRepository.getCandidateAggregatesAsync(candidateIdentifiers, maxConcurrency);
+    var periodsFuture = periodService.getAllAsync();
+    return aggregatesFuture.thenCombine(periodsFuture, CandidateService::toCandidates).join();
+  }
+
   public Candidate getCandidateByPublicationId(URI publicationId) {
     LOGGER.info("Fetching candidate by publication id {}", publicationId);
     var responseContext = findCandidateAndPeriodsByPublicationId(publicationId);
@@ -176,6 +312,58 @@ public class CandidateService {
     return findCandidateAndPeriodsByIdentifier(candidateIdentifier.get());
   }
 
+  /**
+   * Finds the candidate for a publication, using periods the caller has already fetched instead of
+   * reading them again. Useful when many publications are evaluated against the same periods.
+   */
+  public CandidateAndPeriods findCandidateAndPeriodsByPublicationId(
+      URI publicationId, Collection<NviPeriod> periods) {
+    LOGGER.info("Fetching candidate by publication id {}", publicationId);
+    var candidateIdentifier = candidateRepository.findByPublicationId(publicationId);
+
+    if (candidateIdentifier.isEmpty()) {
+      LOGGER.info("No candidate found for publicationId={}", publicationId);
+      return new CandidateAndPeriods(null, periods);
+    }
+    return candidateRepository
+        .getCandidateAggregateAsync(candidateIdentifier.get())
+        .thenApply(candidateItems -> mergeCandidateAndPeriods(candidateItems, periods))
+        .join();
+  }
+
+  /**
+   * Same as {@link #findCandidateAndPeriodsByPublicationId(URI, Collection)}, without blocking the
+   * calling thread while waiting for DynamoDB.
+   */
+  public CompletableFuture<CandidateAndPeriods> findCandidateAndPeriodsByPublicationIdAsync(
+      URI publicationId, Collection<NviPeriod> periods) {
+    return candidateRepository
+        .findByPublicationIdAsync(publicationId)
+        .thenCompose(
+            candidateIdentifier ->
+                candidateIdentifier
+                    .map(candidateRepository::getCandidateAggregateAsync)
+                    .orElseGet(() -> CompletableFuture.completedFuture(emptyList())))
+        .thenApply(candidateItems -> mergeCandidateAndPeriods(candidateItems, periods));
+  }
+
+  /**
+   * Fetches a candidate with its approvals and notes, and all periods, without blocking the
+   * calling thread while waiting for DynamoDB. The candidate is empty if it does not exist.
+   */
+  public CompletableFuture<CandidateAndPeriods> findCandidateAndPeriodsByIdentifierAsync(
+      UUID candidateIdentifier) {
+    LOGGER.info("Fetching candidate and periods by identifier {}", candidateIdentifier);
+    var candidateFuture = candidateRepository.getCandidateAggregateAsync(candidateIdentifier);
+    var periodsFuture = periodService.getAllAsync();
+
+    return candidateFuture.thenCombine(periodsFuture, this::mergeCandidateAndPeriods);
+  }
+
+  public List<NviPeriod> getAllPeriods() {
+    return periodService.getAll();
+  }
+
   public ListingResult<UUID> listCandidateIdentifiers(TableScanRequest request) {
     return candidateRepository.weaklyConsistentCandidateScan(request);
   }
@@ -185,11 +373,22 @@ public class CandidateService {
   }
 
   private CandidateAndPeriods findCandidateAndPeriodsByIdentifier(UUID candidateIdentifier) {
-    LOGGER.info("Fetching candidate and periods by identifier {}", candidateIdentifier);
-    var candidateFuture = candidateRepository.getCandidateAggregateAsync(candidateIdentifier);
-    var periodsFuture = periodService.getAllAsync();
+    return findCandidateAndPeriodsByIdentifierAsync(candidateIdentifier).join();
+  }
+
+  private CandidateAggregate findPersistedAggregate(UUID candidateIdentifier) {
+    return CandidateAggregate.fromQueryResponse(
+            candidateRepository.getCandidateAggregateAsync(candidateIdentifier).join())
+        .orElse(null);
+  }
 
-    return candidateFuture.thenCombine(periodsFuture, this::mergeCandidateAndPeriods).join();
+  private static Map<UUID, Candidate> toCandidates(
+      Map<UUID, List<Dao>> candidateItems, List<NviPeriod> periods) {
+    return candidateItems.values().stream()
+        .map(CandidateAggregate::fromQueryResponse)
+        .flatMap(Optional::stream)
+        .map(aggregate -> aggregate.toCandidate(periods))
+        .collect(toMap(Candidate::identifier, Function.identity()));
   }
 
   private CandidateAndPeriods mergeCandidateAndPeriods(
@@ -1,6 +1,7 @@
 package no.sikt.nva.nvi.common.service;
 
 import static java.util.Collections.emptyList;
+import static no.sikt.nva.nvi.common.db.DynamoRepository.defaultDynamoAsyncClient;
 import static no.sikt.nva.nvi.common.db.DynamoRepository.defaultDynamoClient;
 
 import java.util.List;
@@ -24,7 +25,8 @@ public class NoteService {
   @JacocoGenerated
   public static NoteService defaultNoteService() {
     var dynamoClient = defaultDynamoClient();
-    return new NoteService(new CandidateRepository(dynamoClient));
+    var dynamoAsyncClient = defaultDynamoAsyncClient();
+    return new NoteService(new CandidateRepository(dynamoClient, dynamoAsyncClient));
   }
 
   public void createNote(Candidate candidate, CreateNoteRequest request) {
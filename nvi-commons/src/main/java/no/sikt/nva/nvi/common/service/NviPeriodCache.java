@@ -0,0 +1,166 @@
+package no.sikt.nva.nvi.common.service;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import no.sikt.nva.nvi.common.db.NviPeriodDao;
+import no.sikt.nva.nvi.common.db.PeriodRepository;
+import no.sikt.nva.nvi.common.service.model.NviPeriod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Process-wide cache of all NVI periods, shared by every {@link NviPeriodService} that uses the
+ * same {@link PeriodRepository}. Periods change a handful of times a year, so the full list is
+ * kept in memory until it expires or until a write through the repository changes its write
+ * version.
+ *
+ * <p>Expiry uses wall-clock time instead of {@link System#nanoTime()}, so entries loaded before a
+ * Lambda SnapStart snapshot are treated as stale after the snapshot is restored.
+ */
+public final class NviPeriodCache {
+
+  public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(5);
+  private static final Logger LOGGER = LoggerFactory.getLogger(NviPeriodCache.class);
+  private static final Map<PeriodRepository, NviPeriodCache> SHARED_CACHES =
+      Collections.synchronizedMap(new WeakHashMap<>());
+  private final Duration timeToLive;
+  private final Clock clock;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong stale = new AtomicLong();
+  private final AtomicReference<CachedPeriods> cachedPeriods = new AtomicReference<>();
+  private final ReentrantLock reloadLock = new ReentrantLock();
+  private final AtomicReference<CompletableFuture<List<NviPeriod>>> pendingAsyncReload =
+      new AtomicReference<>();
+
+  public NviPeriodCache(Duration timeToLive, Clock clock) {
+    this.timeToLive = timeToLive;
+    this.clock = clock;
+  }
+
+  /** Returns the cache shared by all services using the given repository. */
+  public static NviPeriodCache forRepository(PeriodRepository periodRepository) {
+    return SHARED_CACHES.computeIfAbsent(periodRepository, repository -> createDefaultCache());
+  }
+
+  private static NviPeriodCache createDefaultCache() {
+    return new NviPeriodCache(DEFAULT_TIME_TO_LIVE, Clock.systemUTC());
+  }
+
+  public List<NviPeriod> getAll(PeriodRepository periodRepository) {
+    return findFresh(periodRepository).orElseGet(() -> reload(periodRepository));
+  }
+
+  /**
+   * Returns the cached periods if they are still valid, or reloads them with a non-blocking query.
+   * Concurrent callers share the same pending reload instead of sending their own query.
+   */
+  public CompletableFuture<List<NviPeriod>> getAllAsync(PeriodRepository periodRepository) {
+    var freshPeriods = findFresh(periodRepository);
+    if (freshPeriods.isPresent()) {
+      return CompletableFuture.completedFuture(freshPeriods.get());
+    }
+
+    var newReload = new CompletableFuture<List<NviPeriod>>();
+    var pendingReload = pendingAsyncReload.compareAndExchange(null, newReload);
+    if (nonNull(pendingReload)) {
+      return pendingReload;
+    }
+
+    var writeVersion = periodRepository.getWriteVersion();
+    countReload(cachedPeriods.get());
+    periodRepository
+        .getPeriodsAsync()
+        .thenApply(periodDaos -> store(periodDaos, writeVersion))
+        .whenComplete(
+            (periods, failure) -> {
+              pendingAsyncReload.set(null);
+              if (nonNull(failure)) {
+                newReload.completeExceptionally(failure);
+              } else {
+                newReload.complete(periods);
+              }
+            });
+    return newReload;
+  }
+
+  /** Returns the cached periods if they are still valid, without querying the repository. */
+  public Optional<List<NviPeriod>> findFresh(PeriodRepository periodRepository) {
+    var current = cachedPeriods.get();
+    if (isFresh(current, periodRepository.getWriteVersion())) {
+      hits.incrementAndGet();
+      return Optional.of(current.periods());
+    }
+    return Optional.empty();
+  }
+
+  public void invalidate() {
+    cachedPeriods.set(null);
+  }
+
+  public Statistics getStatistics() {
+    return new Statistics(hits.get(), misses.get(), stale.get());
+  }
+
+  /**
+   * Reloads the periods from the repository. Concurrent callers wait for the first reload instead
+   * of sending their own query.
+   */
+  private List<NviPeriod> reload(PeriodRepository periodRepository) {
+    reloadLock.lock();
+    try {
+      var current = cachedPeriods.get();
+      var writeVersion = periodRepository.getWriteVersion();
+      if (isFresh(current, writeVersion)) {
+        hits.incrementAndGet();
+        return current.periods();
+      }
+
+      countReload(current);
+      return store(periodRepository.getPeriods(), writeVersion);
+    } finally {
+      reloadLock.unlock();
+    }
+  }
+
+  private void countReload(CachedPeriods current) {
+    if (isNull(current)) {
+      misses.incrementAndGet();
+    } else {
+      stale.incrementAndGet();
+    }
+  }
+
+  private List<NviPeriod> store(Collection<NviPeriodDao> periodDaos, long writeVersion) {
+    var periods = periodDaos.stream().map(NviPeriod::fromDao).toList();
+    cachedPeriods.set(new CachedPeriods(periods, writeVersion, clock.instant()));
+    LOGGER.info("Loaded {} periods into cache, statistics: {}", periods.size(), getStatistics());
+    return periods;
+  }
+
+  private boolean isFresh(CachedPeriods entry, long writeVersion) {
+    if (isNull(entry) || entry.writeVersion() != writeVersion) {
+      return false;
+    }
+    var age = Duration.between(entry.loadedAt(), clock.instant());
+    return !age.isNegative() && age.compareTo(timeToLive) < 0;
+  }
+
+  public record Statistics(long hits, long misses, long stale) {}
+
+  private record CachedPeriods(List<NviPeriod> periods, long writeVersion, Instant loadedAt) {}
+}
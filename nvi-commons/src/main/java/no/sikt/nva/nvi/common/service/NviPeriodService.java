@@ -1,5 +1,6 @@
 package no.sikt.nva.nvi.common.service;
 
+import static no.sikt.nva.nvi.common.db.DynamoRepository.defaultDynamoAsyncClient;
 import static no.sikt.nva.nvi.common.db.DynamoRepository.defaultDynamoClient;
 
 import java.net.URI;
@@ -27,16 +28,25 @@ public class NviPeriodService {
   private static final String SCIENTIFIC_INDEX_API_PATH = "scientific-index";
   private final Environment environment;
   private final PeriodRepository periodRepository;
+  private final NviPeriodCache periodCache;
 
   public NviPeriodService(Environment environment, PeriodRepository periodRepository) {
+    this(environment, periodRepository, NviPeriodCache.forRepository(periodRepository));
+  }
+
+  public NviPeriodService(
+      Environment environment, PeriodRepository periodRepository, NviPeriodCache periodCache) {
     this.environment = environment;
     this.periodRepository = periodRepository;
+    this.periodCache = periodCache;
   }
 
   @JacocoGenerated
   public static NviPeriodService defaultNviPeriodService() {
     var dynamoClient = defaultDynamoClient();
-    return new NviPeriodService(new Environment(), new PeriodRepository(dynamoClient));
+    var dynamoAsyncClient = defaultDynamoAsyncClient();
+    return new NviPeriodService(
+        new Environment(), new PeriodRepository(dynamoClient, dynamoAsyncClient));
   }
 
   public void create(CreatePeriodRequest request) {
@@ -49,6 +59,7 @@ public class NviPeriodService {
 
     var updatedPeriod = createNewPeriodFromRequest(request).toDao();
     periodRepository.create(updatedPeriod);
+    periodCache.invalidate();
     LOGGER.info("Created new period successfully");
   }
 
@@ -60,6 +71,7 @@ public class NviPeriodService {
 
     var updatedPeriod = currentPeriod.updateWithRequest(request).toDao();
     periodRepository.update(updatedPeriod);
+    periodCache.invalidate();
     LOGGER.info("Updated period successfully");
   }
 
@@ -67,6 +79,7 @@ public class NviPeriodService {
     LOGGER.info("Refreshing persisted data for year={}", year);
     var period = getByPublishingYear(year);
     periodRepository.update(period.toDao());
+    periodCache.invalidate();
   }
 
   public NviPeriod getByPublishingYear(String publishingYear) {
@@ -74,12 +87,18 @@ public class NviPeriodService {
         .orElseThrow(PeriodNotFoundException.forYear(publishingYear));
   }
 
+  /** Returns all periods, served from the shared period cache when it is still valid. */
   public List<NviPeriod> getAll() {
-    return periodRepository.getPeriods().stream().map(NviPeriod::fromDao).toList();
+    return periodCache.getAll(periodRepository);
   }
 
+  /** Returns all periods without blocking the calling thread if they have to be reloaded. */
   public CompletableFuture<List<NviPeriod>> getAllAsync() {
-    return CompletableFuture.supplyAsync(this::getAll);
+    return periodCache.getAllAsync(periodRepository);
+  }
+
+  public NviPeriodCache.Statistics getCacheStatistics() {
+    return periodCache.getStatistics();
   }
 
   public Optional<NviPeriod> findByPublishingYear(String publishingYear) {
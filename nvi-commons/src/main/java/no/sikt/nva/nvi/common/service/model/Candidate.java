@@ -70,6 +70,7 @@ public record Candidate(
     Instant modifiedDate,
     ReportStatus reportStatus,
     Instant reportedDate,
+    String evaluationFingerprint,
     Long revision,
     UUID version) {
 
@@ -105,6 +106,7 @@ public record Candidate(
         .withModifiedDate(dbCandidate.modifiedDate())
         .withReportStatus(dbCandidate.reportStatus())
         .withReportedDate(dbCandidate.reportedDate())
+        .withEvaluationFingerprint(candidateDao.evaluationFingerprint())
         .withRevision(candidateDao.revision())
         .withVersion(version)
         .build();
@@ -131,6 +133,7 @@ public record Candidate(
         .withPublicationDetails(PublicationDetails.from(request))
         .withCreatedDate(createdAt)
         .withModifiedDate(createdAt)
+        .withEvaluationFingerprint(request.evaluationFingerprint())
         .build();
   }
 
@@ -147,6 +150,7 @@ public record Candidate(
         .withPointCalculation(PointCalculation.from(request))
         .withPublicationDetails(PublicationDetails.from(request))
         .withPeriod(targetPeriod)
+        .withEvaluationFingerprint(request.evaluationFingerprint())
         .withModifiedDate(Instant.now())
         .build();
   }
@@ -156,6 +160,14 @@ public record Candidate(
    * publication details and curator notes, is kept.
    */
   public Candidate updateToNonCandidate() {
+    return updateToNonCandidate(evaluationFingerprint);
+  }
+
+  /**
+   * Returns a copy of the Candidate with relevant fields removed/reset, recording the fingerprint
+   * of the evaluation that found the publication to be a non-candidate.
+   */
+  public Candidate updateToNonCandidate(String fingerprint) {
     if (isReported()) {
       throw new IllegalCandidateUpdateException(CANDIDATE_IS_REPORTED);
     }
@@ -166,6 +178,7 @@ public record Candidate(
         .withPeriod(null)
         .withApplicable(false)
         .withApprovals(emptyMap())
+        .withEvaluationFingerprint(fingerprint)
         .withModifiedDate(Instant.now())
         .build();
   }
@@ -225,6 +238,7 @@ public record Candidate(
         .revision(revision)
         .version(daoVersion)
         .periodYear(periodYear)
+        .evaluationFingerprint(evaluationFingerprint)
         .build();
   }
 
@@ -532,6 +546,7 @@ public record Candidate(
         .withCreatedDate(createdDate())
         .withPointCalculation(pointCalculation())
         .withPublicationDetails(publicationDetails())
+        .withEvaluationFingerprint(evaluationFingerprint())
         .withRevision(revision())
         .withVersion(version());
   }
@@ -595,6 +610,7 @@ public record Candidate(
     private Instant modifiedDate;
     private ReportStatus reportStatus;
     private Instant reportedDate;
+    private String evaluationFingerprint;
     private Long revision;
     private UUID version;
 
@@ -655,6 +671,11 @@ public record Candidate(
       return this;
     }
 
+    public Builder withEvaluationFingerprint(String evaluationFingerprint) {
+      this.evaluationFingerprint = evaluationFingerprint;
+      return this;
+    }
+
     public Builder withRevision(Long revision) {
       this.revision = revision;
       return this;
@@ -678,6 +699,7 @@ public record Candidate(
           modifiedDate,
           reportStatus,
           reportedDate,
+          evaluationFingerprint,
           revision,
           version);
     }
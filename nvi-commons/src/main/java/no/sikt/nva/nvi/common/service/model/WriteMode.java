@@ -0,0 +1,16 @@
+package no.sikt.nva.nvi.common.service.model;
+
+/** Controls how a candidate aggregate is written when some of its items are unchanged. */
+public enum WriteMode {
+  /**
+   * Writes only the items that differ from the persisted aggregate, and skips the write entirely
+   * if nothing has changed.
+   */
+  SKIP_UNCHANGED,
+
+  /**
+   * Writes all items, even if they are unchanged. Intended for migrations and explicit refreshes,
+   * where the point of the write is to rewrite the items and trigger downstream processing.
+   */
+  FORCE
+}
@@ -0,0 +1,32 @@
+package no.sikt.nva.nvi.common.utils;
+
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+public final class ConcurrencyUtils {
+
+  private ConcurrencyUtils() {}
+
+  /**
+   * Waits for a permit. An interrupt is rethrown as an unchecked exception, with the interrupt flag
+   * of the thread restored.
+   */
+  public static void acquire(Semaphore permits) {
+    try {
+      permits.acquire();
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for permit", exception);
+    }
+  }
+
+  /** Runs the task while holding a permit, and releases the permit when the task completes. */
+  public static <T> T withPermit(Semaphore permits, Supplier<T> task) {
+    acquire(permits);
+    try {
+      return task.get();
+    } finally {
+      permits.release();
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package no.sikt.nva.nvi.common.utils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static nva.commons.core.attempt.Try.attempt;
+
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+public final class HashUtils {
+
+  private static final String SHA_256 = "SHA-256";
+
+  private HashUtils() {}
+
+  /** Returns the hex encoded SHA-256 digest of the UTF-8 bytes of the given values, in order. */
+  public static String sha256Hex(String... values) {
+    var digest = attempt(() -> MessageDigest.getInstance(SHA_256)).orElseThrow();
+    for (var value : values) {
+      digest.update(value.getBytes(UTF_8));
+      digest.update((byte) 0);
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+}
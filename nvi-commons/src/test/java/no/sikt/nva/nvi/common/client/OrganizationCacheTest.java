@@ -0,0 +1,112 @@
+package no.sikt.nva.nvi.common.client;
+
+import static no.sikt.nva.nvi.common.model.OrganizationFixtures.randomTopLevelOrganization;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import no.sikt.nva.nvi.common.client.model.Organization;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OrganizationCacheTest {
+
+  private static final Duration TIME_TO_LIVE = Duration.ofHours(1);
+  private static final Instant START_TIME = Instant.parse("2025-01-01T00:00:00Z");
+  private static final int MAX_SIZE = 10;
+  private final List<URI> loadedOrganizations = new ArrayList<>();
+  private Clock clock;
+  private OrganizationCache organizationCache;
+
+  @BeforeEach
+  void setUp() {
+    clock = mock(Clock.class);
+    when(clock.instant()).thenReturn(START_TIME);
+    organizationCache = new OrganizationCache(TIME_TO_LIVE, MAX_SIZE, clock);
+  }
+
+  @Test
+  void shouldLoadOrganizationOnlyOnceWithinTimeToLive() {
+    var organization = randomTopLevelOrganization();
+    var loader = loaderReturning(organization);
+
+    organizationCache.get(organization.id(), loader);
+    var cachedOrganization = organizationCache.get(organization.id(), loader);
+
+    assertThat(cachedOrganization).isEqualTo(organization);
+    assertThat(loadedOrganizations).containsExactly(organization.id());
+    assertThat(organizationCache.getHitCount()).isEqualTo(1);
+    assertThat(organizationCache.getMissCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldReloadOrganizationWhenTimeToLiveHasPassed() {
+    var organization = randomTopLevelOrganization();
+    var loader = loaderReturning(organization);
+
+    organizationCache.get(organization.id(), loader);
+    when(clock.instant()).thenReturn(START_TIME.plus(TIME_TO_LIVE));
+    organizationCache.get(organization.id(), loader);
+
+    assertThat(loadedOrganizations).hasSize(2);
+  }
+
+  @Test
+  void shouldNotCacheFailedLoads() {
+    var organization = randomTopLevelOrganization();
+    Function<URI, Organization> failingLoader =
+        id -> {
+          throw new IllegalStateException("Cristin is unavailable");
+        };
+
+    assertThatThrownBy(() -> organizationCache.get(organization.id(), failingLoader))
+        .isInstanceOf(IllegalStateException.class);
+    var loadedOrganization =
+        organizationCache.get(organization.id(), loaderReturning(organization));
+
+    assertThat(loadedOrganization).isEqualTo(organization);
+    assertThat(loadedOrganizations).containsExactly(organization.id());
+  }
+
+  @Test
+  void shouldEvictOldestEntriesWhenMaxSizeIsExceeded() {
+    var firstOrganization = randomTopLevelOrganization();
+    organizationCache.get(firstOrganization.id(), loaderReturning(firstOrganization));
+    when(clock.instant()).thenReturn(START_TIME.plusSeconds(1));
+    for (var i = 0; i < MAX_SIZE; i++) {
+      var organization = randomTopLevelOrganization();
+      organizationCache.get(organization.id(), loaderReturning(organization));
+    }
+
+    assertThat(organizationCache.size()).isLessThanOrEqualTo(MAX_SIZE);
+    organizationCache.get(firstOrganization.id(), loaderReturning(firstOrganization));
+    assertThat(loadedOrganizations).filteredOn(firstOrganization.id()::equals).hasSize(2);
+  }
+
+  @Test
+  void shouldNotStoreEntriesWhenMaxSizeIsZero() {
+    var uncachedCache = new OrganizationCache(TIME_TO_LIVE, 0, clock);
+    var organization = randomTopLevelOrganization();
+
+    uncachedCache.get(organization.id(), loaderReturning(organization));
+    uncachedCache.get(organization.id(), loaderReturning(organization));
+
+    assertThat(uncachedCache.size()).isZero();
+    assertThat(loadedOrganizations).hasSize(2);
+  }
+
+  private Function<URI, Organization> loaderReturning(Organization organization) {
+    return id -> {
+      loadedOrganizations.add(id);
+      return organization;
+    };
+  }
+}
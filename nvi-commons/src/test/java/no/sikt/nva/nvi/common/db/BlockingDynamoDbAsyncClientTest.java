@@ -0,0 +1,52 @@
+package no.sikt.nva.nvi.common.db;
+
+import static no.sikt.nva.nvi.common.utils.ApplicationConstants.NVI_TABLE_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+
+class BlockingDynamoDbAsyncClientTest {
+
+  private DynamoDbClient dynamodb;
+  private BlockingDynamoDbAsyncClient asyncClient;
+
+  @BeforeEach
+  void setUp() {
+    dynamodb = mock(DynamoDbClient.class);
+    asyncClient = new BlockingDynamoDbAsyncClient(dynamodb);
+  }
+
+  @AfterEach
+  void tearDown() {
+    asyncClient.close();
+  }
+
+  @Test
+  void shouldServeQueryWithSynchronousClient() {
+    var request = QueryRequest.builder().tableName(NVI_TABLE_NAME).build();
+    var expectedResponse = QueryResponse.builder().count(1).build();
+    when(dynamodb.query(request)).thenReturn(expectedResponse);
+
+    assertThat(asyncClient.query(request).join()).isEqualTo(expectedResponse);
+  }
+
+  @Test
+  void shouldFailAtOnceOnUnsupportedOperations() {
+    var scanRequest = ScanRequest.builder().tableName(NVI_TABLE_NAME).build();
+    var writeRequest = BatchWriteItemRequest.builder().build();
+
+    assertThrows(UnsupportedOperationException.class, () -> asyncClient.scan(scanRequest));
+    assertThrows(
+        UnsupportedOperationException.class, () -> asyncClient.batchWriteItem(writeRequest));
+  }
+}
@@ -18,14 +18,18 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import no.sikt.nva.nvi.common.TestScenario;
 import no.sikt.nva.nvi.common.db.model.TableScanRequest;
 import no.sikt.nva.nvi.common.exceptions.TransactionException;
 import no.sikt.nva.nvi.common.model.InstanceType;
 import no.sikt.nva.nvi.common.service.CandidateService;
+import no.sikt.nva.nvi.common.service.model.Candidate;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -88,10 +92,64 @@ class CandidateRepositoryTest {
     Assertions.assertThat(candidatesInDb.items()).hasSize(1);
   }
 
+  @Test
+  void shouldFindCandidateAsynchronouslyByPublicationId() {
+    var request = createUpsertCandidateRequest(randomUri()).build();
+    candidateService.upsertCandidate(request);
+    var expectedIdentifier = candidateRepository.findByPublicationId(request.publicationId());
+
+    var periods = candidateService.getAllPeriods();
+    var candidateAndPeriods =
+        candidateService
+            .findCandidateAndPeriodsByPublicationIdAsync(request.publicationId(), periods)
+            .join();
+
+    Assertions.assertThat(candidateRepository.findByPublicationIdAsync(request.publicationId()))
+        .succeedsWithin(Duration.ofSeconds(10))
+        .isEqualTo(expectedIdentifier);
+    Assertions.assertThat(candidateAndPeriods.getCandidate())
+        .map(Candidate::identifier)
+        .isEqualTo(expectedIdentifier);
+  }
+
+  @Test
+  void shouldReturnEmptyCandidateAsynchronouslyForUnknownPublicationId() {
+    var periods = candidateService.getAllPeriods();
+
+    var candidateAndPeriods =
+        candidateService.findCandidateAndPeriodsByPublicationIdAsync(randomUri(), periods).join();
+
+    Assertions.assertThat(candidateAndPeriods.getCandidate()).isEmpty();
+  }
+
+  @Test
+  void shouldLoadExistingCandidatesInBulkAndSkipUnknownIdentifiers() {
+    var publicationIds = List.of(randomUri(), randomUri(), randomUri());
+    publicationIds.forEach(
+        publicationId ->
+            candidateService.upsertCandidate(createUpsertCandidateRequest(publicationId).build()));
+    var identifiers =
+        publicationIds.stream()
+            .map(candidateRepository::findByPublicationId)
+            .map(Optional::orElseThrow)
+            .toList();
+    var unknownIdentifier = randomUUID();
+
+    var requestedIdentifiers = new ArrayList<>(identifiers);
+    requestedIdentifiers.add(unknownIdentifier);
+    var candidates = candidateService.getCandidatesByIdentifiers(requestedIdentifiers, 2);
+
+    Assertions.assertThat(candidates).containsOnlyKeys(identifiers);
+    Assertions.assertThat(candidates.values())
+        .extracting(Candidate::getPublicationId)
+        .containsExactlyInAnyOrderElementsOf(publicationIds);
+  }
+
   @Test
   void shouldThrowTransactionExceptionWhenFailingOnSendingTransaction() {
     var client = mock(DynamoDbClient.class);
-    var failingRepository = new CandidateRepository(client);
+    var failingRepository =
+        new CandidateRepository(client, new BlockingDynamoDbAsyncClient(client));
 
     when(client.transactWriteItems((TransactWriteItemsRequest) any()))
         .thenThrow(getTransactionCanceledException());
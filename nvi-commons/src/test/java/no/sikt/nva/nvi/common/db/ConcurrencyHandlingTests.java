@@ -471,11 +471,12 @@ class ConcurrencyHandlingTests {
     @Test
     void shouldUseTwoRequestsToGetCandidateByIdentifierWithPeriods() {
       var mockClient = spy(scenario.getLocalDynamo());
+      var mockAsyncClient = new BlockingDynamoDbAsyncClient(mockClient);
       var testService =
           new CandidateService(
               getGlobalEnvironment(),
-              new PeriodRepository(mockClient),
-              new CandidateRepository(mockClient));
+              new PeriodRepository(mockClient, mockAsyncClient),
+              new CandidateRepository(mockClient, mockAsyncClient));
 
       testService.getCandidateByIdentifier(candidateIdentifier);
 
@@ -486,11 +487,12 @@ class ConcurrencyHandlingTests {
     @Test
     void shouldUseThreeRequestsToGetCandidateByPublicationIdWithPeriods() {
       var mockClient = spy(scenario.getLocalDynamo());
+      var mockAsyncClient = new BlockingDynamoDbAsyncClient(mockClient);
       var testService =
           new CandidateService(
               getGlobalEnvironment(),
-              new PeriodRepository(mockClient),
-              new CandidateRepository(mockClient));
+              new PeriodRepository(mockClient, mockAsyncClient),
+              new CandidateRepository(mockClient, mockAsyncClient));
 
       testService.findCandidateAndPeriodsByPublicationId(publicationId);
 
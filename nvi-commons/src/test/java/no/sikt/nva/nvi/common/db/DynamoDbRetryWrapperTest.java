@@ -129,6 +129,27 @@ class DynamoDbRetryWrapperTest {
     assertThat(logRecorder.asString()).contains(dao.identifier().toString());
   }
 
+  @Test
+  void shouldStopRetryingWhenRetryBudgetIsEmpty() {
+    var emptyRetryBudget = new RetryTokenBucket(0, 0);
+    var retryClient =
+        DynamoDbRetryWrapper.builder()
+            .dynamoDbClient(dynamodb)
+            .initialRetryWaitTimeMs(INITIAL_RETRY_WAIT_TIME_MS)
+            .writeRetriesMaxCount(WRITE_RETRIES_MAX_COUNT)
+            .retryTokenBucket(emptyRetryBudget)
+            .tableName(NVI_TABLE_NAME)
+            .build();
+    when(dynamodb.batchWriteItem(any(BatchWriteItemRequest.class)))
+        .thenAnswer(a -> buildFailingResponse());
+
+    var writeRequest = buildMockWriteItemRequest();
+
+    assertThrows(RuntimeException.class, () -> retryClient.batchWriteItem(writeRequest));
+    verify(dynamodb, times(1)).batchWriteItem(any(BatchWriteItemRequest.class));
+    assertThat(retryClient.getMetrics().getExhaustedRetryCount()).isOne();
+  }
+
   private static BatchWriteItemRequest generateBatchItemRequest(CandidateDao dao) {
     return BatchWriteItemRequest.builder()
         .requestItems(Map.of(randomString(), List.of(generateWriteRequest(dao))))
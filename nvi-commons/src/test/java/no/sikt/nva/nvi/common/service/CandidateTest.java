@@ -55,6 +55,7 @@ import no.sikt.nva.nvi.common.service.exception.IllegalCandidateUpdateException;
 import no.sikt.nva.nvi.common.service.model.ApprovalStatus;
 import no.sikt.nva.nvi.common.service.model.Candidate;
 import no.sikt.nva.nvi.common.service.model.GlobalApprovalStatus;
+import no.sikt.nva.nvi.common.service.model.WriteMode;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.DisplayName;
@@ -401,7 +402,7 @@ class CandidateTest extends CandidateTestSetup {
     var candidate = setupRandomApplicableCandidate(scenario);
     var dao = candidateRepository.findCandidateById(candidate.identifier()).orElseThrow();
 
-    candidateService.refreshCandidate(candidate.identifier());
+    candidateService.refreshCandidate(candidate.identifier(), WriteMode.FORCE);
 
     var updatedDao = candidateRepository.findCandidateById(candidate.identifier()).orElseThrow();
 
@@ -413,7 +414,7 @@ class CandidateTest extends CandidateTestSetup {
   void shouldUpdateRevision() {
     var candidate = setupRandomApplicableCandidate(scenario);
 
-    candidateService.refreshCandidate(candidate.identifier());
+    candidateService.refreshCandidate(candidate.identifier(), WriteMode.FORCE);
 
     var updatedCandidate = candidateService.getCandidateByIdentifier(candidate.identifier());
 
@@ -421,6 +422,29 @@ class CandidateTest extends CandidateTestSetup {
     assertNotEquals(candidate.revision(), updatedCandidate.revision());
   }
 
+  @Test
+  void shouldNotWriteUnchangedCandidateOnRefresh() {
+    var candidate = setupRandomApplicableCandidate(scenario);
+    var dao = candidateRepository.findCandidateById(candidate.identifier()).orElseThrow();
+
+    candidateService.refreshCandidate(candidate.identifier());
+
+    var refreshedDao = candidateRepository.findCandidateById(candidate.identifier()).orElseThrow();
+    assertEquals(dao.revision(), refreshedDao.revision());
+    assertEquals(dao.version(), refreshedDao.version());
+  }
+
+  @Test
+  void shouldNotWriteCandidateWhenUpsertingUnchangedRequest() {
+    var request = createUpsertCandidateRequest(randomUri()).build();
+    var candidate = scenario.upsertCandidate(request);
+
+    var updatedCandidate = scenario.upsertCandidate(request);
+
+    assertEquals(candidate.revision(), updatedCandidate.revision());
+    assertEquals(candidate.modifiedDate(), updatedCandidate.modifiedDate());
+  }
+
   @Test
   void shouldReturnTrueWhenAllApprovalsArePending() {
     var request = createUpsertCandidateRequestWithSingleAffiliation(randomUri(), randomUri());
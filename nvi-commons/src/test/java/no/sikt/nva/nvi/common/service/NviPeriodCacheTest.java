@@ -0,0 +1,81 @@
+package no.sikt.nva.nvi.common.service;
+
+import static no.sikt.nva.nvi.common.EnvironmentFixtures.getGlobalEnvironment;
+import static no.sikt.nva.nvi.common.db.PeriodRepositoryFixtures.setupClosedPeriod;
+import static no.sikt.nva.nvi.common.db.PeriodRepositoryFixtures.setupOpenPeriod;
+import static no.sikt.nva.nvi.test.TestUtils.CURRENT_YEAR;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Clock;
+import java.time.Duration;
+import no.sikt.nva.nvi.common.TestScenario;
+import no.sikt.nva.nvi.common.db.PeriodRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NviPeriodCacheTest {
+  private TestScenario scenario;
+  private PeriodRepository periodRepository;
+
+  @BeforeEach
+  void setup() {
+    scenario = new TestScenario();
+    setupOpenPeriod(scenario, CURRENT_YEAR);
+    periodRepository = spy(scenario.getPeriodRepository());
+  }
+
+  @Test
+  void shouldOnlyQueryRepositoryOnceForRepeatedReads() {
+    var periodService = createServiceWithCache(NviPeriodCache.DEFAULT_TIME_TO_LIVE);
+
+    periodService.getAll();
+    periodService.getAll();
+    periodService.getAllAsync().join();
+
+    verify(periodRepository, times(1)).getPeriods();
+    assertThat(periodService.getCacheStatistics())
+        .isEqualTo(new NviPeriodCache.Statistics(2, 1, 0));
+  }
+
+  @Test
+  void shouldReloadPeriodsWhenPeriodIsWrittenThroughRepository() {
+    var periodService = createServiceWithCache(NviPeriodCache.DEFAULT_TIME_TO_LIVE);
+    periodService.getAll();
+
+    setupClosedPeriod(scenario, CURRENT_YEAR - 1);
+
+    assertThat(periodService.getAll()).hasSize(2);
+    assertThat(periodService.getCacheStatistics().stale()).isOne();
+  }
+
+  @Test
+  void shouldReloadPeriodsWhenCacheHasExpired() {
+    var periodService = createServiceWithCache(Duration.ZERO);
+
+    periodService.getAll();
+    periodService.getAll();
+
+    verify(periodRepository, times(2)).getPeriods();
+    assertThat(periodService.getCacheStatistics())
+        .isEqualTo(new NviPeriodCache.Statistics(0, 1, 1));
+  }
+
+  @Test
+  void shouldShareCacheBetweenServicesUsingSameRepository() {
+    var firstService = new NviPeriodService(getGlobalEnvironment(), periodRepository);
+    var secondService = new NviPeriodService(getGlobalEnvironment(), periodRepository);
+
+    firstService.getAll();
+    secondService.getAll();
+
+    verify(periodRepository, times(1)).getPeriods();
+  }
+
+  private NviPeriodService createServiceWithCache(Duration timeToLive) {
+    var periodCache = new NviPeriodCache(timeToLive, Clock.systemUTC());
+    return new NviPeriodService(getGlobalEnvironment(), periodRepository, periodCache);
+  }
+}
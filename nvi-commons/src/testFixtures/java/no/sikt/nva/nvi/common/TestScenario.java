@@ -17,6 +17,7 @@ import java.net.URI;
 import java.time.Instant;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
+import no.sikt.nva.nvi.common.db.BlockingDynamoDbAsyncClient;
 import no.sikt.nva.nvi.common.db.CandidateRepository;
 import no.sikt.nva.nvi.common.db.PeriodRepository;
 import no.sikt.nva.nvi.common.db.model.CandidateAggregate;
@@ -49,8 +50,9 @@ public class TestScenario {
 
   public TestScenario() {
     localDynamo = initializeTestDatabase(NVI_TABLE_NAME);
-    candidateRepository = new CandidateRepository(localDynamo);
-    periodRepository = new PeriodRepository(localDynamo);
+    var localDynamoAsync = new BlockingDynamoDbAsyncClient(localDynamo);
+    candidateRepository = new CandidateRepository(localDynamo, localDynamoAsync);
+    periodRepository = new PeriodRepository(localDynamo, localDynamoAsync);
     periodService = new NviPeriodService(getGlobalEnvironment(), periodRepository);
     candidateService =
         new CandidateService(getGlobalEnvironment(), periodRepository, candidateRepository);
@@ -0,0 +1,60 @@
+package no.sikt.nva.nvi.common.db;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+
+/**
+ * Asynchronous view of a synchronous DynamoDB client, for repositories in tests that run against
+ * DynamoDB Local or a mocked synchronous client. Each request runs on its own virtual thread, so
+ * waiting for a response does not occupy a thread in the common fork-join pool.
+ *
+ * <p>Only {@link #query(QueryRequest)} and {@link #getItem(GetItemRequest)} are supported, which
+ * are the operations the repositories read through the asynchronous client. Paginated queries
+ * through the enhanced client are built on {@link #query(QueryRequest)}. Every other operation
+ * keeps the default implementation of {@link DynamoDbAsyncClient}, which throws {@link
+ * UnsupportedOperationException} when called instead of returning a future, so a repository that
+ * starts using a new asynchronous operation fails at once in tests rather than hanging. Writes go
+ * through the synchronous client and are not meant to use this view.
+ */
+public final class BlockingDynamoDbAsyncClient implements DynamoDbAsyncClient {
+
+  private final DynamoDbClient client;
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+  public BlockingDynamoDbAsyncClient(DynamoDbClient client) {
+    this.client = client;
+  }
+
+  @Override
+  public CompletableFuture<QueryResponse> query(QueryRequest queryRequest) {
+    return submit(() -> client.query(queryRequest));
+  }
+
+  @Override
+  public CompletableFuture<GetItemResponse> getItem(GetItemRequest getItemRequest) {
+    return submit(() -> client.getItem(getItemRequest));
+  }
+
+  @Override
+  public String serviceName() {
+    return client.serviceName();
+  }
+
+  /** Stops accepting new requests. The wrapped client is owned by the caller and is left open. */
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+
+  private <T> CompletableFuture<T> submit(Supplier<T> request) {
+    return CompletableFuture.supplyAsync(request, executor);
+  }
+}
@@ -75,6 +75,7 @@ public final class SampleCandidateGenerator {
         null,
         null,
         null,
+        null,
         null);
   }
 
@@ -130,6 +130,13 @@ public class FakeSqsClient implements QueueClient {
     deleteMessages.add(request);
   }
 
+  /** Counts every message sent to the queue, since sent messages are never consumed here. */
+  @Override
+  public int getApproximateNumberOfMessages(String queueUrl) {
+    validateQueueUrl(queueUrl);
+    return getAllSentSqsEvents(queueUrl).size();
+  }
+
   /**
    * Makes a queue destination throw an exception when interacted with.
    *
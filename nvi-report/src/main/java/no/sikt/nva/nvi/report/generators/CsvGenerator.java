@@ -1,11 +1,7 @@
 package no.sikt.nva.nvi.report.generators;
 
-import com.opencsv.CSVWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -14,8 +10,6 @@ import nva.commons.core.JacocoGenerated;
 
 public class CsvGenerator implements ReportGenerator {
 
-  private static final char SEPARATOR = ';';
-  private static final String UTF8_BOM = "\uFEFF";
   private final List<String> headers;
   private final List<List<String>> data;
 
@@ -41,35 +35,14 @@ public class CsvGenerator implements ReportGenerator {
 
   @Override
   public byte[] toWorkbookByteArray() {
-    try (var byteStream = new ByteArrayOutputStream();
-        var outputStreamWriter = new OutputStreamWriter(byteStream, StandardCharsets.UTF_8);
-        var writer =
-            new CSVWriter(
-                outputStreamWriter,
-                SEPARATOR,
-                CSVWriter.DEFAULT_QUOTE_CHARACTER,
-                CSVWriter.DEFAULT_ESCAPE_CHARACTER,
-                CSVWriter.DEFAULT_LINE_END)) {
-      outputStreamWriter.write(UTF8_BOM);
-      writer.writeNext(headers.toArray(String[]::new));
-      for (List<String> row : data) {
-        writer.writeNext(toAlignedRow(row));
+    try (var byteStream = new ByteArrayOutputStream()) {
+      try (var writer = new CsvReportWriter(byteStream)) {
+        writer.writeHeaders(headers);
+        data.forEach(writer::writeValues);
       }
-      writer.flush();
       return byteStream.toByteArray();
     } catch (IOException e) {
       throw new IllegalStateException("Failed to write CSV uri", e);
     }
   }
-
-  private String[] toAlignedRow(List<String> row) {
-    var aligned = new ArrayList<>(Collections.nCopies(headers.size(), ""));
-    for (int i = 0; i < Math.min(row.size(), headers.size()); i++) {
-      var value = row.get(i);
-      if (value != null) {
-        aligned.set(i, value.replaceAll("\\R", ""));
-      }
-    }
-    return aligned.toArray(String[]::new);
-  }
 }
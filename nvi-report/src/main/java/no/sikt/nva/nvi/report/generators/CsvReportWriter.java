@@ -0,0 +1,76 @@
+package no.sikt.nva.nvi.report.generators;
+
+import static java.util.Objects.isNull;
+
+import com.opencsv.CSVWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import no.sikt.nva.nvi.report.model.Row;
+
+public class CsvReportWriter implements ReportWriter {
+
+  private static final char SEPARATOR = ';';
+  private static final String UTF8_BOM = "\uFEFF";
+  private final OutputStreamWriter outputStreamWriter;
+  private final CSVWriter writer;
+  private List<String> headers;
+
+  public CsvReportWriter(OutputStream outputStream) {
+    this.outputStreamWriter = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+    this.writer =
+        new CSVWriter(
+            outputStreamWriter,
+            SEPARATOR,
+            CSVWriter.DEFAULT_QUOTE_CHARACTER,
+            CSVWriter.DEFAULT_ESCAPE_CHARACTER,
+            CSVWriter.DEFAULT_LINE_END);
+  }
+
+  @Override
+  public void writeRow(Row row) {
+    if (isNull(headers)) {
+      writeHeaders(row.headers());
+    }
+    writeValues(row.values());
+  }
+
+  /** Flushes the written rows. The underlying stream is left open. */
+  @Override
+  public void close() throws IOException {
+    if (isNull(headers)) {
+      writeHeaders(Collections.emptyList());
+    }
+    writer.flush();
+  }
+
+  void writeHeaders(List<String> headers) {
+    this.headers = headers;
+    try {
+      outputStreamWriter.write(UTF8_BOM);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write CSV headers", e);
+    }
+    writer.writeNext(headers.toArray(String[]::new));
+  }
+
+  void writeValues(List<String> row) {
+    writer.writeNext(toAlignedRow(row));
+  }
+
+  private String[] toAlignedRow(List<String> row) {
+    var aligned = new ArrayList<>(Collections.nCopies(headers.size(), ""));
+    for (int i = 0; i < Math.min(row.size(), headers.size()); i++) {
+      var value = row.get(i);
+      if (value != null) {
+        aligned.set(i, value.replaceAll("\\R", ""));
+      }
+    }
+    return aligned.toArray(String[]::new);
+  }
+}
@@ -0,0 +1,14 @@
+package no.sikt.nva.nvi.report.generators;
+
+import java.io.Closeable;
+import no.sikt.nva.nvi.report.model.Row;
+
+/**
+ * Writes report rows to an output stream one at a time, so a report can be generated without
+ * holding all rows in memory. Closing the writer finishes the report, but does not close the
+ * underlying stream.
+ */
+public interface ReportWriter extends Closeable {
+
+  void writeRow(Row row);
+}
@@ -0,0 +1,81 @@
+package no.sikt.nva.nvi.report.generators;
+
+import static java.util.Objects.isNull;
+import static no.sikt.nva.nvi.common.utils.DecimalUtils.adjustScaleAndRoundingMode;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.stream.IntStream;
+import no.sikt.nva.nvi.report.model.Cell;
+import no.sikt.nva.nvi.report.model.NumericCell;
+import no.sikt.nva.nvi.report.model.Row;
+import no.sikt.nva.nvi.report.model.StringCell;
+import org.dhatim.fastexcel.Workbook;
+import org.dhatim.fastexcel.Worksheet;
+
+/**
+ * Writes rows to a single worksheet. Rows are flushed to the output stream at regular intervals,
+ * so the worksheet does not keep every row in memory.
+ */
+public class XlsxReportWriter implements ReportWriter {
+
+  private static final String NVI = "NVI";
+  private static final String REPORT = "report";
+  private static final int ROWS_PER_FLUSH = 1_000;
+  private final Workbook workbook;
+  private final Worksheet sheet;
+  private int nextRowIndex;
+
+  public XlsxReportWriter(OutputStream outputStream) {
+    this.workbook = new Workbook(outputStream, NVI, null);
+    this.sheet = workbook.newWorksheet(REPORT);
+  }
+
+  @Override
+  public void writeRow(Row row) {
+    if (nextRowIndex == 0) {
+      addHeaders(row.cells());
+    }
+    addRow(nextRowIndex++, row.cells());
+    if (nextRowIndex % ROWS_PER_FLUSH == 0) {
+      flush();
+    }
+  }
+
+  /** Finishes the workbook. The underlying stream is left open. */
+  @Override
+  public void close() throws IOException {
+    workbook.finish();
+  }
+
+  private static void setValue(Worksheet sheet, int row, int col, NumericCell numericCell) {
+    var value = numericCell.value();
+    sheet.value(row, col, isNull(value) ? 0.0 : adjustScaleAndRoundingMode(value).doubleValue());
+  }
+
+  private void addHeaders(List<Cell> cells) {
+    IntStream.range(0, cells.size()).forEach(i -> sheet.value(0, i, cells.get(i).header().name()));
+    nextRowIndex = 1;
+  }
+
+  private void addRow(int rowIndex, List<Cell> cells) {
+    IntStream.range(0, cells.size()).forEach(i -> setCellValue(rowIndex, i, cells.get(i)));
+  }
+
+  private void setCellValue(int row, int col, Cell cell) {
+    switch (cell) {
+      case NumericCell numericCell -> setValue(sheet, row, col, numericCell);
+      case StringCell stringCell -> sheet.value(row, col, stringCell.string());
+    }
+  }
+
+  private void flush() {
+    try {
+      sheet.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to flush worksheet", e);
+    }
+  }
+}
@@ -0,0 +1,162 @@
+package no.sikt.nva.nvi.report.upload;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+/**
+ * Output stream that uploads its content to S3 in parts while it is being written, so the whole
+ * object never has to be held in memory.
+ *
+ * <p>Content is buffered until a part is full, and a multipart upload is only started once the
+ * first part is full. Smaller objects are uploaded with a single put request. The object is only
+ * created when {@link #complete()} is called; closing the stream without completing it aborts the
+ * upload.
+ */
+public class S3MultipartOutputStream extends OutputStream {
+
+  public static final int DEFAULT_PART_SIZE = 8 * 1024 * 1024;
+  private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+  private static final Logger LOGGER = LoggerFactory.getLogger(S3MultipartOutputStream.class);
+  private final S3Client s3Client;
+  private final String bucket;
+  private final String key;
+  private final String contentType;
+  private final int partSize;
+  private final List<CompletedPart> completedParts = new ArrayList<>();
+  private ByteArrayOutputStream buffer;
+  private String uploadId;
+  private boolean completed;
+  private boolean closed;
+
+  public S3MultipartOutputStream(
+      S3Client s3Client, String bucket, String key, String contentType, int partSize) {
+    if (partSize < MIN_PART_SIZE) {
+      throw new IllegalArgumentException("Part size must be at least " + MIN_PART_SIZE);
+    }
+    this.s3Client = s3Client;
+    this.bucket = bucket;
+    this.key = key;
+    this.contentType = contentType;
+    this.partSize = partSize;
+    this.buffer = new ByteArrayOutputStream(partSize);
+  }
+
+  public S3MultipartOutputStream(S3Client s3Client, String bucket, String key, String contentType) {
+    this(s3Client, bucket, key, contentType, DEFAULT_PART_SIZE);
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    ensureOpen();
+    buffer.write(b);
+    uploadPartIfFull();
+  }
+
+  @Override
+  public void write(byte[] bytes, int offset, int length) throws IOException {
+    ensureOpen();
+    var position = offset;
+    var remaining = length;
+    while (remaining > 0) {
+      var chunkLength = Math.min(remaining, partSize - buffer.size());
+      buffer.write(bytes, position, chunkLength);
+      uploadPartIfFull();
+      position += chunkLength;
+      remaining -= chunkLength;
+    }
+  }
+
+  /** Uploads the remaining content and creates the object. */
+  public void complete() throws IOException {
+    ensureOpen();
+    if (isNull(uploadId)) {
+      s3Client.putObject(
+          PutObjectRequest.builder().bucket(bucket).key(key).contentType(contentType).build(),
+          RequestBody.fromBytes(buffer.toByteArray()));
+    } else {
+      if (buffer.size() > 0) {
+        uploadPart();
+      }
+      s3Client.completeMultipartUpload(
+          CompleteMultipartUploadRequest.builder()
+              .bucket(bucket)
+              .key(key)
+              .uploadId(uploadId)
+              .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+              .build());
+      LOGGER.info("Completed multipart upload of {} in {} parts", key, completedParts.size());
+    }
+    completed = true;
+  }
+
+  /** Releases the buffer, and aborts the multipart upload if it has not been completed. */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    buffer = null;
+    if (!completed && nonNull(uploadId)) {
+      LOGGER.warn("Aborting incomplete multipart upload of {}", key);
+      s3Client.abortMultipartUpload(
+          AbortMultipartUploadRequest.builder().bucket(bucket).key(key).uploadId(uploadId).build());
+    }
+  }
+
+  private void uploadPartIfFull() {
+    if (buffer.size() >= partSize) {
+      uploadPart();
+    }
+  }
+
+  private void uploadPart() {
+    if (isNull(uploadId)) {
+      uploadId =
+          s3Client
+              .createMultipartUpload(
+                  CreateMultipartUploadRequest.builder()
+                      .bucket(bucket)
+                      .key(key)
+                      .contentType(contentType)
+                      .build())
+              .uploadId();
+    }
+    var partNumber = completedParts.size() + 1;
+    var response =
+        s3Client.uploadPart(
+            UploadPartRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .build(),
+            RequestBody.fromBytes(buffer.toByteArray()));
+    completedParts.add(
+        CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build());
+    buffer.reset();
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed || completed) {
+      throw new IOException("Stream is closed");
+    }
+  }
+}
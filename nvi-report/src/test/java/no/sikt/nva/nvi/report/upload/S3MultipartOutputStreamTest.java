@@ -0,0 +1,91 @@
+package no.sikt.nva.nvi.report.upload;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+class S3MultipartOutputStreamTest {
+
+  private static final int PART_SIZE = 5 * 1024 * 1024;
+  private static final String BUCKET = "bucket";
+  private static final String KEY = "report.csv";
+  private static final String CONTENT_TYPE = "text/csv";
+  private static final String UPLOAD_ID = "upload-id";
+  private S3Client s3Client;
+
+  @BeforeEach
+  void setUp() {
+    s3Client = mock(S3Client.class);
+    when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+        .thenReturn(CreateMultipartUploadResponse.builder().uploadId(UPLOAD_ID).build());
+    when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+        .thenReturn(UploadPartResponse.builder().eTag("etag").build());
+  }
+
+  @Test
+  void shouldUploadSmallContentWithSinglePutRequest() throws IOException {
+    try (var outputStream = createOutputStream()) {
+      outputStream.write(new byte[1024]);
+      outputStream.complete();
+    }
+
+    verify(s3Client, times(1)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+  }
+
+  @Test
+  void shouldUploadLargeContentInParts() throws IOException {
+    try (var outputStream = createOutputStream()) {
+      outputStream.write(new byte[2 * PART_SIZE + 1024]);
+      outputStream.complete();
+    }
+
+    var completeRequest = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+    verify(s3Client, times(3)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+    verify(s3Client).completeMultipartUpload(completeRequest.capture());
+    assertThat(completeRequest.getValue().multipartUpload().parts()).hasSize(3);
+    verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+  }
+
+  @Test
+  void shouldAbortMultipartUploadWhenClosedWithoutCompleting() throws IOException {
+    try (var outputStream = createOutputStream()) {
+      outputStream.write(new byte[PART_SIZE]);
+    }
+
+    verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    verify(s3Client, never())
+        .completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+  }
+
+  @Test
+  void shouldRejectWritesAfterCompletion() throws IOException {
+    var outputStream = createOutputStream();
+    outputStream.complete();
+
+    assertThatThrownBy(() -> outputStream.write(1)).isInstanceOf(IOException.class);
+  }
+
+  private S3MultipartOutputStream createOutputStream() {
+    return new S3MultipartOutputStream(s3Client, BUCKET, KEY, CONTENT_TYPE, PART_SIZE);
+  }
+}
@@ -5,7 +5,6 @@ import no.sikt.nva.nvi.common.service.model.Candidate;
 import no.sikt.nva.nvi.common.service.model.Username;
 import no.sikt.nva.nvi.viewingscope.ViewingScopeValidator;
 import no.sikt.nva.nvi.viewingscope.ViewingScopeValidatorImpl;
-import no.unit.nva.auth.uriretriever.UriRetriever;
 import no.unit.nva.clients.IdentityServiceClient;
 import nva.commons.apigateway.exceptions.UnauthorizedException;
 import nva.commons.core.JacocoGenerated;
@@ -15,7 +14,7 @@ public interface ViewingScopeHandler {
   @JacocoGenerated
   static ViewingScopeValidatorImpl defaultViewingScopeValidator() {
     return new ViewingScopeValidatorImpl(
-        IdentityServiceClient.prepare(), new OrganizationRetriever(new UriRetriever()));
+        IdentityServiceClient.prepare(), OrganizationRetriever.defaultOrganizationRetriever());
   }
 
   default Candidate validateViewingScope(
@@ -1,6 +1,7 @@
 package no.sikt.nva.nvi.rest.fetch;
 
 import static java.net.HttpURLConnection.HTTP_OK;
+import static no.sikt.nva.nvi.common.db.DynamoRepository.defaultDynamoAsyncClient;
 import static no.sikt.nva.nvi.common.db.DynamoRepository.defaultDynamoClient;
 import static no.sikt.nva.nvi.common.utils.RequestUtil.isNviAdmin;
 import static no.sikt.nva.nvi.common.utils.RequestUtil.isNviCurator;
@@ -37,8 +38,8 @@ public class FetchNviCandidateByPublicationIdHandler extends ApiGatewayHandler<V
   @JacocoGenerated
   public FetchNviCandidateByPublicationIdHandler() {
     this(
-        new CandidateRepository(defaultDynamoClient()),
-        new PeriodRepository(defaultDynamoClient()),
+        new CandidateRepository(defaultDynamoClient(), defaultDynamoAsyncClient()),
+        new PeriodRepository(defaultDynamoClient(), defaultDynamoAsyncClient()),
         new Environment());
   }
 
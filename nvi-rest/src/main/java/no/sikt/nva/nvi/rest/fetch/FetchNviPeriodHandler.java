@@ -1,5 +1,6 @@
 package no.sikt.nva.nvi.rest.fetch;
 
+import static no.sikt.nva.nvi.common.db.DynamoRepository.defaultDynamoAsyncClient;
 import static no.sikt.nva.nvi.common.db.DynamoRepository.defaultDynamoClient;
 import static nva.commons.core.attempt.Try.attempt;
 
@@ -32,7 +33,9 @@ public class FetchNviPeriodHandler extends ApiGatewayHandler<Void, NviPeriodDto>
   @JacocoGenerated
   public FetchNviPeriodHandler() {
     this(
-        new NviPeriodService(new Environment(), new PeriodRepository(defaultDynamoClient())),
+        new NviPeriodService(
+            new Environment(),
+            new PeriodRepository(defaultDynamoClient(), defaultDynamoAsyncClient())),
         new Environment());
   }
 
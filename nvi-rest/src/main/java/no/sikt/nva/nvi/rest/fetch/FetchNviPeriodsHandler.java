@@ -1,5 +1,6 @@
 package no.sikt.nva.nvi.rest.fetch;
 
+import static no.sikt.nva.nvi.common.db.DynamoRepository.defaultDynamoAsyncClient;
 import static no.sikt.nva.nvi.common.db.DynamoRepository.defaultDynamoClient;
 import static nva.commons.core.attempt.Try.attempt;
 
@@ -25,7 +26,9 @@ public class FetchNviPeriodsHandler extends ApiGatewayHandler<Void, NviPeriodsRe
   @JacocoGenerated
   public FetchNviPeriodsHandler() {
     this(
-        new NviPeriodService(new Environment(), new PeriodRepository(defaultDynamoClient())),
+        new NviPeriodService(
+            new Environment(),
+            new PeriodRepository(defaultDynamoClient(), defaultDynamoAsyncClient())),
         new Environment());
   }
 